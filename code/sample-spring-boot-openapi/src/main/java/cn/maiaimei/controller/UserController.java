@@ -5,7 +5,6 @@ import cn.maiaimei.model.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,7 +16,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "User Management", description = "User CRUD operations")
 public class UserController {
 
-  private final ConcurrentHashMap<BigDecimal, User> users = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, User> users = new ConcurrentHashMap<>();
   private final AtomicLong idGenerator = new AtomicLong(1);
 
   @GetMapping("/raw")
@@ -35,7 +34,7 @@ public class UserController {
 
   @GetMapping("/{id}")
   @Operation(summary = "Get user by ID", description = "Retrieve a user by their ID")
-  public User getUserById(@Parameter(description = "User ID") @PathVariable BigDecimal id) {
+  public User getUserById(@Parameter(description = "User ID") @PathVariable Long id) {
     User user = users.get(id);
     if (user == null) {
       throw new RuntimeException("User not found with id: " + id);
@@ -46,7 +45,7 @@ public class UserController {
   @PostMapping
   @Operation(summary = "Create user", description = "Create a new user")
   public User createUser(@RequestBody User user) {
-    BigDecimal id = BigDecimal.valueOf(idGenerator.getAndIncrement());
+    Long id = idGenerator.getAndIncrement();
     user.setId(id);
     users.put(id, user);
     return user;
@@ -54,7 +53,7 @@ public class UserController {
 
   @PutMapping("/{id}")
   @Operation(summary = "Update user", description = "Update an existing user")
-  public User updateUser(@Parameter(description = "User ID") @PathVariable BigDecimal id, @RequestBody User user) {
+  public User updateUser(@Parameter(description = "User ID") @PathVariable Long id, @RequestBody User user) {
     if (!users.containsKey(id)) {
       throw new RuntimeException("User not found with id: " + id);
     }
@@ -65,7 +64,7 @@ public class UserController {
 
   @DeleteMapping("/{id}")
   @Operation(summary = "Delete user", description = "Delete a user by their ID")
-  public void deleteUser(@Parameter(description = "User ID") @PathVariable BigDecimal id) {
+  public void deleteUser(@Parameter(description = "User ID") @PathVariable Long id) {
     if (!users.containsKey(id)) {
       throw new RuntimeException("User not found with id: " + id);
     }
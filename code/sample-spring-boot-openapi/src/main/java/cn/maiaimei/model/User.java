@@ -1,15 +1,16 @@
 package cn.maiaimei.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
-import java.math.BigDecimal;
 import lombok.Data;
 
 @Data
 @Schema(description = "User entity")
 public class User {
 
-  @Schema(description = "User ID", example = "1")
-  private BigDecimal id;
+  @JsonFormat(shape = JsonFormat.Shape.STRING)
+  @Schema(description = "User ID", type = "string", example = "1")
+  private Long id;
 
   @Schema(description = "User name", example = "User name")
   private String name;
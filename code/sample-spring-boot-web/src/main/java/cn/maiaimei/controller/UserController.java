@@ -1,7 +1,7 @@
 package cn.maiaimei.controller;
 
+import cn.maiaimei.id.LongId;
 import cn.maiaimei.model.domain.User;
-import java.math.BigDecimal;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +18,7 @@ public class UserController {
   }
 
   @GetMapping("/{id}")
-  public User getUser(@PathVariable(name = "id") BigDecimal id) {
+  public User getUser(@PathVariable(name = "id") @LongId long id) {
     log.info("get user by id: {}", id);
     return new User();
   }
@@ -36,7 +36,7 @@ public class UserController {
   }
 
   @DeleteMapping("/{id}")
-  public String deleteUser(@PathVariable(name = "id") BigDecimal id) {
+  public String deleteUser(@PathVariable(name = "id") @LongId long id) {
     log.info("delete user by id: {}", id);
     return "success";
   }
@@ -1,11 +1,12 @@
 package cn.maiaimei.model.domain;
 
-import java.math.BigDecimal;
+import cn.maiaimei.id.LongId;
 import lombok.Data;
 
 @Data
 public class User {
 
-  private BigDecimal id;
+  @LongId
+  private Long id;
   private String name;
 }
@@ -0,0 +1,28 @@
+package cn.maiaimei.config;
+
+import cn.maiaimei.trace.ContextPropagatingTaskDecorator;
+import cn.maiaimei.trace.constants.TraceConstants;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration for propagating the MDC and current span to asynchronously executed tasks.
+ * <p>
+ * Disable with {@code app.tracing.context-propagation.enabled=false}.
+ */
+@ConditionalOnProperty(name = TraceConstants.CONTEXT_PROPAGATION_ENABLED, matchIfMissing = true)
+public class ContextPropagationAutoConfiguration {
+
+  /**
+   * Registers the ContextPropagatingTaskDecorator.
+   * <p>
+   * Spring Boot applies it, composed with any other TaskDecorator beans, to the auto-configured task executor
+   * used by {@code @Async} and to the auto-configured task scheduler.
+   *
+   * @return the task decorator
+   */
+  @Bean
+  public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+    return new ContextPropagatingTaskDecorator();
+  }
+}
@@ -1,43 +1,122 @@
 package cn.maiaimei.config;
 
+import cn.maiaimei.filter.FilterDecisionFilter;
+import cn.maiaimei.filter.FilterDecisionRegistry;
+import cn.maiaimei.filter.FilterReloader;
 import cn.maiaimei.filter.RequestLoggingFilter;
 import cn.maiaimei.filter.TraceIdFilter;
 import cn.maiaimei.filter.constants.FilterConstants;
+import cn.maiaimei.filter.properties.FilterReloadProperties;
 import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
 import cn.maiaimei.filter.properties.TraceIdFilterProperties;
+import cn.maiaimei.logger.AsyncDispatchingLogger;
+import cn.maiaimei.logger.AsyncRequestResponseLogger;
 import cn.maiaimei.logger.RequestResponseLogger;
+import cn.maiaimei.trace.TraceIdGenerator;
+import cn.maiaimei.trace.Tracer;
+import java.util.Objects;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 
 /**
- * Auto-configuration for filters.
+ * Auto-configuration for filters of a servlet web application.
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class FilterAutoConfiguration {
 
+  /**
+   * Registers the registry of the URL patterns of the starter filters.
+   *
+   * @return the registry
+   */
+  @Bean
+  public FilterDecisionRegistry filterDecisionRegistry() {
+    return new FilterDecisionRegistry();
+  }
+
+  /**
+   * Registers the FilterDecisionFilter.
+   * <p>
+   * This filter evaluates the URL patterns of all starter filters once per request.
+   * It runs with the highest precedence so the decisions are available to all subsequent filters.
+   *
+   * @param filterDecisionRegistry the registry of the URL patterns of the starter filters
+   * @return the filter registration bean
+   */
+  @Bean
+  public FilterRegistrationBean<FilterDecisionFilter> filterDecisionFilterRegistrationBean(
+      FilterDecisionRegistry filterDecisionRegistry) {
+    FilterRegistrationBean<FilterDecisionFilter> filterRegistrationBean = new FilterRegistrationBean<>();
+    FilterDecisionFilter filter = new FilterDecisionFilter(filterDecisionRegistry);
+    filterRegistrationBean.setFilter(filter);
+    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return filterRegistrationBean;
+  }
+
+  /**
+   * Registers the generator of the trace IDs, unless a TraceIdGenerator bean is defined.
+   *
+   * @param traceIdFilterProperties the properties selecting the generator
+   * @return the generator
+   */
+  @Bean
+  @ConditionalOnMissingBean(TraceIdGenerator.class)
+  @ConditionalOnProperty(name = FilterConstants.TRACE_ID_FILTER_ENABLED, matchIfMissing = true)
+  public TraceIdGenerator traceIdGenerator(TraceIdFilterProperties traceIdFilterProperties) {
+    return traceIdFilterProperties.getGenerator().create();
+  }
+
   /**
    * Registers the TraceIdFilter.
    * <p>
    * This filter adds a trace ID to the request, response, and MDC for request tracing.
-   * It runs with the highest precedence to ensure trace ID is available for all subsequent filters.
+   * It runs right after the FilterDecisionFilter to ensure trace ID is available for all subsequent filters.
    *
    * @param traceIdFilterProperties the properties for configuring the filter
+   * @param filterDecisionRegistry  the registry the exclude patterns are registered with
+   * @param traceIdGenerator        the generator of the trace IDs of requests without one
+   * @param tracer                  optional tracer timing the server spans
    * @return the filter registration bean
    */
   @Bean
   @ConditionalOnProperty(name = FilterConstants.TRACE_ID_FILTER_ENABLED, matchIfMissing = true)
   public FilterRegistrationBean<TraceIdFilter> traceIdFilterRegistrationBean(
-      TraceIdFilterProperties traceIdFilterProperties) {
+      TraceIdFilterProperties traceIdFilterProperties, FilterDecisionRegistry filterDecisionRegistry,
+      TraceIdGenerator traceIdGenerator, @Autowired(required = false) Tracer tracer) {
     FilterRegistrationBean<TraceIdFilter> filterRegistrationBean = new FilterRegistrationBean<>();
-    TraceIdFilter filter = new TraceIdFilter(traceIdFilterProperties);
+    TraceIdFilter filter = new TraceIdFilter(traceIdFilterProperties, filterDecisionRegistry, traceIdGenerator,
+        tracer);
     filterRegistrationBean.setFilter(filter);
-    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
     return filterRegistrationBean;
   }
 
+  /**
+   * Registers the FilterReloader (disabled by default).
+   * <p>
+   * Reloads the URL patterns and logging settings of the starter filters when the environment or the watched
+   * config file changes, without a restart.
+   *
+   * @param filterReloadProperties  the properties for configuring the reloader
+   * @param environment             the environment the filters are rebound from
+   * @param filterRegistrationBeans the registrations of the filters to reload
+   * @return the reloader
+   */
+  @Bean
+  @ConditionalOnProperty(name = FilterConstants.FILTER_RELOAD_ENABLED, havingValue = "true")
+  public FilterReloader filterReloader(FilterReloadProperties filterReloadProperties,
+      ConfigurableEnvironment environment, ObjectProvider<FilterRegistrationBean<?>> filterRegistrationBeans) {
+    return new FilterReloader(filterReloadProperties, environment, filterRegistrationBeans);
+  }
+
   /**
    * Registers the CommonsRequestLoggingFilter (disabled by default).
    * <p>
@@ -55,7 +134,7 @@ public class FilterAutoConfiguration {
     filter.setIncludeQueryString(true);
     filter.setIncludePayload(true);
     filterRegistrationBean.setFilter(filter);
-    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
     return filterRegistrationBean;
   }
 
@@ -63,21 +142,32 @@ public class FilterAutoConfiguration {
    * Registers the RequestLoggingFilter.
    * <p>
    * This filter logs request and response data based on configuration.
-   * It can optionally persist data to a database via RequestResponseLogger.
+   * It can optionally persist data to a database via RequestResponseLogger,
+   * which is wrapped in an AsyncRequestResponseLogger when async dispatch is enabled, unless it already
+   * dispatches asynchronously.
    *
    * @param requestLoggingFilterProperties the properties for configuring the filter
    * @param requestResponseLogger          optional logger for persisting data to database
+   * @param filterDecisionRegistry         the registry the exclude patterns are registered with
    * @return the filter registration bean
    */
   @Bean
   @ConditionalOnProperty(name = FilterConstants.REQUEST_LOGGING_FILTER_ENABLED, matchIfMissing = true)
   public FilterRegistrationBean<RequestLoggingFilter> requestLoggingFilterRegistrationBean(
       RequestLoggingFilterProperties requestLoggingFilterProperties,
-      @Autowired(required = false) RequestResponseLogger requestResponseLogger) {
+      @Autowired(required = false) RequestResponseLogger requestResponseLogger,
+      FilterDecisionRegistry filterDecisionRegistry) {
     FilterRegistrationBean<RequestLoggingFilter> filterRegistrationBean = new FilterRegistrationBean<>();
-    RequestLoggingFilter filter = new RequestLoggingFilter(requestLoggingFilterProperties, requestResponseLogger);
+    RequestResponseLogger requestResponseLoggerToUse = requestResponseLogger;
+    if (Objects.nonNull(requestResponseLogger) && !(requestResponseLogger instanceof AsyncDispatchingLogger)
+        && requestLoggingFilterProperties.getAsync().isEnabled()) {
+      requestResponseLoggerToUse = new AsyncRequestResponseLogger(requestResponseLogger,
+          requestLoggingFilterProperties.getAsync());
+    }
+    RequestLoggingFilter filter = new RequestLoggingFilter(requestLoggingFilterProperties, requestResponseLoggerToUse,
+        filterDecisionRegistry);
     filterRegistrationBean.setFilter(filter);
-    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
     return filterRegistrationBean;
   }
 
@@ -0,0 +1,112 @@
+package cn.maiaimei.config;
+
+import cn.maiaimei.id.LongIdConverter;
+import cn.maiaimei.id.LongIdGenerator;
+import cn.maiaimei.id.SegmentIdGenerator;
+import cn.maiaimei.id.SnowflakeIdGenerator;
+import cn.maiaimei.id.constants.IdConstants;
+import cn.maiaimei.id.properties.IdGeneratorProperties;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Objects;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Auto-configuration for 64-bit ID generation and binding.
+ */
+@Slf4j
+@AutoConfiguration(afterName = "org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration")
+@ConditionalOnProperty(name = IdConstants.ID_GENERATOR_ENABLED, matchIfMissing = true)
+public class IdGeneratorAutoConfiguration {
+
+  /**
+   * Registers the SnowflakeIdGenerator (the default type), unless a LongIdGenerator bean is defined.
+   *
+   * @param idGeneratorProperties the properties for configuring the generator
+   * @return the generator
+   */
+  @Bean
+  @ConditionalOnMissingBean(LongIdGenerator.class)
+  @ConditionalOnProperty(name = IdConstants.ID_GENERATOR_TYPE, havingValue = "snowflake", matchIfMissing = true)
+  public SnowflakeIdGenerator snowflakeIdGenerator(IdGeneratorProperties idGeneratorProperties) {
+    Integer workerId = idGeneratorProperties.getWorkerId();
+    if (Objects.isNull(workerId)) {
+      workerId = deriveWorkerId();
+      log.warn("No {}.worker-id configured, derived worker ID {} from host name and process ID",
+          IdConstants.ID_GENERATOR, workerId);
+    }
+    return new SnowflakeIdGenerator(workerId, idGeneratorProperties.getMaxClockBackward().toMillis());
+  }
+
+  /**
+   * Registers the LongIdConverter, which Spring MVC and WebFlux apply to request parameters and path variables
+   * annotated with LongId.
+   *
+   * @return the converter
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  public LongIdConverter longIdConverter() {
+    return new LongIdConverter();
+  }
+
+  /**
+   * Derives a worker ID from the host name and process ID.
+   *
+   * @return the worker ID
+   */
+  private static int deriveWorkerId() {
+    String hostName;
+    try {
+      hostName = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      hostName = "localhost";
+    }
+    int hash = 31 * hostName.hashCode() + Long.hashCode(ProcessHandle.current().pid());
+    return (hash ^ (hash >>> 16)) & SnowflakeIdGenerator.MAX_WORKER_ID;
+  }
+
+  /**
+   * Configuration of the SegmentIdGenerator, applied when spring-jdbc is on the classpath.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "org.springframework.jdbc.core.JdbcTemplate")
+  static class SegmentConfiguration {
+
+    /**
+     * Registers the SegmentIdGenerator when the type is SEGMENT, unless a LongIdGenerator bean is defined.
+     * <p>
+     * Creates the id_segment table first when schema initialization is enabled.
+     *
+     * @param dataSource            the DataSource holding the id_segment table
+     * @param idGeneratorProperties the properties for configuring the generator
+     * @return the generator
+     */
+    @Bean
+    @ConditionalOnBean(DataSource.class)
+    @ConditionalOnMissingBean(LongIdGenerator.class)
+    @ConditionalOnProperty(name = IdConstants.ID_GENERATOR_TYPE, havingValue = "segment")
+    public SegmentIdGenerator segmentIdGenerator(DataSource dataSource,
+        IdGeneratorProperties idGeneratorProperties) {
+      IdGeneratorProperties.Segment segment = idGeneratorProperties.getSegment();
+      if (segment.isInitializeSchema()
+          && SegmentIdGenerator.DEFAULT_TABLE_NAME.equalsIgnoreCase(segment.getTableName())) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+            new DefaultResourceLoader().getResource(SegmentIdGenerator.SCHEMA_LOCATION));
+        DatabasePopulatorUtils.execute(populator, dataSource);
+      }
+      return new SegmentIdGenerator(dataSource, segment);
+    }
+  }
+}
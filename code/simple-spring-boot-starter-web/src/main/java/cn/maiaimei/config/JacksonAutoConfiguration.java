@@ -8,12 +8,15 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import tools.jackson.core.JacksonException;
 import tools.jackson.core.JsonGenerator;
 import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 import tools.jackson.databind.*;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.module.SimpleModule;
@@ -23,6 +26,21 @@ import tools.jackson.databind.module.SimpleModule;
  */
 public class JacksonAutoConfiguration {
 
+  /**
+   * Formatter of {@link cn.maiaimei.constants.DateTimeConstants#UTC_DATE_TIME_FORMAT}.
+   */
+  private static final DateTimeFormatter UTC_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(UTC_DATE_TIME_FORMAT);
+
+  /**
+   * Formatter of {@link cn.maiaimei.constants.DateTimeConstants#DATE_FORMAT}.
+   */
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT);
+
+  /**
+   * Formatter of {@link cn.maiaimei.constants.DateTimeConstants#TIME_FORMAT}.
+   */
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern(TIME_FORMAT);
+
   /**
    * Creates and configures the JsonMapper bean.
    *
@@ -85,7 +103,18 @@ public class JacksonAutoConfiguration {
 
     @Override
     public void serialize(LocalDateTime value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
-      gen.writeString(value.format(DateTimeFormatter.ofPattern(UTC_DATE_TIME_FORMAT)));
+      if (!TemporalCodec.isFourDigitYear(value.getYear())) {
+        gen.writeString(value.format(UTC_DATE_TIME_FORMATTER));
+        return;
+      }
+      char[] buffer = TemporalCodec.buffer();
+      TemporalCodec.writeDate(buffer, 0, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+      buffer[10] = 'T';
+      TemporalCodec.writeTime(buffer, 11, value.getHour(), value.getMinute(), value.getSecond());
+      buffer[19] = '.';
+      TemporalCodec.writeDigits(buffer, 20, value.getNano() / 1_000_000, 3);
+      buffer[23] = 'Z';
+      gen.writeString(buffer, 0, TemporalCodec.UTC_DATE_TIME_LENGTH);
     }
   }
 
@@ -96,7 +125,14 @@ public class JacksonAutoConfiguration {
 
     @Override
     public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws JacksonException {
-      return LocalDateTime.parse(p.getString(), DateTimeFormatter.ofPattern(UTC_DATE_TIME_FORMAT));
+      if (p.currentToken() == JsonToken.VALUE_STRING) {
+        LocalDateTime value = TemporalCodec.parseUtcDateTime(p.getStringCharacters(), p.getStringOffset(),
+            p.getStringLength());
+        if (value != null) {
+          return value;
+        }
+      }
+      return LocalDateTime.parse(p.getString(), UTC_DATE_TIME_FORMATTER);
     }
   }
 
@@ -107,7 +143,13 @@ public class JacksonAutoConfiguration {
 
     @Override
     public void serialize(LocalDate value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
-      gen.writeString(value.format(DateTimeFormatter.ofPattern(DATE_FORMAT)));
+      if (!TemporalCodec.isFourDigitYear(value.getYear())) {
+        gen.writeString(value.format(DATE_FORMATTER));
+        return;
+      }
+      char[] buffer = TemporalCodec.buffer();
+      TemporalCodec.writeDate(buffer, 0, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+      gen.writeString(buffer, 0, TemporalCodec.DATE_LENGTH);
     }
   }
 
@@ -118,7 +160,13 @@ public class JacksonAutoConfiguration {
 
     @Override
     public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws JacksonException {
-      return LocalDate.parse(p.getString(), DateTimeFormatter.ofPattern(DATE_FORMAT));
+      if (p.currentToken() == JsonToken.VALUE_STRING && p.getStringLength() == TemporalCodec.DATE_LENGTH) {
+        LocalDate value = TemporalCodec.parseDate(p.getStringCharacters(), p.getStringOffset());
+        if (value != null) {
+          return value;
+        }
+      }
+      return LocalDate.parse(p.getString(), DATE_FORMATTER);
     }
   }
 
@@ -129,7 +177,9 @@ public class JacksonAutoConfiguration {
 
     @Override
     public void serialize(LocalTime value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
-      gen.writeString(value.format(DateTimeFormatter.ofPattern(TIME_FORMAT)));
+      char[] buffer = TemporalCodec.buffer();
+      TemporalCodec.writeTime(buffer, 0, value.getHour(), value.getMinute(), value.getSecond());
+      gen.writeString(buffer, 0, TemporalCodec.TIME_LENGTH);
     }
   }
 
@@ -140,7 +190,197 @@ public class JacksonAutoConfiguration {
 
     @Override
     public LocalTime deserialize(JsonParser p, DeserializationContext ctxt) throws JacksonException {
-      return LocalTime.parse(p.getString(), DateTimeFormatter.ofPattern(TIME_FORMAT));
+      if (p.currentToken() == JsonToken.VALUE_STRING && p.getStringLength() == TemporalCodec.TIME_LENGTH) {
+        LocalTime value = TemporalCodec.parseTime(p.getStringCharacters(), p.getStringOffset());
+        if (value != null) {
+          return value;
+        }
+      }
+      return LocalTime.parse(p.getString(), TIME_FORMATTER);
+    }
+  }
+
+  /**
+   * Formats and parses the fixed-width date and time layouts digit by digit.
+   * <p>
+   * Only covers the canonical case: years 1 to 9999 and in-range fields. The parse methods return
+   * {@code null} for anything else, and callers fall back to the cached formatters, which keep their lenient
+   * resolution and error messages.
+   */
+  static final class TemporalCodec {
+
+    /**
+     * Length of yyyy-MM-dd'T'HH:mm:ss.SSS'Z'.
+     */
+    static final int UTC_DATE_TIME_LENGTH = 24;
+
+    /**
+     * Length of yyyy-MM-dd.
+     */
+    static final int DATE_LENGTH = 10;
+
+    /**
+     * Length of HH:mm:ss.
+     */
+    static final int TIME_LENGTH = 8;
+
+    /**
+     * Per-thread reusable buffers the characters are written into before being copied by the generator.
+     */
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[UTC_DATE_TIME_LENGTH]);
+
+    private TemporalCodec() {
+    }
+
+    /**
+     * Returns the calling thread's buffer, long enough for any of the layouts.
+     *
+     * @return the buffer
+     */
+    static char[] buffer() {
+      return BUFFERS.get();
+    }
+
+    /**
+     * Returns whether a year is formatted as exactly four digits.
+     *
+     * @param year the proleptic year
+     * @return {@code true} for years 1 to 9999
+     */
+    static boolean isFourDigitYear(int year) {
+      return year >= 1 && year <= 9999;
+    }
+
+    /**
+     * Writes yyyy-MM-dd.
+     *
+     * @param buffer the buffer
+     * @param offset the index of the first character
+     * @param year   the year, 1 to 9999
+     * @param month  the month
+     * @param day    the day of month
+     */
+    static void writeDate(char[] buffer, int offset, int year, int month, int day) {
+      writeDigits(buffer, offset, year, 4);
+      buffer[offset + 4] = '-';
+      writeDigits(buffer, offset + 5, month, 2);
+      buffer[offset + 7] = '-';
+      writeDigits(buffer, offset + 8, day, 2);
+    }
+
+    /**
+     * Writes HH:mm:ss.
+     *
+     * @param buffer the buffer
+     * @param offset the index of the first character
+     * @param hour   the hour
+     * @param minute the minute
+     * @param second the second
+     */
+    static void writeTime(char[] buffer, int offset, int hour, int minute, int second) {
+      writeDigits(buffer, offset, hour, 2);
+      buffer[offset + 2] = ':';
+      writeDigits(buffer, offset + 3, minute, 2);
+      buffer[offset + 5] = ':';
+      writeDigits(buffer, offset + 6, second, 2);
+    }
+
+    /**
+     * Writes a non-negative number as a fixed number of digits, zero-padded.
+     *
+     * @param buffer the buffer
+     * @param offset the index of the first digit
+     * @param value  the number
+     * @param digits the number of digits
+     */
+    static void writeDigits(char[] buffer, int offset, int value, int digits) {
+      for (int i = offset + digits - 1; i >= offset; i--) {
+        buffer[i] = (char) ('0' + value % 10);
+        value /= 10;
+      }
+    }
+
+    /**
+     * Parses yyyy-MM-dd'T'HH:mm:ss.SSS'Z'.
+     *
+     * @param chars  the characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return the date time, or {@code null} if not in the canonical layout
+     */
+    static LocalDateTime parseUtcDateTime(char[] chars, int offset, int length) {
+      if (length != UTC_DATE_TIME_LENGTH || chars[offset + 10] != 'T' || chars[offset + 19] != '.'
+          || chars[offset + 23] != 'Z') {
+        return null;
+      }
+      LocalDate date = parseDate(chars, offset);
+      LocalTime time = parseTime(chars, offset + 11);
+      int millis = parseDigits(chars, offset + 20, 3);
+      if (date == null || time == null || millis < 0) {
+        return null;
+      }
+      return LocalDateTime.of(date, time.withNano(millis * 1_000_000));
+    }
+
+    /**
+     * Parses yyyy-MM-dd.
+     *
+     * @param chars  the characters, at least {@link #DATE_LENGTH} from the offset
+     * @param offset the index of the first character
+     * @return the date, or {@code null} if not in the canonical layout or not a valid date
+     */
+    static LocalDate parseDate(char[] chars, int offset) {
+      if (chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+        return null;
+      }
+      int year = parseDigits(chars, offset, 4);
+      int month = parseDigits(chars, offset + 5, 2);
+      int day = parseDigits(chars, offset + 8, 2);
+      if (year < 1 || month < 1 || month > 12 || day < 1
+          || day > Month.of(month).length(Year.isLeap(year))) {
+        return null;
+      }
+      return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Parses HH:mm:ss.
+     *
+     * @param chars  the characters, at least {@link #TIME_LENGTH} from the offset
+     * @param offset the index of the first character
+     * @return the time, or {@code null} if not in the canonical layout or out of range
+     */
+    static LocalTime parseTime(char[] chars, int offset) {
+      if (chars[offset + 2] != ':' || chars[offset + 5] != ':') {
+        return null;
+      }
+      int hour = parseDigits(chars, offset, 2);
+      int minute = parseDigits(chars, offset + 3, 2);
+      int second = parseDigits(chars, offset + 6, 2);
+      if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+        return null;
+      }
+      return LocalTime.of(hour, minute, second);
+    }
+
+    /**
+     * Parses a fixed number of ASCII digits.
+     *
+     * @param chars  the characters
+     * @param offset the index of the first digit
+     * @param digits the number of digits
+     * @return the number, or -1 if a character is not a digit
+     */
+    static int parseDigits(char[] chars, int offset, int digits) {
+      int value = 0;
+      for (int i = offset; i < offset + digits; i++) {
+        int digit = chars[i] - '0';
+        if (digit < 0 || digit > 9) {
+          return -1;
+        }
+        value = value * 10 + digit;
+      }
+      return value;
     }
   }
 }
@@ -0,0 +1,77 @@
+package cn.maiaimei.config;
+
+import cn.maiaimei.filter.FilterDecisionRegistry;
+import cn.maiaimei.filter.LatencyFilter;
+import cn.maiaimei.filter.constants.FilterConstants;
+import cn.maiaimei.filter.properties.LatencyFilterProperties;
+import cn.maiaimei.metrics.LatencyEndpoint;
+import cn.maiaimei.metrics.LatencyHistogramRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Auto-configuration for request latency metrics.
+ */
+@ConditionalOnProperty(name = FilterConstants.LATENCY_FILTER_ENABLED, matchIfMissing = true)
+public class MetricsAutoConfiguration {
+
+  /**
+   * Registers the registry of the request latency histograms.
+   *
+   * @return the registry
+   */
+  @Bean
+  public LatencyHistogramRegistry latencyHistogramRegistry() {
+    return new LatencyHistogramRegistry();
+  }
+
+  /**
+   * Registers the LatencyFilter.
+   * <p>
+   * This filter records the latency of every request into the LatencyHistogramRegistry.
+   * It runs inside the RequestLoggingFilter, so the time spent logging is not recorded.
+   *
+   * @param latencyFilterProperties  the properties for configuring the filter
+   * @param latencyHistogramRegistry the registry the latencies are recorded into
+   * @param filterDecisionRegistry   the registry the exclude patterns are registered with
+   * @return the filter registration bean
+   */
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  public FilterRegistrationBean<LatencyFilter> latencyFilterRegistrationBean(
+      LatencyFilterProperties latencyFilterProperties, LatencyHistogramRegistry latencyHistogramRegistry,
+      FilterDecisionRegistry filterDecisionRegistry) {
+    FilterRegistrationBean<LatencyFilter> filterRegistrationBean = new FilterRegistrationBean<>();
+    LatencyFilter filter = new LatencyFilter(latencyFilterProperties, latencyHistogramRegistry,
+        filterDecisionRegistry);
+    filterRegistrationBean.setFilter(filter);
+    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+    return filterRegistrationBean;
+  }
+
+  /**
+   * Configuration of the latency actuator endpoint, applied when Spring Boot Actuator is on the classpath.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+  static class LatencyEndpointConfiguration {
+
+    /**
+     * Registers the latency endpoint, exposed at /actuator/latency once included in
+     * management.endpoints.web.exposure.include.
+     *
+     * @param latencyHistogramRegistry the histograms to expose
+     * @return the endpoint
+     */
+    @Bean
+    public LatencyEndpoint latencyEndpoint(LatencyHistogramRegistry latencyHistogramRegistry) {
+      return new LatencyEndpoint(latencyHistogramRegistry);
+    }
+  }
+
+}
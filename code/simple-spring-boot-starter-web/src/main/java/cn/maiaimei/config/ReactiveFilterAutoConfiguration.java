@@ -0,0 +1,84 @@
+package cn.maiaimei.config;
+
+import cn.maiaimei.filter.constants.FilterConstants;
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.filter.properties.TraceIdFilterProperties;
+import cn.maiaimei.filter.reactive.RequestLoggingWebFilter;
+import cn.maiaimei.filter.reactive.TraceIdWebFilter;
+import cn.maiaimei.logger.AsyncDispatchingLogger;
+import cn.maiaimei.logger.AsyncRequestResponseLogger;
+import cn.maiaimei.logger.RequestResponseLogger;
+import cn.maiaimei.trace.TraceIdGenerator;
+import cn.maiaimei.trace.Tracer;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration for the WebFilters of a reactive web application.
+ * <p>
+ * The counterpart of the FilterAutoConfiguration, which only applies to servlet web applications.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnClass(name = "org.springframework.web.server.WebFilter")
+public class ReactiveFilterAutoConfiguration {
+
+  /**
+   * Registers the generator of the trace IDs, unless a TraceIdGenerator bean is defined.
+   *
+   * @param traceIdFilterProperties the properties selecting the generator
+   * @return the generator
+   */
+  @Bean
+  @ConditionalOnMissingBean(TraceIdGenerator.class)
+  @ConditionalOnProperty(name = FilterConstants.TRACE_ID_FILTER_ENABLED, matchIfMissing = true)
+  public TraceIdGenerator traceIdGenerator(TraceIdFilterProperties traceIdFilterProperties) {
+    return traceIdFilterProperties.getGenerator().create();
+  }
+
+  /**
+   * Registers the TraceIdWebFilter.
+   * <p>
+   * This filter adds a trace ID to the exchange, response, and Reactor context for request tracing.
+   *
+   * @param traceIdFilterProperties the properties for configuring the filter
+   * @param traceIdGenerator        the generator of the trace IDs of requests without one
+   * @param tracer                  optional tracer timing the server spans
+   * @return the filter
+   */
+  @Bean
+  @ConditionalOnProperty(name = FilterConstants.TRACE_ID_FILTER_ENABLED, matchIfMissing = true)
+  public TraceIdWebFilter traceIdWebFilter(TraceIdFilterProperties traceIdFilterProperties,
+      TraceIdGenerator traceIdGenerator, @Autowired(required = false) Tracer tracer) {
+    return new TraceIdWebFilter(traceIdFilterProperties, traceIdGenerator, tracer);
+  }
+
+  /**
+   * Registers the RequestLoggingWebFilter.
+   * <p>
+   * This filter logs request and response data based on configuration.
+   * It can optionally persist data to a database via RequestResponseLogger,
+   * which is always wrapped in an AsyncRequestResponseLogger unless it already dispatches asynchronously,
+   * so the event loop is not blocked.
+   *
+   * @param requestLoggingFilterProperties the properties for configuring the filter
+   * @param requestResponseLogger          optional logger for persisting data to database
+   * @return the filter
+   */
+  @Bean
+  @ConditionalOnProperty(name = FilterConstants.REQUEST_LOGGING_FILTER_ENABLED, matchIfMissing = true)
+  public RequestLoggingWebFilter requestLoggingWebFilter(
+      RequestLoggingFilterProperties requestLoggingFilterProperties,
+      @Autowired(required = false) RequestResponseLogger requestResponseLogger) {
+    RequestResponseLogger requestResponseLoggerToUse = requestResponseLogger;
+    if (Objects.nonNull(requestResponseLogger) && !(requestResponseLogger instanceof AsyncDispatchingLogger)) {
+      requestResponseLoggerToUse = new AsyncRequestResponseLogger(requestResponseLogger,
+          requestLoggingFilterProperties.getAsync());
+    }
+    return new RequestLoggingWebFilter(requestLoggingFilterProperties, requestResponseLoggerToUse);
+  }
+}
@@ -0,0 +1,94 @@
+package cn.maiaimei.config;
+
+import cn.maiaimei.filter.model.HeaderSelector;
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.logger.JdbcRequestResponseLogger;
+import cn.maiaimei.logger.JournalRequestResponseLogger;
+import cn.maiaimei.logger.RequestResponseLogger;
+import cn.maiaimei.logger.constants.LoggerConstants;
+import cn.maiaimei.logger.properties.JdbcRequestResponseLoggerProperties;
+import cn.maiaimei.logger.properties.JournalRequestResponseLoggerProperties;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Auto-configuration for RequestResponseLogger implementations.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration")
+public class RequestResponseLoggerAutoConfiguration {
+
+  /**
+   * Configuration of the JournalRequestResponseLogger.
+   */
+  @Configuration(proxyBeanMethods = false)
+  static class JournalLoggerConfiguration {
+
+    /**
+     * Registers the JournalRequestResponseLogger (disabled by default).
+     * <p>
+     * Appends exchanges to local memory-mapped segment files, unless another RequestResponseLogger is defined.
+     * Takes precedence over the JdbcRequestResponseLogger when enabled.
+     *
+     * @param journalRequestResponseLoggerProperties the properties for configuring the logger
+     * @return the journal logger
+     */
+    @Bean
+    @ConditionalOnMissingBean(RequestResponseLogger.class)
+    @ConditionalOnProperty(name = LoggerConstants.JOURNAL_LOGGER_ENABLED, havingValue = "true")
+    public JournalRequestResponseLogger journalRequestResponseLogger(
+        JournalRequestResponseLoggerProperties journalRequestResponseLoggerProperties) {
+      return new JournalRequestResponseLogger(journalRequestResponseLoggerProperties);
+    }
+  }
+
+  /**
+   * Configuration of the JdbcRequestResponseLogger, applied when spring-jdbc is on the classpath.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(name = "org.springframework.jdbc.core.JdbcTemplate")
+  static class JdbcLoggerConfiguration {
+
+    /**
+     * Registers the JdbcRequestResponseLogger.
+     * <p>
+     * Persists exchanges to the application's DataSource in batches when enabled, unless another
+     * RequestResponseLogger is defined. Creates the http_exchange table first when schema initialization is
+     * enabled. Spilled batches are masked with the header selection of the RequestLoggingFilter.
+     *
+     * @param dataSource                          the DataSource the exchanges are persisted to
+     * @param jdbcRequestResponseLoggerProperties the properties for configuring the logger
+     * @param requestLoggingFilterProperties      the properties of the RequestLoggingFilter, if enabled
+     * @return the JDBC logger
+     */
+    @Bean
+    @ConditionalOnBean(DataSource.class)
+    @ConditionalOnMissingBean(RequestResponseLogger.class)
+    @ConditionalOnProperty(name = LoggerConstants.JDBC_LOGGER_ENABLED, havingValue = "true")
+    public JdbcRequestResponseLogger jdbcRequestResponseLogger(DataSource dataSource,
+        JdbcRequestResponseLoggerProperties jdbcRequestResponseLoggerProperties,
+        ObjectProvider<RequestLoggingFilterProperties> requestLoggingFilterProperties) {
+      if (jdbcRequestResponseLoggerProperties.isInitializeSchema()
+          && JdbcRequestResponseLogger.DEFAULT_TABLE_NAME.equalsIgnoreCase(
+          jdbcRequestResponseLoggerProperties.getTableName())) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+            new DefaultResourceLoader().getResource(JdbcRequestResponseLogger.SCHEMA_LOCATION));
+        DatabasePopulatorUtils.execute(populator, dataSource);
+      }
+      RequestLoggingFilterProperties.Headers headers = requestLoggingFilterProperties
+          .getIfAvailable(RequestLoggingFilterProperties::new).getHeaders();
+      return new JdbcRequestResponseLogger(dataSource, jdbcRequestResponseLoggerProperties,
+          new HeaderSelector(headers.getAllowed(), headers.getDenied(), headers.getMasked()));
+    }
+  }
+
+}
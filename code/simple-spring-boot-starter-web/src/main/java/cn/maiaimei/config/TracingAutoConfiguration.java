@@ -0,0 +1,50 @@
+package cn.maiaimei.config;
+
+import cn.maiaimei.trace.FileSpanExporter;
+import cn.maiaimei.trace.RandomTraceIdGenerator;
+import cn.maiaimei.trace.SpanExporter;
+import cn.maiaimei.trace.TraceIdGenerator;
+import cn.maiaimei.trace.Tracer;
+import cn.maiaimei.trace.constants.TraceConstants;
+import cn.maiaimei.trace.properties.TracingProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration for in-process span timing, enabled by setting {@code app.tracing.enabled} to true.
+ */
+@ConditionalOnProperty(name = TraceConstants.TRACING_ENABLED, havingValue = "true")
+public class TracingAutoConfiguration {
+
+  /**
+   * Registers the FileSpanExporter, unless another SpanExporter is defined.
+   *
+   * @param tracingProperties the properties for configuring tracing
+   * @return the file exporter
+   */
+  @Bean
+  @ConditionalOnMissingBean(SpanExporter.class)
+  public FileSpanExporter fileSpanExporter(TracingProperties tracingProperties) {
+    return new FileSpanExporter(tracingProperties.getFile());
+  }
+
+  /**
+   * Registers the Tracer.
+   * <p>
+   * The TraceIdFilter times each request as a server span through it, and application code can time
+   * sub-operations as child spans.
+   *
+   * @param tracingProperties the properties for configuring tracing
+   * @param traceIdGenerator  the generator of the trace IDs of root spans, random if none is defined
+   * @param spanExporter      the exporter the spans are handed to
+   * @return the tracer
+   */
+  @Bean
+  public Tracer tracer(TracingProperties tracingProperties, ObjectProvider<TraceIdGenerator> traceIdGenerator,
+      SpanExporter spanExporter) {
+    return new Tracer(tracingProperties, traceIdGenerator.getIfAvailable(RandomTraceIdGenerator::new),
+        spanExporter);
+  }
+}
@@ -15,6 +15,21 @@ public final class AppConstants {
    */
   public static final String TRACE_ID_MDC_KEY = "traceId";
 
+  /**
+   * MDC key for span ID.
+   */
+  public static final String SPAN_ID_MDC_KEY = "spanId";
+
+  /**
+   * W3C Trace Context header carrying the trace ID, parent span ID and flags.
+   */
+  public static final String TRACEPARENT_HEADER = "traceparent";
+
+  /**
+   * W3C Trace Context header carrying vendor-specific trace state.
+   */
+  public static final String TRACESTATE_HEADER = "tracestate";
+
   /**
    * Private constructor to prevent instantiation.
    */
@@ -5,6 +5,11 @@ package cn.maiaimei.constants;
  */
 public final class RequestResponseConstants {
 
+  /**
+   * Correlation key shared by request and response data.
+   */
+  public static final String TRACE_ID = "traceId";
+
   /**
    * Request data keys.
    */
@@ -18,6 +23,7 @@ public final class RequestResponseConstants {
    * Request/Response data keys.
    */
   public static final String PAYLOAD = "payload";
+  public static final String PAYLOAD_TRUNCATED = "payloadTruncated";
 
   /**
    * Response data keys.
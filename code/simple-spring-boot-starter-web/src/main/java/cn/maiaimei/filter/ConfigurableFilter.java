@@ -3,36 +3,58 @@ package cn.maiaimei.filter;
 import cn.maiaimei.utils.CollectionUtilsPlus;
 import cn.maiaimei.utils.ServletUtils;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import lombok.Setter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.http.server.PathContainer;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
 
 /**
  * Utility class for filter URL pattern matching.
+ * <p>
+ * Patterns are compiled once into {@link PathPattern}s and indexed by their first path segment, so a request
+ * is only matched against the patterns sharing its first segment and the patterns starting with a wildcard.
+ * Patterns that {@link PathPatternParser} rejects, such as patterns with {@code **} in the middle, fall back to
+ * {@link AntPathMatcher}. Decisions are cached per request path in a bounded cache, which is cleared once full
+ * so that paths with unbounded cardinality (e.g. containing IDs) cannot grow it without limit.
+ * <p>
+ * The compiled patterns and their cache are held in one immutable object behind an {@link AtomicReference}.
+ * Changing the patterns compiles a new one and swaps it in, so matching never takes a lock and never sees
+ * decisions cached for other patterns.
  */
 public class ConfigurableFilter {
 
   /**
-   * PathMatcher for matching URL patterns.
+   * Default maximum number of request paths whose decision is cached.
    */
-  private final PathMatcher pathMatcher = new AntPathMatcher();
+  public static final int DEFAULT_DECISION_CACHE_SIZE = 4096;
 
   /**
-   * The URL patterns to include.
-   * -- SETTER --
-   * Sets the URL patterns to include.
+   * Index key of the patterns whose first segment contains a wildcard or a URI variable.
    */
-  @Setter
-  private List<String> includePatterns;
+  private static final String WILDCARD_SEGMENT = "*";
 
   /**
-   * The URL patterns to exclude.
-   * -- SETTER --
-   * Sets the URL patterns to exclude.
+   * PathMatcher for the patterns PathPatternParser rejects.
+   */
+  private static final PathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+  /**
+   * Maximum number of request paths whose decision is cached.
    */
-  @Setter
-  private List<String> excludePatterns;
+  private final int decisionCacheSize;
+
+  /**
+   * The compiled patterns and their decision cache, replaced as a whole when the patterns change.
+   */
+  private final AtomicReference<Rules> rules;
 
   /**
    * Constructs a ConfigurableFilter with exclude patterns.
@@ -40,7 +62,7 @@ public class ConfigurableFilter {
    * @param excludePatterns the URL patterns to exclude
    */
   public ConfigurableFilter(List<String> excludePatterns) {
-    this.excludePatterns = excludePatterns;
+    this(null, excludePatterns);
   }
 
   /**
@@ -50,8 +72,53 @@ public class ConfigurableFilter {
    * @param excludePatterns the URL patterns to exclude
    */
   public ConfigurableFilter(List<String> includePatterns, List<String> excludePatterns) {
-    this.includePatterns = includePatterns;
-    this.excludePatterns = excludePatterns;
+    this(includePatterns, excludePatterns, DEFAULT_DECISION_CACHE_SIZE);
+  }
+
+  /**
+   * Constructs a ConfigurableFilter with include and exclude patterns and a decision cache size.
+   *
+   * @param includePatterns   the URL patterns to include
+   * @param excludePatterns   the URL patterns to exclude
+   * @param decisionCacheSize the maximum number of request paths whose decision is cached, 0 to disable caching
+   */
+  public ConfigurableFilter(List<String> includePatterns, List<String> excludePatterns, int decisionCacheSize) {
+    if (decisionCacheSize < 0) {
+      throw new IllegalArgumentException("Decision cache size must not be negative: " + decisionCacheSize);
+    }
+    this.decisionCacheSize = decisionCacheSize;
+    this.rules = new AtomicReference<>(
+        new Rules(CompiledPatterns.compile(includePatterns), CompiledPatterns.compile(excludePatterns)));
+  }
+
+  /**
+   * Sets the URL patterns to include.
+   *
+   * @param includePatterns the URL patterns to include
+   */
+  public void setIncludePatterns(List<String> includePatterns) {
+    CompiledPatterns includes = CompiledPatterns.compile(includePatterns);
+    rules.updateAndGet(current -> new Rules(includes, current.excludes));
+  }
+
+  /**
+   * Sets the URL patterns to exclude.
+   *
+   * @param excludePatterns the URL patterns to exclude
+   */
+  public void setExcludePatterns(List<String> excludePatterns) {
+    CompiledPatterns excludes = CompiledPatterns.compile(excludePatterns);
+    rules.updateAndGet(current -> new Rules(current.includes, excludes));
+  }
+
+  /**
+   * Replaces the URL patterns to include and exclude in a single swap.
+   *
+   * @param includePatterns the URL patterns to include
+   * @param excludePatterns the URL patterns to exclude
+   */
+  public void setPatterns(List<String> includePatterns, List<String> excludePatterns) {
+    rules.set(new Rules(CompiledPatterns.compile(includePatterns), CompiledPatterns.compile(excludePatterns)));
   }
 
   /**
@@ -61,25 +128,170 @@ public class ConfigurableFilter {
    * @return {@code true} if the filter should not be applied
    */
   public boolean shouldNotFilter(HttpServletRequest request) {
-    String requestPath = ServletUtils.getRequestPath(request);
+    return shouldNotFilter(ServletUtils.getRequestPath(request));
+  }
 
-    if (CollectionUtilsPlus.isNotEmpty(excludePatterns)) {
-      for (String pattern : excludePatterns) {
-        if (pathMatcher.match(pattern, requestPath)) {
-          return true;
-        }
+  /**
+   * Determines whether the filter should not be applied to the given request path.
+   *
+   * @param requestPath the request path, without the context path
+   * @return {@code true} if the filter should not be applied
+   */
+  public boolean shouldNotFilter(String requestPath) {
+    Rules current = rules.get();
+    if (decisionCacheSize == 0) {
+      return current.evaluate(requestPath);
+    }
+    Boolean cached = current.decisions.get(requestPath);
+    if (cached != null) {
+      return cached;
+    }
+    boolean decision = current.evaluate(requestPath);
+    if (current.decisions.size() >= decisionCacheSize) {
+      current.decisions.clear();
+    }
+    current.decisions.put(requestPath, decision);
+    return decision;
+  }
+
+  /**
+   * Returns the first segment of a path, or {@link #WILDCARD_SEGMENT} if it contains a wildcard or a URI
+   * variable.
+   *
+   * @param path the path or pattern
+   * @return the first segment
+   */
+  private static String firstSegment(String path) {
+    int start = path.startsWith("/") ? 1 : 0;
+    int end = path.indexOf('/', start);
+    String segment = path.substring(start, end < 0 ? path.length() : end);
+    for (int i = 0; i < segment.length(); i++) {
+      char c = segment.charAt(i);
+      if (c == '*' || c == '?' || c == '{') {
+        return WILDCARD_SEGMENT;
+      }
+    }
+    return segment;
+  }
+
+  /**
+   * Compiled include and exclude patterns with the decisions cached for them.
+   */
+  private static final class Rules {
+
+    /**
+     * The include patterns, {@code null} if every request not excluded is filtered.
+     */
+    private final CompiledPatterns includes;
+
+    /**
+     * The exclude patterns, {@code null} if none.
+     */
+    private final CompiledPatterns excludes;
+
+    /**
+     * Decisions keyed by request path.
+     */
+    private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+    Rules(CompiledPatterns includes, CompiledPatterns excludes) {
+      this.includes = includes;
+      this.excludes = excludes;
+    }
+
+    boolean evaluate(String requestPath) {
+      if (excludes != null && excludes.matches(requestPath)) {
+        return true;
       }
+      return includes != null && !includes.matches(requestPath);
+    }
+  }
+
+  /**
+   * Patterns compiled into {@link PathPattern}s, indexed by first segment.
+   */
+  private static final class CompiledPatterns {
+
+    /**
+     * Parsed patterns keyed by their first segment, patterns starting with a wildcard under
+     * {@link #WILDCARD_SEGMENT}.
+     */
+    private final Map<String, PathPattern[]> patternsBySegment;
+
+    /**
+     * Parsed patterns starting with a wildcard.
+     */
+    private final PathPattern[] wildcardPatterns;
+
+    /**
+     * Patterns matched with the AntPathMatcher.
+     */
+    private final String[] antPatterns;
+
+    private CompiledPatterns(Map<String, PathPattern[]> patternsBySegment, String[] antPatterns) {
+      this.patternsBySegment = patternsBySegment;
+      this.wildcardPatterns = patternsBySegment.getOrDefault(WILDCARD_SEGMENT, new PathPattern[0]);
+      this.antPatterns = antPatterns;
     }
 
-    if (CollectionUtilsPlus.isNotEmpty(includePatterns)) {
-      for (String pattern : includePatterns) {
-        if (pathMatcher.match(pattern, requestPath)) {
-          return false;
+    /**
+     * Compiles patterns.
+     *
+     * @param patterns the patterns
+     * @return the compiled patterns, or {@code null} if there are none
+     */
+    static CompiledPatterns compile(List<String> patterns) {
+      if (!CollectionUtilsPlus.isNotEmpty(patterns)) {
+        return null;
+      }
+      Map<String, List<PathPattern>> grouped = new HashMap<>();
+      List<String> antPatterns = new ArrayList<>();
+      for (String pattern : patterns) {
+        try {
+          PathPattern pathPattern = PathPatternParser.defaultInstance.parse(pattern);
+          grouped.computeIfAbsent(firstSegment(pattern), key -> new ArrayList<>()).add(pathPattern);
+        } catch (PatternParseException e) {
+          antPatterns.add(pattern);
         }
       }
-      return true;
+      Map<String, PathPattern[]> patternsBySegment = new HashMap<>();
+      grouped.forEach((segment, list) -> patternsBySegment.put(segment, list.toArray(new PathPattern[0])));
+      return new CompiledPatterns(patternsBySegment, antPatterns.toArray(new String[0]));
     }
 
-    return false;
+    /**
+     * Returns whether any pattern matches the request path.
+     *
+     * @param requestPath the request path
+     * @return {@code true} if a pattern matches
+     */
+    boolean matches(String requestPath) {
+      PathContainer path = null;
+      PathPattern[] candidates = patternsBySegment.get(firstSegment(requestPath));
+      if (candidates != null && candidates != wildcardPatterns) {
+        path = PathContainer.parsePath(requestPath);
+        for (PathPattern pattern : candidates) {
+          if (pattern.matches(path)) {
+            return true;
+          }
+        }
+      }
+      if (wildcardPatterns.length > 0) {
+        if (path == null) {
+          path = PathContainer.parsePath(requestPath);
+        }
+        for (PathPattern pattern : wildcardPatterns) {
+          if (pattern.matches(path)) {
+            return true;
+          }
+        }
+      }
+      for (String pattern : antPatterns) {
+        if (ANT_PATH_MATCHER.match(pattern, requestPath)) {
+          return true;
+        }
+      }
+      return false;
+    }
   }
 }
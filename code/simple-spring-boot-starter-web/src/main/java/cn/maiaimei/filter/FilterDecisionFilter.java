@@ -0,0 +1,44 @@
+package cn.maiaimei.filter;
+
+import cn.maiaimei.utils.ServletUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter that evaluates the URL patterns of every starter filter once per request.
+ * <p>
+ * Resolves the request path once and stores the decision bitmap of the {@link FilterDecisionRegistry} in the
+ * {@link FilterDecisionRegistry#DECISIONS_ATTRIBUTE} request attribute, which the downstream starter filters
+ * read through their {@link FilterDecisionRegistry.Slot}. It must run before all of them.
+ */
+public class FilterDecisionFilter extends OncePerRequestFilter {
+
+  /**
+   * Registry of the URL patterns of the starter filters.
+   */
+  private final FilterDecisionRegistry filterDecisionRegistry;
+
+  /**
+   * Constructs a FilterDecisionFilter.
+   *
+   * @param filterDecisionRegistry the registry of the URL patterns of the starter filters
+   */
+  public FilterDecisionFilter(FilterDecisionRegistry filterDecisionRegistry) {
+    this.filterDecisionRegistry = filterDecisionRegistry;
+  }
+
+  /**
+   * Stores the decision bitmap of the request path in a request attribute.
+   */
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    request.setAttribute(FilterDecisionRegistry.DECISIONS_ATTRIBUTE,
+        filterDecisionRegistry.evaluate(ServletUtils.getRequestPath(request)));
+    filterChain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,195 @@
+package cn.maiaimei.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registry of the URL patterns of the starter filters, evaluated together once per request.
+ * <p>
+ * Each filter registers its include and exclude patterns and gets a {@link Slot}, one bit of a
+ * {@code long} bitmap. The {@link FilterDecisionFilter} resolves the request path once, evaluates every
+ * registered pattern set in one pass and stores the bitmap in the {@link #DECISIONS_ATTRIBUTE} request
+ * attribute, so the downstream filters only check their bit. Bitmaps are cached per request path in a bounded
+ * cache, which is cleared once full, so a request usually costs a single lookup however many filters are
+ * registered. Updating the patterns of a slot swaps in a new cache, so stale bitmaps are never read.
+ */
+public class FilterDecisionRegistry {
+
+  /**
+   * Name of the request attribute holding the decision bitmap; a set bit means the filter of that slot
+   * should not be applied.
+   */
+  public static final String DECISIONS_ATTRIBUTE = FilterDecisionRegistry.class.getName() + ".DECISIONS";
+
+  /**
+   * Maximum number of slots, one per bit of the bitmap.
+   */
+  public static final int MAX_SLOTS = Long.SIZE;
+
+  /**
+   * Maximum number of request paths whose bitmap is cached.
+   */
+  private final int decisionCacheSize;
+
+  /**
+   * Pattern sets of the registered filters, indexed by slot.
+   */
+  private volatile ConfigurableFilter[] filters = new ConfigurableFilter[0];
+
+  /**
+   * Bitmaps keyed by request path, replaced whenever a filter is registered or its patterns change.
+   */
+  private final AtomicReference<Map<String, Long>> decisions = new AtomicReference<>(new ConcurrentHashMap<>());
+
+  /**
+   * Constructs a FilterDecisionRegistry with the default decision cache size.
+   */
+  public FilterDecisionRegistry() {
+    this(ConfigurableFilter.DEFAULT_DECISION_CACHE_SIZE);
+  }
+
+  /**
+   * Constructs a FilterDecisionRegistry.
+   *
+   * @param decisionCacheSize the maximum number of request paths whose bitmap is cached, 0 to disable caching
+   */
+  public FilterDecisionRegistry(int decisionCacheSize) {
+    if (decisionCacheSize < 0) {
+      throw new IllegalArgumentException("Decision cache size must not be negative: " + decisionCacheSize);
+    }
+    this.decisionCacheSize = decisionCacheSize;
+  }
+
+  /**
+   * Registers the exclude patterns of a filter.
+   *
+   * @param excludePatterns the URL patterns to exclude, may be empty
+   * @return the slot of the filter
+   */
+  public Slot register(List<String> excludePatterns) {
+    return register(null, excludePatterns);
+  }
+
+  /**
+   * Registers the include and exclude patterns of a filter.
+   * <p>
+   * A slot is returned even without patterns, so patterns can be added later through
+   * {@link Slot#update(List, List)}.
+   *
+   * @param includePatterns the URL patterns to include, may be empty
+   * @param excludePatterns the URL patterns to exclude, may be empty
+   * @return the slot of the filter
+   * @throws IllegalStateException if {@link #MAX_SLOTS} filters are already registered
+   */
+  public synchronized Slot register(List<String> includePatterns, List<String> excludePatterns) {
+    if (filters.length == MAX_SLOTS) {
+      throw new IllegalStateException("At most " + MAX_SLOTS + " filters can register URL patterns");
+    }
+    ConfigurableFilter filter = new ConfigurableFilter(includePatterns, excludePatterns, 0);
+    ConfigurableFilter[] registered = Arrays.copyOf(filters, filters.length + 1);
+    registered[filters.length] = filter;
+    this.filters = registered;
+    invalidate();
+    return new Slot(this, filters.length - 1, filter);
+  }
+
+  /**
+   * Discards the cached bitmaps.
+   */
+  private void invalidate() {
+    decisions.set(new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Evaluates the pattern sets of every registered filter against a request path.
+   *
+   * @param requestPath the request path, without the context path
+   * @return the decision bitmap; bit {@code i} is set if the filter of slot {@code i} should not be applied
+   */
+  public Long evaluate(String requestPath) {
+    Map<String, Long> current = decisions.get();
+    if (decisionCacheSize > 0) {
+      Long cached = current.get(requestPath);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    ConfigurableFilter[] registered = filters;
+    long bits = 0L;
+    for (int i = 0; i < registered.length; i++) {
+      if (registered[i].shouldNotFilter(requestPath)) {
+        bits |= 1L << i;
+      }
+    }
+    Long decision = bits;
+    if (decisionCacheSize > 0) {
+      if (current.size() >= decisionCacheSize) {
+        current.clear();
+      }
+      current.put(requestPath, decision);
+    }
+    return decision;
+  }
+
+  /**
+   * A registered filter's bit of the decision bitmap.
+   */
+  public static final class Slot {
+
+    /**
+     * The registry the slot belongs to.
+     */
+    private final FilterDecisionRegistry registry;
+
+    /**
+     * The bit of the slot.
+     */
+    private final long mask;
+
+    /**
+     * The pattern set of the filter, evaluated directly when no bitmap is present.
+     */
+    private final ConfigurableFilter filter;
+
+    private Slot(FilterDecisionRegistry registry, int index, ConfigurableFilter filter) {
+      this.registry = registry;
+      this.mask = 1L << index;
+      this.filter = filter;
+    }
+
+    /**
+     * Determines whether the filter should not be applied to the given request.
+     * <p>
+     * Reads the bit from the decision bitmap, or evaluates the filter's patterns directly if the
+     * {@link FilterDecisionFilter} did not run for the request.
+     *
+     * @param request the HTTP request
+     * @return {@code true} if the filter should not be applied
+     */
+    public boolean shouldNotFilter(HttpServletRequest request) {
+      Object decisions = request.getAttribute(DECISIONS_ATTRIBUTE);
+      if (decisions instanceof Long bits) {
+        return (bits & mask) != 0;
+      }
+      return filter.shouldNotFilter(request);
+    }
+
+    /**
+     * Replaces the URL patterns of the filter.
+     * <p>
+     * The patterns are swapped before the cached bitmaps are discarded, so a bitmap computed with the old
+     * patterns can only land in the discarded cache.
+     *
+     * @param includePatterns the URL patterns to include, may be empty
+     * @param excludePatterns the URL patterns to exclude, may be empty
+     */
+    public void update(List<String> includePatterns, List<String> excludePatterns) {
+      filter.setPatterns(includePatterns, excludePatterns);
+      registry.invalidate();
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package cn.maiaimei.filter;
+
+import cn.maiaimei.filter.properties.FilterReloadProperties;
+import cn.maiaimei.utils.StringUtilsPlus;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+
+/**
+ * Reloads the {@link ReloadableFilter}s when the environment changes.
+ * <p>
+ * Reloads on Spring Cloud's {@code EnvironmentChangeEvent} (sent after a refresh) when Spring Cloud Context is
+ * present, and whenever the watched config file changes. The config file is loaded into a property source
+ * taking precedence over all others, so any filter property it sets overrides the application configuration;
+ * deleting the file restores the application configuration. The file is polled by a daemon thread started
+ * once the application is ready. Filters keep serving requests with their previous settings while reloading.
+ */
+@Slf4j
+public class FilterReloader implements GenericApplicationListener, AutoCloseable {
+
+  /**
+   * Class name of Spring Cloud's environment change event.
+   */
+  private static final String ENVIRONMENT_CHANGE_EVENT =
+      "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+
+  /**
+   * Name of the property source holding the config file.
+   */
+  private static final String PROPERTY_SOURCE_NAME = "filterReloadConfigFile";
+
+  /**
+   * Name of the thread polling the config file.
+   */
+  private static final String THREAD_NAME = "filter-reload";
+
+  /**
+   * The environment the filters are rebound from.
+   */
+  private final ConfigurableEnvironment environment;
+
+  /**
+   * Registrations of the filters to reload.
+   */
+  private final ObjectProvider<FilterRegistrationBean<?>> filterRegistrationBeans;
+
+  /**
+   * The watched config file, {@code null} if none.
+   */
+  private final Path configFile;
+
+  /**
+   * Interval at which the config file is checked for changes.
+   */
+  private final long pollIntervalMillis;
+
+  /**
+   * Names of the property sources loaded from the config file.
+   */
+  private final List<String> propertySourceNames = new ArrayList<>();
+
+  /**
+   * Last modification time of the config file seen, -1 if absent.
+   */
+  private long configFileModified = -1;
+
+  /**
+   * Thread polling the config file, {@code null} until the application is ready or if no file is watched.
+   */
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Constructs a FilterReloader.
+   *
+   * @param filterReloadProperties  the properties for configuring the reloader
+   * @param environment             the environment the filters are rebound from
+   * @param filterRegistrationBeans the registrations of the filters to reload
+   */
+  public FilterReloader(FilterReloadProperties filterReloadProperties, ConfigurableEnvironment environment,
+      ObjectProvider<FilterRegistrationBean<?>> filterRegistrationBeans) {
+    this.environment = environment;
+    this.filterRegistrationBeans = filterRegistrationBeans;
+    this.configFile = !StringUtilsPlus.isEmpty(filterReloadProperties.getConfigFile())
+        ? Paths.get(filterReloadProperties.getConfigFile())
+        : null;
+    this.pollIntervalMillis = filterReloadProperties.getPollInterval().toMillis();
+  }
+
+  @Override
+  public boolean supportsEventType(ResolvableType eventType) {
+    Class<?> eventClass = eventType.toClass();
+    return ApplicationReadyEvent.class.isAssignableFrom(eventClass)
+        || ENVIRONMENT_CHANGE_EVENT.equals(eventClass.getName());
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationEvent event) {
+    if (event instanceof ApplicationReadyEvent) {
+      startWatching();
+    } else {
+      reload();
+    }
+  }
+
+  /**
+   * Rebinds every {@link ReloadableFilter} from the current environment.
+   * <p>
+   * A filter whose new properties are invalid keeps its previous settings; the others are still reloaded.
+   */
+  public synchronized void reload() {
+    Binder binder = Binder.get(environment);
+    filterRegistrationBeans.orderedStream().forEach(registration -> {
+      if (registration.getFilter() instanceof ReloadableFilter filter) {
+        try {
+          filter.reload(binder);
+          log.info("Reloaded {}", filter.getClass().getSimpleName());
+        } catch (RuntimeException e) {
+          log.error("Failed to reload {}, keeping its previous settings", filter.getClass().getSimpleName(), e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Stops polling the config file.
+   */
+  @Override
+  public synchronized void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Starts polling the config file, if one is watched.
+   */
+  private synchronized void startWatching() {
+    if (configFile == null || scheduler != null) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Reloads the filters if the config file was created, modified or deleted since the last poll.
+   * <p>
+   * A file that fails to load is not retried until it is modified again.
+   */
+  private void poll() {
+    try {
+      long modified = Files.exists(configFile) ? Files.getLastModifiedTime(configFile).toMillis() : -1;
+      if (modified == configFileModified) {
+        return;
+      }
+      configFileModified = modified;
+      replacePropertySources(modified >= 0 ? load() : List.of());
+      log.info("Filter config file {} {}", configFile, modified >= 0 ? "changed" : "removed");
+      reload();
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to load filter config file {}", configFile, e);
+    }
+  }
+
+  /**
+   * Loads the config file as a properties or YAML file, depending on its extension.
+   *
+   * @return the property sources of the file
+   * @throws IOException if the file cannot be read
+   */
+  private List<PropertySource<?>> load() throws IOException {
+    String fileName = configFile.getFileName().toString();
+    PropertySourceLoader loader = fileName.endsWith(".yml") || fileName.endsWith(".yaml")
+        ? new YamlPropertySourceLoader()
+        : new PropertiesPropertySourceLoader();
+    return loader.load(PROPERTY_SOURCE_NAME, new FileSystemResource(configFile));
+  }
+
+  /**
+   * Replaces the property sources of the config file in the environment, with the highest precedence.
+   *
+   * @param propertySources the new property sources
+   */
+  private void replacePropertySources(List<PropertySource<?>> propertySources) {
+    MutablePropertySources sources = environment.getPropertySources();
+    propertySourceNames.forEach(sources::remove);
+    propertySourceNames.clear();
+    for (int i = propertySources.size() - 1; i >= 0; i--) {
+      sources.addFirst(propertySources.get(i));
+      propertySourceNames.add(propertySources.get(i).getName());
+    }
+  }
+}
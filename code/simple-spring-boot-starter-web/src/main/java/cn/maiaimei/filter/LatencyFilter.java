@@ -0,0 +1,158 @@
+package cn.maiaimei.filter;
+
+import cn.maiaimei.filter.constants.FilterConstants;
+import cn.maiaimei.filter.properties.LatencyFilterProperties;
+import cn.maiaimei.metrics.LatencyHistogramRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Filter that records the latency of every request into a {@link LatencyHistogramRegistry}.
+ * <p>
+ * Requests are keyed by HTTP method, the route template of the matched handler mapping (from
+ * {@link HandlerMapping#BEST_MATCHING_PATTERN_ATTRIBUTE}) and status class. Requests put into async mode
+ * are recorded once the async processing has completed.
+ */
+public class LatencyFilter extends OncePerRequestFilter implements ReloadableFilter {
+
+  /**
+   * Slot of the exclude patterns in the filter decision bitmap.
+   */
+  private final FilterDecisionRegistry.Slot filterDecisionSlot;
+
+  /**
+   * Registry the latencies are recorded into.
+   */
+  private final LatencyHistogramRegistry latencyHistogramRegistry;
+
+  /**
+   * Constructs a LatencyFilter.
+   *
+   * @param latencyFilterProperties  the properties for configuring the filter
+   * @param latencyHistogramRegistry the registry the latencies are recorded into
+   * @param filterDecisionRegistry   the registry the exclude patterns are registered with
+   */
+  public LatencyFilter(LatencyFilterProperties latencyFilterProperties,
+      LatencyHistogramRegistry latencyHistogramRegistry, FilterDecisionRegistry filterDecisionRegistry) {
+    this.filterDecisionSlot = filterDecisionRegistry.register(latencyFilterProperties.getExcludePatterns());
+    this.latencyHistogramRegistry = latencyHistogramRegistry;
+  }
+
+  /**
+   * Returns true if the request matches any of the configured exclude patterns.
+   *
+   * @param request current HTTP request
+   * @return {@code true} if the filter should not be applied
+   */
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return filterDecisionSlot.shouldNotFilter(request);
+  }
+
+  /**
+   * Reloads the exclude patterns.
+   *
+   * @param binder the binder over the current environment
+   */
+  @Override
+  public void reload(Binder binder) {
+    LatencyFilterProperties properties = binder.bind(FilterConstants.LATENCY_FILTER, LatencyFilterProperties.class)
+        .orElseGet(LatencyFilterProperties::new);
+    filterDecisionSlot.update(null, properties.getExcludePatterns());
+  }
+
+  /**
+   * Skips async dispatches: the request is recorded by the {@link AsyncListener} registered on the initial
+   * dispatch.
+   *
+   * @return {@code true}
+   */
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return true;
+  }
+
+  /**
+   * Measures the request with the monotonic clock and records it once processing has completed.
+   * <p>
+   * When the chain throws, the request is recorded under the 5xx status class, the status the container
+   * responds with, since the response status is not set yet.
+   */
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long startNanos = System.nanoTime();
+    boolean failed = false;
+    try {
+      filterChain.doFilter(request, response);
+    } catch (IOException | ServletException | RuntimeException e) {
+      failed = true;
+      throw e;
+    } finally {
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new RecordingListener(request, response, startNanos));
+      } else {
+        record(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), startNanos);
+      }
+    }
+  }
+
+  /**
+   * Records the latency of a completed request.
+   *
+   * @param request    the HTTP request
+   * @param status     the effective response status
+   * @param startNanos the monotonic start time in nanoseconds
+   */
+  private void record(HttpServletRequest request, int status, long startNanos) {
+    Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    latencyHistogramRegistry.record(request.getMethod(), route instanceof String value ? value : null,
+        status, System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Records a request put into async mode once the async processing has ended; the container invokes
+   * {@link #onComplete(AsyncEvent)} after timeouts and errors as well.
+   */
+  private class RecordingListener implements AsyncListener {
+
+    private final HttpServletRequest request;
+
+    private final HttpServletResponse response;
+
+    private final long startNanos;
+
+    RecordingListener(HttpServletRequest request, HttpServletResponse response, long startNanos) {
+      this.request = request;
+      this.response = response;
+      this.startNanos = startNanos;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      record(request, response.getStatus(), startNanos);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+}
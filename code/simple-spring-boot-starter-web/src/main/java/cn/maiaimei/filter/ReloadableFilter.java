@@ -0,0 +1,18 @@
+package cn.maiaimei.filter;
+
+import org.springframework.boot.context.properties.bind.Binder;
+
+/**
+ * Filter whose URL patterns and settings can be reloaded from the environment without a restart.
+ */
+public interface ReloadableFilter {
+
+  /**
+   * Rebinds the filter's properties and swaps in the settings compiled from them.
+   * <p>
+   * Implementations must leave the filter unchanged if the new properties are invalid.
+   *
+   * @param binder the binder over the current environment
+   */
+  void reload(Binder binder);
+}
@@ -1,27 +1,38 @@
 package cn.maiaimei.filter;
 
-import static cn.maiaimei.constants.RequestResponseConstants.*;
+import static cn.maiaimei.constants.AppConstants.TRACE_ID_HEADER;
 
+import cn.maiaimei.filter.constants.FilterConstants;
+import cn.maiaimei.filter.model.ByteArrayPool;
 import cn.maiaimei.filter.model.ContentCachedRequestWrapper;
+import cn.maiaimei.filter.model.ContentCachedResponseWrapper;
+import cn.maiaimei.filter.model.HeaderSelector;
+import cn.maiaimei.filter.model.RequestLoggingPolicy;
 import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.logger.AsyncRequestResponseLogger;
+import cn.maiaimei.logger.ExchangeEvent;
+import cn.maiaimei.logger.ExchangeEventWriter;
 import cn.maiaimei.logger.RequestResponseLogger;
-import cn.maiaimei.utils.CollectionUtilsPlus;
+import cn.maiaimei.trace.TraceContextHolder;
+import cn.maiaimei.utils.MdcUtils;
 import cn.maiaimei.utils.ServletUtils;
-import cn.maiaimei.utils.StringUtilsPlus;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
-import org.springframework.util.MultiValueMap;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
-import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Filter for logging HTTP request and response data.
@@ -31,7 +42,23 @@ import org.springframework.web.util.UriComponentsBuilder;
  * Optionally persists data to database via {@link RequestResponseLogger}.
  */
 @Slf4j
-public class RequestLoggingFilter extends OncePerRequestFilter {
+public class RequestLoggingFilter extends OncePerRequestFilter implements ReloadableFilter {
+
+  /**
+   * Maximum number of idle payload capture buffers kept for reuse.
+   */
+  private static final int PAYLOAD_BUFFER_POOL_SIZE = 256;
+
+  /**
+   * Per-thread reusable exchange events.
+   */
+  private static final ThreadLocal<ExchangeEvent> EXCHANGE_EVENTS = ThreadLocal.withInitial(ExchangeEvent::new);
+
+  /**
+   * Per-thread reusable buffers the JSON log lines are written into.
+   */
+  private static final ThreadLocal<ByteArrayOutputStream> JSON_BUFFERS =
+      ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
 
   /**
    * Properties for configuring the RequestLoggingFilter.
@@ -44,22 +71,40 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
   private final RequestResponseLogger requestResponseLogger;
 
   /**
-   * Configurable filter for excluding certain requests from being processed.
+   * Slot of the exclude patterns in the filter decision bitmap.
+   */
+  private final FilterDecisionRegistry.Slot filterDecisionSlot;
+
+  /**
+   * Pool of buffers used to capture request and response payloads.
+   */
+  private final ByteArrayPool byteArrayPool;
+
+  /**
+   * Resolver of the per-route logging policy, swapped as a whole on reload.
    */
-  private final ConfigurableFilter configurableFilter;
+  private final AtomicReference<RequestLoggingPolicyResolver> requestLoggingPolicyResolver;
+
+  /**
+   * Writer serializing exchange events as JSON log lines.
+   */
+  private final ExchangeEventWriter exchangeEventWriter = new ExchangeEventWriter();
 
   /**
    * Constructs a RequestLoggingFilter.
    *
    * @param requestLoggingFilterProperties the properties for configuring the filter
    * @param requestResponseLogger optional logger for persisting data to database
+   * @param filterDecisionRegistry the registry the exclude patterns are registered with
    */
-  public RequestLoggingFilter(RequestLoggingFilterProperties requestLoggingFilterProperties, RequestResponseLogger requestResponseLogger) {
+  public RequestLoggingFilter(RequestLoggingFilterProperties requestLoggingFilterProperties,
+      RequestResponseLogger requestResponseLogger, FilterDecisionRegistry filterDecisionRegistry) {
     this.requestLoggingFilterProperties = requestLoggingFilterProperties;
     this.requestResponseLogger = requestResponseLogger;
-    this.configurableFilter = CollectionUtilsPlus.isNotEmpty(requestLoggingFilterProperties.getExcludePatterns())
-        ? new ConfigurableFilter(requestLoggingFilterProperties.getExcludePatterns())
-        : null;
+    this.filterDecisionSlot = filterDecisionRegistry.register(requestLoggingFilterProperties.getExcludePatterns());
+    this.byteArrayPool = new ByteArrayPool(requestLoggingFilterProperties.getMaxPayloadLength(), PAYLOAD_BUFFER_POOL_SIZE);
+    this.requestLoggingPolicyResolver =
+        new AtomicReference<>(new RequestLoggingPolicyResolver(requestLoggingFilterProperties));
   }
 
   /**
@@ -72,15 +117,49 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
    */
   @Override
   protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-    return configurableFilter != null && configurableFilter.shouldNotFilter(request);
+    return filterDecisionSlot.shouldNotFilter(request);
+  }
+
+  /**
+   * Reloads the exclude patterns, the global logging settings and the route rules.
+   * <p>
+   * The payload buffer pool and the async dispatch settings are not reloaded; payloads larger than the pooled
+   * buffers get dedicated buffers.
+   *
+   * @param binder the binder over the current environment
+   */
+  @Override
+  public void reload(Binder binder) {
+    RequestLoggingFilterProperties properties = binder
+        .bind(FilterConstants.REQUEST_LOGGING_FILTER, RequestLoggingFilterProperties.class)
+        .orElseGet(RequestLoggingFilterProperties::new);
+    RequestLoggingPolicyResolver resolver = new RequestLoggingPolicyResolver(properties);
+    filterDecisionSlot.update(null, properties.getExcludePatterns());
+    requestLoggingPolicyResolver.set(resolver);
+  }
+
+  /**
+   * Skips async dispatches: the exchange is logged once, by the {@link AsyncListener} registered on the
+   * initial dispatch, and the wrappers installed there keep capturing during the async dispatch.
+   *
+   * @return {@code true}
+   */
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return true;
   }
 
   /**
-   * Filters the request and response, logging data before and after processing.
+   * Filters the request and response, logging data after processing.
    * <p>
-   * Wraps the request and response to enable multiple reads of the body.
-   * Logs request data before processing and response data after processing.
-   * Measures and logs the request processing duration.
+   * Resolves the per-route logging policy once; requests sampled out are passed through untouched.
+   * When the payload is included, wraps the request and response to capture a bounded prefix of each body
+   * while it is read or written through, so the response reaches the client without being held back.
+   * Logs request and response data once processing has completed, since the bodies are only
+   * captured as they are streamed. When the request was put into async mode, logging is deferred to an
+   * {@link AsyncListener}, so the duration and the response cover the whole async processing. Measures the
+   * processing duration with the monotonic clock. When the chain throws, the exchange is logged with status
+   * 500, the status the container responds with, since the response status is not set yet.
    *
    * @param request the HTTP request
    * @param response the HTTP response
@@ -91,90 +170,291 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
-    ContentCachedRequestWrapper requestToUse = new ContentCachedRequestWrapper(request);
-    ContentCachingResponseWrapper responseToUse = new ContentCachingResponseWrapper(response);
+    RequestLoggingPolicy policy = requestLoggingPolicyResolver.get().resolve(request);
+    if (!policy.isEnabled()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
 
-    long startTime = System.currentTimeMillis();
-    logRequest(requestToUse);
+    HttpServletRequest requestToUse = request;
+    HttpServletResponse responseToUse = response;
+    if (policy.isIncludePayload()) {
+      int maxPayloadLength = policy.getMaxPayloadLength();
+      requestToUse = new ContentCachedRequestWrapper(request, byteArrayPool, maxPayloadLength);
+      responseToUse = new ContentCachedResponseWrapper(response, byteArrayPool, maxPayloadLength);
+    }
 
+    long timestamp = System.currentTimeMillis();
+    long startNanos = System.nanoTime();
+
+    boolean failed = false;
     try {
       filterChain.doFilter(requestToUse, responseToUse);
+    } catch (IOException | ServletException | RuntimeException e) {
+      failed = true;
+      throw e;
+    } finally {
+      if (requestToUse.isAsyncStarted()) {
+        requestToUse.getAsyncContext().addListener(
+            new ExchangeCompletionListener(requestToUse, responseToUse, policy, timestamp, startNanos));
+      } else {
+        int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : responseToUse.getStatus();
+        completeExchange(requestToUse, responseToUse, status, policy, timestamp, startNanos, System.nanoTime());
+      }
+    }
+  }
+
+  /**
+   * Releases resources held by the filter.
+   * <p>
+   * Drains pending entries when the RequestResponseLogger dispatches asynchronously.
+   * Called by the servlet container after in-flight requests have completed.
+   */
+  @Override
+  public void destroy() {
+    if (requestResponseLogger instanceof AsyncRequestResponseLogger asyncRequestResponseLogger) {
+      asyncRequestResponseLogger.close();
+    }
+  }
+
+  /**
+   * Logs the exchange and returns the capture buffers of the wrappers to the pool.
+   *
+   * @param request    the request, wrapped in a {@link ContentCachedRequestWrapper} when the payload is included
+   * @param response   the response, wrapped in a {@link ContentCachedResponseWrapper} when the payload is included
+   * @param status     the effective response status
+   * @param policy     the logging policy of the request
+   * @param timestamp  the wall-clock start time in epoch milliseconds
+   * @param startNanos the monotonic start time in nanoseconds
+   * @param endNanos   the monotonic end time in nanoseconds
+   */
+  private void completeExchange(HttpServletRequest request, HttpServletResponse response, int status,
+      RequestLoggingPolicy policy, long timestamp, long startNanos, long endNanos) {
+    try {
+      logExchange(request, response, status, policy, timestamp, startNanos, endNanos);
     } finally {
-      long duration = System.currentTimeMillis() - startTime;
-      logResponse(responseToUse, duration);
-      responseToUse.copyBodyToResponse();
+      if (request instanceof ContentCachedRequestWrapper requestWrapper) {
+        requestWrapper.release();
+      }
+      if (response instanceof ContentCachedResponseWrapper responseWrapper) {
+        responseWrapper.release();
+      }
     }
   }
 
   /**
-   * Logs request data based on configuration.
+   * Logs the exchange based on the logging policy of the request.
    * <p>
-   * Collects request method, URI, query parameters, client IP, headers, and payload
-   * according to the filter properties. Logs to SLF4J and optionally persists to database.
+   * Populates the thread's pooled {@link ExchangeEvent}, writes it to SLF4J as JSON through a reusable
+   * buffer, and optionally hands it to the {@link RequestResponseLogger} in a single call. The event is reset
+   * afterwards.
    *
-   * @param request the cached request wrapper
+   * @param request    the request, wrapped in a {@link ContentCachedRequestWrapper} when the payload is included
+   * @param response   the response, wrapped in a {@link ContentCachedResponseWrapper} when the payload is included
+   * @param status     the effective response status
+   * @param policy     the logging policy of the request
+   * @param timestamp  the wall-clock start time in epoch milliseconds
+   * @param startNanos the monotonic start time in nanoseconds
+   * @param endNanos   the monotonic end time in nanoseconds
    */
-  private void logRequest(ContentCachedRequestWrapper request) {
-    Map<String, Object> requestData = new LinkedHashMap<>();
-    requestData.put(METHOD, request.getMethod());
-    requestData.put(URI, ServletUtils.getRequestPath(request));
+  private void logExchange(HttpServletRequest request, HttpServletResponse response, int status,
+      RequestLoggingPolicy policy, long timestamp, long startNanos, long endNanos) {
+    ExchangeEvent event = EXCHANGE_EVENTS.get();
+    try {
+      event.setTraceId(resolveTraceId(request));
+      event.setTimestamp(timestamp);
+      event.setStartNanos(startNanos);
+      event.setEndNanos(endNanos);
+      if (!policy.isCommitted(status, endNanos - startNanos)) {
+        if (policy.isIncludeSummary()) {
+          logSummary(event, request, status);
+        }
+        return;
+      }
+      populateRequest(event, request, policy);
+      populateResponse(event, response, status);
+
+      if (log.isInfoEnabled()) {
+        ByteArrayOutputStream buffer = JSON_BUFFERS.get();
+        buffer.reset();
+        exchangeEventWriter.writeRequest(event, buffer);
+        log.info("Request: {}", buffer.toString(StandardCharsets.UTF_8));
+        buffer.reset();
+        exchangeEventWriter.writeResponse(event, buffer);
+        log.info("Response: {}", buffer.toString(StandardCharsets.UTF_8));
+      }
+
+      if (Objects.nonNull(requestResponseLogger)) {
+        requestResponseLogger.logEvent(event);
+      }
+    } finally {
+      event.reset();
+    }
+  }
+
+  /**
+   * Logs a compact summary line for a request that tail capture does not log in full.
+   * The {@link RequestResponseLogger} is not invoked.
+   *
+   * @param event   the event to populate
+   * @param request the HTTP request
+   * @param status  the effective response status
+   */
+  private void logSummary(ExchangeEvent event, HttpServletRequest request, int status) {
+    if (!log.isInfoEnabled()) {
+      return;
+    }
+    event.setMethod(request.getMethod());
+    event.setUri(ServletUtils.getRequestPath(request));
+    event.setStatus(status);
+    ByteArrayOutputStream buffer = JSON_BUFFERS.get();
+    buffer.reset();
+    exchangeEventWriter.writeSummary(event, buffer);
+    log.info("Exchange: {}", buffer.toString(StandardCharsets.UTF_8));
+  }
 
-    if (requestLoggingFilterProperties.isIncludeQueryString() && Objects.nonNull(request.getQueryString())) {
-      MultiValueMap<String, String> queryParams = UriComponentsBuilder.fromUriString("?" + request.getQueryString())
-          .build()
-          .getQueryParams();
-      requestData.put(QUERY_STRING, queryParams);
+  /**
+   * Returns the trace ID assigned by the {@link TraceIdFilter}, falling back to the MDC and then to the
+   * {@link TraceContextHolder}.
+   *
+   * @param request the HTTP request
+   * @return the trace ID, or {@code null} if none was assigned
+   */
+  private String resolveTraceId(HttpServletRequest request) {
+    Object traceId = request.getAttribute(TRACE_ID_HEADER);
+    if (traceId instanceof String value) {
+      return value;
     }
+    String mdcTraceId = MdcUtils.getTraceId();
+    return mdcTraceId != null ? mdcTraceId : TraceContextHolder.getTraceId();
+  }
+
+  /**
+   * Collects request method, URI, query string, client IP, headers, and payload into the event
+   * according to the logging policy of the request.
+   * <p>
+   * Headers are filtered and masked by the {@link HeaderSelector} of the policy, compiled from the same
+   * configuration as the policy; the values of excluded and masked headers are never read, and every value of
+   * a multi-valued header is added.
+   *
+   * @param event   the event to populate
+   * @param request the HTTP request
+   * @param policy  the logging policy of the request
+   */
+  private void populateRequest(ExchangeEvent event, HttpServletRequest request, RequestLoggingPolicy policy) {
+    event.setMethod(request.getMethod());
+    event.setUri(ServletUtils.getRequestPath(request));
 
-    if (requestLoggingFilterProperties.isIncludeClientInfo()) {
-      requestData.put(CLIENT_IP, request.getRemoteAddr());
+    if (policy.isIncludeQueryString()) {
+      event.setQueryString(request.getQueryString());
     }
 
-    if (requestLoggingFilterProperties.isIncludeHeaders()) {
-      Map<String, String> headers = new LinkedHashMap<>();
-      request.getHeaderNames().asIterator().forEachRemaining(name -> headers.put(name, request.getHeader(name)));
-      requestData.put(HEADERS, headers);
+    if (policy.isIncludeClientInfo()) {
+      event.setClientIp(request.getRemoteAddr());
     }
 
-    if (requestLoggingFilterProperties.isIncludePayload()) {
-      String body = request.getBodyAsString();
-      if (!body.isEmpty()) {
-        requestData.put(PAYLOAD, body);
+    if (policy.isIncludeHeaders()) {
+      event.setHeadersIncluded(true);
+      HeaderSelector headerSelector = policy.getHeaderSelector();
+      Enumeration<String> headerNames = request.getHeaderNames();
+      while (headerNames.hasMoreElements()) {
+        String name = headerNames.nextElement();
+        switch (headerSelector.decide(name)) {
+          case INCLUDE -> {
+            Enumeration<String> values = request.getHeaders(name);
+            while (values.hasMoreElements()) {
+              event.addHeader(name, values.nextElement());
+            }
+          }
+          case MASK -> event.addHeader(name, HeaderSelector.MASK);
+          default -> {
+          }
+        }
       }
     }
 
-    log.info("Request: {}", requestData);
+    if (request instanceof ContentCachedRequestWrapper requestWrapper) {
+      event.setRequestPayload(requestWrapper.getPayloadCapture());
+      event.setRequestCharset(requestWrapper.getContentCharset());
+    }
+  }
 
-    if (Objects.nonNull(requestResponseLogger)) {
-      requestResponseLogger.logRequest(requestData);
+  /**
+   * Collects response status and payload into the event.
+   *
+   * @param event    the event to populate
+   * @param response the HTTP response
+   * @param status   the effective response status
+   */
+  private void populateResponse(ExchangeEvent event, HttpServletResponse response, int status) {
+    event.setStatus(status);
+
+    if (response instanceof ContentCachedResponseWrapper responseWrapper) {
+      event.setResponsePayload(responseWrapper.getPayloadCapture());
+      event.setResponseCharset(responseWrapper.getContentCharset());
     }
   }
 
   /**
-   * Logs response data based on configuration.
+   * Completes the exchange of a request put into async mode once the async processing has ended.
    * <p>
-   * Collects response status, processing duration, and payload according to the filter properties.
-   * Logs to SLF4J and optionally persists to database.
-   *
-   * @param response the cached response wrapper
-   * @param duration the request processing duration in milliseconds
-   */
-  private void logResponse(ContentCachingResponseWrapper response, long duration) {
-    Map<String, Object> responseData = new LinkedHashMap<>();
-    responseData.put(STATUS, response.getStatus());
-    responseData.put(DURATION, duration + "ms");
-
-    if (requestLoggingFilterProperties.isIncludePayload()) {
-      byte[] content = response.getContentAsByteArray();
-      if (content.length > 0) {
-        responseData.put(PAYLOAD, StringUtilsPlus.toString(content, response.getCharacterEncoding()));
-      }
+   * The container invokes {@link #onComplete(AsyncEvent)} after a regular completion as well as after a
+   * timeout or an error has been handled, so the exchange is logged there, with its final status and body.
+   * The listener re-registers itself when async processing is restarted.
+   */
+  private class ExchangeCompletionListener implements AsyncListener {
+
+    private final HttpServletRequest request;
+
+    private final HttpServletResponse response;
+
+    private final RequestLoggingPolicy policy;
+
+    private final long timestamp;
+
+    private final long startNanos;
+
+    /**
+     * Whether the exchange was completed.
+     */
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    ExchangeCompletionListener(HttpServletRequest request, HttpServletResponse response,
+        RequestLoggingPolicy policy, long timestamp, long startNanos) {
+      this.request = request;
+      this.response = response;
+      this.policy = policy;
+      this.timestamp = timestamp;
+      this.startNanos = startNanos;
     }
 
-    log.info("Response: {}", responseData);
+    @Override
+    public void onComplete(AsyncEvent event) {
+      complete();
+    }
 
-    if (Objects.nonNull(requestResponseLogger)) {
-      requestResponseLogger.logResponse(responseData);
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      log.debug("Async request timed out: {}", request.getRequestURI());
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      log.debug("Async request failed: {}", request.getRequestURI(), event.getThrowable());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+
+    /**
+     * Logs the exchange unless it was already logged.
+     */
+    private void complete() {
+      if (completed.compareAndSet(false, true)) {
+        completeExchange(request, response, response.getStatus(), policy, timestamp, startNanos, System.nanoTime());
+      }
     }
   }
 }
@@ -0,0 +1,212 @@
+package cn.maiaimei.filter;
+
+import cn.maiaimei.filter.model.HeaderSelector;
+import cn.maiaimei.filter.model.RequestLoggingPolicy;
+import cn.maiaimei.filter.model.StatusCodeSet;
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.utils.CollectionUtilsPlus;
+import cn.maiaimei.utils.ServletUtils;
+import cn.maiaimei.utils.StringUtilsPlus;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Resolves the {@link RequestLoggingPolicy} of a request from the configured route rules.
+ * <p>
+ * Route rules are compiled once at construction: path patterns are parsed into {@link PathPattern}s and the
+ * rules are indexed by HTTP method, preserving their configured order. Resolving a request parses its path
+ * once and returns the policy of the first matching rule, or the global policy if none matches, after
+ * applying the rule's sample rate.
+ * <p>
+ * Under tail capture the sample rate only thins out the summary lines: slow and failed requests are logged
+ * in full whether sampled in or not.
+ */
+public class RequestLoggingPolicyResolver {
+
+  /**
+   * Rules that apply to any HTTP method, used for methods without a dedicated index entry.
+   */
+  private final CompiledRoute[] anyMethodRoutes;
+
+  /**
+   * Rules applicable to each explicitly configured HTTP method, in configured order.
+   */
+  private final Map<String, CompiledRoute[]> routesByMethod;
+
+  /**
+   * Global settings for requests matching no rule.
+   */
+  private final CompiledRoute defaultRoute;
+
+  /**
+   * Constructs a RequestLoggingPolicyResolver.
+   *
+   * @param properties the properties holding the global settings and route rules
+   */
+  public RequestLoggingPolicyResolver(RequestLoggingFilterProperties properties) {
+    RequestLoggingFilterProperties.Tail tail = properties.getTail();
+    boolean tailCapture = tail.isEnabled();
+    RequestLoggingFilterProperties.Headers headers = properties.getHeaders();
+    HeaderSelector headerSelector = new HeaderSelector(headers.getAllowed(), headers.getDenied(),
+        headers.getMasked());
+    RequestLoggingPolicy defaultPolicy = new RequestLoggingPolicy(true,
+        tailCapture || properties.isIncludeQueryString(),
+        tailCapture || properties.isIncludeClientInfo(),
+        tailCapture || properties.isIncludeHeaders(),
+        tailCapture || properties.isIncludePayload(),
+        properties.getMaxPayloadLength(),
+        tailCapture,
+        tail.getSlowThreshold().toNanos(),
+        tailCapture ? StatusCodeSet.parse(tail.getStatuses()) : StatusCodeSet.NONE,
+        true,
+        headerSelector);
+    this.defaultRoute = new CompiledRoute(null, Set.of(), defaultPolicy, properties.getSampleRate());
+
+    PathPatternParser parser = new PathPatternParser();
+    List<CompiledRoute> routes = new ArrayList<>();
+    Set<String> methods = new LinkedHashSet<>();
+    if (CollectionUtilsPlus.isNotEmpty(properties.getRoutes())) {
+      for (RequestLoggingFilterProperties.Route route : properties.getRoutes()) {
+        CompiledRoute compiledRoute = compile(parser, route, defaultPolicy);
+        routes.add(compiledRoute);
+        methods.addAll(compiledRoute.methods);
+      }
+    }
+
+    this.anyMethodRoutes = routes.stream()
+        .filter(route -> route.methods.isEmpty())
+        .toArray(CompiledRoute[]::new);
+    Map<String, CompiledRoute[]> index = new HashMap<>();
+    for (String method : methods) {
+      index.put(method, routes.stream()
+          .filter(route -> route.methods.isEmpty() || route.methods.contains(method))
+          .toArray(CompiledRoute[]::new));
+    }
+    this.routesByMethod = Map.copyOf(index);
+  }
+
+  /**
+   * Resolves the logging policy of the request.
+   *
+   * @param request the HTTP request
+   * @return the policy to apply, {@link RequestLoggingPolicy#DISABLED} if the request is sampled out
+   */
+  public RequestLoggingPolicy resolve(HttpServletRequest request) {
+    return resolve(request.getMethod(), ServletUtils.getRequestPath(request));
+  }
+
+  /**
+   * Resolves the logging policy of a request by its method and path, e.g. on the reactive stack.
+   *
+   * @param method      the HTTP method
+   * @param requestPath the request path within the application
+   * @return the policy to apply, {@link RequestLoggingPolicy#DISABLED} if the request is sampled out
+   */
+  public RequestLoggingPolicy resolve(String method, String requestPath) {
+    CompiledRoute[] routes = routesByMethod.getOrDefault(method, anyMethodRoutes);
+    if (routes.length > 0) {
+      PathContainer path = PathContainer.parsePath(requestPath);
+      for (CompiledRoute route : routes) {
+        if (route.pattern.matches(path)) {
+          return route.sample();
+        }
+      }
+    }
+    return defaultRoute.sample();
+  }
+
+  /**
+   * Compiles a route rule, filling unset settings from the global policy.
+   * <p>
+   * Under tail capture every detail is included, so only the payload cap and slow threshold are taken from
+   * the rule.
+   *
+   * @param parser        the path pattern parser
+   * @param route         the route rule
+   * @param defaultPolicy the global policy
+   * @return the compiled route
+   */
+  private static CompiledRoute compile(PathPatternParser parser, RequestLoggingFilterProperties.Route route,
+      RequestLoggingPolicy defaultPolicy) {
+    if (StringUtilsPlus.isEmpty(route.getPattern())) {
+      throw new IllegalArgumentException("Request logging route pattern must not be empty");
+    }
+    Set<String> methods = new LinkedHashSet<>();
+    if (CollectionUtilsPlus.isNotEmpty(route.getMethods())) {
+      route.getMethods().forEach(method -> methods.add(method.trim().toUpperCase(Locale.ROOT)));
+    }
+    boolean tailCapture = defaultPolicy.isTailCapture();
+    RequestLoggingPolicy policy = new RequestLoggingPolicy(true,
+        tailCapture || Objects.requireNonNullElse(route.getIncludeQueryString(), defaultPolicy.isIncludeQueryString()),
+        tailCapture || Objects.requireNonNullElse(route.getIncludeClientInfo(), defaultPolicy.isIncludeClientInfo()),
+        tailCapture || Objects.requireNonNullElse(route.getIncludeHeaders(), defaultPolicy.isIncludeHeaders()),
+        tailCapture || Objects.requireNonNullElse(route.getIncludePayload(), defaultPolicy.isIncludePayload()),
+        Objects.requireNonNullElse(route.getMaxPayloadLength(), defaultPolicy.getMaxPayloadLength()),
+        tailCapture,
+        Objects.nonNull(route.getSlowThreshold())
+            ? route.getSlowThreshold().toNanos()
+            : defaultPolicy.getSlowThresholdNanos(),
+        defaultPolicy.getCommitStatuses(),
+        true,
+        defaultPolicy.getHeaderSelector());
+    return new CompiledRoute(parser.parse(route.getPattern()), Set.copyOf(methods), policy, route.getSampleRate());
+  }
+
+  /**
+   * A route rule with its pre-parsed path pattern and resolved policy.
+   */
+  private static final class CompiledRoute {
+
+    private final PathPattern pattern;
+
+    private final Set<String> methods;
+
+    private final RequestLoggingPolicy policy;
+
+    private final RequestLoggingPolicy sampledOutPolicy;
+
+    private final double sampleRate;
+
+    CompiledRoute(PathPattern pattern, Set<String> methods, RequestLoggingPolicy policy, double sampleRate) {
+      if (sampleRate < 0.0 || sampleRate > 1.0) {
+        throw new IllegalArgumentException("Request logging sample rate must be between 0.0 and 1.0: " + sampleRate);
+      }
+      this.pattern = pattern;
+      this.methods = methods;
+      this.policy = policy;
+      this.sampledOutPolicy = policy.isTailCapture()
+          ? new RequestLoggingPolicy(true, policy.isIncludeQueryString(), policy.isIncludeClientInfo(),
+          policy.isIncludeHeaders(), policy.isIncludePayload(), policy.getMaxPayloadLength(), true,
+          policy.getSlowThresholdNanos(), policy.getCommitStatuses(), false, policy.getHeaderSelector())
+          : RequestLoggingPolicy.DISABLED;
+      this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Applies the sample rate.
+     *
+     * @return the route policy if the request is sampled in, otherwise {@link RequestLoggingPolicy#DISABLED},
+     *     or under tail capture the route policy without the summary line
+     */
+    RequestLoggingPolicy sample() {
+      if (sampleRate >= 1.0) {
+        return policy;
+      }
+      if (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+        return policy;
+      }
+      return sampledOutPolicy;
+    }
+  }
+}
@@ -1,42 +1,73 @@
 package cn.maiaimei.filter;
 
+import static cn.maiaimei.constants.AppConstants.SPAN_ID_MDC_KEY;
+import static cn.maiaimei.constants.AppConstants.TRACEPARENT_HEADER;
+import static cn.maiaimei.constants.AppConstants.TRACESTATE_HEADER;
 import static cn.maiaimei.constants.AppConstants.TRACE_ID_HEADER;
 
+import cn.maiaimei.filter.constants.FilterConstants;
 import cn.maiaimei.filter.properties.TraceIdFilterProperties;
-import cn.maiaimei.utils.CollectionUtilsPlus;
+import cn.maiaimei.trace.Span;
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceContextHolder;
+import cn.maiaimei.trace.TraceContextMode;
+import cn.maiaimei.trace.TraceIdGenerator;
+import cn.maiaimei.trace.Tracer;
 import cn.maiaimei.utils.MdcUtils;
 import cn.maiaimei.utils.StringUtilsPlus;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.UUID;
 import org.jspecify.annotations.NonNull;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * Filter that adds trace ID to request, response and MDC.
  * <p>
- * If the trace ID is present in the request header, it will be used.
- * Otherwise, a new UUID will be generated.
+ * If the trace ID is present in the traceparent or X-Trace-Id request header, it will be used.
+ * Otherwise, a new one will be generated by the {@link TraceIdGenerator}.
  */
-public class TraceIdFilter extends OncePerRequestFilter {
+public class TraceIdFilter extends OncePerRequestFilter implements ReloadableFilter {
 
   /**
-   * Configurable filter for excluding certain requests from being processed by this filter
+   * Slot of the exclude patterns in the filter decision bitmap
    */
-  private final ConfigurableFilter configurableFilter;
+  private final FilterDecisionRegistry.Slot filterDecisionSlot;
+
+  /**
+   * Generator of the trace IDs of requests without one.
+   */
+  private final TraceIdGenerator traceIdGenerator;
+
+  /**
+   * Tracer timing the server spans, {@code null} if tracing is disabled.
+   */
+  private final Tracer tracer;
+
+  /**
+   * How the trace context is exposed to logging.
+   */
+  private volatile TraceContextMode contextMode;
 
   /**
    * Constructs an TraceIdFilter with exclude patterns.
    *
    * @param traceIdFilterProperties the properties for configuring the filter
+   * @param filterDecisionRegistry  the registry the exclude patterns are registered with
+   * @param traceIdGenerator        the generator of the trace IDs of requests without one
+   * @param tracer                  optional tracer timing the server spans
    */
-  public TraceIdFilter(TraceIdFilterProperties traceIdFilterProperties) {
-    this.configurableFilter = CollectionUtilsPlus.isNotEmpty(traceIdFilterProperties.getExcludePatterns())
-        ? new ConfigurableFilter(traceIdFilterProperties.getExcludePatterns())
-        : null;
+  public TraceIdFilter(TraceIdFilterProperties traceIdFilterProperties,
+      FilterDecisionRegistry filterDecisionRegistry, TraceIdGenerator traceIdGenerator, Tracer tracer) {
+    this.filterDecisionSlot = filterDecisionRegistry.register(traceIdFilterProperties.getExcludePatterns());
+    this.traceIdGenerator = traceIdGenerator;
+    this.tracer = tracer;
+    this.contextMode = traceIdFilterProperties.getContextMode();
   }
 
   /**
@@ -49,27 +80,151 @@ public class TraceIdFilter extends OncePerRequestFilter {
    */
   @Override
   protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
-    return configurableFilter != null && configurableFilter.shouldNotFilter(request);
+    return filterDecisionSlot.shouldNotFilter(request);
+  }
+
+  /**
+   * Reloads the exclude patterns and the context mode.
+   *
+   * @param binder the binder over the current environment
+   */
+  @Override
+  public void reload(Binder binder) {
+    TraceIdFilterProperties properties = binder.bind(FilterConstants.TRACE_ID_FILTER, TraceIdFilterProperties.class)
+        .orElseGet(TraceIdFilterProperties::new);
+    filterDecisionSlot.update(null, properties.getExcludePatterns());
+    contextMode = properties.getContextMode();
   }
 
   /**
    * Processes the request by adding trace ID to request attribute, response header and MDC.
-   * Clears MDC after request processing.
+   * <p>
+   * Joins the trace of a valid W3C traceparent header, honoring its sampled flag and keeping its tracestate,
+   * otherwise uses the X-Trace-Id header or generates a trace ID. A new span ID is generated for the request;
+   * the traceparent and tracestate propagating it are added to the response along with X-Trace-Id, and the
+   * {@link TraceContext} is stored in a request attribute and bound in the {@link TraceContextHolder}, and, in
+   * MDC mode, the trace ID and span ID are put into MDC. When tracing is enabled, the request is timed as
+   * the server span, the current span while it is processed; a request put into async mode is timed until
+   * the async processing completes. Restores the holder and clears MDC after request processing.
    */
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
+    Span span = null;
+    TraceContext previous = null;
+    boolean failed = false;
+    boolean mdc = contextMode == TraceContextMode.MDC;
     try {
-      String traceId = request.getHeader(TRACE_ID_HEADER);
-      if (StringUtilsPlus.isEmpty(traceId)) {
-        traceId = UUID.randomUUID().toString();
-      }
+      TraceContext context = resolveTraceContext(request);
+      String traceId = context.getTraceId();
       request.setAttribute(TRACE_ID_HEADER, traceId);
+      request.setAttribute(TraceContext.REQUEST_ATTRIBUTE, context);
       response.addHeader(TRACE_ID_HEADER, traceId);
-      MdcUtils.setTraceId(traceId);
+      if (TraceContext.isValidTraceId(traceId)) {
+        response.addHeader(TRACEPARENT_HEADER, context.toTraceParent());
+        if (context.getTraceState() != null) {
+          response.addHeader(TRACESTATE_HEADER, context.getTraceState());
+        }
+      }
+      previous = TraceContextHolder.bind(context);
+      if (mdc) {
+        MdcUtils.setTraceId(traceId);
+        MdcUtils.put(SPAN_ID_MDC_KEY, context.getSpanIdHex());
+      }
+      if (tracer != null) {
+        span = tracer.startSpan(request.getMethod(), context);
+      }
       filterChain.doFilter(request, response);
+    } catch (IOException | ServletException | RuntimeException e) {
+      failed = true;
+      if (span != null) {
+        span.error(e);
+      }
+      throw e;
     } finally {
-      MdcUtils.clear();
+      if (span != null) {
+        span.detach();
+        if (request.isAsyncStarted()) {
+          request.getAsyncContext().addListener(new SpanEndingListener(span, response));
+        } else {
+          endSpan(span, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus());
+        }
+      }
+      TraceContextHolder.restore(previous);
+      if (mdc) {
+        MdcUtils.clear();
+      }
+    }
+  }
+
+  /**
+   * Resolves the trace context of a request from its traceparent or X-Trace-Id header, with a new span ID.
+   *
+   * @param request the HTTP request
+   * @return the trace context
+   */
+  private TraceContext resolveTraceContext(HttpServletRequest request) {
+    TraceContext caller = TraceContext.parse(request.getHeader(TRACEPARENT_HEADER),
+        request.getHeader(TRACESTATE_HEADER));
+    if (caller != null) {
+      return new TraceContext(caller.getTraceId(), TraceContext.nextSpanId(), caller.getSpanId(),
+          caller.isSampled(), caller.getTraceState());
+    }
+    String traceId = request.getHeader(TRACE_ID_HEADER);
+    if (StringUtilsPlus.isEmpty(traceId)) {
+      traceId = traceIdGenerator.generate();
+    }
+    return new TraceContext(traceId, TraceContext.nextSpanId(), 0, tracer != null && tracer.sample(), null);
+  }
+
+  /**
+   * Ends the server span of a request, tagged with the effective response status.
+   *
+   * @param span   the server span
+   * @param status the effective response status, 500 if the chain threw
+   */
+  private static void endSpan(Span span, int status) {
+    if (span.isSampled()) {
+      span.tag("http.status_code", Integer.toString(status));
+    }
+    span.end();
+  }
+
+  /**
+   * Ends the server span of a request put into async mode once the async processing has ended; the container
+   * invokes {@link #onComplete(AsyncEvent)} after timeouts and errors as well.
+   */
+  private static class SpanEndingListener implements AsyncListener {
+
+    private final Span span;
+
+    private final HttpServletResponse response;
+
+    SpanEndingListener(Span span, HttpServletResponse response) {
+      this.span = span;
+      this.response = response;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      endSpan(span, response.getStatus());
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      span.tag("error", "async timeout");
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      if (event.getThrowable() != null) {
+        span.error(event.getThrowable());
+      }
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
     }
   }
 }
@@ -11,4 +11,10 @@ public final class FilterConstants {
   public static final String REQUEST_LOGGING_FILTER = "app.filter.request-logging";
   public static final String REQUEST_LOGGING_FILTER_ENABLED = "app.filter.request-logging.enabled";
 
+  public static final String LATENCY_FILTER = "app.filter.latency";
+  public static final String LATENCY_FILTER_ENABLED = "app.filter.latency.enabled";
+
+  public static final String FILTER_RELOAD = "app.filter.reload";
+  public static final String FILTER_RELOAD_ENABLED = "app.filter.reload.enabled";
+
 }
@@ -0,0 +1,67 @@
+package cn.maiaimei.filter.model;
+
+import cn.maiaimei.logger.RingBuffer;
+
+/**
+ * Bounded pool of equally sized byte arrays used as payload capture buffers.
+ * <p>
+ * Requests larger than the pooled size get a dedicated array that is not returned to the pool.
+ * When the pool is empty a new array is allocated; when it is full released arrays are discarded.
+ */
+public class ByteArrayPool {
+
+  /**
+   * Length of the pooled arrays.
+   */
+  private final int bufferSize;
+
+  /**
+   * Idle arrays.
+   */
+  private final RingBuffer<byte[]> buffers;
+
+  /**
+   * Constructs a ByteArrayPool.
+   *
+   * @param bufferSize  the length of the pooled arrays
+   * @param maxIdleSize the maximum number of idle arrays kept by the pool
+   */
+  public ByteArrayPool(int bufferSize, int maxIdleSize) {
+    this.bufferSize = bufferSize;
+    this.buffers = new RingBuffer<>(Math.max(2, maxIdleSize));
+  }
+
+  /**
+   * Borrows an array of at least the given length.
+   *
+   * @param minLength the minimum array length
+   * @return a pooled or newly allocated array
+   */
+  public byte[] borrow(int minLength) {
+    if (minLength > bufferSize) {
+      return new byte[minLength];
+    }
+    byte[] buffer = buffers.poll();
+    return buffer != null ? buffer : new byte[bufferSize];
+  }
+
+  /**
+   * Returns an array to the pool.
+   *
+   * @param buffer the array previously obtained from {@link #borrow(int)}
+   */
+  public void release(byte[] buffer) {
+    if (buffer != null && buffer.length == bufferSize) {
+      buffers.offer(buffer);
+    }
+  }
+
+  /**
+   * Returns the length of the pooled arrays.
+   *
+   * @return the pooled array length
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+}
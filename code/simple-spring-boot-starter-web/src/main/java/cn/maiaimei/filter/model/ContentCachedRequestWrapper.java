@@ -4,60 +4,170 @@ import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import java.io.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import lombok.Getter;
+import java.util.Objects;
 
-@Getter
+/**
+ * Request wrapper that captures a bounded prefix of the request body while the application reads it.
+ * <p>
+ * The body is not buffered up front: bytes pass straight through to the caller and only the first
+ * {@code contentCacheLimit} bytes are copied into a buffer borrowed from a {@link ByteArrayPool}.
+ * The captured prefix is available once the application has consumed the body, and
+ * {@link #release()} must be called afterwards to return the buffer to the pool.
+ */
 public class ContentCachedRequestWrapper extends HttpServletRequestWrapper {
 
-  private final byte[] cachedBody;
+  /**
+   * Captured body prefix.
+   */
+  private final PayloadCapture payloadCapture;
 
-  public ContentCachedRequestWrapper(HttpServletRequest request) throws IOException {
+  /**
+   * The tee input stream, created on first access.
+   */
+  private ServletInputStream inputStream;
+
+  /**
+   * The reader, created on first access.
+   */
+  private BufferedReader reader;
+
+  /**
+   * Constructs a ContentCachedRequestWrapper.
+   *
+   * @param request           the request to wrap
+   * @param byteArrayPool     the pool supplying the capture buffer
+   * @param contentCacheLimit the maximum number of bytes to capture
+   */
+  public ContentCachedRequestWrapper(HttpServletRequest request, ByteArrayPool byteArrayPool, int contentCacheLimit) {
     super(request);
-    this.cachedBody = request.getInputStream().readAllBytes();
+    this.payloadCapture = new PayloadCapture(byteArrayPool, contentCacheLimit);
   }
 
   @Override
-  public ServletInputStream getInputStream() {
-    return new CachedBodyServletInputStream(cachedBody);
+  public ServletInputStream getInputStream() throws IOException {
+    if (inputStream == null) {
+      inputStream = new ContentCachingInputStream(getRequest().getInputStream());
+    }
+    return inputStream;
   }
 
   @Override
-  public BufferedReader getReader() {
-    return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(cachedBody), StandardCharsets.UTF_8));
+  public BufferedReader getReader() throws IOException {
+    if (reader == null) {
+      reader = new BufferedReader(new InputStreamReader(getInputStream(), getContentCharset()));
+    }
+    return reader;
   }
 
+  /**
+   * Returns a copy of the captured body prefix.
+   *
+   * @return the captured bytes
+   */
+  public byte[] getContentAsByteArray() {
+    return payloadCapture.toByteArray();
+  }
+
+  /**
+   * Returns the captured body prefix decoded with the request character encoding.
+   *
+   * @return the captured body, or an empty string if nothing was read
+   */
   public String getBodyAsString() {
-    return new String(cachedBody, StandardCharsets.UTF_8);
+    return payloadCapture.toString(getContentCharset());
+  }
+
+  /**
+   * Returns whether the body was longer than the capture limit.
+   *
+   * @return {@code true} if the captured body is only a prefix
+   */
+  public boolean isTruncated() {
+    return payloadCapture.isTruncated();
+  }
+
+  /**
+   * Returns the captured body prefix without copying.
+   *
+   * @return the payload capture
+   */
+  public PayloadCapture getPayloadCapture() {
+    return payloadCapture;
+  }
+
+  /**
+   * Returns the capture buffer to the pool. The captured content must not be accessed afterwards.
+   */
+  public void release() {
+    payloadCapture.release();
+  }
+
+  /**
+   * Returns the request character encoding, falling back to UTF-8.
+   *
+   * @return the charset used to decode the body
+   */
+  public Charset getContentCharset() {
+    String encoding = getCharacterEncoding();
+    return Objects.nonNull(encoding) ? Charset.forName(encoding) : StandardCharsets.UTF_8;
   }
 
-  private static class CachedBodyServletInputStream extends ServletInputStream {
+  /**
+   * Pass-through input stream that tees the bytes it returns into the capture buffer.
+   */
+  private class ContentCachingInputStream extends ServletInputStream {
 
-    private final ByteArrayInputStream inputStream;
+    private final ServletInputStream delegate;
 
-    public CachedBodyServletInputStream(byte[] cachedBody) {
-      this.inputStream = new ByteArrayInputStream(cachedBody);
+    ContentCachingInputStream(ServletInputStream delegate) {
+      this.delegate = delegate;
     }
 
     @Override
-    public boolean isFinished() {
-      return inputStream.available() == 0;
+    public int read() throws IOException {
+      int value = delegate.read();
+      if (value != -1) {
+        payloadCapture.write(value);
+      }
+      return value;
     }
 
     @Override
-    public boolean isReady() {
-      return true;
+    public int read(byte[] b, int off, int len) throws IOException {
+      int count = delegate.read(b, off, len);
+      if (count > 0) {
+        payloadCapture.write(b, off, count);
+      }
+      return count;
     }
 
     @Override
-    public void setReadListener(ReadListener listener) {
-      throw new UnsupportedOperationException();
+    public int readLine(byte[] b, int off, int len) throws IOException {
+      int count = delegate.readLine(b, off, len);
+      if (count > 0) {
+        payloadCapture.write(b, off, count);
+      }
+      return count;
     }
 
     @Override
-    public int read() {
-      return inputStream.read();
+    public boolean isFinished() {
+      return delegate.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener listener) {
+      delegate.setReadListener(listener);
     }
   }
-}
\ No newline at end of file
+}
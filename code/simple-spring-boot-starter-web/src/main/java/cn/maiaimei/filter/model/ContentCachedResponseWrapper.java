@@ -0,0 +1,239 @@
+package cn.maiaimei.filter.model;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Response wrapper that captures a bounded prefix of the response body while writing it through.
+ * <p>
+ * Unlike Spring's {@code ContentCachingResponseWrapper}, nothing is held back: every write and flush goes
+ * straight to the underlying response, so streaming responses and server-sent events reach the client
+ * immediately. Only the first {@code contentCacheLimit} bytes are copied into a buffer borrowed from a
+ * {@link ByteArrayPool}; {@link #release()} must be called afterwards to return the buffer to the pool.
+ */
+public class ContentCachedResponseWrapper extends HttpServletResponseWrapper {
+
+  /**
+   * Content type parameter carrying an explicit charset.
+   */
+  private static final String CHARSET_PARAMETER = "charset=";
+
+  /**
+   * Captured body prefix.
+   */
+  private final PayloadCapture payloadCapture;
+
+  /**
+   * The tee output stream, created on first access.
+   */
+  private ServletOutputStream outputStream;
+
+  /**
+   * The tee writer, created on first access.
+   */
+  private PrintWriter writer;
+
+  /**
+   * Constructs a ContentCachedResponseWrapper.
+   *
+   * @param response          the response to wrap
+   * @param byteArrayPool     the pool supplying the capture buffer
+   * @param contentCacheLimit the maximum number of bytes to capture
+   */
+  public ContentCachedResponseWrapper(HttpServletResponse response, ByteArrayPool byteArrayPool,
+      int contentCacheLimit) {
+    super(response);
+    this.payloadCapture = new PayloadCapture(byteArrayPool, contentCacheLimit);
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() throws IOException {
+    if (outputStream == null) {
+      outputStream = new ContentCachingOutputStream(getResponse().getOutputStream());
+    }
+    return outputStream;
+  }
+
+  @Override
+  public PrintWriter getWriter() throws IOException {
+    if (writer == null) {
+      CharsetEncoder encoder = getContentCharset().newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      writer = new PrintWriter(new ContentCachingWriter(getResponse().getWriter(), encoder));
+    }
+    return writer;
+  }
+
+  /**
+   * Resets the response, discarding the captured body prefix along with the buffered body.
+   */
+  @Override
+  public void reset() {
+    super.reset();
+    payloadCapture.reset();
+  }
+
+  /**
+   * Resets the response buffer, discarding the captured body prefix along with the buffered body.
+   */
+  @Override
+  public void resetBuffer() {
+    super.resetBuffer();
+    payloadCapture.reset();
+  }
+
+  /**
+   * Returns a copy of the captured body prefix.
+   *
+   * @return the captured bytes
+   */
+  public byte[] getContentAsByteArray() {
+    return payloadCapture.toByteArray();
+  }
+
+  /**
+   * Returns the captured body prefix decoded with the response character encoding.
+   *
+   * @return the captured body, or an empty string if nothing was written
+   */
+  public String getBodyAsString() {
+    return payloadCapture.toString(getContentCharset());
+  }
+
+  /**
+   * Returns whether the body was longer than the capture limit.
+   *
+   * @return {@code true} if the captured body is only a prefix
+   */
+  public boolean isTruncated() {
+    return payloadCapture.isTruncated();
+  }
+
+  /**
+   * Returns the captured body prefix without copying.
+   *
+   * @return the payload capture
+   */
+  public PayloadCapture getPayloadCapture() {
+    return payloadCapture;
+  }
+
+  /**
+   * Returns the capture buffer to the pool. The captured content must not be accessed afterwards.
+   */
+  public void release() {
+    payloadCapture.release();
+  }
+
+  /**
+   * Returns the response character encoding if it was set explicitly, falling back to UTF-8.
+   * <p>
+   * The container reports ISO-8859-1 when no charset was set, while message converters such as Jackson write
+   * UTF-8 to the output stream, so the container default is not trusted.
+   *
+   * @return the charset used to decode the body
+   */
+  public Charset getContentCharset() {
+    String contentType = getContentType();
+    if (Objects.nonNull(contentType) && contentType.toLowerCase(Locale.ROOT).contains(CHARSET_PARAMETER)) {
+      return Charset.forName(getCharacterEncoding());
+    }
+    return StandardCharsets.UTF_8;
+  }
+
+  /**
+   * Pass-through output stream that tees the bytes it writes into the capture buffer.
+   */
+  private class ContentCachingOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+
+    ContentCachingOutputStream(ServletOutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      payloadCapture.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+      payloadCapture.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener listener) {
+      delegate.setWriteListener(listener);
+    }
+  }
+
+  /**
+   * Pass-through writer that encodes the characters it writes into the capture buffer.
+   * <p>
+   * Characters go to the container's own writer, which keeps handling encoding and buffering.
+   */
+  private class ContentCachingWriter extends Writer {
+
+    private final Writer delegate;
+
+    private final CharsetEncoder encoder;
+
+    ContentCachingWriter(Writer delegate, CharsetEncoder encoder) {
+      this.delegate = delegate;
+      this.encoder = encoder;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+      delegate.write(cbuf, off, len);
+      payloadCapture.write(CharBuffer.wrap(cbuf, off, len), encoder);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+      delegate.write(str, off, len);
+      payloadCapture.write(CharBuffer.wrap(str, off, off + len), encoder);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package cn.maiaimei.filter.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable, precompiled selection of the request headers to capture, by case-insensitive name.
+ * <p>
+ * Names are looked up in an open-addressing table hashed over ASCII-folded characters and compared with
+ * {@link String#regionMatches(boolean, int, String, int, int)}, so a lookup allocates nothing. Denied names
+ * win over allowed and masked ones; with an empty allow list every header not denied is captured. Masked
+ * headers are captured with the constant {@link #MASK} instead of their value, which is then never read.
+ */
+public final class HeaderSelector {
+
+  /**
+   * Value captured for masked headers.
+   */
+  public static final String MASK = "******";
+
+  /**
+   * What to capture of a header.
+   */
+  public enum Decision {
+
+    /**
+     * The header is not captured.
+     */
+    EXCLUDE,
+
+    /**
+     * The header is captured with all its values.
+     */
+    INCLUDE,
+
+    /**
+     * The header is captured with the value {@link #MASK}.
+     */
+    MASK
+  }
+
+  /**
+   * Configured header names, indexed by folded hash, {@code null} for empty slots.
+   */
+  private final String[] names;
+
+  /**
+   * Decisions of the configured names, parallel to {@link #names}.
+   */
+  private final Decision[] decisions;
+
+  /**
+   * Decision for names that are not configured.
+   */
+  private final Decision defaultDecision;
+
+  /**
+   * Constructs a HeaderSelector.
+   *
+   * @param allowed names of the headers to capture, all headers if {@code null} or empty
+   * @param denied  names of the headers never captured, may be {@code null}
+   * @param masked  names of the headers captured with a masked value, may be {@code null}
+   */
+  public HeaderSelector(Collection<String> allowed, Collection<String> denied, Collection<String> masked) {
+    boolean allowAll = allowed == null || allowed.isEmpty();
+    this.defaultDecision = allowAll ? Decision.INCLUDE : Decision.EXCLUDE;
+    List<String> configured = new ArrayList<>();
+    addNames(configured, allowed);
+    addNames(configured, denied);
+    addNames(configured, masked);
+    int capacity = Integer.highestOneBit(Math.max(4, configured.size() * 2 - 1)) << 1;
+    this.names = new String[capacity];
+    this.decisions = new Decision[capacity];
+    for (String name : configured) {
+      int slot = slotOf(name);
+      if (names[slot] != null) {
+        continue;
+      }
+      Decision decision;
+      if (contains(denied, name) || (!allowAll && !contains(allowed, name))) {
+        decision = Decision.EXCLUDE;
+      } else if (contains(masked, name)) {
+        decision = Decision.MASK;
+      } else {
+        decision = Decision.INCLUDE;
+      }
+      names[slot] = name;
+      decisions[slot] = decision;
+    }
+  }
+
+  /**
+   * Decides what to capture of a header.
+   *
+   * @param name the header name, in any case
+   * @return the decision
+   */
+  public Decision decide(String name) {
+    int slot = slotOf(name);
+    String configured = names[slot];
+    return configured != null ? decisions[slot] : defaultDecision;
+  }
+
+  /**
+   * Returns the slot of a name: the slot holding it, or the empty slot it would be added to.
+   *
+   * @param name the header name
+   * @return the slot index
+   */
+  private int slotOf(String name) {
+    int mask = names.length - 1;
+    int slot = foldedHash(name) & mask;
+    while (names[slot] != null && !equalsIgnoreCase(names[slot], name)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Hashes a name over its ASCII-lowercased characters.
+   *
+   * @param name the name
+   * @return the hash
+   */
+  private static int foldedHash(String name) {
+    int hash = 0;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      hash = 31 * hash + (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  private static boolean equalsIgnoreCase(String a, String b) {
+    return a.length() == b.length() && a.regionMatches(true, 0, b, 0, b.length());
+  }
+
+  private static boolean contains(Collection<String> names, String name) {
+    if (names != null) {
+      for (String candidate : names) {
+        if (candidate != null && equalsIgnoreCase(candidate.trim(), name)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static void addNames(List<String> target, Collection<String> names) {
+    if (names != null) {
+      for (String name : names) {
+        if (name != null && !name.isBlank()) {
+          target.add(name.trim());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package cn.maiaimei.filter.model;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * Bounded capture of the first bytes of a request or response payload.
+ * <p>
+ * The buffer is borrowed from a {@link ByteArrayPool} on first write and returned by {@link #release()}.
+ * Bytes beyond the limit are not stored; the capture is flagged as truncated instead, and nothing written
+ * afterwards is captured, so the prefix has no gaps. The prefix ends on a character boundary: a UTF-8
+ * sequence cut by the limit is dropped, and characters are never encoded partially, including surrogate
+ * pairs split across writes.
+ */
+public class PayloadCapture {
+
+  /**
+   * Pool supplying the buffer.
+   */
+  private final ByteArrayPool byteArrayPool;
+
+  /**
+   * Maximum number of bytes to capture.
+   */
+  private final int limit;
+
+  /**
+   * Capture buffer, borrowed on first write.
+   */
+  private byte[] buffer;
+
+  /**
+   * Number of captured bytes.
+   */
+  private int length;
+
+  /**
+   * Whether more bytes were written than the limit.
+   */
+  private boolean truncated;
+
+  /**
+   * High surrogate ending the last written characters, encoded with the next ones; 0 if none.
+   */
+  private char highSurrogate;
+
+  /**
+   * Constructs a PayloadCapture.
+   *
+   * @param byteArrayPool the pool supplying the buffer
+   * @param limit         the maximum number of bytes to capture
+   */
+  public PayloadCapture(ByteArrayPool byteArrayPool, int limit) {
+    this.byteArrayPool = byteArrayPool;
+    this.limit = Math.max(0, limit);
+  }
+
+  /**
+   * Captures a single byte.
+   *
+   * @param value the byte
+   */
+  public void write(int value) {
+    if (truncated) {
+      return;
+    }
+    if (length < limit) {
+      ensureBuffer();
+      buffer[length++] = (byte) value;
+    } else {
+      truncate(value);
+    }
+  }
+
+  /**
+   * Captures a range of bytes.
+   *
+   * @param bytes  the source bytes
+   * @param offset the offset of the first byte
+   * @param count  the number of bytes
+   */
+  public void write(byte[] bytes, int offset, int count) {
+    if (truncated) {
+      return;
+    }
+    int remaining = limit - length;
+    int toCopy = Math.min(count, remaining);
+    if (toCopy > 0) {
+      ensureBuffer();
+      System.arraycopy(bytes, offset, buffer, length, toCopy);
+      length += toCopy;
+    }
+    if (count > remaining) {
+      truncate(bytes[offset + toCopy]);
+    }
+  }
+
+  /**
+   * Captures the remaining bytes of a buffer without changing its position.
+   *
+   * @param bytes the source buffer
+   */
+  public void write(ByteBuffer bytes) {
+    if (truncated) {
+      return;
+    }
+    int count = bytes.remaining();
+    int remaining = limit - length;
+    int toCopy = Math.min(count, remaining);
+    if (toCopy > 0) {
+      ensureBuffer();
+      bytes.get(bytes.position(), buffer, length, toCopy);
+      length += toCopy;
+    }
+    if (count > remaining) {
+      truncate(bytes.get(bytes.position() + toCopy));
+    }
+  }
+
+  /**
+   * Captures characters, encoding them directly into the buffer.
+   *
+   * @param chars   the characters
+   * @param encoder the encoder for the payload charset
+   */
+  public void write(CharBuffer chars, CharsetEncoder encoder) {
+    if (truncated || !chars.hasRemaining()) {
+      return;
+    }
+    if (length >= limit) {
+      truncated = true;
+      return;
+    }
+    ensureBuffer();
+    ByteBuffer out = ByteBuffer.wrap(buffer, length, limit - length);
+    if (highSurrogate != 0) {
+      CharBuffer pair = CharBuffer.wrap(new char[] {highSurrogate, chars.get()});
+      highSurrogate = 0;
+      if (!encode(pair, out, encoder)) {
+        return;
+      }
+    }
+    if (encode(chars, out, encoder) && chars.hasRemaining()) {
+      highSurrogate = chars.get();
+    }
+  }
+
+  /**
+   * Clears the captured content, keeping the buffer, e.g. when the response buffer is reset.
+   */
+  public void reset() {
+    length = 0;
+    truncated = false;
+    highSurrogate = 0;
+  }
+
+  /**
+   * Returns the number of captured bytes.
+   *
+   * @return the captured length
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Returns whether more bytes were written than the limit.
+   *
+   * @return {@code true} if only a prefix was captured
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * Returns the capture buffer without copying; only the first {@link #getLength()} bytes are valid,
+   * and only until {@link #release()} is called.
+   *
+   * @return the capture buffer, or {@code null} if nothing was captured
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * Returns a copy of the captured bytes.
+   *
+   * @return the captured bytes
+   */
+  public byte[] toByteArray() {
+    byte[] content = new byte[length];
+    if (length > 0) {
+      System.arraycopy(buffer, 0, content, 0, length);
+    }
+    return content;
+  }
+
+  /**
+   * Decodes the captured bytes.
+   *
+   * @param charset the payload charset
+   * @return the captured payload, or an empty string if nothing was captured
+   */
+  public String toString(Charset charset) {
+    return length == 0 ? "" : new String(buffer, 0, length, charset);
+  }
+
+  /**
+   * Returns the buffer to the pool. The captured content must not be accessed afterwards.
+   */
+  public void release() {
+    if (buffer != null) {
+      byteArrayPool.release(buffer);
+      buffer = null;
+      length = 0;
+    }
+  }
+
+  /**
+   * Encodes characters into the buffer; a high surrogate ending them is left in the input.
+   *
+   * @param chars   the characters
+   * @param out     the free part of the buffer
+   * @param encoder the encoder for the payload charset
+   * @return {@code true} if all characters fit, {@code false} if the capture was truncated
+   */
+  private boolean encode(CharBuffer chars, ByteBuffer out, CharsetEncoder encoder) {
+    CoderResult result = encoder.encode(chars, out, false);
+    length = out.position();
+    if (result.isOverflow()) {
+      truncated = true;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Flags the capture as truncated and, when the first dropped byte continues a UTF-8 sequence, drops the
+   * incomplete sequence ending the captured bytes.
+   *
+   * @param firstDropped the first byte not captured
+   */
+  private void truncate(int firstDropped) {
+    truncated = true;
+    if ((firstDropped & 0xC0) != 0x80) {
+      return;
+    }
+    int end = length;
+    while (end > 0 && (buffer[end - 1] & 0xC0) == 0x80) {
+      end--;
+    }
+    if (end > 0 && (buffer[end - 1] & 0xC0) == 0xC0) {
+      end--;
+    }
+    length = end;
+  }
+
+  /**
+   * Borrows the buffer on first use.
+   */
+  private void ensureBuffer() {
+    if (buffer == null) {
+      buffer = byteArrayPool.borrow(limit);
+    }
+  }
+}
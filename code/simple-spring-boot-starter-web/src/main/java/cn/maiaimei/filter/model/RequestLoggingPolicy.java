@@ -0,0 +1,83 @@
+package cn.maiaimei.filter.model;
+
+import lombok.Value;
+
+/**
+ * Resolved logging settings for a single request.
+ */
+@Value
+public class RequestLoggingPolicy {
+
+  /**
+   * Policy for requests that are not logged, e.g. sampled out. Its header selector is never consulted, since
+   * headers are not included.
+   */
+  public static final RequestLoggingPolicy DISABLED = new RequestLoggingPolicy(false, false, false, false, false, 0,
+      false, 0, StatusCodeSet.NONE, false, new HeaderSelector(null, null, null));
+
+  /**
+   * Whether the request is logged at all.
+   */
+  boolean enabled;
+
+  /**
+   * Whether to include query string in the log.
+   */
+  boolean includeQueryString;
+
+  /**
+   * Whether to include client IP address in the log.
+   */
+  boolean includeClientInfo;
+
+  /**
+   * Whether to include request headers in the log.
+   */
+  boolean includeHeaders;
+
+  /**
+   * Whether to include request and response payload in the log.
+   */
+  boolean includePayload;
+
+  /**
+   * Maximum number of payload bytes captured for the log.
+   */
+  int maxPayloadLength;
+
+  /**
+   * Whether only slow or failed requests are logged in full, while other requests only get a summary line.
+   */
+  boolean tailCapture;
+
+  /**
+   * Minimum duration in nanoseconds for a request to be logged in full under tail capture.
+   */
+  long slowThresholdNanos;
+
+  /**
+   * Response statuses logged in full under tail capture.
+   */
+  StatusCodeSet commitStatuses;
+
+  /**
+   * Whether a summary line is logged under tail capture for requests that are not logged in full.
+   */
+  boolean includeSummary;
+
+  /**
+   * Selection of the logged request headers, compiled from the same configuration as the rest of the policy.
+   */
+  HeaderSelector headerSelector;
+
+  /**
+   * Returns whether a completed request is logged in full.
+   *
+   * @param status        the response status code
+   * @param durationNanos the processing duration in nanoseconds
+   * @return {@code true} unless tail capture is on and the request was neither slow nor failed
+   */
+  public boolean isCommitted(int status, long durationNanos) {
+    return !tailCapture || durationNanos >= slowThresholdNanos || commitStatuses.contains(status);
+  }
+}
@@ -0,0 +1,81 @@
+package cn.maiaimei.filter.model;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Immutable set of HTTP status codes, parsed from codes such as {@code 429} and classes such as {@code 5xx}.
+ */
+public final class StatusCodeSet {
+
+  /**
+   * Smallest valid status code.
+   */
+  private static final int MIN_STATUS = 100;
+
+  /**
+   * Largest valid status code.
+   */
+  private static final int MAX_STATUS = 599;
+
+  /**
+   * The empty set.
+   */
+  public static final StatusCodeSet NONE = new StatusCodeSet(new boolean[MAX_STATUS + 1]);
+
+  /**
+   * Membership indexed by status code.
+   */
+  private final boolean[] members;
+
+  private StatusCodeSet(boolean[] members) {
+    this.members = members;
+  }
+
+  /**
+   * Parses status codes and status classes.
+   *
+   * @param values the codes (e.g. 429) and classes (e.g. 5xx), may be {@code null}
+   * @return the status code set
+   * @throws IllegalArgumentException if a value is neither a valid code nor a valid class
+   */
+  public static StatusCodeSet parse(Collection<String> values) {
+    boolean[] members = new boolean[MAX_STATUS + 1];
+    if (values != null) {
+      for (String value : values) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.length() == 3 && normalized.endsWith("xx")) {
+          int statusClass = normalized.charAt(0) - '0';
+          if (statusClass < 1 || statusClass > 5) {
+            throw new IllegalArgumentException("Invalid HTTP status class: " + value);
+          }
+          for (int status = statusClass * 100; status < statusClass * 100 + 100; status++) {
+            members[status] = true;
+          }
+        } else {
+          int status;
+          try {
+            status = Integer.parseInt(normalized);
+          } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid HTTP status: " + value, e);
+          }
+          if (status < MIN_STATUS || status > MAX_STATUS) {
+            throw new IllegalArgumentException("Invalid HTTP status: " + value);
+          }
+          members[status] = true;
+        }
+      }
+    }
+    return new StatusCodeSet(members);
+  }
+
+  /**
+   * Returns whether the set contains a status code.
+   *
+   * @param status the status code
+   * @return {@code true} if the status is in the set
+   */
+  public boolean contains(int status) {
+    return status >= 0 && status < members.length && members[status];
+  }
+}
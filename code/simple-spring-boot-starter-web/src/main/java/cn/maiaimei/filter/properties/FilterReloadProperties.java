@@ -0,0 +1,34 @@
+package cn.maiaimei.filter.properties;
+
+import cn.maiaimei.filter.constants.FilterConstants;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties for FilterReloader.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = FilterConstants.FILTER_RELOAD)
+@ConditionalOnProperty(name = FilterConstants.FILTER_RELOAD_ENABLED, havingValue = "true")
+public class FilterReloadProperties {
+
+  /**
+   * Whether to reload the filter patterns and settings when the environment changes. Default is false.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Properties or YAML file watched for changes, whose properties take precedence over all other property
+   * sources, e.g. /etc/app/filters.yml. Not watched if not set.
+   */
+  private String configFile;
+
+  /**
+   * Interval at which the config file is checked for changes. Default is 2s.
+   */
+  private Duration pollInterval = Duration.ofSeconds(2);
+}
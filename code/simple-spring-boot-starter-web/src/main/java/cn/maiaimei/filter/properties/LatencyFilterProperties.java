@@ -0,0 +1,28 @@
+package cn.maiaimei.filter.properties;
+
+import cn.maiaimei.filter.constants.FilterConstants;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Properties for LatencyFilter.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = FilterConstants.LATENCY_FILTER)
+@ConditionalOnProperty(name = FilterConstants.LATENCY_FILTER_ENABLED, matchIfMissing = true)
+public class LatencyFilterProperties {
+
+  /**
+   * Whether to enable the LatencyFilter. Default is true.
+   */
+  private boolean enabled = true;
+
+  /**
+   * The patterns to exclude from the LatencyFilter.
+   */
+  private List<String> excludePatterns;
+}
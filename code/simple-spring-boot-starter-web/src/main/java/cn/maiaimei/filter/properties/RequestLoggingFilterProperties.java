@@ -1,6 +1,9 @@
 package cn.maiaimei.filter.properties;
 
 import cn.maiaimei.filter.constants.FilterConstants;
+import cn.maiaimei.logger.OverflowPolicy;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.Data;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -51,10 +54,209 @@ public class RequestLoggingFilterProperties {
    */
   private boolean includePayload = false;
 
+  /**
+   * Maximum number of payload bytes captured for the log.
+   * <p>
+   * Longer payloads are truncated and flagged. Default is 8192.
+   */
+  private int maxPayloadLength = 8192;
+
+  /**
+   * Fraction of requests to log, between 0.0 and 1.0, for requests not matched by a route rule.
+   * <p>
+   * Default is 1.0.
+   */
+  private double sampleRate = 1.0;
+
   /**
    * URL patterns to exclude from logging.
    * <p>
    * Supports Ant-style path patterns (e.g., /actuator/**, /health).
    */
   private List<String> excludePatterns;
+
+  /**
+   * Ordered per-route logging rules. The first rule matching the request method and path applies;
+   * requests matching no rule use the global settings.
+   */
+  private List<Route> routes = new ArrayList<>();
+
+  /**
+   * Asynchronous dispatch to the RequestResponseLogger.
+   */
+  private Async async = new Async();
+
+  /**
+   * Tail-based capture of slow and failed requests.
+   */
+  private Tail tail = new Tail();
+
+  /**
+   * Selection and masking of the logged request headers.
+   */
+  private Headers headers = new Headers();
+
+  /**
+   * Logging rule for the requests matching a path pattern and, optionally, a set of HTTP methods.
+   * <p>
+   * Include flags and the payload cap left unset fall back to the global settings.
+   */
+  @Data
+  public static class Route {
+
+    /**
+     * Path pattern of the route (e.g., /users/**), matched against the request path without context path.
+     */
+    private String pattern;
+
+    /**
+     * HTTP methods of the route (e.g., GET, POST). Empty matches any method.
+     */
+    private List<String> methods = new ArrayList<>();
+
+    /**
+     * Whether to include query string in the log.
+     */
+    private Boolean includeQueryString;
+
+    /**
+     * Whether to include client IP address in the log.
+     */
+    private Boolean includeClientInfo;
+
+    /**
+     * Whether to include request headers in the log.
+     */
+    private Boolean includeHeaders;
+
+    /**
+     * Whether to include request and response payload in the log.
+     */
+    private Boolean includePayload;
+
+    /**
+     * Maximum number of payload bytes captured for the log.
+     */
+    private Integer maxPayloadLength;
+
+    /**
+     * Fraction of matching requests to log, between 0.0 and 1.0.
+     * <p>
+     * Default is 1.0.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Minimum duration for a matching request to be logged in full under tail capture.
+     */
+    private Duration slowThreshold;
+  }
+
+  /**
+   * Properties for logging only slow and failed requests in full.
+   * <p>
+   * Request and response payloads are staged in pooled capture buffers while the request is processed.
+   * Once it completes, requests slower than the threshold or with a matching status are logged, and handed
+   * to the RequestResponseLogger, with query string, client info, headers and payload, regardless of the
+   * include flags. All other requests only get a compact summary line.
+   */
+  @Data
+  public static class Tail {
+
+    /**
+     * Whether to enable tail-based capture.
+     * <p>
+     * Default is false.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Minimum duration for a request to be logged in full, for requests not matched by a route rule.
+     * <p>
+     * Default is 1s.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Response statuses logged in full, as codes (e.g. 429) or classes (e.g. 5xx).
+     * <p>
+     * Default is 5xx.
+     */
+    private List<String> statuses = new ArrayList<>(List.of("5xx"));
+  }
+
+  /**
+   * Properties selecting the request headers logged when headers are included; names are case-insensitive.
+   */
+  @Data
+  public static class Headers {
+
+    /**
+     * Names of the headers to log; all headers if empty.
+     */
+    private List<String> allowed = new ArrayList<>();
+
+    /**
+     * Names of the headers never logged, taking precedence over the allowed and masked ones.
+     */
+    private List<String> denied = new ArrayList<>();
+
+    /**
+     * Names of the headers logged with a masked value.
+     * <p>
+     * Default is Authorization, Proxy-Authorization, Cookie, Set-Cookie and X-Api-Key.
+     */
+    private List<String> masked = new ArrayList<>(
+        List.of("Authorization", "Proxy-Authorization", "Cookie", "Set-Cookie", "X-Api-Key"));
+  }
+
+  /**
+   * Properties for dispatching entries to the RequestResponseLogger on a dedicated consumer thread.
+   */
+  @Data
+  public static class Async {
+
+    /**
+     * Whether to dispatch entries to the RequestResponseLogger asynchronously. The reactive
+     * RequestLoggingWebFilter always dispatches asynchronously, to keep the event loop unblocked.
+     * <p>
+     * Default is false.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Capacity of the ring buffer, rounded up to a power of two.
+     * <p>
+     * Default is 8192.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Maximum number of entries drained per batch.
+     * <p>
+     * Default is 256.
+     */
+    private int batchSize = 256;
+
+    /**
+     * Policy applied when the ring buffer is full.
+     * <p>
+     * Default is DROP_NEWEST.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+    /**
+     * Maximum time a request thread waits for free space when the overflow policy is BLOCK.
+     * <p>
+     * Default is 100ms.
+     */
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    /**
+     * Maximum time to wait for pending entries to drain on shutdown. Must be positive.
+     * <p>
+     * Default is 10s.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+  }
 }
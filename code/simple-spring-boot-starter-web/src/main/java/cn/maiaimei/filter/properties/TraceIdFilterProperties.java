@@ -1,6 +1,8 @@
 package cn.maiaimei.filter.properties;
 
 import cn.maiaimei.filter.constants.FilterConstants;
+import cn.maiaimei.trace.TraceContextMode;
+import cn.maiaimei.trace.TraceIdGeneratorType;
 import java.util.List;
 import lombok.Data;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -25,4 +27,16 @@ public class TraceIdFilterProperties {
    * The patterns to exclude from the TraceIdFilter.
    */
   private List<String> excludePatterns;
+
+  /**
+   * The generator of the trace IDs of requests without one, unless a TraceIdGenerator bean is defined.
+   * Default is RANDOM.
+   */
+  private TraceIdGeneratorType generator = TraceIdGeneratorType.RANDOM;
+
+  /**
+   * How the trace context of a request is exposed to logging; SCOPED leaves the MDC untouched and requires
+   * the %traceId conversion word in the log pattern. Default is MDC.
+   */
+  private TraceContextMode contextMode = TraceContextMode.MDC;
 }
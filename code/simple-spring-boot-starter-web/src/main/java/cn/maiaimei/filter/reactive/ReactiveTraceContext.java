@@ -0,0 +1,89 @@
+package cn.maiaimei.filter.reactive;
+
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceContextHolder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Access to the {@link TraceContext} the TraceIdWebFilter writes into the Reactor context.
+ * <p>
+ * Reactive pipelines hop between threads, so the context is bound in the {@link TraceContextHolder} only
+ * around the code that logs, where the {@code %traceId} and {@code %spanId} conversion words render it:
+ *
+ * <pre>{@code
+ * return userService.find(id)
+ *     .doOnEach(ReactiveTraceContext.onNext(user -> log.info("Found user {}", user.getId())));
+ * }</pre>
+ */
+public final class ReactiveTraceContext {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private ReactiveTraceContext() {
+  }
+
+  /**
+   * Returns a function writing a trace context into a Reactor context, for {@code contextWrite}.
+   *
+   * @param traceContext the trace context
+   * @return the context modification
+   */
+  public static Function<Context, Context> with(TraceContext traceContext) {
+    return context -> context.put(TraceContext.class, traceContext);
+  }
+
+  /**
+   * Returns the trace context of a Reactor context.
+   *
+   * @param context the Reactor context
+   * @return the trace context, or {@code null} if none
+   */
+  public static TraceContext get(ContextView context) {
+    return context.getOrDefault(TraceContext.class, null);
+  }
+
+  /**
+   * Returns the trace context of the subscriber.
+   *
+   * @return the trace context, empty if none
+   */
+  public static Mono<TraceContext> current() {
+    return Mono.deferContextual(context -> Mono.justOrEmpty(get(context)));
+  }
+
+  /**
+   * Runs a task with the trace context of a Reactor context bound in the {@link TraceContextHolder}.
+   *
+   * @param context the Reactor context
+   * @param task    the task, typically logging
+   */
+  public static void run(ContextView context, Runnable task) {
+    TraceContext previous = TraceContextHolder.bind(get(context));
+    try {
+      task.run();
+    } finally {
+      TraceContextHolder.restore(previous);
+    }
+  }
+
+  /**
+   * Returns a {@code doOnEach} callback running a consumer for each element with the trace context bound.
+   *
+   * @param consumer the consumer, typically logging
+   * @param <T>      the element type
+   * @return the signal callback
+   */
+  public static <T> Consumer<Signal<T>> onNext(Consumer<T> consumer) {
+    return signal -> {
+      if (signal.isOnNext()) {
+        run(signal.getContextView(), () -> consumer.accept(signal.get()));
+      }
+    };
+  }
+}
@@ -0,0 +1,384 @@
+package cn.maiaimei.filter.reactive;
+
+import static cn.maiaimei.constants.AppConstants.TRACE_ID_HEADER;
+
+import cn.maiaimei.filter.ConfigurableFilter;
+import cn.maiaimei.filter.RequestLoggingPolicyResolver;
+import cn.maiaimei.filter.model.ByteArrayPool;
+import cn.maiaimei.filter.model.HeaderSelector;
+import cn.maiaimei.filter.model.PayloadCapture;
+import cn.maiaimei.filter.model.RequestLoggingPolicy;
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.logger.AsyncRequestResponseLogger;
+import cn.maiaimei.logger.ExchangeEvent;
+import cn.maiaimei.logger.ExchangeEventWriter;
+import cn.maiaimei.logger.RequestResponseLogger;
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceContextHolder;
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * WebFilter for logging HTTP request and response data.
+ * <p>
+ * The reactive counterpart of the RequestLoggingFilter, applying the same route rules, sampling and tail
+ * capture and writing the same JSON log lines. Bodies are captured by decorating the request and response
+ * {@link DataBuffer} streams: a bounded prefix of each buffer is copied as it flows through, so nothing is
+ * aggregated or held back. The exchange is logged once the response has completed, with the trace context
+ * of the TraceIdWebFilter bound for the {@code %traceId} conversion word. The optional
+ * {@link RequestResponseLogger} is invoked on the completing thread, often an event loop, so it must dispatch
+ * asynchronously; the auto-configuration wraps any other logger in an {@link AsyncRequestResponseLogger}.
+ */
+@Slf4j
+public class RequestLoggingWebFilter implements WebFilter, Ordered, DisposableBean {
+
+  /**
+   * Maximum number of idle payload capture buffers kept for reuse.
+   */
+  private static final int PAYLOAD_BUFFER_POOL_SIZE = 256;
+
+  /**
+   * Per-thread reusable exchange events.
+   */
+  private static final ThreadLocal<ExchangeEvent> EXCHANGE_EVENTS = ThreadLocal.withInitial(ExchangeEvent::new);
+
+  /**
+   * Per-thread reusable buffers the JSON log lines are written into.
+   */
+  private static final ThreadLocal<ByteArrayOutputStream> JSON_BUFFERS =
+      ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
+
+  /**
+   * Optional logger for persisting request and response data to database.
+   */
+  private final RequestResponseLogger requestResponseLogger;
+
+  /**
+   * Matcher of the exclude patterns.
+   */
+  private final ConfigurableFilter configurableFilter;
+
+  /**
+   * Pool of buffers used to capture request and response payloads.
+   */
+  private final ByteArrayPool byteArrayPool;
+
+  /**
+   * Resolver of the per-route logging policy.
+   */
+  private final RequestLoggingPolicyResolver requestLoggingPolicyResolver;
+
+  /**
+   * Writer serializing exchange events as JSON log lines.
+   */
+  private final ExchangeEventWriter exchangeEventWriter = new ExchangeEventWriter();
+
+  /**
+   * Constructs a RequestLoggingWebFilter.
+   *
+   * @param requestLoggingFilterProperties the properties for configuring the filter
+   * @param requestResponseLogger optional logger for persisting data to database
+   */
+  public RequestLoggingWebFilter(RequestLoggingFilterProperties requestLoggingFilterProperties,
+      RequestResponseLogger requestResponseLogger) {
+    this.requestResponseLogger = requestResponseLogger;
+    this.configurableFilter = new ConfigurableFilter(requestLoggingFilterProperties.getExcludePatterns());
+    this.byteArrayPool = new ByteArrayPool(requestLoggingFilterProperties.getMaxPayloadLength(),
+        PAYLOAD_BUFFER_POOL_SIZE);
+    this.requestLoggingPolicyResolver = new RequestLoggingPolicyResolver(requestLoggingFilterProperties);
+  }
+
+  /**
+   * Runs after the TraceIdWebFilter, so the trace ID is available when logging.
+   *
+   * @return the order
+   */
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE + 2;
+  }
+
+  /**
+   * Filters the exchange, logging data once the response has completed.
+   * <p>
+   * Resolves the per-route logging policy once; exchanges sampled out are passed through untouched. When the
+   * payload is included, decorates the request and response to capture a bounded prefix of each body. Logs on
+   * completion, error and cancellation alike; an exchange whose chain signals an error is logged with status 500,
+   * since the error is only mapped onto the response by the WebExceptionHandler after this filter completes.
+   * Measures the duration with the monotonic clock.
+   *
+   * @param exchange the current exchange
+   * @param chain    the filter chain
+   * @return completion of the chain
+   */
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    String path = request.getPath().pathWithinApplication().value();
+    if (configurableFilter.shouldNotFilter(path)) {
+      return chain.filter(exchange);
+    }
+    RequestLoggingPolicy policy = requestLoggingPolicyResolver.resolve(request.getMethod().name(), path);
+    if (!policy.isEnabled()) {
+      return chain.filter(exchange);
+    }
+
+    ServerWebExchange exchangeToUse = exchange;
+    PayloadCapture requestPayload = null;
+    PayloadCapture responsePayload = null;
+    if (policy.isIncludePayload()) {
+      int maxPayloadLength = policy.getMaxPayloadLength();
+      requestPayload = new PayloadCapture(byteArrayPool, maxPayloadLength);
+      responsePayload = new PayloadCapture(byteArrayPool, maxPayloadLength);
+      exchangeToUse = exchange.mutate()
+          .request(new PayloadCapturingRequest(request, requestPayload))
+          .response(new PayloadCapturingResponse(exchange.getResponse(), responsePayload))
+          .build();
+    }
+
+    long timestamp = System.currentTimeMillis();
+    long startNanos = System.nanoTime();
+    Exchange completion = new Exchange(exchange, path, policy, timestamp, startNanos, requestPayload,
+        responsePayload);
+    return chain.filter(exchangeToUse).doFinally(signal -> completeExchange(completion, signal == SignalType.ON_ERROR,
+        System.nanoTime()));
+  }
+
+  /**
+   * Drains pending entries when the RequestResponseLogger dispatches asynchronously.
+   */
+  @Override
+  public void destroy() {
+    if (requestResponseLogger instanceof AsyncRequestResponseLogger asyncRequestResponseLogger) {
+      asyncRequestResponseLogger.close();
+    }
+  }
+
+  /**
+   * Logs the exchange with its trace context bound and returns the capture buffers to the pool.
+   *
+   * @param exchange the exchange to log
+   * @param failed   whether the chain signalled an error
+   * @param endNanos the monotonic end time in nanoseconds
+   */
+  private void completeExchange(Exchange exchange, boolean failed, long endNanos) {
+    TraceContext previous = TraceContextHolder.bind(
+        exchange.exchange.getAttribute(TraceContext.REQUEST_ATTRIBUTE));
+    try {
+      logExchange(exchange, failed, endNanos);
+    } catch (RuntimeException e) {
+      log.warn("Failed to log exchange {}", exchange.path, e);
+    } finally {
+      TraceContextHolder.restore(previous);
+      if (exchange.requestPayload != null) {
+        exchange.requestPayload.release();
+      }
+      if (exchange.responsePayload != null) {
+        exchange.responsePayload.release();
+      }
+    }
+  }
+
+  /**
+   * Logs the exchange based on its logging policy, through the thread's pooled {@link ExchangeEvent}.
+   *
+   * @param exchange the exchange to log
+   * @param failed   whether the chain signalled an error
+   * @param endNanos the monotonic end time in nanoseconds
+   */
+  private void logExchange(Exchange exchange, boolean failed, long endNanos) {
+    ServerHttpRequest request = exchange.exchange.getRequest();
+    RequestLoggingPolicy policy = exchange.policy;
+    ExchangeEvent event = EXCHANGE_EVENTS.get();
+    try {
+      event.setTraceId(exchange.exchange.getAttribute(TRACE_ID_HEADER));
+      event.setTimestamp(exchange.timestamp);
+      event.setStartNanos(exchange.startNanos);
+      event.setEndNanos(endNanos);
+      int status = failed ? HttpStatus.INTERNAL_SERVER_ERROR.value() : resolveStatus(exchange.exchange.getResponse());
+      event.setMethod(request.getMethod().name());
+      event.setUri(exchange.path);
+      event.setStatus(status);
+      if (!policy.isCommitted(status, endNanos - exchange.startNanos)) {
+        if (policy.isIncludeSummary() && log.isInfoEnabled()) {
+          ByteArrayOutputStream buffer = JSON_BUFFERS.get();
+          buffer.reset();
+          exchangeEventWriter.writeSummary(event, buffer);
+          log.info("Exchange: {}", buffer.toString(StandardCharsets.UTF_8));
+        }
+        return;
+      }
+      populate(event, exchange);
+
+      if (log.isInfoEnabled()) {
+        ByteArrayOutputStream buffer = JSON_BUFFERS.get();
+        buffer.reset();
+        exchangeEventWriter.writeRequest(event, buffer);
+        log.info("Request: {}", buffer.toString(StandardCharsets.UTF_8));
+        buffer.reset();
+        exchangeEventWriter.writeResponse(event, buffer);
+        log.info("Response: {}", buffer.toString(StandardCharsets.UTF_8));
+      }
+
+      if (Objects.nonNull(requestResponseLogger)) {
+        requestResponseLogger.logEvent(event);
+      }
+    } finally {
+      event.reset();
+    }
+  }
+
+  /**
+   * Collects query string, client IP, headers and payloads into the event according to the logging policy;
+   * headers are filtered and masked by the {@link HeaderSelector}.
+   *
+   * @param event    the event to populate
+   * @param exchange the exchange
+   */
+  private void populate(ExchangeEvent event, Exchange exchange) {
+    ServerHttpRequest request = exchange.exchange.getRequest();
+    RequestLoggingPolicy policy = exchange.policy;
+    if (policy.isIncludeQueryString()) {
+      event.setQueryString(request.getURI().getRawQuery());
+    }
+
+    if (policy.isIncludeClientInfo()) {
+      InetSocketAddress remoteAddress = request.getRemoteAddress();
+      if (remoteAddress != null && remoteAddress.getAddress() != null) {
+        event.setClientIp(remoteAddress.getAddress().getHostAddress());
+      }
+    }
+
+    if (policy.isIncludeHeaders()) {
+      event.setHeadersIncluded(true);
+      HeaderSelector headerSelector = policy.getHeaderSelector();
+      request.getHeaders().forEach((name, values) -> {
+        switch (headerSelector.decide(name)) {
+          case INCLUDE -> values.forEach(value -> event.addHeader(name, value));
+          case MASK -> event.addHeader(name, HeaderSelector.MASK);
+          default -> {
+          }
+        }
+      });
+    }
+
+    if (exchange.requestPayload != null) {
+      event.setRequestPayload(exchange.requestPayload);
+      event.setRequestCharset(resolveCharset(request.getHeaders()));
+    }
+    if (exchange.responsePayload != null) {
+      event.setResponsePayload(exchange.responsePayload);
+      event.setResponseCharset(resolveCharset(exchange.exchange.getResponse().getHeaders()));
+    }
+  }
+
+  /**
+   * Returns the response status, 200 if none was set.
+   *
+   * @param response the response
+   * @return the status code
+   */
+  private static int resolveStatus(ServerHttpResponse response) {
+    HttpStatusCode status = response.getStatusCode();
+    return status != null ? status.value() : 200;
+  }
+
+  /**
+   * Returns the charset of a body from its content type, UTF-8 if none.
+   *
+   * @param headers the headers of the request or response
+   * @return the charset
+   */
+  private static Charset resolveCharset(HttpHeaders headers) {
+    MediaType contentType = headers.getContentType();
+    return contentType != null && contentType.getCharset() != null
+        ? contentType.getCharset()
+        : StandardCharsets.UTF_8;
+  }
+
+  /**
+   * Copies the readable bytes of a buffer into a capture, leaving the buffer untouched.
+   *
+   * @param buffer  the buffer flowing through
+   * @param capture the capture
+   */
+  private static void capture(DataBuffer buffer, PayloadCapture capture) {
+    try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+      while (iterator.hasNext()) {
+        capture.write(iterator.next());
+      }
+    }
+  }
+
+  /**
+   * State of an exchange being logged.
+   */
+  private record Exchange(ServerWebExchange exchange, String path, RequestLoggingPolicy policy, long timestamp,
+                          long startNanos, PayloadCapture requestPayload, PayloadCapture responsePayload) {
+
+  }
+
+  /**
+   * Request tee-ing a bounded prefix of its body into a capture as it is read.
+   */
+  private static final class PayloadCapturingRequest extends ServerHttpRequestDecorator {
+
+    private final PayloadCapture capture;
+
+    PayloadCapturingRequest(ServerHttpRequest delegate, PayloadCapture capture) {
+      super(delegate);
+      this.capture = capture;
+    }
+
+    @Override
+    public Flux<DataBuffer> getBody() {
+      return super.getBody().doOnNext(buffer -> capture(buffer, capture));
+    }
+  }
+
+  /**
+   * Response tee-ing a bounded prefix of its body into a capture as it is written.
+   */
+  private static final class PayloadCapturingResponse extends ServerHttpResponseDecorator {
+
+    private final PayloadCapture capture;
+
+    PayloadCapturingResponse(ServerHttpResponse delegate, PayloadCapture capture) {
+      super(delegate);
+      this.capture = capture;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+      return super.writeWith(Flux.from(body).doOnNext(buffer -> capture(buffer, capture)));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+      return super.writeAndFlushWith(Flux.from(body)
+          .map(publisher -> Flux.from(publisher).doOnNext(buffer -> capture(buffer, capture))));
+    }
+  }
+}
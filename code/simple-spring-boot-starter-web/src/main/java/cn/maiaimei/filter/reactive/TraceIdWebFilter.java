@@ -0,0 +1,137 @@
+package cn.maiaimei.filter.reactive;
+
+import static cn.maiaimei.constants.AppConstants.TRACEPARENT_HEADER;
+import static cn.maiaimei.constants.AppConstants.TRACESTATE_HEADER;
+import static cn.maiaimei.constants.AppConstants.TRACE_ID_HEADER;
+
+import cn.maiaimei.filter.ConfigurableFilter;
+import cn.maiaimei.filter.properties.TraceIdFilterProperties;
+import cn.maiaimei.trace.Span;
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceIdGenerator;
+import cn.maiaimei.trace.Tracer;
+import cn.maiaimei.utils.StringUtilsPlus;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * WebFilter that adds trace ID to exchange attributes, response headers and the Reactor context.
+ * <p>
+ * The reactive counterpart of the TraceIdFilter: the trace context is resolved from the traceparent or
+ * X-Trace-Id request header the same way, but instead of the thread-bound MDC it is written into the Reactor
+ * {@link reactor.util.context.Context} of the filter chain, from where {@link ReactiveTraceContext} exposes it
+ * to logging. When tracing is enabled, the exchange is timed as the server span until the response completes.
+ */
+public class TraceIdWebFilter implements WebFilter, Ordered {
+
+  /**
+   * Matcher of the exclude patterns.
+   */
+  private final ConfigurableFilter configurableFilter;
+
+  /**
+   * Generator of the trace IDs of requests without one.
+   */
+  private final TraceIdGenerator traceIdGenerator;
+
+  /**
+   * Tracer timing the server spans, {@code null} if tracing is disabled.
+   */
+  private final Tracer tracer;
+
+  /**
+   * Constructs a TraceIdWebFilter with exclude patterns.
+   *
+   * @param traceIdFilterProperties the properties for configuring the filter
+   * @param traceIdGenerator        the generator of the trace IDs of requests without one
+   * @param tracer                  optional tracer timing the server spans
+   */
+  public TraceIdWebFilter(TraceIdFilterProperties traceIdFilterProperties, TraceIdGenerator traceIdGenerator,
+      Tracer tracer) {
+    this.configurableFilter = new ConfigurableFilter(traceIdFilterProperties.getExcludePatterns());
+    this.traceIdGenerator = traceIdGenerator;
+    this.tracer = tracer;
+  }
+
+  /**
+   * Runs right after the highest precedence, so the trace context is available to all subsequent filters.
+   *
+   * @return the order
+   */
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE + 1;
+  }
+
+  /**
+   * Processes the exchange by adding the trace context to exchange attributes, response headers and the
+   * Reactor context of the chain.
+   *
+   * @param exchange the current exchange
+   * @param chain    the filter chain
+   * @return completion of the chain
+   */
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    if (configurableFilter.shouldNotFilter(request.getPath().pathWithinApplication().value())) {
+      return chain.filter(exchange);
+    }
+    TraceContext context = resolveTraceContext(request.getHeaders());
+    String traceId = context.getTraceId();
+    exchange.getAttributes().put(TRACE_ID_HEADER, traceId);
+    exchange.getAttributes().put(TraceContext.REQUEST_ATTRIBUTE, context);
+    HttpHeaders responseHeaders = exchange.getResponse().getHeaders();
+    responseHeaders.add(TRACE_ID_HEADER, traceId);
+    if (TraceContext.isValidTraceId(traceId)) {
+      responseHeaders.add(TRACEPARENT_HEADER, context.toTraceParent());
+      if (context.getTraceState() != null) {
+        responseHeaders.add(TRACESTATE_HEADER, context.getTraceState());
+      }
+    }
+    Mono<Void> result = chain.filter(exchange).contextWrite(ReactiveTraceContext.with(context));
+    if (tracer == null) {
+      return result;
+    }
+    Span span = tracer.startSpan(request.getMethod().name(), context);
+    span.detach();
+    return result
+        .doOnError(span::error)
+        .doFinally(signal -> {
+          if (span.isSampled()) {
+            HttpStatusCode status = signal == SignalType.ON_ERROR ? HttpStatus.INTERNAL_SERVER_ERROR
+                : exchange.getResponse().getStatusCode();
+            span.tag("http.status_code", status != null ? Integer.toString(status.value()) : signal.toString());
+          }
+          span.end();
+        });
+  }
+
+  /**
+   * Resolves the trace context of a request from its traceparent or X-Trace-Id header, with a new span ID.
+   *
+   * @param headers the request headers
+   * @return the trace context
+   */
+  private TraceContext resolveTraceContext(HttpHeaders headers) {
+    TraceContext caller = TraceContext.parse(headers.getFirst(TRACEPARENT_HEADER),
+        headers.getFirst(TRACESTATE_HEADER));
+    if (caller != null) {
+      return new TraceContext(caller.getTraceId(), TraceContext.nextSpanId(), caller.getSpanId(),
+          caller.isSampled(), caller.getTraceState());
+    }
+    String traceId = headers.getFirst(TRACE_ID_HEADER);
+    if (StringUtilsPlus.isEmpty(traceId)) {
+      traceId = traceIdGenerator.generate();
+    }
+    return new TraceContext(traceId, TraceContext.nextSpanId(), 0, tracer != null && tracer.sample(), null);
+  }
+}
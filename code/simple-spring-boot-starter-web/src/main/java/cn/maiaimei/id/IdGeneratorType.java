@@ -0,0 +1,18 @@
+package cn.maiaimei.id;
+
+/**
+ * Built-in {@link LongIdGenerator}s.
+ */
+public enum IdGeneratorType {
+
+  /**
+   * {@link SnowflakeIdGenerator}: IDs unique per worker ID, generated without any I/O.
+   */
+  SNOWFLAKE,
+
+  /**
+   * {@link SegmentIdGenerator}: IDs unique across all instances sharing the id_segment table, reserved from
+   * the database in ranges.
+   */
+  SEGMENT
+}
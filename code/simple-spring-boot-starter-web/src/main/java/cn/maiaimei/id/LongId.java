@@ -0,0 +1,34 @@
+package cn.maiaimei.id;
+
+import cn.maiaimei.id.jackson.LongIdDeserializer;
+import cn.maiaimei.id.jackson.LongIdSerializer;
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Marks a {@code long} or {@code Long} as a 64-bit ID.
+ * <p>
+ * On a property, the ID is written to JSON as a string and read from a string or a number. On a request
+ * parameter or path variable, the ID is parsed by the {@link LongIdConverter} as strict decimal digits.
+ *
+ * <pre>{@code
+ * @LongId
+ * private Long id;
+ *
+ * @GetMapping("/{id}")
+ * public User getUser(@PathVariable @LongId long id)
+ * }</pre>
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonSerialize(using = LongIdSerializer.class)
+@JsonDeserialize(using = LongIdDeserializer.class)
+public @interface LongId {
+
+}
@@ -0,0 +1,38 @@
+package cn.maiaimei.id;
+
+import java.util.Set;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
+
+/**
+ * Converts request parameters and path variables annotated with {@link LongId} to {@code long} IDs with
+ * {@link LongIds#parse(CharSequence)}.
+ * <p>
+ * Other {@code long} targets keep the default conversion.
+ */
+public class LongIdConverter implements ConditionalGenericConverter {
+
+  /**
+   * The supported source and target types.
+   */
+  private static final Set<ConvertiblePair> CONVERTIBLE_TYPES = Set.of(
+      new ConvertiblePair(String.class, Long.class), new ConvertiblePair(String.class, long.class));
+
+  @Override
+  public Set<ConvertiblePair> getConvertibleTypes() {
+    return CONVERTIBLE_TYPES;
+  }
+
+  @Override
+  public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+    return targetType.hasAnnotation(LongId.class);
+  }
+
+  @Override
+  public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+    if (source == null || ((String) source).isEmpty()) {
+      return null;
+    }
+    return LongIds.parse((String) source);
+  }
+}
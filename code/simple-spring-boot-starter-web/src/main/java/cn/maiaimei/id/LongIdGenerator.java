@@ -0,0 +1,17 @@
+package cn.maiaimei.id;
+
+/**
+ * Generates unique, positive 64-bit IDs.
+ * <p>
+ * Define a bean of this type to replace the auto-configured generator. Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface LongIdGenerator {
+
+  /**
+   * Generates a new ID.
+   *
+   * @return the ID
+   */
+  long nextId();
+}
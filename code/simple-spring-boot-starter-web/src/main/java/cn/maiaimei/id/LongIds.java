@@ -0,0 +1,139 @@
+package cn.maiaimei.id;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * Utility methods for 64-bit IDs: strict decimal parsing without intermediate objects and JDBC binding.
+ * <p>
+ * IDs are written to JSON as strings, since JavaScript numbers lose precision beyond 2^53, and are parsed
+ * from decimal digits only: unlike {@link Long#decode(String)}, a leading zero does not mean octal.
+ */
+public final class LongIds {
+
+  /**
+   * Maximum number of digits of a long.
+   */
+  private static final int MAX_DIGITS = 19;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private LongIds() {
+    throw new UnsupportedOperationException("Utility class cannot be instantiated");
+  }
+
+  /**
+   * Parses a non-negative decimal ID.
+   *
+   * @param text the ID
+   * @return the ID
+   * @throws NumberFormatException if the text is not a non-negative decimal long
+   */
+  public static long parse(CharSequence text) {
+    if (Objects.isNull(text)) {
+      throw new NumberFormatException("ID must not be null");
+    }
+    int length = text.length();
+    if (length == 0 || length > MAX_DIGITS) {
+      throw invalid(text);
+    }
+    long value = 0;
+    for (int i = 0; i < length; i++) {
+      int digit = text.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw invalid(text);
+      }
+      value = value * 10 + digit;
+    }
+    if (value < 0) {
+      throw invalid(text);
+    }
+    return value;
+  }
+
+  /**
+   * Parses a non-negative decimal ID from a range of characters, e.g. the text buffer of a JSON parser.
+   *
+   * @param chars  the characters
+   * @param offset the index of the first character
+   * @param length the number of characters
+   * @return the ID
+   * @throws NumberFormatException if the characters are not a non-negative decimal long
+   */
+  public static long parse(char[] chars, int offset, int length) {
+    if (length == 0 || length > MAX_DIGITS) {
+      throw invalid(new String(chars, offset, length));
+    }
+    long value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      int digit = chars[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw invalid(new String(chars, offset, length));
+      }
+      value = value * 10 + digit;
+    }
+    if (value < 0) {
+      throw invalid(new String(chars, offset, length));
+    }
+    return value;
+  }
+
+  /**
+   * Writes the decimal digits of a non-negative ID into a buffer, ending at its last index.
+   *
+   * @param id     the ID, not negative
+   * @param buffer the buffer, at least 19 characters long
+   * @return the index of the first digit
+   */
+  public static int format(long id, char[] buffer) {
+    int position = buffer.length;
+    do {
+      buffer[--position] = (char) ('0' + id % 10);
+      id /= 10;
+    } while (id > 0);
+    return position;
+  }
+
+  /**
+   * Binds an ID to a statement parameter, binding SQL NULL for {@code null}.
+   *
+   * @param ps    the statement
+   * @param index the parameter index, starting at 1
+   * @param id    the ID, may be {@code null}
+   * @throws SQLException if the parameter cannot be bound
+   */
+  public static void setId(PreparedStatement ps, int index, Long id) throws SQLException {
+    if (Objects.nonNull(id)) {
+      ps.setLong(index, id);
+    } else {
+      ps.setNull(index, Types.BIGINT);
+    }
+  }
+
+  /**
+   * Reads an ID column, BIGINT or an integral DECIMAL, without creating a BigDecimal.
+   *
+   * @param rs     the result set, positioned on a row
+   * @param column the column label
+   * @return the ID, or {@code null} if SQL NULL
+   * @throws SQLException if the column cannot be read
+   */
+  public static Long getId(ResultSet rs, String column) throws SQLException {
+    long id = rs.getLong(column);
+    return id == 0 && rs.wasNull() ? null : id;
+  }
+
+  /**
+   * Creates the exception of an invalid ID.
+   *
+   * @param text the invalid ID
+   * @return the exception
+   */
+  private static NumberFormatException invalid(CharSequence text) {
+    return new NumberFormatException("Invalid ID: \"" + text + "\"");
+  }
+}
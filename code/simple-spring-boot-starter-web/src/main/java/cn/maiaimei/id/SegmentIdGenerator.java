@@ -0,0 +1,409 @@
+package cn.maiaimei.id;
+
+import cn.maiaimei.id.properties.IdGeneratorProperties;
+import java.sql.Timestamp;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link LongIdGenerator} serving IDs from ranges (segments) reserved in the {@code id_segment} table, so IDs
+ * are unique across all instances sharing the table.
+ * <p>
+ * A segment is reserved by a single {@code UPDATE id_segment SET max_id = max_id + step} on the row of the
+ * business tag, which the database serializes across instances, followed by reading the new {@code max_id}
+ * in the same transaction; the segment holds the IDs {@code (max_id - step, max_id]}. IDs are then served
+ * from memory by incrementing an {@link AtomicLong}, so the database is only hit once per segment. Once the
+ * current segment is consumed beyond the prefetch threshold, the next one is reserved on a background thread,
+ * so callers normally never wait for the database. The step adapts to the consumption rate: it doubles (up to
+ * the maximum step) when a segment lasted less than the target duration and halves (down to the configured
+ * step) when it lasted more than twice as long.
+ * <p>
+ * IDs are increasing within an instance but not across instances, and IDs of segments left unused at
+ * shutdown are skipped.
+ */
+@Slf4j
+public class SegmentIdGenerator implements LongIdGenerator, AutoCloseable {
+
+  /**
+   * Default table name, created by the bundled schema script.
+   */
+  public static final String DEFAULT_TABLE_NAME = "id_segment";
+
+  /**
+   * Location of the bundled schema script.
+   */
+  public static final String SCHEMA_LOCATION = "classpath:db/id_segment.sql";
+
+  /**
+   * Name of the prefetch thread.
+   */
+  private static final String THREAD_NAME = "id-segment-prefetch";
+
+  /**
+   * Allowed table names, optionally schema-qualified.
+   */
+  private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+  /**
+   * Update statement reserving a segment, formatted with the table name.
+   */
+  private static final String UPDATE_SQL = "UPDATE %s SET max_id = max_id + ?, step = ?, update_time = ? "
+      + "WHERE biz_tag = ?";
+
+  /**
+   * Query of the end of the reserved segment, formatted with the table name.
+   */
+  private static final String SELECT_SQL = "SELECT max_id FROM %s WHERE biz_tag = ?";
+
+  /**
+   * Insert statement of the row of a new business tag, formatted with the table name.
+   */
+  private static final String INSERT_SQL = "INSERT INTO %s (biz_tag, max_id, step, update_time) VALUES (?, 0, ?, ?)";
+
+  /**
+   * Placeholder segment before the first reservation, already exhausted.
+   */
+  private static final Segment EMPTY = new Segment(1, 0, 0, 0);
+
+  /**
+   * Template executing the statements.
+   */
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Template wrapping each reservation in one transaction.
+   */
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Update statement for the configured table.
+   */
+  private final String updateSql;
+
+  /**
+   * Query for the configured table.
+   */
+  private final String selectSql;
+
+  /**
+   * Insert statement for the configured table.
+   */
+  private final String insertSql;
+
+  /**
+   * The business tag the IDs are reserved for.
+   */
+  private final String bizTag;
+
+  /**
+   * Smallest step, the configured one.
+   */
+  private final int minStep;
+
+  /**
+   * Largest step.
+   */
+  private final int maxStep;
+
+  /**
+   * Fraction of a segment consumed before the next one is prefetched.
+   */
+  private final double prefetchThreshold;
+
+  /**
+   * Target lifetime of a segment the step is adapted to, in nanoseconds.
+   */
+  private final long targetDurationNanos;
+
+  /**
+   * Thread reserving the next segments.
+   */
+  private final ExecutorService prefetcher;
+
+  /**
+   * Segment the IDs are currently served from.
+   */
+  private volatile Segment current = EMPTY;
+
+  /**
+   * Prefetched segment, {@code null} if none is ready. Guarded by {@code this}.
+   */
+  private Segment next;
+
+  /**
+   * Whether a prefetch is in progress. Guarded by {@code this}.
+   */
+  private boolean prefetching;
+
+  /**
+   * Constructs a SegmentIdGenerator; no segment is reserved until the first ID is requested.
+   *
+   * @param dataSource the DataSource holding the id_segment table
+   * @param segment    the properties for configuring the generator
+   */
+  public SegmentIdGenerator(DataSource dataSource, IdGeneratorProperties.Segment segment) {
+    String tableName = segment.getTableName();
+    if (Objects.isNull(tableName) || !TABLE_NAME_PATTERN.matcher(tableName).matches()) {
+      throw new IllegalArgumentException("Invalid table name: " + tableName);
+    }
+    if (segment.getStep() < 1 || segment.getMaxStep() < segment.getStep()) {
+      throw new IllegalArgumentException("Segment step must be positive and not exceed the maximum step: "
+          + segment.getStep() + ", " + segment.getMaxStep());
+    }
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    this.updateSql = String.format(UPDATE_SQL, tableName);
+    this.selectSql = String.format(SELECT_SQL, tableName);
+    this.insertSql = String.format(INSERT_SQL, tableName);
+    this.bizTag = segment.getBizTag();
+    this.minStep = segment.getStep();
+    this.maxStep = segment.getMaxStep();
+    this.prefetchThreshold = Math.min(1.0, Math.max(0.0, segment.getPrefetchThreshold()));
+    this.targetDurationNanos = segment.getTargetDuration().toNanos();
+    this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Generates a new ID.
+   *
+   * @return the ID
+   * @throws DataAccessException if a segment must be reserved and the database is unavailable
+   */
+  @Override
+  public long nextId() {
+    while (true) {
+      Segment segment = current;
+      long id = segment.cursor.getAndIncrement();
+      if (id <= segment.max) {
+        if (id >= segment.prefetchAt) {
+          prefetch(segment);
+        }
+        return id;
+      }
+      advance(segment);
+    }
+  }
+
+  /**
+   * Generates several IDs at once, taking them from the current segment in a single atomic step when it holds
+   * enough of them.
+   *
+   * @param n the number of IDs
+   * @return the IDs, increasing
+   * @throws DataAccessException if a segment must be reserved and the database is unavailable
+   */
+  public long[] nextIds(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Number of IDs must not be negative: " + n);
+    }
+    long[] ids = new long[n];
+    int filled = 0;
+    while (filled < n) {
+      Segment segment = current;
+      int wanted = n - filled;
+      long first = segment.cursor.getAndAdd(wanted);
+      if (first <= segment.max) {
+        long last = Math.min(segment.max, first + wanted - 1);
+        for (long id = first; id <= last; id++) {
+          ids[filled++] = id;
+        }
+        if (last >= segment.prefetchAt) {
+          prefetch(segment);
+        }
+      } else {
+        advance(segment);
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * Returns the current step, the size of the last reserved segment.
+   *
+   * @return the step
+   */
+  public int getStep() {
+    Segment segment = current;
+    return segment == EMPTY ? minStep : segment.step;
+  }
+
+  /**
+   * Stops the prefetch thread; IDs are reserved on the calling thread from then on.
+   */
+  @Override
+  public void close() {
+    prefetcher.shutdownNow();
+  }
+
+  /**
+   * Replaces an exhausted segment with the prefetched one, or with a segment reserved on the calling thread
+   * if none is ready, unless another thread already replaced it.
+   *
+   * @param exhausted the exhausted segment
+   */
+  private synchronized void advance(Segment exhausted) {
+    if (current != exhausted) {
+      return;
+    }
+    while (prefetching && next == null) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the next ID segment", e);
+      }
+    }
+    if (next != null) {
+      current = next;
+      next = null;
+    } else {
+      current = reserve(nextStep(exhausted));
+    }
+  }
+
+  /**
+   * Starts reserving the next segment on the prefetch thread, once per segment.
+   *
+   * @param segment the segment that reached its prefetch threshold
+   */
+  private void prefetch(Segment segment) {
+    if (!segment.prefetchTriggered.compareAndSet(false, true)) {
+      return;
+    }
+    int step = nextStep(segment);
+    synchronized (this) {
+      if (current != segment || next != null || prefetching) {
+        return;
+      }
+      prefetching = true;
+    }
+    try {
+      prefetcher.execute(() -> {
+        Segment reserved = null;
+        try {
+          reserved = reserve(step);
+        } catch (RuntimeException e) {
+          log.warn("Failed to prefetch the next ID segment of {}, reserving it on demand: {}", bizTag,
+              e.getMessage());
+        } finally {
+          synchronized (this) {
+            next = reserved;
+            prefetching = false;
+            notifyAll();
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      synchronized (this) {
+        prefetching = false;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Computes the step of the segment following a segment, from how fast the segment is consumed.
+   *
+   * @param segment the segment
+   * @return the step
+   */
+  private int nextStep(Segment segment) {
+    if (segment == EMPTY) {
+      return minStep;
+    }
+    long elapsed = System.nanoTime() - segment.reservedNanos;
+    if (elapsed < targetDurationNanos) {
+      return (int) Math.min((long) segment.step * 2, maxStep);
+    }
+    if (elapsed > targetDurationNanos * 2) {
+      return Math.max(segment.step / 2, minStep);
+    }
+    return segment.step;
+  }
+
+  /**
+   * Reserves a segment, creating the row of the business tag first if it does not exist.
+   *
+   * @param step the size of the segment
+   * @return the segment
+   */
+  private Segment reserve(int step) {
+    Long max = transactionTemplate.execute(status -> {
+      Timestamp now = new Timestamp(System.currentTimeMillis());
+      if (jdbcTemplate.update(updateSql, step, step, now, bizTag) == 0) {
+        return null;
+      }
+      return jdbcTemplate.queryForObject(selectSql, Long.class, bizTag);
+    });
+    if (max == null) {
+      try {
+        jdbcTemplate.update(insertSql, bizTag, step, new Timestamp(System.currentTimeMillis()));
+        log.info("Created ID segment row for {}", bizTag);
+      } catch (DuplicateKeyException e) {
+        // Created concurrently by another instance.
+      }
+      return reserve(step);
+    }
+    log.debug("Reserved ID segment ({}, {}] of {}", max - step, max, bizTag);
+    return new Segment(max - step + 1, max, step, prefetchThreshold);
+  }
+
+  /**
+   * A reserved range of IDs.
+   */
+  private static final class Segment {
+
+    /**
+     * Next ID to serve; may run past {@link #max} once the segment is exhausted.
+     */
+    private final AtomicLong cursor;
+
+    /**
+     * Last ID of the segment.
+     */
+    private final long max;
+
+    /**
+     * Size of the segment.
+     */
+    private final int step;
+
+    /**
+     * First ID whose serving triggers the prefetch of the next segment.
+     */
+    private final long prefetchAt;
+
+    /**
+     * Monotonic time the segment was reserved at.
+     */
+    private final long reservedNanos = System.nanoTime();
+
+    /**
+     * Whether the prefetch of the next segment was triggered.
+     */
+    private final AtomicBoolean prefetchTriggered = new AtomicBoolean();
+
+    Segment(long start, long max, int step, double prefetchThreshold) {
+      this.cursor = new AtomicLong(start);
+      this.max = max;
+      this.step = step;
+      this.prefetchAt = start + (long) (step * prefetchThreshold);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package cn.maiaimei.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Snowflake-style {@link LongIdGenerator}: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of worker ID
+ * and 12 bits of per-millisecond sequence, so IDs are positive, roughly time-ordered and unique across up to
+ * 1024 workers for about 69 years.
+ * <p>
+ * The last millisecond and sequence are packed into a single state word updated by compare-and-set, so
+ * generating an ID takes no lock and allocates nothing. When the 4096 IDs of a millisecond are used up,
+ * callers park until the clock reaches the next millisecond, capping a worker at about 4 million IDs per
+ * second while keeping the timestamps of the IDs true to the clock. When the clock moves backwards, the
+ * generator keeps counting from the last millisecond it used, staying unique and monotonic; a rollback beyond
+ * the tolerance fails instead, as IDs would then run far ahead of the clock.
+ */
+public class SnowflakeIdGenerator implements LongIdGenerator {
+
+  /**
+   * Start of the timestamp part: 2024-01-01T00:00:00Z.
+   */
+  public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+  /**
+   * Number of bits of the worker ID.
+   */
+  public static final int WORKER_ID_BITS = 10;
+
+  /**
+   * Number of bits of the sequence.
+   */
+  public static final int SEQUENCE_BITS = 12;
+
+  /**
+   * Largest worker ID.
+   */
+  public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+
+  /**
+   * Largest sequence within a millisecond.
+   */
+  private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+  /**
+   * Shift of the timestamp part.
+   */
+  private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+  /**
+   * Worker ID part of the IDs, already shifted.
+   */
+  private final long workerBits;
+
+  /**
+   * Largest clock rollback tolerated, in milliseconds.
+   */
+  private final long maxClockBackwardMillis;
+
+  /**
+   * Last used milliseconds since the epoch, shifted by {@link #SEQUENCE_BITS}, and last used sequence.
+   */
+  private final AtomicLong state = new AtomicLong();
+
+  /**
+   * Constructs a SnowflakeIdGenerator.
+   *
+   * @param workerId               the worker ID, unique among the running instances, 0 to 1023
+   * @param maxClockBackwardMillis the largest clock rollback tolerated, in milliseconds
+   * @throws IllegalArgumentException if the worker ID is out of range
+   */
+  public SnowflakeIdGenerator(int workerId, long maxClockBackwardMillis) {
+    if (workerId < 0 || workerId > MAX_WORKER_ID) {
+      throw new IllegalArgumentException("Worker ID must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+    }
+    this.workerBits = (long) workerId << SEQUENCE_BITS;
+    this.maxClockBackwardMillis = Math.max(0, maxClockBackwardMillis);
+  }
+
+  /**
+   * Generates a new ID.
+   *
+   * @return the ID
+   * @throws IllegalStateException if the clock moved backwards by more than the tolerance
+   */
+  @Override
+  public long nextId() {
+    while (true) {
+      long current = state.get();
+      long lastMillis = current >>> SEQUENCE_BITS;
+      long nowMillis = System.currentTimeMillis() - EPOCH;
+      long next;
+      if (nowMillis > lastMillis) {
+        next = nowMillis << SEQUENCE_BITS;
+      } else {
+        if (lastMillis - nowMillis > maxClockBackwardMillis) {
+          throw new IllegalStateException("Clock moved backwards by " + (lastMillis - nowMillis)
+              + "ms, refusing to generate IDs");
+        }
+        if ((current & MAX_SEQUENCE) == MAX_SEQUENCE) {
+          parkUntilAfter(lastMillis + EPOCH);
+          continue;
+        }
+        next = current + 1;
+      }
+      if (state.compareAndSet(current, next)) {
+        return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT | workerBits | (next & MAX_SEQUENCE);
+      }
+    }
+  }
+
+  /**
+   * Parks the calling thread until the clock has passed a millisecond.
+   *
+   * @param epochMillis the epoch millisecond to wait out
+   */
+  private static void parkUntilAfter(long epochMillis) {
+    Instant now = Instant.now();
+    long nanos = (epochMillis - now.toEpochMilli() + 1) * 1_000_000L - now.getNano() % 1_000_000L;
+    if (nanos > 0) {
+      LockSupport.parkNanos(nanos);
+    }
+  }
+
+  /**
+   * Returns the creation time of an ID.
+   *
+   * @param id the ID
+   * @return the epoch milliseconds
+   */
+  public static long getTimestamp(long id) {
+    return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+  }
+
+  /**
+   * Returns the worker ID of an ID.
+   *
+   * @param id the ID
+   * @return the worker ID
+   */
+  public static int getWorkerId(long id) {
+    return (int) (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+  }
+
+  /**
+   * Returns the sequence of an ID within its millisecond.
+   *
+   * @param id the ID
+   * @return the sequence, 0 to 4095
+   */
+  public static int getSequence(long id) {
+    return (int) (id & MAX_SEQUENCE);
+  }
+}
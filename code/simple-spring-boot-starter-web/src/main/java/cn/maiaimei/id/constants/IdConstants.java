@@ -0,0 +1,17 @@
+package cn.maiaimei.id.constants;
+
+/**
+ * ID generation constants.
+ */
+public final class IdConstants {
+
+  public static final String ID_GENERATOR = "app.id";
+  public static final String ID_GENERATOR_ENABLED = "app.id.enabled";
+  public static final String ID_GENERATOR_TYPE = "app.id.type";
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private IdConstants() {
+  }
+}
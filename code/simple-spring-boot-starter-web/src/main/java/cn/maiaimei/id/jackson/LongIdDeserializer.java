@@ -0,0 +1,35 @@
+package cn.maiaimei.id.jackson;
+
+import cn.maiaimei.id.LongIds;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Deserializes a {@link cn.maiaimei.id.LongId} from a JSON string, parsed from the parser's text buffer
+ * without an intermediate String, or from a JSON integer.
+ */
+public class LongIdDeserializer extends ValueDeserializer<Long> {
+
+  @Override
+  public Long deserialize(JsonParser p, DeserializationContext ctxt) throws JacksonException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NUMBER_INT) {
+      return p.getLongValue();
+    }
+    if (token != JsonToken.VALUE_STRING) {
+      return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+    }
+    int length = p.getStringLength();
+    if (length == 0) {
+      return null;
+    }
+    try {
+      return LongIds.parse(p.getStringCharacters(), p.getStringOffset(), length);
+    } catch (NumberFormatException e) {
+      throw ctxt.weirdStringException(p.getString(), Long.class, "not a decimal ID");
+    }
+  }
+}
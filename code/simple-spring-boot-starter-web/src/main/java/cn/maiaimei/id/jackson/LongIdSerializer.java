@@ -0,0 +1,31 @@
+package cn.maiaimei.id.jackson;
+
+import cn.maiaimei.id.LongIds;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Serializes a {@link cn.maiaimei.id.LongId} as a JSON string, written from a digit buffer instead of an
+ * intermediate String.
+ */
+public class LongIdSerializer extends ValueSerializer<Long> {
+
+  /**
+   * Per-thread reusable buffers the digits are written into before being copied by the generator.
+   */
+  private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[20]);
+
+  @Override
+  public void serialize(Long value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
+    long id = value;
+    if (id < 0) {
+      gen.writeString(Long.toString(id));
+      return;
+    }
+    char[] buffer = BUFFERS.get();
+    int start = LongIds.format(id, buffer);
+    gen.writeString(buffer, start, buffer.length - start);
+  }
+}
@@ -0,0 +1,104 @@
+package cn.maiaimei.id.properties;
+
+import cn.maiaimei.id.IdGeneratorType;
+import cn.maiaimei.id.constants.IdConstants;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the ID generator.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = IdConstants.ID_GENERATOR)
+@ConditionalOnProperty(name = IdConstants.ID_GENERATOR_ENABLED, matchIfMissing = true)
+public class IdGeneratorProperties {
+
+  /**
+   * Whether to auto-configure the LongIdGenerator. Default is true.
+   */
+  private boolean enabled = true;
+
+  /**
+   * The generator to auto-configure; SEGMENT requires a DataSource. Default is SNOWFLAKE.
+   */
+  private IdGeneratorType type = IdGeneratorType.SNOWFLAKE;
+
+  /**
+   * Worker ID of this instance, 0 to 1023, unique among all instances generating IDs. Derived from the host
+   * name and process ID if not set, which may collide; set it explicitly when running several instances.
+   */
+  private Integer workerId;
+
+  /**
+   * Largest clock rollback tolerated by continuing from the last used millisecond; larger rollbacks fail ID
+   * generation. Default is 5s.
+   */
+  private Duration maxClockBackward = Duration.ofSeconds(5);
+
+  /**
+   * Properties of the database-backed segment generator.
+   */
+  private Segment segment = new Segment();
+
+  /**
+   * Properties for reserving ID ranges from the id_segment table.
+   */
+  @Data
+  public static class Segment {
+
+    /**
+     * Name of the table the segments are reserved from.
+     * <p>
+     * Default is id_segment.
+     */
+    private String tableName = "id_segment";
+
+    /**
+     * Whether to create the id_segment table on startup if it does not exist.
+     * <p>
+     * Only applies to the default table name. Default is false.
+     */
+    private boolean initializeSchema = false;
+
+    /**
+     * Business tag, the row of the table the IDs are reserved from; generators sharing a tag never return
+     * the same ID.
+     * <p>
+     * Default is default.
+     */
+    private String bizTag = "default";
+
+    /**
+     * Initial and smallest number of IDs reserved per database round trip.
+     * <p>
+     * Default is 1000.
+     */
+    private int step = 1000;
+
+    /**
+     * Largest number of IDs reserved per database round trip as the step grows with the consumption rate.
+     * <p>
+     * Default is 100000.
+     */
+    private int maxStep = 100_000;
+
+    /**
+     * Fraction of a segment consumed before the next one is reserved in the background.
+     * <p>
+     * Default is 0.8.
+     */
+    private double prefetchThreshold = 0.8;
+
+    /**
+     * Target lifetime of a segment: the step doubles when a segment is consumed faster and halves when it
+     * lasts more than twice as long.
+     * <p>
+     * Default is 15m.
+     */
+    private Duration targetDuration = Duration.ofMinutes(15);
+  }
+}
@@ -0,0 +1,11 @@
+package cn.maiaimei.logger;
+
+/**
+ * Marker for {@link RequestResponseLogger}s that already hand exchanges off to a thread of their own, so
+ * calling threads only enqueue them.
+ * <p>
+ * Such loggers are used as they are rather than being wrapped in an {@link AsyncRequestResponseLogger}.
+ */
+public interface AsyncDispatchingLogger extends RequestResponseLogger {
+
+}
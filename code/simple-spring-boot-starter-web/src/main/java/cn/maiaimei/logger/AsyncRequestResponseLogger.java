@@ -0,0 +1,296 @@
+package cn.maiaimei.logger;
+
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link RequestResponseLogger} that hands entries to a dedicated consumer thread.
+ * <p>
+ * The calling thread only enqueues the entry into a bounded {@link RingBuffer}; the consumer thread drains
+ * the buffer in batches and invokes the delegate. When the buffer is full the configured
+ * {@link OverflowPolicy} is applied. {@link #close()} stops accepting new entries and drains the buffer
+ * before returning, bounded by the configured shutdown timeout.
+ */
+@Slf4j
+public class AsyncRequestResponseLogger implements AsyncDispatchingLogger, AutoCloseable {
+
+  /**
+   * Name of the consumer thread.
+   */
+  private static final String THREAD_NAME = "request-logging-async";
+
+  /**
+   * Maximum time the idle consumer parks before re-checking the buffer.
+   */
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /**
+   * Time a producer parks between attempts under {@link OverflowPolicy#BLOCK}.
+   */
+  private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  /**
+   * The logger that receives the entries on the consumer thread.
+   */
+  private final RequestResponseLogger delegate;
+
+  /**
+   * Buffer of pending entries.
+   */
+  private final RingBuffer<Consumer<RequestResponseLogger>> buffer;
+
+  /**
+   * Maximum number of entries drained per batch.
+   */
+  private final int batchSize;
+
+  /**
+   * Policy applied when the buffer is full.
+   */
+  private final OverflowPolicy overflowPolicy;
+
+  /**
+   * Maximum time a producer waits for free space under {@link OverflowPolicy#BLOCK}.
+   */
+  private final long offerTimeoutNanos;
+
+  /**
+   * Maximum time {@link #close()} waits for the buffer to drain.
+   */
+  private final Duration shutdownTimeout;
+
+  /**
+   * Number of entries discarded because the buffer was full.
+   */
+  private final LongAdder droppedCount = new LongAdder();
+
+  /**
+   * The consumer thread.
+   */
+  private final Thread consumer;
+
+  /**
+   * Whether the logger still accepts entries.
+   */
+  private volatile boolean running = true;
+
+  /**
+   * Whether the consumer is parked waiting for entries.
+   */
+  private volatile boolean waiting;
+
+  /**
+   * Dropped count at the time of the last warning, only accessed by the consumer thread.
+   */
+  private long reportedDroppedCount;
+
+  /**
+   * Constructs an AsyncRequestResponseLogger and starts its consumer thread.
+   *
+   * @param delegate   the logger that receives the entries
+   * @param properties the async dispatch properties
+   * @throws IllegalArgumentException if the shutdown timeout is not positive
+   */
+  public AsyncRequestResponseLogger(RequestResponseLogger delegate, RequestLoggingFilterProperties.Async properties) {
+    if (properties.getShutdownTimeout() == null || properties.getShutdownTimeout().toMillis() <= 0) {
+      throw new IllegalArgumentException("Shutdown timeout must be positive: " + properties.getShutdownTimeout());
+    }
+    this.delegate = delegate;
+    this.buffer = new RingBuffer<>(properties.getBufferSize());
+    this.batchSize = Math.max(1, properties.getBatchSize());
+    this.overflowPolicy = properties.getOverflowPolicy();
+    this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+    this.shutdownTimeout = properties.getShutdownTimeout();
+    this.consumer = new Thread(this::consume, THREAD_NAME);
+    this.consumer.setDaemon(true);
+    this.consumer.start();
+  }
+
+  /**
+   * Enqueues the request data for the delegate.
+   *
+   * @param requestData the request data to log
+   */
+  @Override
+  public void logRequest(Map<String, Object> requestData) {
+    enqueue(logger -> logger.logRequest(requestData));
+  }
+
+  /**
+   * Enqueues the response data for the delegate.
+   *
+   * @param responseData the response data to log
+   */
+  @Override
+  public void logResponse(Map<String, Object> responseData) {
+    enqueue(logger -> logger.logResponse(responseData));
+  }
+
+  /**
+   * Enqueues the exchange for the delegate.
+   *
+   * @param exchange the completed exchange
+   */
+  @Override
+  public void logExchange(HttpExchange exchange) {
+    enqueue(logger -> logger.logExchange(exchange));
+  }
+
+  /**
+   * Copies the event on the calling thread, since it is reused once this method returns,
+   * and enqueues the copy for the delegate.
+   *
+   * @param event the exchange event
+   */
+  @Override
+  public void logEvent(ExchangeEvent event) {
+    logExchange(event.toExchange());
+  }
+
+  /**
+   * Returns the number of entries discarded because the buffer was full.
+   *
+   * @return the dropped entry count
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * Returns the number of entries waiting to be delivered.
+   *
+   * @return the pending entry count
+   */
+  public int getPendingCount() {
+    return buffer.size();
+  }
+
+  /**
+   * Stops accepting entries and drains the buffer, waiting at most the configured shutdown timeout.
+   * <p>
+   * Entries enqueued by producers that passed the running check just before the consumer exited are
+   * delivered on the closing thread.
+   */
+  @Override
+  public void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(consumer);
+    try {
+      consumer.join(shutdownTimeout.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (consumer.isAlive()) {
+      log.warn("Async request logging did not drain within {}, {} entries discarded",
+          shutdownTimeout, buffer.size());
+    } else {
+      buffer.drain(this::deliver, Integer.MAX_VALUE);
+    }
+  }
+
+  /**
+   * Enqueues an entry according to the overflow policy.
+   *
+   * @param entry the entry to enqueue
+   */
+  private void enqueue(Consumer<RequestResponseLogger> entry) {
+    if (!running) {
+      deliver(entry);
+      return;
+    }
+    if (buffer.offer(entry) || offerOnOverflow(entry)) {
+      if (waiting) {
+        LockSupport.unpark(consumer);
+      }
+      if (!running && !consumer.isAlive()) {
+        // closed while enqueuing, after the final drain
+        buffer.drain(this::deliver, Integer.MAX_VALUE);
+      }
+    } else {
+      droppedCount.increment();
+    }
+  }
+
+  /**
+   * Applies the overflow policy after a failed offer.
+   *
+   * @param entry the entry to enqueue
+   * @return {@code true} if the entry was eventually enqueued
+   */
+  private boolean offerOnOverflow(Consumer<RequestResponseLogger> entry) {
+    switch (overflowPolicy) {
+      case DROP_OLDEST -> {
+        do {
+          if (buffer.poll() != null) {
+            droppedCount.increment();
+          }
+        } while (!buffer.offer(entry));
+        return true;
+      }
+      case BLOCK -> {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        do {
+          LockSupport.unpark(consumer);
+          LockSupport.parkNanos(BLOCK_PARK_NANOS);
+          if (buffer.offer(entry)) {
+            return true;
+          }
+        } while (System.nanoTime() - deadline < 0);
+        return false;
+      }
+      default -> {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Consumer loop: drains batches while running and empties the buffer once stopped.
+   */
+  private void consume() {
+    while (running || !buffer.isEmpty()) {
+      if (buffer.drain(this::deliver, batchSize) == 0) {
+        reportDropped();
+        waiting = true;
+        if (running && buffer.isEmpty()) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        waiting = false;
+      }
+    }
+    reportDropped();
+  }
+
+  /**
+   * Invokes the delegate, isolating failures so the consumer keeps running.
+   *
+   * @param entry the entry to deliver
+   */
+  private void deliver(Consumer<RequestResponseLogger> entry) {
+    try {
+      entry.accept(delegate);
+    } catch (RuntimeException e) {
+      log.error("Failed to deliver request logging entry", e);
+    }
+  }
+
+  /**
+   * Logs a warning when entries were dropped since the last report.
+   */
+  private void reportDropped() {
+    long dropped = droppedCount.sum();
+    if (dropped != reportedDroppedCount) {
+      log.warn("Async request logging buffer full, {} entries dropped so far", dropped);
+      reportedDroppedCount = dropped;
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package cn.maiaimei.logger;
+
+import cn.maiaimei.filter.model.PayloadCapture;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reusable, mutable record of a single HTTP exchange.
+ * <p>
+ * Instances are pooled by {@link cn.maiaimei.filter.RequestLoggingFilter} and {@link #reset() reset} between
+ * requests, so an event is only valid for the duration of the
+ * {@link RequestResponseLogger#logEvent(ExchangeEvent)} call it is passed to. Payloads reference the
+ * capture buffers of the request and response wrappers instead of copies; implementations that keep
+ * data beyond the call must copy it, e.g. via {@link #toExchange()}.
+ */
+@Getter
+@Setter
+public class ExchangeEvent {
+
+  /**
+   * Initial capacity of the header arrays.
+   */
+  private static final int INITIAL_HEADER_CAPACITY = 16;
+
+  /**
+   * Trace ID assigned by the TraceIdFilter, or {@code null} if none.
+   */
+  private String traceId;
+
+  /**
+   * Wall-clock start time in epoch milliseconds.
+   */
+  private long timestamp;
+
+  /**
+   * Monotonic start time in nanoseconds.
+   */
+  private long startNanos;
+
+  /**
+   * Monotonic end time in nanoseconds.
+   */
+  private long endNanos;
+
+  /**
+   * HTTP method.
+   */
+  private String method;
+
+  /**
+   * Request path without context path.
+   */
+  private String uri;
+
+  /**
+   * Raw query string, or {@code null} if not included.
+   */
+  private String queryString;
+
+  /**
+   * Client IP address, or {@code null} if not included.
+   */
+  private String clientIp;
+
+  /**
+   * Whether request headers are included.
+   */
+  private boolean headersIncluded;
+
+  /**
+   * Captured request payload, or {@code null} if not included.
+   */
+  private PayloadCapture requestPayload;
+
+  /**
+   * Charset of the request payload.
+   */
+  private Charset requestCharset;
+
+  /**
+   * Response status code.
+   */
+  private int status;
+
+  /**
+   * Captured response payload, or {@code null} if not included.
+   */
+  private PayloadCapture responsePayload;
+
+  /**
+   * Charset of the response payload.
+   */
+  private Charset responseCharset;
+
+  /**
+   * Header names, valid up to {@link #headerCount}.
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private String[] headerNames = new String[INITIAL_HEADER_CAPACITY];
+
+  /**
+   * Header values, valid up to {@link #headerCount}.
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private String[] headerValues = new String[INITIAL_HEADER_CAPACITY];
+
+  /**
+   * Number of headers.
+   */
+  @Setter(AccessLevel.NONE)
+  private int headerCount;
+
+  /**
+   * Adds a request header value; the values of a multi-valued header are added consecutively under the same
+   * name.
+   *
+   * @param name  the header name
+   * @param value the header value
+   */
+  public void addHeader(String name, String value) {
+    if (headerCount == headerNames.length) {
+      headerNames = Arrays.copyOf(headerNames, headerCount * 2);
+      headerValues = Arrays.copyOf(headerValues, headerCount * 2);
+    }
+    headerNames[headerCount] = name;
+    headerValues[headerCount] = value;
+    headerCount++;
+  }
+
+  /**
+   * Returns the name of the header at the given index.
+   *
+   * @param index the header index, less than {@link #getHeaderCount()}
+   * @return the header name
+   */
+  public String getHeaderName(int index) {
+    return headerNames[index];
+  }
+
+  /**
+   * Returns the value of the header at the given index.
+   *
+   * @param index the header index, less than {@link #getHeaderCount()}
+   * @return the header value
+   */
+  public String getHeaderValue(int index) {
+    return headerValues[index];
+  }
+
+  /**
+   * Clears all data so the event can be reused.
+   */
+  public void reset() {
+    traceId = null;
+    timestamp = 0;
+    startNanos = 0;
+    endNanos = 0;
+    method = null;
+    uri = null;
+    queryString = null;
+    clientIp = null;
+    headersIncluded = false;
+    requestPayload = null;
+    requestCharset = null;
+    status = 0;
+    responsePayload = null;
+    responseCharset = null;
+    Arrays.fill(headerNames, 0, headerCount, null);
+    Arrays.fill(headerValues, 0, headerCount, null);
+    headerCount = 0;
+  }
+
+  /**
+   * Returns the processing duration in milliseconds.
+   *
+   * @return the duration in milliseconds
+   */
+  public long getDurationMillis() {
+    return (endNanos - startNanos) / 1_000_000L;
+  }
+
+  /**
+   * Copies the event into an immutable {@link HttpExchange}.
+   *
+   * @return the exchange
+   */
+  public HttpExchange toExchange() {
+    Map<String, String> headers = null;
+    if (headersIncluded) {
+      headers = new LinkedHashMap<>();
+      for (int i = 0; i < headerCount; i++) {
+        headers.merge(headerNames[i], headerValues[i], HttpExchange::joinHeaderValues);
+      }
+      headers = Collections.unmodifiableMap(headers);
+    }
+    return new HttpExchange(traceId, timestamp, startNanos, endNanos, method, uri, queryString, clientIp, headers,
+        toString(requestPayload, requestCharset), isTruncated(requestPayload),
+        status,
+        toString(responsePayload, responseCharset), isTruncated(responsePayload));
+  }
+
+  /**
+   * Decodes a captured payload.
+   *
+   * @param payload the captured payload, may be {@code null}
+   * @param charset the payload charset
+   * @return the decoded payload, or {@code null} if nothing was captured
+   */
+  private static String toString(PayloadCapture payload, Charset charset) {
+    return Objects.nonNull(payload) && payload.getLength() > 0 ? payload.toString(charset) : null;
+  }
+
+  /**
+   * Returns whether a captured payload was truncated.
+   *
+   * @param payload the captured payload, may be {@code null}
+   * @return {@code true} if the payload was truncated
+   */
+  private static boolean isTruncated(PayloadCapture payload) {
+    return Objects.nonNull(payload) && payload.isTruncated();
+  }
+}
@@ -0,0 +1,159 @@
+package cn.maiaimei.logger;
+
+import static cn.maiaimei.constants.RequestResponseConstants.*;
+
+import cn.maiaimei.filter.model.PayloadCapture;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.ObjectWriteContext;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.core.json.JsonFactory;
+
+/**
+ * Serializes {@link ExchangeEvent}s as single-line JSON with Jackson's streaming {@link JsonGenerator}.
+ * <p>
+ * Property names are pre-encoded once, and UTF-8 payloads are copied from the capture buffers straight into
+ * the generator without being decoded into intermediate strings. Instances are thread-safe.
+ */
+public class ExchangeEventWriter {
+
+  private static final SerializableString TRACE_ID_NAME = new SerializedString(TRACE_ID);
+  private static final SerializableString METHOD_NAME = new SerializedString(METHOD);
+  private static final SerializableString URI_NAME = new SerializedString(URI);
+  private static final SerializableString QUERY_STRING_NAME = new SerializedString(QUERY_STRING);
+  private static final SerializableString CLIENT_IP_NAME = new SerializedString(CLIENT_IP);
+  private static final SerializableString HEADERS_NAME = new SerializedString(HEADERS);
+  private static final SerializableString PAYLOAD_NAME = new SerializedString(PAYLOAD);
+  private static final SerializableString PAYLOAD_TRUNCATED_NAME = new SerializedString(PAYLOAD_TRUNCATED);
+  private static final SerializableString STATUS_NAME = new SerializedString(STATUS);
+  private static final SerializableString DURATION_NAME = new SerializedString(DURATION);
+
+  /**
+   * Factory for the streaming generators.
+   */
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  /**
+   * Writes the request part of the event as a JSON object.
+   *
+   * @param event the event
+   * @param out   the target stream
+   */
+  public void writeRequest(ExchangeEvent event, OutputStream out) {
+    try (JsonGenerator gen = jsonFactory.createGenerator(ObjectWriteContext.empty(), out)) {
+      gen.writeStartObject();
+      if (Objects.nonNull(event.getTraceId())) {
+        gen.writeName(TRACE_ID_NAME);
+        gen.writeString(event.getTraceId());
+      }
+      gen.writeName(METHOD_NAME);
+      gen.writeString(event.getMethod());
+      gen.writeName(URI_NAME);
+      gen.writeString(event.getUri());
+      if (Objects.nonNull(event.getQueryString())) {
+        gen.writeName(QUERY_STRING_NAME);
+        gen.writeString(event.getQueryString());
+      }
+      if (Objects.nonNull(event.getClientIp())) {
+        gen.writeName(CLIENT_IP_NAME);
+        gen.writeString(event.getClientIp());
+      }
+      if (event.isHeadersIncluded()) {
+        gen.writeName(HEADERS_NAME);
+        gen.writeStartObject();
+        int headerCount = event.getHeaderCount();
+        for (int i = 0; i < headerCount; ) {
+          String name = event.getHeaderName(i);
+          int end = i + 1;
+          while (end < headerCount && name.equals(event.getHeaderName(end))) {
+            end++;
+          }
+          gen.writeName(name);
+          if (end - i == 1) {
+            gen.writeString(event.getHeaderValue(i));
+          } else {
+            gen.writeStartArray();
+            for (int j = i; j < end; j++) {
+              gen.writeString(event.getHeaderValue(j));
+            }
+            gen.writeEndArray();
+          }
+          i = end;
+        }
+        gen.writeEndObject();
+      }
+      writePayload(gen, event.getRequestPayload(), event.getRequestCharset());
+      gen.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes the response part of the event as a JSON object.
+   *
+   * @param event the event
+   * @param out   the target stream
+   */
+  public void writeResponse(ExchangeEvent event, OutputStream out) {
+    try (JsonGenerator gen = jsonFactory.createGenerator(ObjectWriteContext.empty(), out)) {
+      gen.writeStartObject();
+      gen.writeName(STATUS_NAME);
+      gen.writeNumber(event.getStatus());
+      gen.writeName(DURATION_NAME);
+      gen.writeNumber(event.getDurationMillis());
+      writePayload(gen, event.getResponsePayload(), event.getResponseCharset());
+      gen.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes a compact summary of the event as a JSON object: trace ID, method, URI, status and duration.
+   *
+   * @param event the event
+   * @param out   the target stream
+   */
+  public void writeSummary(ExchangeEvent event, OutputStream out) {
+    try (JsonGenerator gen = jsonFactory.createGenerator(ObjectWriteContext.empty(), out)) {
+      gen.writeStartObject();
+      if (Objects.nonNull(event.getTraceId())) {
+        gen.writeName(TRACE_ID_NAME);
+        gen.writeString(event.getTraceId());
+      }
+      gen.writeName(METHOD_NAME);
+      gen.writeString(event.getMethod());
+      gen.writeName(URI_NAME);
+      gen.writeString(event.getUri());
+      gen.writeName(STATUS_NAME);
+      gen.writeNumber(event.getStatus());
+      gen.writeName(DURATION_NAME);
+      gen.writeNumber(event.getDurationMillis());
+      gen.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes the payload and its truncation marker, if any bytes were captured.
+   *
+   * @param gen     the generator
+   * @param payload the captured payload, may be {@code null}
+   * @param charset the payload charset
+   */
+  private static void writePayload(JsonGenerator gen, PayloadCapture payload, Charset charset) {
+    if (Objects.isNull(payload) || payload.getLength() == 0) {
+      return;
+    }
+    gen.writeName(PAYLOAD_NAME);
+    if (StandardCharsets.UTF_8.equals(charset)) {
+      gen.writeUTF8String(payload.getBuffer(), 0, payload.getLength());
+    } else {
+      gen.writeString(payload.toString(charset));
+    }
+    if (payload.isTruncated()) {
+      gen.writeName(PAYLOAD_TRUNCATED_NAME);
+      gen.writeBoolean(true);
+    }
+  }
+}
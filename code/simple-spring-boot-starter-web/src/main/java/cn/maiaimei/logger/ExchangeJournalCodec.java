@@ -0,0 +1,229 @@
+package cn.maiaimei.logger;
+
+import cn.maiaimei.filter.model.PayloadCapture;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary encoding of the exchange records stored in the journal segments.
+ * <p>
+ * A record is a version byte, a flags byte, the three timestamps, the status, and then the strings, each
+ * written as its UTF-8 byte length followed by the bytes, or {@code -1} for {@code null}. Headers are written
+ * as a count followed by name/value pairs, or {@code -1} if not included. Payloads captured as UTF-8 are
+ * copied from the capture buffer without being decoded.
+ */
+public final class ExchangeJournalCodec {
+
+  /**
+   * Version of the record layout.
+   */
+  public static final byte VERSION = 1;
+
+  /**
+   * Flag set when the request payload was truncated.
+   */
+  private static final int REQUEST_PAYLOAD_TRUNCATED = 1;
+
+  /**
+   * Flag set when the response payload was truncated.
+   */
+  private static final int RESPONSE_PAYLOAD_TRUNCATED = 1 << 1;
+
+  /**
+   * Length written for {@code null} strings and headers.
+   */
+  private static final int NULL_LENGTH = -1;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private ExchangeJournalCodec() {
+  }
+
+  /**
+   * Encodes a pooled exchange event.
+   *
+   * @param event the event
+   * @param out   the target
+   * @throws IOException if the target cannot be written
+   */
+  public static void encode(ExchangeEvent event, DataOutput out) throws IOException {
+    int flags = 0;
+    if (isTruncated(event.getRequestPayload())) {
+      flags |= REQUEST_PAYLOAD_TRUNCATED;
+    }
+    if (isTruncated(event.getResponsePayload())) {
+      flags |= RESPONSE_PAYLOAD_TRUNCATED;
+    }
+    out.writeByte(VERSION);
+    out.writeByte(flags);
+    out.writeLong(event.getTimestamp());
+    out.writeLong(event.getStartNanos());
+    out.writeLong(event.getEndNanos());
+    out.writeInt(event.getStatus());
+    writeString(out, event.getTraceId());
+    writeString(out, event.getMethod());
+    writeString(out, event.getUri());
+    writeString(out, event.getQueryString());
+    writeString(out, event.getClientIp());
+    if (event.isHeadersIncluded()) {
+      out.writeInt(event.getHeaderCount());
+      for (int i = 0; i < event.getHeaderCount(); i++) {
+        writeString(out, event.getHeaderName(i));
+        writeString(out, event.getHeaderValue(i));
+      }
+    } else {
+      out.writeInt(NULL_LENGTH);
+    }
+    writePayload(out, event.getRequestPayload(), event.getRequestCharset());
+    writePayload(out, event.getResponsePayload(), event.getResponseCharset());
+  }
+
+  /**
+   * Encodes an exchange.
+   *
+   * @param exchange the exchange
+   * @param out      the target
+   * @throws IOException if the target cannot be written
+   */
+  public static void encode(HttpExchange exchange, DataOutput out) throws IOException {
+    int flags = 0;
+    if (exchange.requestPayloadTruncated()) {
+      flags |= REQUEST_PAYLOAD_TRUNCATED;
+    }
+    if (exchange.responsePayloadTruncated()) {
+      flags |= RESPONSE_PAYLOAD_TRUNCATED;
+    }
+    out.writeByte(VERSION);
+    out.writeByte(flags);
+    out.writeLong(exchange.timestamp());
+    out.writeLong(exchange.startNanos());
+    out.writeLong(exchange.endNanos());
+    out.writeInt(exchange.status());
+    writeString(out, exchange.traceId());
+    writeString(out, exchange.method());
+    writeString(out, exchange.uri());
+    writeString(out, exchange.queryString());
+    writeString(out, exchange.clientIp());
+    if (Objects.nonNull(exchange.headers())) {
+      out.writeInt(exchange.headers().size());
+      for (Map.Entry<String, String> header : exchange.headers().entrySet()) {
+        writeString(out, header.getKey());
+        writeString(out, header.getValue());
+      }
+    } else {
+      out.writeInt(NULL_LENGTH);
+    }
+    writeString(out, exchange.requestPayload());
+    writeString(out, exchange.responsePayload());
+  }
+
+  /**
+   * Decodes a record.
+   *
+   * @param in the source, positioned at the start of the record
+   * @return the exchange
+   * @throws IOException if the source cannot be read or the record version is unknown
+   */
+  public static HttpExchange decode(DataInput in) throws IOException {
+    byte version = in.readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported journal record version: " + version);
+    }
+    int flags = in.readByte();
+    long timestamp = in.readLong();
+    long startNanos = in.readLong();
+    long endNanos = in.readLong();
+    int status = in.readInt();
+    String traceId = readString(in);
+    String method = readString(in);
+    String uri = readString(in);
+    String queryString = readString(in);
+    String clientIp = readString(in);
+    Map<String, String> headers = null;
+    int headerCount = in.readInt();
+    if (headerCount != NULL_LENGTH) {
+      headers = new LinkedHashMap<>();
+      for (int i = 0; i < headerCount; i++) {
+        headers.merge(readString(in), readString(in), HttpExchange::joinHeaderValues);
+      }
+      headers = Collections.unmodifiableMap(headers);
+    }
+    String requestPayload = readString(in);
+    String responsePayload = readString(in);
+    return new HttpExchange(traceId, timestamp, startNanos, endNanos, method, uri, queryString, clientIp, headers,
+        requestPayload, (flags & REQUEST_PAYLOAD_TRUNCATED) != 0,
+        status,
+        responsePayload, (flags & RESPONSE_PAYLOAD_TRUNCATED) != 0);
+  }
+
+  /**
+   * Writes a string as its UTF-8 length and bytes.
+   *
+   * @param out   the target
+   * @param value the string, may be {@code null}
+   * @throws IOException if the target cannot be written
+   */
+  private static void writeString(DataOutput out, String value) throws IOException {
+    if (Objects.isNull(value)) {
+      out.writeInt(NULL_LENGTH);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Writes a captured payload as UTF-8, copying the capture buffer directly if it already is UTF-8.
+   *
+   * @param out     the target
+   * @param payload the captured payload, may be {@code null}
+   * @param charset the payload charset
+   * @throws IOException if the target cannot be written
+   */
+  private static void writePayload(DataOutput out, PayloadCapture payload, Charset charset) throws IOException {
+    if (Objects.isNull(payload) || payload.getLength() == 0) {
+      out.writeInt(NULL_LENGTH);
+    } else if (StandardCharsets.UTF_8.equals(charset)) {
+      out.writeInt(payload.getLength());
+      out.write(payload.getBuffer(), 0, payload.getLength());
+    } else {
+      writeString(out, payload.toString(charset));
+    }
+  }
+
+  /**
+   * Reads a string written by {@link #writeString(DataOutput, String)}.
+   *
+   * @param in the source
+   * @return the string, or {@code null}
+   * @throws IOException if the source cannot be read
+   */
+  private static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns whether a captured payload was truncated.
+   *
+   * @param payload the captured payload, may be {@code null}
+   * @return {@code true} if the payload was truncated
+   */
+  private static boolean isTruncated(PayloadCapture payload) {
+    return Objects.nonNull(payload) && payload.isTruncated();
+  }
+}
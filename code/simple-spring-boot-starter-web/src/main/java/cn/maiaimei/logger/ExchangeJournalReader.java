@@ -0,0 +1,228 @@
+package cn.maiaimei.logger;
+
+import static cn.maiaimei.logger.JournalRequestResponseLogger.COMPRESSED_SEGMENT_SUFFIX;
+import static cn.maiaimei.logger.JournalRequestResponseLogger.SEGMENT_MAGIC;
+import static cn.maiaimei.logger.JournalRequestResponseLogger.SEGMENT_PREFIX;
+import static cn.maiaimei.logger.JournalRequestResponseLogger.SEGMENT_SUFFIX;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Reads the exchanges written by {@link JournalRequestResponseLogger}, from both open and compressed segments.
+ * <p>
+ * Can also be run from the command line to print matching exchanges as JSON lines:
+ * <pre>
+ * java cn.maiaimei.logger.ExchangeJournalReader &lt;directory&gt; [--trace-id ID] [--from INSTANT] [--to INSTANT]
+ * </pre>
+ * Instants are ISO-8601, e.g. {@code 2026-01-01T00:00:00Z}, and compared with the exchange start time.
+ */
+public class ExchangeJournalReader {
+
+  /**
+   * Number of characters of the creation time in a segment file name.
+   */
+  private static final int TIMESTAMP_LENGTH = 13;
+
+  /**
+   * Directory of the segments.
+   */
+  private final Path directory;
+
+  /**
+   * Constructs an ExchangeJournalReader.
+   *
+   * @param directory the directory of the segments
+   */
+  public ExchangeJournalReader(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns a filter matching exchanges by trace ID and start time.
+   *
+   * @param traceId the trace ID, or {@code null} to match any
+   * @param from    the inclusive lower bound of the start time, or {@code null} for none
+   * @param to      the exclusive upper bound of the start time, or {@code null} for none
+   * @return the filter
+   */
+  public static Predicate<HttpExchange> matching(String traceId, Instant from, Instant to) {
+    long fromMillis = Objects.nonNull(from) ? from.toEpochMilli() : Long.MIN_VALUE;
+    long toMillis = Objects.nonNull(to) ? to.toEpochMilli() : Long.MAX_VALUE;
+    return exchange -> (Objects.isNull(traceId) || traceId.equals(exchange.traceId()))
+        && exchange.timestamp() >= fromMillis
+        && exchange.timestamp() < toMillis;
+  }
+
+  /**
+   * Scans the segments in creation order and hands the matching exchanges to the consumer.
+   * <p>
+   * Segments whose successor was created before {@code from} are skipped without being read, since their
+   * records were all appended, and therefore started, before that.
+   *
+   * @param from     the lower bound of the start time used to skip segments, or {@code null} for none
+   * @param filter   the filter of the exchanges
+   * @param consumer the consumer of the matching exchanges
+   * @return the number of matching exchanges
+   * @throws IOException if a segment cannot be read
+   */
+  public long scan(Instant from, Predicate<HttpExchange> filter, Consumer<HttpExchange> consumer) throws IOException {
+    List<Path> segments = listSegments();
+    long fromMillis = Objects.nonNull(from) ? from.toEpochMilli() : Long.MIN_VALUE;
+    long matched = 0;
+    for (int i = 0; i < segments.size(); i++) {
+      if (i + 1 < segments.size() && createdAt(segments.get(i + 1)) <= fromMillis) {
+        continue;
+      }
+      matched += scanSegment(segments.get(i), filter, consumer);
+    }
+    return matched;
+  }
+
+  /**
+   * Reads one segment.
+   *
+   * @param segment  the segment file
+   * @param filter   the filter of the exchanges
+   * @param consumer the consumer of the matching exchanges
+   * @return the number of matching exchanges
+   * @throws IOException if the segment cannot be read
+   */
+  private long scanSegment(Path segment, Predicate<HttpExchange> filter, Consumer<HttpExchange> consumer)
+      throws IOException {
+    long matched = 0;
+    try (DataInputStream in = new DataInputStream(open(segment))) {
+      if (in.readInt() != SEGMENT_MAGIC) {
+        throw new IOException("Not a journal segment: " + segment);
+      }
+      byte[] record = new byte[1024];
+      while (true) {
+        int length;
+        try {
+          length = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        if (length <= 0) {
+          break;
+        }
+        if (length > record.length) {
+          record = new byte[Math.max(length, record.length * 2)];
+        }
+        try {
+          in.readFully(record, 0, length);
+        } catch (EOFException e) {
+          break;
+        }
+        HttpExchange exchange = ExchangeJournalCodec.decode(
+            new DataInputStream(new ByteArrayInputStream(record, 0, length)));
+        if (filter.test(exchange)) {
+          consumer.accept(exchange);
+          matched++;
+        }
+      }
+    } catch (NoSuchFileException e) {
+      // compressed and deleted while listing
+    }
+    return matched;
+  }
+
+  /**
+   * Opens a segment, decompressing it if needed.
+   *
+   * @param segment the segment file
+   * @return the segment content
+   * @throws IOException if the segment cannot be opened
+   */
+  private static InputStream open(Path segment) throws IOException {
+    InputStream in = Files.newInputStream(segment);
+    if (segment.getFileName().toString().endsWith(COMPRESSED_SEGMENT_SUFFIX)) {
+      return new GZIPInputStream(in, 64 * 1024);
+    }
+    return new BufferedInputStream(in, 64 * 1024);
+  }
+
+  /**
+   * Lists the segments in creation order.
+   *
+   * @return the segment files
+   * @throws IOException if the directory cannot be listed
+   */
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> {
+            String name = file.getFileName().toString();
+            return name.startsWith(SEGMENT_PREFIX)
+                && (name.endsWith(SEGMENT_SUFFIX) || name.endsWith(COMPRESSED_SEGMENT_SUFFIX));
+          })
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * Returns the creation time encoded in a segment file name.
+   *
+   * @param segment the segment file
+   * @return the creation time in epoch milliseconds
+   */
+  private static long createdAt(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), SEGMENT_PREFIX.length() + TIMESTAMP_LENGTH));
+  }
+
+  /**
+   * Prints the matching exchanges of a journal directory as JSON lines.
+   *
+   * @param args the directory, followed by the optional {@code --trace-id}, {@code --from} and {@code --to}
+   * @throws IOException if a segment cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: ExchangeJournalReader <directory> [--trace-id ID] [--from INSTANT] [--to INSTANT]");
+      System.exit(1);
+    }
+    String traceId = null;
+    Instant from = null;
+    Instant to = null;
+    for (int i = 1; i + 1 < args.length; i += 2) {
+      switch (args[i]) {
+        case "--trace-id" -> traceId = args[i + 1];
+        case "--from" -> from = Instant.parse(args[i + 1]);
+        case "--to" -> to = Instant.parse(args[i + 1]);
+        default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+    JsonMapper jsonMapper = JsonMapper.builder().build();
+    BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+    new ExchangeJournalReader(Path.of(args[0])).scan(from, matching(traceId, from, to), exchange -> {
+      try {
+        out.write(jsonMapper.writeValueAsString(exchange));
+        out.newLine();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    out.flush();
+  }
+}
@@ -0,0 +1,247 @@
+package cn.maiaimei.logger;
+
+import cn.maiaimei.filter.model.HeaderSelector;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Directory of batches of {@link HttpExchange}s that could not be persisted.
+ * <p>
+ * Each batch is written to its own file of JSON lines, first under a temporary name and then renamed, so a
+ * crash never leaves a partially written batch behind. File names sort in write order, and
+ * {@link #replay(Predicate)} hands the batches back oldest first. Headers are filtered and masked by a
+ * {@link HeaderSelector} before they are written, and on POSIX file systems the directory and the batch files
+ * are only accessible to the owner. Instances are not thread-safe.
+ */
+@Slf4j
+public class ExchangeSpillStore {
+
+  /**
+   * Prefix of the batch files.
+   */
+  private static final String FILE_PREFIX = "http_exchange-";
+
+  /**
+   * Suffix of completely written batch files.
+   */
+  private static final String FILE_SUFFIX = ".jsonl";
+
+  /**
+   * Suffix of batch files being written.
+   */
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /**
+   * The spill directory.
+   */
+  private final Path directory;
+
+  /**
+   * Selection and masking of the written headers.
+   */
+  private final HeaderSelector headerSelector;
+
+  /**
+   * Whether the file system supports POSIX permissions.
+   */
+  private final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+  /**
+   * Mapper of the JSON lines.
+   */
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+  /**
+   * Sequence number disambiguating batches spilled within the same millisecond.
+   */
+  private final AtomicLong sequence = new AtomicLong();
+
+  /**
+   * Whether the directory may contain batches.
+   */
+  private boolean pending;
+
+  /**
+   * Constructs an ExchangeSpillStore, creating the directory if needed.
+   *
+   * @param directory      the spill directory
+   * @param headerSelector the selection and masking of the written headers
+   */
+  public ExchangeSpillStore(Path directory, HeaderSelector headerSelector) {
+    this.directory = directory;
+    this.headerSelector = headerSelector;
+    try {
+      if (posix) {
+        Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(
+            PosixFilePermissions.fromString("rwx------")));
+      } else {
+        Files.createDirectories(directory);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create spill directory " + directory, e);
+    }
+    this.pending = !listBatches().isEmpty();
+  }
+
+  /**
+   * Returns whether the directory may contain batches to replay.
+   *
+   * @return {@code true} if batches may be pending
+   */
+  public boolean hasPending() {
+    return pending;
+  }
+
+  /**
+   * Writes a batch to a new file.
+   *
+   * @param batch the exchanges to spill
+   * @throws IOException if the batch could not be written
+   */
+  public void spill(List<HttpExchange> batch) throws IOException {
+    String name = String.format("%s%013d-%06d", FILE_PREFIX, System.currentTimeMillis(),
+        sequence.getAndIncrement() % 1_000_000);
+    Path temp = directory.resolve(name + TEMP_SUFFIX);
+    if (posix) {
+      Files.createFile(temp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+      for (HttpExchange exchange : batch) {
+        writer.write(jsonMapper.writeValueAsString(mask(exchange)));
+        writer.newLine();
+      }
+    }
+    Files.move(temp, directory.resolve(name + FILE_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    pending = true;
+  }
+
+  /**
+   * Hands the spilled batches to the consumer oldest first, deleting each batch it accepts.
+   * <p>
+   * Stops at the first batch the consumer rejects, which is kept for the next replay.
+   *
+   * @param consumer persists a batch and returns whether it succeeded
+   * @return the number of replayed exchanges
+   */
+  public int replay(Predicate<List<HttpExchange>> consumer) {
+    int replayed = 0;
+    for (Path file : listBatches()) {
+      List<HttpExchange> batch;
+      try {
+        batch = read(file);
+      } catch (IOException | RuntimeException e) {
+        log.error("Skipping unreadable spill file {}", file, e);
+        rename(file, file.getFileName() + ".corrupt");
+        continue;
+      }
+      if (!consumer.test(batch)) {
+        return replayed;
+      }
+      replayed += batch.size();
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        log.error("Failed to delete replayed spill file {}", file, e);
+        rename(file, file.getFileName() + ".replayed");
+      }
+    }
+    pending = false;
+    return replayed;
+  }
+
+  /**
+   * Returns the exchange with its headers filtered and masked by the {@link HeaderSelector}.
+   *
+   * @param exchange the exchange
+   * @return the exchange to write
+   */
+  private HttpExchange mask(HttpExchange exchange) {
+    if (exchange.headers() == null) {
+      return exchange;
+    }
+    Map<String, String> headers = new LinkedHashMap<>();
+    exchange.headers().forEach((name, value) -> {
+      switch (headerSelector.decide(name)) {
+        case INCLUDE -> headers.put(name, value);
+        case MASK -> headers.put(name, HeaderSelector.MASK);
+        default -> {
+        }
+      }
+    });
+    return new HttpExchange(exchange.traceId(), exchange.timestamp(), exchange.startNanos(), exchange.endNanos(),
+        exchange.method(), exchange.uri(), exchange.queryString(), exchange.clientIp(), headers,
+        exchange.requestPayload(), exchange.requestPayloadTruncated(), exchange.status(),
+        exchange.responsePayload(), exchange.responsePayloadTruncated());
+  }
+
+  /**
+   * Lists the completely written batch files in write order.
+   *
+   * @return the batch files
+   */
+  private List<Path> listBatches() {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> {
+            String name = file.getFileName().toString();
+            return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+          })
+          .sorted()
+          .toList();
+    } catch (IOException e) {
+      log.error("Failed to list spill directory {}", directory, e);
+      return List.of();
+    }
+  }
+
+  /**
+   * Reads a batch file.
+   *
+   * @param file the batch file
+   * @return the exchanges of the batch
+   * @throws IOException if the file could not be read
+   */
+  private List<HttpExchange> read(Path file) throws IOException {
+    List<HttpExchange> batch = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          batch.add(jsonMapper.readValue(line, HttpExchange.class));
+        }
+      }
+    }
+    return batch;
+  }
+
+  /**
+   * Renames a batch file so it is no longer replayed.
+   *
+   * @param file    the batch file
+   * @param newName the new file name
+   */
+  private void rename(Path file, String newName) {
+    try {
+      Files.move(file, file.resolveSibling(newName), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.error("Failed to rename spill file {}", file, e);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package cn.maiaimei.logger;
+
+import static cn.maiaimei.constants.RequestResponseConstants.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Immutable record of a completed HTTP exchange, correlated by the trace ID of the request.
+ * <p>
+ * {@code startNanos} and {@code endNanos} are {@link System#nanoTime()} readings and are only meaningful
+ * relative to each other; {@code timestamp} is the wall-clock start time in epoch milliseconds.
+ *
+ * @param traceId                  the trace ID assigned by the TraceIdFilter, or {@code null} if none
+ * @param timestamp                the wall-clock start time in epoch milliseconds
+ * @param startNanos               the monotonic start time in nanoseconds
+ * @param endNanos                 the monotonic end time in nanoseconds
+ * @param method                   the HTTP method
+ * @param uri                      the request path without context path
+ * @param queryString              the raw query string, or {@code null} if not included
+ * @param clientIp                 the client IP address, or {@code null} if not included
+ * @param headers                  the request headers, the values of multi-valued headers joined by
+ *                                 {@code ", "}, or {@code null} if not included
+ * @param requestPayload           the captured request payload, or {@code null} if not included
+ * @param requestPayloadTruncated  whether the request payload was truncated
+ * @param status                   the response status code
+ * @param responsePayload          the captured response payload, or {@code null} if not included
+ * @param responsePayloadTruncated whether the response payload was truncated
+ */
+public record HttpExchange(
+    String traceId,
+    long timestamp,
+    long startNanos,
+    long endNanos,
+    String method,
+    String uri,
+    String queryString,
+    String clientIp,
+    Map<String, String> headers,
+    String requestPayload,
+    boolean requestPayloadTruncated,
+    int status,
+    String responsePayload,
+    boolean responsePayloadTruncated) {
+
+  /**
+   * Returns the processing duration in nanoseconds.
+   *
+   * @return the duration in nanoseconds
+   */
+  public long durationNanos() {
+    return endNanos - startNanos;
+  }
+
+  /**
+   * Returns the processing duration in milliseconds.
+   *
+   * @return the duration in milliseconds
+   */
+  public long durationMillis() {
+    return durationNanos() / 1_000_000L;
+  }
+
+  /**
+   * Copies the request data into a new map keyed by {@link cn.maiaimei.constants.RequestResponseConstants}.
+   *
+   * @return the request data
+   */
+  public Map<String, Object> toRequestData() {
+    Map<String, Object> requestData = new LinkedHashMap<>();
+    if (Objects.nonNull(traceId)) {
+      requestData.put(TRACE_ID, traceId);
+    }
+    requestData.put(METHOD, method);
+    requestData.put(URI, uri);
+    if (Objects.nonNull(queryString)) {
+      MultiValueMap<String, String> queryParams = UriComponentsBuilder.fromUriString("?" + queryString)
+          .build()
+          .getQueryParams();
+      requestData.put(QUERY_STRING, queryParams);
+    }
+    if (Objects.nonNull(clientIp)) {
+      requestData.put(CLIENT_IP, clientIp);
+    }
+    if (Objects.nonNull(headers)) {
+      requestData.put(HEADERS, headers);
+    }
+    putPayload(requestData, requestPayload, requestPayloadTruncated);
+    return requestData;
+  }
+
+  /**
+   * Copies the response data into a new map keyed by {@link cn.maiaimei.constants.RequestResponseConstants}.
+   *
+   * @return the response data
+   */
+  public Map<String, Object> toResponseData() {
+    Map<String, Object> responseData = new LinkedHashMap<>();
+    if (Objects.nonNull(traceId)) {
+      responseData.put(TRACE_ID, traceId);
+    }
+    responseData.put(STATUS, status);
+    responseData.put(DURATION, durationMillis() + "ms");
+    putPayload(responseData, responsePayload, responsePayloadTruncated);
+    return responseData;
+  }
+
+  /**
+   * Puts the payload and its truncation marker into the map.
+   *
+   * @param data      the target map
+   * @param payload   the payload, may be {@code null}
+   * @param truncated whether the payload was truncated
+   */
+  private static void putPayload(Map<String, Object> data, String payload, boolean truncated) {
+    if (Objects.nonNull(payload) && !payload.isEmpty()) {
+      data.put(PAYLOAD, payload);
+      if (truncated) {
+        data.put(PAYLOAD_TRUNCATED, true);
+      }
+    }
+  }
+
+  /**
+   * Joins two values of a multi-valued header, as HTTP allows for headers that are comma-separated lists.
+   *
+   * @param first  the values so far
+   * @param second the next value
+   * @return the joined values
+   */
+  static String joinHeaderValues(String first, String second) {
+    return first + ", " + second;
+  }
+}
@@ -0,0 +1,437 @@
+package cn.maiaimei.logger;
+
+import cn.maiaimei.filter.model.HeaderSelector;
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.logger.properties.JdbcRequestResponseLoggerProperties;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * {@link RequestResponseLogger} that persists each exchange as one row of the {@code http_exchange} table.
+ * <p>
+ * Calling threads only enqueue the exchange into a bounded {@link RingBuffer}. A single flusher thread
+ * collects up to {@code batchSize} exchanges, waiting at most {@code lingerTime} for a batch to fill up, and
+ * inserts the batch as one JDBC batch in one transaction, so the logger never holds more than one pooled
+ * connection. A failed batch is retried with exponential backoff and then spilled to disk through an
+ * {@link ExchangeSpillStore}; spilled batches are replayed after the next successful insert. Since the
+ * logger already dispatches asynchronously, it does not need to be wrapped in an
+ * {@link AsyncRequestResponseLogger}.
+ */
+@Slf4j
+public class JdbcRequestResponseLogger implements AsyncDispatchingLogger, AutoCloseable {
+
+  /**
+   * Name of the flusher thread.
+   */
+  private static final String THREAD_NAME = "request-logging-jdbc";
+
+  /**
+   * Default table name, created by the bundled schema script.
+   */
+  public static final String DEFAULT_TABLE_NAME = "http_exchange";
+
+  /**
+   * Location of the bundled schema script.
+   */
+  public static final String SCHEMA_LOCATION = "classpath:db/http_exchange.sql";
+
+  /**
+   * Maximum time the idle flusher parks before re-checking the buffer.
+   */
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /**
+   * Allowed table names, optionally schema-qualified.
+   */
+  private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+  /**
+   * Insert statement, formatted with the table name.
+   */
+  private static final String INSERT_SQL = "INSERT INTO %s (trace_id, request_time, duration_nanos, method, uri, "
+      + "query_string, client_ip, headers, request_payload, request_payload_truncated, status, response_payload, "
+      + "response_payload_truncated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  /**
+   * Template executing the batches.
+   */
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Template wrapping each batch in one transaction.
+   */
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Insert statement for the configured table.
+   */
+  private final String insertSql;
+
+  /**
+   * Mapper serializing the headers into a JSON column.
+   */
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+  /**
+   * Buffer of pending exchanges.
+   */
+  private final RingBuffer<HttpExchange> buffer;
+
+  /**
+   * Store of the batches that could not be inserted.
+   */
+  private final ExchangeSpillStore spillStore;
+
+  /**
+   * Maximum number of exchanges per batch.
+   */
+  private final int batchSize;
+
+  /**
+   * Maximum time an exchange waits for its batch to fill up.
+   */
+  private final long lingerNanos;
+
+  /**
+   * Number of retries of a failed batch before it is spilled.
+   */
+  private final int maxRetries;
+
+  /**
+   * Delay before the first retry of a failed batch.
+   */
+  private final long retryBackoffNanos;
+
+  /**
+   * Maximum time {@link #close()} waits for the buffer to be flushed.
+   */
+  private final Duration shutdownTimeout;
+
+  /**
+   * Number of exchanges discarded because the buffer was full or the spill failed.
+   */
+  private final LongAdder droppedCount = new LongAdder();
+
+  /**
+   * The flusher thread.
+   */
+  private final Thread flusher;
+
+  /**
+   * Whether the logger still accepts exchanges.
+   */
+  private volatile boolean running = true;
+
+  /**
+   * Whether the flusher is parked waiting for exchanges.
+   */
+  private volatile boolean waiting;
+
+  /**
+   * Dropped count at the time of the last warning, only accessed by the flusher thread.
+   */
+  private long reportedDroppedCount;
+
+  /**
+   * Constructs a JdbcRequestResponseLogger masking spilled headers with the default header selection, and
+   * starts its flusher thread.
+   *
+   * @param dataSource the DataSource the exchanges are persisted to
+   * @param properties the JDBC logger properties
+   */
+  public JdbcRequestResponseLogger(DataSource dataSource, JdbcRequestResponseLoggerProperties properties) {
+    this(dataSource, properties, defaultHeaderSelector());
+  }
+
+  /**
+   * Constructs a JdbcRequestResponseLogger and starts its flusher thread.
+   *
+   * @param dataSource     the DataSource the exchanges are persisted to
+   * @param properties     the JDBC logger properties
+   * @param headerSelector the selection and masking of the headers of spilled exchanges
+   * @throws IllegalArgumentException if the table name is invalid or the shutdown timeout is not positive
+   */
+  public JdbcRequestResponseLogger(DataSource dataSource, JdbcRequestResponseLoggerProperties properties,
+      HeaderSelector headerSelector) {
+    String tableName = properties.getTableName();
+    if (Objects.isNull(tableName) || !TABLE_NAME_PATTERN.matcher(tableName).matches()) {
+      throw new IllegalArgumentException("Invalid table name: " + tableName);
+    }
+    if (Objects.isNull(properties.getShutdownTimeout()) || properties.getShutdownTimeout().toMillis() <= 0) {
+      throw new IllegalArgumentException("Shutdown timeout must be positive: " + properties.getShutdownTimeout());
+    }
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    this.insertSql = String.format(INSERT_SQL, tableName);
+    this.buffer = new RingBuffer<>(properties.getBufferSize());
+    this.spillStore = new ExchangeSpillStore(Path.of(properties.getSpillDirectory()), headerSelector);
+    this.batchSize = Math.max(1, properties.getBatchSize());
+    this.lingerNanos = properties.getLingerTime().toNanos();
+    this.maxRetries = Math.max(0, properties.getMaxRetries());
+    this.retryBackoffNanos = properties.getRetryBackoff().toNanos();
+    this.shutdownTimeout = properties.getShutdownTimeout();
+    this.flusher = new Thread(this::flushLoop, THREAD_NAME);
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Enqueues the exchange for the next batch.
+   *
+   * @param exchange the completed exchange
+   */
+  @Override
+  public void logExchange(HttpExchange exchange) {
+    if (!running) {
+      droppedCount.increment();
+      return;
+    }
+    if (!buffer.offer(exchange)) {
+      droppedCount.increment();
+      return;
+    }
+    if (waiting && buffer.size() >= batchSize) {
+      LockSupport.unpark(flusher);
+    }
+    if (!running && !flusher.isAlive()) {
+      // closed while enqueuing, after the final flush
+      discardPending();
+    }
+  }
+
+  /**
+   * Returns the number of exchanges discarded because the buffer was full or the spill failed.
+   *
+   * @return the dropped exchange count
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * Returns the number of exchanges waiting to be flushed.
+   *
+   * @return the pending exchange count
+   */
+  public int getPendingCount() {
+    return buffer.size();
+  }
+
+  /**
+   * Stops accepting exchanges and flushes the buffer, waiting at most the configured shutdown timeout.
+   * Batches that cannot be inserted during shutdown are spilled without retries. Exchanges enqueued by
+   * producers that passed the running check just before the flusher exited are counted as dropped.
+   */
+  @Override
+  public void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(flusher);
+    try {
+      flusher.join(shutdownTimeout.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (flusher.isAlive()) {
+      log.warn("JDBC request logging did not flush within {}, {} exchanges discarded",
+          shutdownTimeout, buffer.size());
+    } else {
+      discardPending();
+    }
+  }
+
+  /**
+   * Counts the exchanges left in the buffer after the flusher exited as dropped.
+   */
+  private void discardPending() {
+    int discarded = buffer.drain(exchange -> droppedCount.increment(), Integer.MAX_VALUE);
+    if (discarded > 0) {
+      log.warn("JDBC request logging closed, {} late exchanges discarded", discarded);
+    }
+  }
+
+  /**
+   * Flusher loop: collects batches while running and empties the buffer once stopped.
+   */
+  private void flushLoop() {
+    List<HttpExchange> batch = new ArrayList<>(batchSize);
+    while (running || !buffer.isEmpty()) {
+      if (buffer.isEmpty()) {
+        reportDropped();
+        park(IDLE_PARK_NANOS);
+        continue;
+      }
+      awaitBatch();
+      buffer.drain(batch::add, batchSize);
+      flush(batch);
+      batch.clear();
+    }
+    reportDropped();
+  }
+
+  /**
+   * Waits until a full batch is buffered, the linger time has passed, or the logger is closed.
+   */
+  private void awaitBatch() {
+    long deadline = System.nanoTime() + lingerNanos;
+    long remaining;
+    while (running && buffer.size() < batchSize && (remaining = deadline - System.nanoTime()) > 0) {
+      park(remaining);
+    }
+  }
+
+  /**
+   * Parks the flusher, letting producers wake it up.
+   *
+   * @param nanos the maximum time to park
+   */
+  private void park(long nanos) {
+    waiting = true;
+    if (running) {
+      LockSupport.parkNanos(this, nanos);
+    }
+    waiting = false;
+  }
+
+  /**
+   * Inserts a batch, retrying with exponential backoff and spilling it to disk once the retries are exhausted.
+   * Replays spilled batches after a successful insert.
+   *
+   * @param batch the exchanges to insert
+   */
+  private void flush(List<HttpExchange> batch) {
+    long backoff = retryBackoffNanos;
+    for (int attempt = 0; ; attempt++) {
+      try {
+        insert(batch);
+        break;
+      } catch (DataAccessException | TransactionException e) {
+        if (attempt >= maxRetries || !running) {
+          log.error("Failed to insert {} exchanges, spilling to disk", batch.size(), e);
+          spill(batch);
+          return;
+        }
+        log.warn("Failed to insert {} exchanges, retrying in {}ms: {}", batch.size(),
+            TimeUnit.NANOSECONDS.toMillis(backoff), e.getMessage());
+        LockSupport.parkNanos(this, backoff);
+        backoff *= 2;
+      }
+    }
+    if (spillStore.hasPending()) {
+      int replayed = spillStore.replay(this::tryInsert);
+      if (replayed > 0) {
+        log.info("Replayed {} spilled exchanges", replayed);
+      }
+    }
+  }
+
+  /**
+   * Inserts a batch without retrying.
+   *
+   * @param batch the exchanges to insert
+   * @return {@code true} if the batch was inserted
+   */
+  private boolean tryInsert(List<HttpExchange> batch) {
+    try {
+      insert(batch);
+      return true;
+    } catch (DataAccessException | TransactionException e) {
+      log.warn("Failed to replay {} spilled exchanges: {}", batch.size(), e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Inserts a batch as one JDBC batch in one transaction.
+   *
+   * @param batch the exchanges to insert
+   */
+  private void insert(List<HttpExchange> batch) {
+    transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.batchUpdate(insertSql, batch, batch.size(), this::setValues));
+  }
+
+  /**
+   * Binds an exchange to the insert statement.
+   *
+   * @param ps       the insert statement
+   * @param exchange the exchange
+   * @throws SQLException if a parameter cannot be bound
+   */
+  private void setValues(PreparedStatement ps, HttpExchange exchange) throws SQLException {
+    ps.setString(1, exchange.traceId());
+    ps.setTimestamp(2, new Timestamp(exchange.timestamp()));
+    ps.setLong(3, exchange.durationNanos());
+    ps.setString(4, exchange.method());
+    ps.setString(5, exchange.uri());
+    ps.setString(6, exchange.queryString());
+    ps.setString(7, exchange.clientIp());
+    if (Objects.nonNull(exchange.headers())) {
+      ps.setString(8, jsonMapper.writeValueAsString(exchange.headers()));
+    } else {
+      ps.setNull(8, Types.CLOB);
+    }
+    ps.setString(9, exchange.requestPayload());
+    ps.setBoolean(10, exchange.requestPayloadTruncated());
+    ps.setInt(11, exchange.status());
+    ps.setString(12, exchange.responsePayload());
+    ps.setBoolean(13, exchange.responsePayloadTruncated());
+  }
+
+  /**
+   * Spills a batch to disk, counting it as dropped if the spill fails.
+   *
+   * @param batch the exchanges to spill
+   */
+  private void spill(List<HttpExchange> batch) {
+    try {
+      spillStore.spill(batch);
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to spill {} exchanges, discarding them", batch.size(), e);
+      droppedCount.add(batch.size());
+    }
+  }
+
+  /**
+   * Returns the header selection of the RequestLoggingFilter's default properties.
+   *
+   * @return the header selector
+   */
+  private static HeaderSelector defaultHeaderSelector() {
+    RequestLoggingFilterProperties.Headers headers = new RequestLoggingFilterProperties.Headers();
+    return new HeaderSelector(headers.getAllowed(), headers.getDenied(), headers.getMasked());
+  }
+
+  /**
+   * Logs a warning when exchanges were dropped since the last report.
+   */
+  private void reportDropped() {
+    long dropped = droppedCount.sum();
+    if (dropped != reportedDroppedCount) {
+      log.warn("JDBC request logging dropped {} exchanges so far", dropped);
+      reportedDroppedCount = dropped;
+    }
+  }
+}
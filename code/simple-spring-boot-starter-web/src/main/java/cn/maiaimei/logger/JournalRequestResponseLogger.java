@@ -0,0 +1,486 @@
+package cn.maiaimei.logger;
+
+import cn.maiaimei.logger.properties.JournalRequestResponseLoggerProperties;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link RequestResponseLogger} that appends exchanges to memory-mapped, append-only segment files.
+ * <p>
+ * Each segment starts with {@link #SEGMENT_MAGIC}, followed by records prefixed with their length and encoded
+ * by {@link ExchangeJournalCodec}. A record's length is written after its body, so a reader never sees a
+ * partially written record, and a zero length marks the end of the written part of a segment. Appending
+ * only copies the encoded record into the mapping; pooled events are encoded straight from their capture
+ * buffers without creating an intermediate {@link HttpExchange}.
+ * <p>
+ * A new segment is started when the current one is full or older than the rollover interval. A background
+ * thread forces appended records to disk at the fsync interval, gzip-compresses closed segments and deletes
+ * segments older than the retention. Segments are read back with {@link ExchangeJournalReader}.
+ */
+@Slf4j
+public class JournalRequestResponseLogger implements RequestResponseLogger, AutoCloseable {
+
+  /**
+   * File name prefix of the segments.
+   */
+  public static final String SEGMENT_PREFIX = "exchange-";
+
+  /**
+   * File name suffix of the segments.
+   */
+  public static final String SEGMENT_SUFFIX = ".journal";
+
+  /**
+   * File name suffix of the compressed segments.
+   */
+  public static final String COMPRESSED_SEGMENT_SUFFIX = SEGMENT_SUFFIX + ".gz";
+
+  /**
+   * Magic number at the start of every segment.
+   */
+  public static final int SEGMENT_MAGIC = 0x48584A31;
+
+  /**
+   * Name of the background thread.
+   */
+  private static final String THREAD_NAME = "request-logging-journal";
+
+  /**
+   * Number of bytes of the record length prefix.
+   */
+  private static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+
+  /**
+   * Maximum time {@link #close()} waits for pending compressions.
+   */
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * Per-thread reusable buffers records are encoded into.
+   */
+  private static final ThreadLocal<EncodeBuffer> ENCODE_BUFFERS = ThreadLocal.withInitial(EncodeBuffer::new);
+
+  /**
+   * Directory of the segments.
+   */
+  private final Path directory;
+
+  /**
+   * Size of a segment in bytes.
+   */
+  private final int segmentSize;
+
+  /**
+   * Maximum age of a segment in milliseconds.
+   */
+  private final long rolloverIntervalMillis;
+
+  /**
+   * Whether closed segments are compressed.
+   */
+  private final boolean compressClosedSegments;
+
+  /**
+   * How long closed segments are kept.
+   */
+  private final Duration retention;
+
+  /**
+   * Lock guarding {@link #current} and appends to it.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Thread running the fsync, rollover, compression and retention tasks.
+   */
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Number of records discarded because they did not fit into a segment or could not be written.
+   */
+  private final LongAdder droppedCount = new LongAdder();
+
+  /**
+   * The segment records are appended to, or {@code null} until the first append.
+   */
+  private Segment current;
+
+  /**
+   * Sequence number disambiguating segments created within the same millisecond.
+   */
+  private int sequence;
+
+  /**
+   * Whether records were appended since the last fsync.
+   */
+  private volatile boolean dirty;
+
+  /**
+   * Whether the logger was closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Constructs a JournalRequestResponseLogger and starts its background thread.
+   * <p>
+   * Segments left open by a previous run are compressed, if compression is enabled.
+   *
+   * @param properties the journal properties
+   */
+  public JournalRequestResponseLogger(JournalRequestResponseLoggerProperties properties) {
+    this.directory = Path.of(properties.getDirectory());
+    this.segmentSize = (int) Math.min(properties.getSegmentSize().toBytes(), Integer.MAX_VALUE);
+    if (segmentSize <= Integer.BYTES + LENGTH_PREFIX_BYTES) {
+      throw new IllegalArgumentException("Segment size too small: " + properties.getSegmentSize());
+    }
+    this.rolloverIntervalMillis = properties.getRolloverInterval().toMillis();
+    this.compressClosedSegments = properties.isCompressClosedSegments();
+    this.retention = properties.getRetention();
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create journal directory " + directory, e);
+    }
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (compressClosedSegments) {
+      for (Path segment : listFiles(SEGMENT_SUFFIX)) {
+        scheduler.execute(() -> compress(segment));
+      }
+    }
+    scheduler.execute(this::purge);
+    long fsyncIntervalMillis = Math.max(1, properties.getFsyncInterval().toMillis());
+    scheduler.scheduleWithFixedDelay(this::maintain, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Appends the event without copying it into an {@link HttpExchange}.
+   *
+   * @param event the exchange event
+   */
+  @Override
+  public void logEvent(ExchangeEvent event) {
+    EncodeBuffer buffer = ENCODE_BUFFERS.get();
+    buffer.reset();
+    try {
+      ExchangeJournalCodec.encode(event, buffer.data);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    append(buffer.array(), buffer.size());
+  }
+
+  /**
+   * Appends the exchange.
+   *
+   * @param exchange the completed exchange
+   */
+  @Override
+  public void logExchange(HttpExchange exchange) {
+    EncodeBuffer buffer = ENCODE_BUFFERS.get();
+    buffer.reset();
+    try {
+      ExchangeJournalCodec.encode(exchange, buffer.data);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    append(buffer.array(), buffer.size());
+  }
+
+  /**
+   * Returns the number of records discarded because they did not fit into a segment or could not be written.
+   *
+   * @return the dropped record count
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * Closes the current segment and waits for pending compressions, at most 30 seconds.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    lock.lock();
+    try {
+      closeCurrent();
+    } finally {
+      lock.unlock();
+    }
+    scheduler.shutdown();
+    try {
+      if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("Request logging journal did not finish compressing segments within {}", SHUTDOWN_TIMEOUT);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Appends an encoded record to the current segment, starting a new segment if needed.
+   *
+   * @param record the encoded record
+   * @param length the record length
+   */
+  private void append(byte[] record, int length) {
+    int required = LENGTH_PREFIX_BYTES + length;
+    if (required > segmentSize - Integer.BYTES) {
+      droppedCount.increment();
+      return;
+    }
+    lock.lock();
+    try {
+      if (closed) {
+        droppedCount.increment();
+        return;
+      }
+      if (current == null || current.buffer.remaining() < required || current.isExpired()) {
+        roll();
+      }
+      MappedByteBuffer buffer = current.buffer;
+      int position = buffer.position();
+      buffer.position(position + LENGTH_PREFIX_BYTES);
+      buffer.put(record, 0, length);
+      buffer.putInt(position, length);
+      dirty = true;
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to append to request logging journal", e);
+      droppedCount.increment();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the current segment and opens a new one. Must be called with the lock held.
+   *
+   * @throws IOException if the new segment cannot be created
+   */
+  private void roll() throws IOException {
+    closeCurrent();
+    long now = System.currentTimeMillis();
+    String name = String.format("%s%013d-%04d%s", SEGMENT_PREFIX, now, sequence++ % 10_000, SEGMENT_SUFFIX);
+    Path path = directory.resolve(name);
+    FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      buffer.putInt(SEGMENT_MAGIC);
+      current = new Segment(path, channel, buffer, now + rolloverIntervalMillis);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Forces, truncates and closes the current segment, then schedules its compression.
+   * Must be called with the lock held.
+   */
+  private void closeCurrent() {
+    Segment segment = current;
+    if (segment == null) {
+      return;
+    }
+    current = null;
+    try {
+      segment.close();
+    } catch (IOException e) {
+      log.error("Failed to close journal segment {}", segment.path, e);
+    }
+    if (compressClosedSegments && !scheduler.isShutdown()) {
+      scheduler.execute(() -> compress(segment.path));
+    }
+  }
+
+  /**
+   * Background task: rolls an expired segment and forces appended records to disk.
+   * <p>
+   * The segment is forced outside the lock so appends are not blocked by the disk.
+   */
+  private void maintain() {
+    Segment segment;
+    lock.lock();
+    try {
+      if (current != null && current.isExpired()) {
+        closeCurrent();
+        purge();
+      }
+      segment = current;
+    } finally {
+      lock.unlock();
+    }
+    if (segment != null && dirty) {
+      dirty = false;
+      segment.force();
+    }
+  }
+
+  /**
+   * Compresses a closed segment into a sibling {@code .gz} file and deletes the segment.
+   *
+   * @param segment the closed segment
+   */
+  private void compress(Path segment) {
+    Path compressed = segment.resolveSibling(segment.getFileName() + ".gz");
+    Path temp = segment.resolveSibling(segment.getFileName() + ".gz.tmp");
+    try {
+      try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+        Files.copy(segment, out);
+      }
+      Files.move(temp, compressed, StandardCopyOption.ATOMIC_MOVE);
+      Files.delete(segment);
+    } catch (IOException e) {
+      log.error("Failed to compress journal segment {}", segment, e);
+    }
+  }
+
+  /**
+   * Deletes closed segments last modified before the retention period.
+   */
+  private void purge() {
+    long threshold = System.currentTimeMillis() - retention.toMillis();
+    for (Path file : listFiles(COMPRESSED_SEGMENT_SUFFIX, SEGMENT_SUFFIX)) {
+      Segment segment = current;
+      if (segment != null && segment.path.equals(file)) {
+        continue;
+      }
+      try {
+        if (Files.getLastModifiedTime(file).toMillis() < threshold) {
+          Files.deleteIfExists(file);
+        }
+      } catch (IOException e) {
+        log.error("Failed to delete expired journal segment {}", file, e);
+      }
+    }
+  }
+
+  /**
+   * Lists the segment files with the given suffixes in creation order.
+   *
+   * @param suffixes the file name suffixes
+   * @return the segment files
+   */
+  private List<Path> listFiles(String... suffixes) {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> {
+            String name = file.getFileName().toString();
+            if (!name.startsWith(SEGMENT_PREFIX)) {
+              return false;
+            }
+            for (String suffix : suffixes) {
+              if (name.endsWith(suffix)) {
+                return true;
+              }
+            }
+            return false;
+          })
+          .sorted()
+          .toList();
+    } catch (IOException e) {
+      log.error("Failed to list journal directory {}", directory, e);
+      return List.of();
+    }
+  }
+
+  /**
+   * An open segment.
+   */
+  private static final class Segment {
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Time in epoch milliseconds after which the segment is rolled over.
+     */
+    private final long expiresAt;
+
+    /**
+     * Whether the segment was closed, guarded by the segment's monitor.
+     */
+    private boolean closed;
+
+    Segment(Path path, FileChannel channel, MappedByteBuffer buffer, long expiresAt) {
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired() {
+      return System.currentTimeMillis() >= expiresAt;
+    }
+
+    /**
+     * Forces the mapping to disk unless the segment was closed in the meantime.
+     */
+    synchronized void force() {
+      if (!closed) {
+        buffer.force();
+      }
+    }
+
+    /**
+     * Forces the mapping to disk and truncates the file to the written records.
+     *
+     * @throws IOException if the file cannot be truncated or closed
+     */
+    synchronized void close() throws IOException {
+      closed = true;
+      buffer.force();
+      try {
+        channel.truncate(buffer.position());
+      } finally {
+        channel.close();
+      }
+    }
+  }
+
+  /**
+   * Reusable buffer exposing its backing array.
+   */
+  private static final class EncodeBuffer extends ByteArrayOutputStream {
+
+    private final DataOutputStream data = new DataOutputStream(this);
+
+    EncodeBuffer() {
+      super(1024);
+    }
+
+    byte[] array() {
+      return buf;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package cn.maiaimei.logger;
+
+/**
+ * Policy applied by {@link AsyncRequestResponseLogger} when its ring buffer is full.
+ */
+public enum OverflowPolicy {
+
+  /**
+   * Evicts the oldest queued entry to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Discards the new entry and keeps the queued ones.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Waits for free space up to the configured offer timeout, then discards the new entry.
+   */
+  BLOCK
+}
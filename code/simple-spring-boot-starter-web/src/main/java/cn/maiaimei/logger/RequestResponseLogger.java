@@ -4,20 +4,57 @@ import java.util.Map;
 
 /**
  * Interface for logging and persisting request and response data.
+ * <p>
+ * The filter invokes {@link #logEvent(ExchangeEvent)} once per completed exchange. By default it is adapted to
+ * {@link #logExchange(HttpExchange)}, which in turn is adapted to {@link #logRequest(Map)} and
+ * {@link #logResponse(Map)}, so implementations of these two methods keep receiving every exchange, while
+ * implementations persisting correlated records override {@link #logExchange(HttpExchange)} or
+ * {@link #logEvent(ExchangeEvent)} only.
  */
 public interface RequestResponseLogger {
 
   /**
    * Logs request data.
+   * <p>
+   * The default implementation does nothing.
    *
    * @param requestData the request data to log
    */
-  void logRequest(Map<String, Object> requestData);
+  default void logRequest(Map<String, Object> requestData) {
+  }
 
   /**
    * Logs response data.
+   * <p>
+   * The default implementation does nothing.
    *
    * @param responseData the response data to log
    */
-  void logResponse(Map<String, Object> responseData);
+  default void logResponse(Map<String, Object> responseData) {
+  }
+
+  /**
+   * Logs a completed exchange as a single correlated record.
+   * <p>
+   * The default implementation delegates to {@link #logRequest(Map)} and {@link #logResponse(Map)}.
+   *
+   * @param exchange the completed exchange
+   */
+  default void logExchange(HttpExchange exchange) {
+    logRequest(exchange.toRequestData());
+    logResponse(exchange.toResponseData());
+  }
+
+  /**
+   * Logs a completed exchange.
+   * <p>
+   * The event is reused once this method returns, so implementations must copy any data they keep.
+   * The default implementation copies the event into an {@link HttpExchange} and delegates to
+   * {@link #logExchange(HttpExchange)}; implementations can override it to read the event without copying.
+   *
+   * @param event the exchange event, valid only for the duration of the call
+   */
+  default void logEvent(ExchangeEvent event) {
+    logExchange(event.toExchange());
+  }
 }
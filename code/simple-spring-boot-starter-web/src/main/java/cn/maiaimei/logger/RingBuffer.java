@@ -0,0 +1,158 @@
+package cn.maiaimei.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free multi-producer/multi-consumer ring buffer.
+ * <p>
+ * Every slot carries a sequence number that tells producers and consumers whether the slot is free or
+ * published for the current lap, so both sides only need a single CAS on their cursor to claim a slot.
+ * The capacity is rounded up to the next power of two.
+ *
+ * @param <E> the type of elements held in this buffer
+ */
+public class RingBuffer<E> {
+
+  /**
+   * Mask for mapping a cursor position to a slot index.
+   */
+  private final int mask;
+
+  /**
+   * Slot storage. Visibility is guaranteed by the volatile writes to {@link #sequences}.
+   */
+  private final Object[] elements;
+
+  /**
+   * Per-slot sequence numbers.
+   */
+  private final AtomicLongArray sequences;
+
+  /**
+   * Next position to be claimed by a producer.
+   */
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * Next position to be claimed by a consumer.
+   */
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * Constructs a RingBuffer.
+   *
+   * @param capacity the requested capacity, rounded up to a power of two
+   */
+  public RingBuffer(int capacity) {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("Capacity must be at least 2");
+    }
+    int size = Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = size - 1;
+    this.elements = new Object[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Inserts the element if a slot is free.
+   *
+   * @param element the element to insert
+   * @return {@code true} if the element was inserted, {@code false} if the buffer is full
+   */
+  public boolean offer(E element) {
+    long position = tail.get();
+    for (; ; ) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements[index] = element;
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest element.
+   *
+   * @return the oldest element, or {@code null} if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    long position = head.get();
+    for (; ; ) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - (position + 1);
+      if (difference == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          E element = (E) elements[index];
+          elements[index] = null;
+          sequences.set(index, position + mask + 1);
+          return element;
+        }
+        position = head.get();
+      } else if (difference < 0) {
+        return null;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  /**
+   * Removes up to {@code maxElements} elements and passes them to the consumer in FIFO order.
+   *
+   * @param consumer    the consumer receiving the elements
+   * @param maxElements the maximum number of elements to drain
+   * @return the number of drained elements
+   */
+  public int drain(Consumer<? super E> consumer, int maxElements) {
+    int count = 0;
+    E element;
+    while (count < maxElements && (element = poll()) != null) {
+      consumer.accept(element);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Returns the approximate number of elements in the buffer.
+   *
+   * @return the approximate size
+   */
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, capacity()));
+  }
+
+  /**
+   * Returns whether the buffer is approximately empty.
+   *
+   * @return {@code true} if no element is published
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the capacity of the buffer.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+}
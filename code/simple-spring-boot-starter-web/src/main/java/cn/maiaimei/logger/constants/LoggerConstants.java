@@ -0,0 +1,19 @@
+package cn.maiaimei.logger.constants;
+
+/**
+ * RequestResponseLogger constants.
+ */
+public final class LoggerConstants {
+
+  public static final String JDBC_LOGGER = "app.logger.jdbc";
+  public static final String JDBC_LOGGER_ENABLED = "app.logger.jdbc.enabled";
+
+  public static final String JOURNAL_LOGGER = "app.logger.journal";
+  public static final String JOURNAL_LOGGER_ENABLED = "app.logger.journal.enabled";
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private LoggerConstants() {
+  }
+}
@@ -0,0 +1,90 @@
+package cn.maiaimei.logger.properties;
+
+import cn.maiaimei.logger.constants.LoggerConstants;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for JdbcRequestResponseLogger.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = LoggerConstants.JDBC_LOGGER)
+@ConditionalOnProperty(name = LoggerConstants.JDBC_LOGGER_ENABLED, havingValue = "true")
+public class JdbcRequestResponseLoggerProperties {
+
+  /**
+   * Whether to persist exchanges to the DataSource when one is available.
+   * <p>
+   * Default is false.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Name of the table the exchanges are inserted into.
+   * <p>
+   * Default is http_exchange.
+   */
+  private String tableName = "http_exchange";
+
+  /**
+   * Whether to create the http_exchange table on startup if it does not exist.
+   * <p>
+   * Only applies to the default table name. Default is false.
+   */
+  private boolean initializeSchema = false;
+
+  /**
+   * Capacity of the buffer of pending exchanges, rounded up to a power of two.
+   * <p>
+   * Exchanges arriving while the buffer is full are dropped. Default is 8192.
+   */
+  private int bufferSize = 8192;
+
+  /**
+   * Maximum number of exchanges inserted per JDBC batch.
+   * <p>
+   * Default is 500.
+   */
+  private int batchSize = 500;
+
+  /**
+   * Maximum time an exchange waits for its batch to fill up before the batch is flushed anyway.
+   * <p>
+   * Default is 200ms.
+   */
+  private Duration lingerTime = Duration.ofMillis(200);
+
+  /**
+   * Number of retries of a failed batch before it is spilled to disk.
+   * <p>
+   * Default is 3.
+   */
+  private int maxRetries = 3;
+
+  /**
+   * Delay before the first retry of a failed batch, doubled on every further retry.
+   * <p>
+   * Default is 500ms.
+   */
+  private Duration retryBackoff = Duration.ofMillis(500);
+
+  /**
+   * Directory batches are spilled to when the database stays unavailable. Spilled batches are replayed
+   * once inserts succeed again. The directory and the batch files are created readable by the owner only,
+   * and headers are filtered and masked like the logged ones.
+   * <p>
+   * Default is http-exchange-spill under java.io.tmpdir.
+   */
+  private String spillDirectory = System.getProperty("java.io.tmpdir") + "/http-exchange-spill";
+
+  /**
+   * Maximum time to wait for pending exchanges to be flushed on shutdown. Must be positive.
+   * <p>
+   * Default is 10s.
+   */
+  private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,68 @@
+package cn.maiaimei.logger.properties;
+
+import cn.maiaimei.logger.constants.LoggerConstants;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for JournalRequestResponseLogger.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = LoggerConstants.JOURNAL_LOGGER)
+@ConditionalOnProperty(name = LoggerConstants.JOURNAL_LOGGER_ENABLED, havingValue = "true")
+public class JournalRequestResponseLoggerProperties {
+
+  /**
+   * Whether to append exchanges to a local memory-mapped journal. Takes precedence over the JDBC logger.
+   * <p>
+   * Default is false.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Directory of the journal segments.
+   * <p>
+   * Default is http-exchange-journal under java.io.tmpdir.
+   */
+  private String directory = System.getProperty("java.io.tmpdir") + "/http-exchange-journal";
+
+  /**
+   * Size of a segment; a new segment is started when the current one is full.
+   * <p>
+   * Default is 64MB.
+   */
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+  /**
+   * Maximum age of a segment before a new one is started.
+   * <p>
+   * Default is 1h.
+   */
+  private Duration rolloverInterval = Duration.ofHours(1);
+
+  /**
+   * Interval at which appended records are forced to disk.
+   * <p>
+   * Default is 1s.
+   */
+  private Duration fsyncInterval = Duration.ofSeconds(1);
+
+  /**
+   * Whether to gzip-compress segments once they are closed.
+   * <p>
+   * Default is true.
+   */
+  private boolean compressClosedSegments = true;
+
+  /**
+   * How long closed segments are kept before they are deleted.
+   * <p>
+   * Default is 7d.
+   */
+  private Duration retention = Duration.ofDays(7);
+}
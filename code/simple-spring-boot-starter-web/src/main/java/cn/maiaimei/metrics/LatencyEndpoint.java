@@ -0,0 +1,98 @@
+package cn.maiaimei.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * Actuator endpoint exposing the latency histograms of the {@link LatencyHistogramRegistry}.
+ * <p>
+ * {@code /actuator/latency} returns the count, mean, max and p50/p90/p99/p999 of every histogram in
+ * milliseconds; {@code /actuator/latency/prometheus} returns them in the Prometheus text format, in seconds.
+ */
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+  /**
+   * Format selector of the Prometheus text output.
+   */
+  private static final String PROMETHEUS_FORMAT = "prometheus";
+
+  /**
+   * Content type of the Prometheus text exposition format.
+   */
+  private static final String PROMETHEUS_CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+  /**
+   * The histograms to expose.
+   */
+  private final LatencyHistogramRegistry latencyHistogramRegistry;
+
+  /**
+   * Constructs a LatencyEndpoint.
+   *
+   * @param latencyHistogramRegistry the histograms to expose
+   */
+  public LatencyEndpoint(LatencyHistogramRegistry latencyHistogramRegistry) {
+    this.latencyHistogramRegistry = latencyHistogramRegistry;
+  }
+
+  /**
+   * Returns the summary of every histogram.
+   *
+   * @return the summaries, keyed by "routes"
+   */
+  @ReadOperation
+  public Map<String, Object> latency() {
+    List<Map<String, Object>> routes = latencyHistogramRegistry.snapshot().stream()
+        .map(LatencyEndpoint::toSummary)
+        .toList();
+    return Map.of("routes", routes);
+  }
+
+  /**
+   * Returns the histograms in the requested format.
+   *
+   * @param format the format, only "prometheus" is supported
+   * @return the formatted histograms, or {@code null} (404) for an unsupported format
+   */
+  @ReadOperation(produces = PROMETHEUS_CONTENT_TYPE)
+  public String format(@Selector String format) {
+    return PROMETHEUS_FORMAT.equals(format) ? latencyHistogramRegistry.toPrometheusText() : null;
+  }
+
+  /**
+   * Converts a histogram snapshot into a summary in milliseconds.
+   *
+   * @param entry the histogram entry
+   * @return the summary
+   */
+  private static Map<String, Object> toSummary(LatencyHistogramRegistry.Entry entry) {
+    LatencyHistogram.Snapshot snapshot = entry.snapshot();
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("method", entry.method());
+    summary.put("route", entry.route());
+    summary.put("status", entry.status());
+    summary.put("count", snapshot.getCount());
+    summary.put("mean", toMillis(snapshot.getMean()));
+    summary.put("max", toMillis(snapshot.getMax()));
+    summary.put("p50", toMillis(snapshot.getValueAtPercentile(50)));
+    summary.put("p90", toMillis(snapshot.getValueAtPercentile(90)));
+    summary.put("p99", toMillis(snapshot.getValueAtPercentile(99)));
+    summary.put("p999", toMillis(snapshot.getValueAtPercentile(99.9)));
+    return summary;
+  }
+
+  /**
+   * Converts nanoseconds into milliseconds rounded to microseconds.
+   *
+   * @param nanos the value in nanoseconds
+   * @return the value in milliseconds
+   */
+  private static double toMillis(double nanos) {
+    return Math.round(nanos / 1_000) / 1_000.0;
+  }
+}
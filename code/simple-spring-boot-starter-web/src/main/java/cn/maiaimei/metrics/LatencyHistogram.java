@@ -0,0 +1,201 @@
+package cn.maiaimei.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, log-linear histogram of latencies in nanoseconds, in the style of HdrHistogram.
+ * <p>
+ * Values below {@code 2^SUB_BUCKET_BITS} get one bucket each. Every further power of two is split into
+ * {@code 2^SUB_BUCKET_BITS} equally wide buckets, so the relative error of a reported value is below
+ * {@code 2^-SUB_BUCKET_BITS} (about 1.6%). Values above {@link #HIGHEST_TRACKABLE_VALUE} (about 73 minutes)
+ * are clamped. Recording increments a single array slot and never allocates; snapshots are not atomic with
+ * respect to concurrent recording, which is fine for monitoring.
+ */
+public class LatencyHistogram {
+
+  /**
+   * Number of bits of sub-bucket resolution per power of two.
+   */
+  private static final int SUB_BUCKET_BITS = 6;
+
+  /**
+   * Number of buckets per power of two.
+   */
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Mask of the sub-bucket offset.
+   */
+  private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+  /**
+   * Bit length of the highest trackable value.
+   */
+  private static final int MAX_VALUE_BITS = 42;
+
+  /**
+   * Highest trackable value; larger values are recorded as this value.
+   */
+  public static final long HIGHEST_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+  /**
+   * Number of buckets.
+   */
+  private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+  /**
+   * Bucket counts.
+   */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /**
+   * Sum of the recorded values.
+   */
+  private final LongAdder totalSum = new LongAdder();
+
+  /**
+   * Largest recorded value.
+   */
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * Records a value.
+   *
+   * @param nanos the latency in nanoseconds; negative values are recorded as zero
+   */
+  public void record(long nanos) {
+    long value = Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_VALUE);
+    counts.incrementAndGet(bucketIndex(value));
+    totalSum.add(value);
+    long max = maxValue.get();
+    while (value > max && !maxValue.compareAndSet(max, value)) {
+      max = maxValue.get();
+    }
+  }
+
+  /**
+   * Takes a snapshot of the histogram.
+   *
+   * @return the snapshot
+   */
+  public Snapshot snapshot() {
+    long[] snapshotCounts = new long[BUCKET_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshotCounts[i] = counts.get(i);
+      count += snapshotCounts[i];
+    }
+    return new Snapshot(snapshotCounts, count, totalSum.sum(), maxValue.get());
+  }
+
+  /**
+   * Returns the bucket of a value.
+   *
+   * @param value the value, between zero and {@link #HIGHEST_TRACKABLE_VALUE}
+   * @return the bucket index
+   */
+  static int bucketIndex(long value) {
+    int group = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+    if (group == 0) {
+      return (int) value;
+    }
+    long offset = (value >>> (group - 1)) & SUB_BUCKET_MASK;
+    return (group << SUB_BUCKET_BITS) | (int) offset;
+  }
+
+  /**
+   * Returns the value reported for a bucket, the middle of its range.
+   *
+   * @param index the bucket index
+   * @return the representative value
+   */
+  static long bucketValue(int index) {
+    int group = index >>> SUB_BUCKET_BITS;
+    long offset = index & SUB_BUCKET_MASK;
+    if (group == 0) {
+      return offset;
+    }
+    long width = 1L << (group - 1);
+    return ((SUB_BUCKET_COUNT + offset) << (group - 1)) + (width >>> 1);
+  }
+
+  /**
+   * Point-in-time copy of a histogram.
+   */
+  public static final class Snapshot {
+
+    private final long[] counts;
+
+    private final long count;
+
+    private final long sum;
+
+    private final long max;
+
+    Snapshot(long[] counts, long count, long sum, long max) {
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values in nanoseconds.
+     *
+     * @return the sum
+     */
+    public long getSum() {
+      return sum;
+    }
+
+    /**
+     * Returns the largest recorded value in nanoseconds.
+     *
+     * @return the maximum
+     */
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values in nanoseconds.
+     *
+     * @return the mean, or zero if nothing was recorded
+     */
+    public double getMean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value at a percentile, capped at the largest recorded value.
+     *
+     * @param percentile the percentile, between 0.0 and 100.0
+     * @return the value in nanoseconds, or zero if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(bucketValue(i), max);
+        }
+      }
+      return max;
+    }
+  }
+}
@@ -0,0 +1,238 @@
+package cn.maiaimei.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Registry of {@link LatencyHistogram}s keyed by HTTP method, route template and status class.
+ * <p>
+ * Route templates come from the handler mapping, e.g. {@code /users/{id}}, so the number of histograms is
+ * bounded by the number of mappings rather than by the number of distinct URIs. Requests not matched by any
+ * mapping share the {@link #UNMATCHED_ROUTE} histograms. Methods and status classes index into a fixed
+ * per-route array, so recording into an existing histogram does not allocate.
+ */
+public class LatencyHistogramRegistry {
+
+  /**
+   * Route of the requests not matched by a handler mapping.
+   */
+  public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+  /**
+   * Name of the Prometheus metric.
+   */
+  public static final String METRIC_NAME = "http_server_request_latency_seconds";
+
+  /**
+   * Quantiles reported by the snapshots.
+   */
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  /**
+   * Method labels; methods not listed are recorded as OTHER.
+   */
+  private static final String[] METHODS = {"GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE",
+      "OTHER"};
+
+  /**
+   * Status class labels, indexed by status / 100; statuses outside 1xx-5xx are recorded as UNKNOWN.
+   */
+  private static final String[] STATUS_CLASSES = {"UNKNOWN", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+  /**
+   * Nanoseconds per second, for the Prometheus base unit.
+   */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /**
+   * Histograms per route template.
+   */
+  private final Map<String, RouteHistograms> routes = new ConcurrentHashMap<>();
+
+  /**
+   * Records the latency of a request.
+   *
+   * @param method the HTTP method
+   * @param route  the matched route template, or {@code null} if no handler mapping matched
+   * @param status the response status code
+   * @param nanos  the latency in nanoseconds
+   */
+  public void record(String method, String route, int status, long nanos) {
+    String routeToUse = route != null ? route : UNMATCHED_ROUTE;
+    RouteHistograms histograms = routes.get(routeToUse);
+    if (histograms == null) {
+      histograms = routes.computeIfAbsent(routeToUse, key -> new RouteHistograms());
+    }
+    histograms.get(methodIndex(method), statusIndex(status)).record(nanos);
+  }
+
+  /**
+   * Takes a snapshot of every histogram that recorded at least one request, ordered by route, method and status.
+   *
+   * @return the snapshots
+   */
+  public List<Entry> snapshot() {
+    List<Entry> entries = new ArrayList<>();
+    routes.forEach((route, histograms) -> {
+      for (int m = 0; m < METHODS.length; m++) {
+        for (int s = 0; s < STATUS_CLASSES.length; s++) {
+          LatencyHistogram histogram = histograms.peek(m, s);
+          if (histogram != null) {
+            entries.add(new Entry(METHODS[m], route, STATUS_CLASSES[s], histogram.snapshot()));
+          }
+        }
+      }
+    });
+    entries.sort(Comparator.comparing(Entry::route).thenComparing(Entry::method).thenComparing(Entry::status));
+    return entries;
+  }
+
+  /**
+   * Formats the histograms as a Prometheus summary in the text exposition format, in seconds.
+   *
+   * @return the Prometheus text
+   */
+  public String toPrometheusText() {
+    StringBuilder text = new StringBuilder(4096);
+    text.append("# HELP ").append(METRIC_NAME).append(" Latency of HTTP server requests since startup.\n");
+    text.append("# TYPE ").append(METRIC_NAME).append(" summary\n");
+    List<Entry> entries = snapshot();
+    for (Entry entry : entries) {
+      LatencyHistogram.Snapshot snapshot = entry.snapshot();
+      for (double quantile : QUANTILES) {
+        appendSample(text, METRIC_NAME, entry, String.valueOf(quantile),
+            toSeconds(snapshot.getValueAtPercentile(quantile * 100)));
+      }
+      appendSample(text, METRIC_NAME + "_sum", entry, null, toSeconds(snapshot.getSum()));
+      appendSample(text, METRIC_NAME + "_count", entry, null, Long.toString(snapshot.getCount()));
+    }
+    text.append("# HELP ").append(METRIC_NAME).append("_max Maximum latency of HTTP server requests since startup.\n");
+    text.append("# TYPE ").append(METRIC_NAME).append("_max gauge\n");
+    for (Entry entry : entries) {
+      appendSample(text, METRIC_NAME + "_max", entry, null, toSeconds(entry.snapshot().getMax()));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Appends one Prometheus sample line.
+   *
+   * @param text     the target
+   * @param name     the sample name
+   * @param entry    the histogram entry providing the labels
+   * @param quantile the quantile label, or {@code null} for none
+   * @param value    the formatted sample value
+   */
+  private static void appendSample(StringBuilder text, String name, Entry entry, String quantile, String value) {
+    text.append(name)
+        .append("{method=\"").append(entry.method())
+        .append("\",route=\"");
+    appendEscaped(text, entry.route());
+    text.append("\",status=\"").append(entry.status()).append('"');
+    if (quantile != null) {
+      text.append(",quantile=\"").append(quantile).append('"');
+    }
+    text.append("} ").append(value).append('\n');
+  }
+
+  /**
+   * Formats nanoseconds as seconds.
+   *
+   * @param nanos the value in nanoseconds
+   * @return the formatted value in seconds
+   */
+  private static String toSeconds(long nanos) {
+    return String.format(Locale.ROOT, "%.9f", nanos / NANOS_PER_SECOND);
+  }
+
+  /**
+   * Appends a label value, escaping backslashes, double quotes and line feeds.
+   *
+   * @param text  the target
+   * @param value the label value
+   */
+  private static void appendEscaped(StringBuilder text, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> text.append("\\\\");
+        case '"' -> text.append("\\\"");
+        case '\n' -> text.append("\\n");
+        default -> text.append(c);
+      }
+    }
+  }
+
+  /**
+   * Returns the index of a method label.
+   *
+   * @param method the HTTP method
+   * @return the index into {@link #METHODS}
+   */
+  private static int methodIndex(String method) {
+    return switch (method) {
+      case "GET" -> 0;
+      case "HEAD" -> 1;
+      case "POST" -> 2;
+      case "PUT" -> 3;
+      case "PATCH" -> 4;
+      case "DELETE" -> 5;
+      case "OPTIONS" -> 6;
+      case "TRACE" -> 7;
+      default -> 8;
+    };
+  }
+
+  /**
+   * Returns the index of a status class label.
+   *
+   * @param status the response status code
+   * @return the index into {@link #STATUS_CLASSES}
+   */
+  private static int statusIndex(int status) {
+    int statusClass = status / 100;
+    return statusClass >= 1 && statusClass <= 5 ? statusClass : 0;
+  }
+
+  /**
+   * Snapshot of the histogram of one method, route and status class.
+   *
+   * @param method   the method label
+   * @param route    the route template
+   * @param status   the status class label
+   * @param snapshot the histogram snapshot
+   */
+  public record Entry(String method, String route, String status, LatencyHistogram.Snapshot snapshot) {
+
+  }
+
+  /**
+   * Lazily created histograms of one route, indexed by method and status class.
+   */
+  private static final class RouteHistograms {
+
+    private final AtomicReferenceArray<LatencyHistogram> histograms =
+        new AtomicReferenceArray<>(METHODS.length * STATUS_CLASSES.length);
+
+    LatencyHistogram get(int methodIndex, int statusIndex) {
+      int index = methodIndex * STATUS_CLASSES.length + statusIndex;
+      LatencyHistogram histogram = histograms.get(index);
+      if (histogram == null) {
+        histogram = new LatencyHistogram();
+        if (!histograms.compareAndSet(index, null, histogram)) {
+          histogram = histograms.get(index);
+        }
+      }
+      return histogram;
+    }
+
+    LatencyHistogram peek(int methodIndex, int statusIndex) {
+      return histograms.get(methodIndex * STATUS_CLASSES.length + statusIndex);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package cn.maiaimei.trace;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor running each task with the MDC and current span of the thread that submitted it.
+ */
+public class ContextPropagatingExecutor implements Executor {
+
+  /**
+   * The executor the wrapped tasks are handed to.
+   */
+  private final Executor delegate;
+
+  /**
+   * Constructs a ContextPropagatingExecutor.
+   *
+   * @param delegate the executor the wrapped tasks are handed to
+   */
+  public ContextPropagatingExecutor(Executor delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    delegate.execute(ContextSnapshot.capture().wrap(command));
+  }
+}
@@ -0,0 +1,117 @@
+package cn.maiaimei.trace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ExecutorService running each task with the MDC and current span of the thread that submitted it.
+ * <p>
+ * Lifecycle methods are delegated as is; tasks returned by {@link #shutdownNow()} are the wrapped ones.
+ */
+public class ContextPropagatingExecutorService implements ExecutorService {
+
+  /**
+   * The executor service the wrapped tasks are handed to.
+   */
+  private final ExecutorService delegate;
+
+  /**
+   * Constructs a ContextPropagatingExecutorService.
+   *
+   * @param delegate the executor service the wrapped tasks are handed to
+   */
+  public ContextPropagatingExecutorService(ExecutorService delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    delegate.execute(ContextSnapshot.capture().wrap(command));
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    return delegate.submit(ContextSnapshot.capture().wrap(task));
+  }
+
+  @Override
+  public <T> Future<T> submit(Runnable task, T result) {
+    return delegate.submit(ContextSnapshot.capture().wrap(task), result);
+  }
+
+  @Override
+  public <T> Future<T> submit(Callable<T> task) {
+    return delegate.submit(ContextSnapshot.capture().wrap(task));
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    return delegate.invokeAll(wrap(tasks));
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return delegate.invokeAll(wrap(tasks), timeout, unit);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+    return delegate.invokeAny(wrap(tasks));
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return delegate.invokeAny(wrap(tasks), timeout, unit);
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+
+  /**
+   * Wraps tasks with a single snapshot of the calling thread's context.
+   *
+   * @param tasks the tasks
+   * @param <T>   the result type
+   * @return the wrapped tasks
+   */
+  private static <T> List<Callable<T>> wrap(Collection<? extends Callable<T>> tasks) {
+    ContextSnapshot snapshot = ContextSnapshot.capture();
+    List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      wrapped.add(snapshot.wrap(task));
+    }
+    return wrapped;
+  }
+}
@@ -0,0 +1,17 @@
+package cn.maiaimei.trace;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * TaskDecorator running each task with the MDC and current span of the thread that submitted it.
+ * <p>
+ * Spring Boot applies TaskDecorator beans to the task executor behind {@code @Async} and to the task
+ * scheduler; apply it to other {@code ThreadPoolTaskExecutor}s with {@code setTaskDecorator}.
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    return ContextSnapshot.capture().wrap(runnable);
+  }
+}
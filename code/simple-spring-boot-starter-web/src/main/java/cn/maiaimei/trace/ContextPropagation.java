@@ -0,0 +1,55 @@
+package cn.maiaimei.trace;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Utility class wrapping tasks to run with the logging and trace context of the calling thread, captured as a
+ * {@link ContextSnapshot}.
+ *
+ * <pre>{@code
+ * CompletableFuture<User> user = CompletableFuture.supplyAsync(
+ *     ContextPropagation.wrapSupplier(() -> userClient.get(id)));
+ * }</pre>
+ */
+public final class ContextPropagation {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private ContextPropagation() {
+  }
+
+  /**
+   * Wraps a task to run with the MDC, trace context and current span of the calling thread.
+   *
+   * @param task the task
+   * @return the wrapped task
+   */
+  public static Runnable wrap(Runnable task) {
+    return ContextSnapshot.capture().wrap(task);
+  }
+
+  /**
+   * Wraps a task to run with the MDC, trace context and current span of the calling thread.
+   *
+   * @param task the task
+   * @param <V>  the result type
+   * @return the wrapped task
+   */
+  public static <V> Callable<V> wrap(Callable<V> task) {
+    return ContextSnapshot.capture().wrap(task);
+  }
+
+  /**
+   * Wraps a supplier, e.g. of {@code CompletableFuture.supplyAsync}, to run with the MDC, trace context and
+   * current span of the calling thread.
+   *
+   * @param supplier the supplier
+   * @param <T>      the result type
+   * @return the wrapped supplier
+   */
+  public static <T> Supplier<T> wrapSupplier(Supplier<T> supplier) {
+    return ContextSnapshot.capture().wrapSupplier(supplier);
+  }
+}
@@ -0,0 +1,146 @@
+package cn.maiaimei.trace;
+
+import cn.maiaimei.utils.MdcUtils;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Immutable snapshot of the logging and trace context of a thread: its MDC, {@link TraceContextHolder} binding
+ * and current {@link Span}.
+ * <p>
+ * Tasks wrapped by a snapshot run with the captured context on whatever thread executes them, so their log
+ * lines carry the trace ID of the request that submitted them and their spans join its trace. The executing
+ * thread's own context is restored afterwards, which keeps it intact when a rejected task runs on the
+ * submitting thread. Capturing copies the MDC map once per task; an empty context is shared rather than
+ * captured, and still clears whatever a previous unwrapped task left in the executing thread's MDC.
+ * {@link ContextPropagation} wraps tasks with a snapshot of the calling thread.
+ *
+ * <pre>{@code
+ * CompletableFuture<User> user = CompletableFuture.supplyAsync(
+ *     ContextSnapshot.capture().wrapSupplier(() -> userClient.get(id)));
+ * }</pre>
+ */
+public final class ContextSnapshot {
+
+  /**
+   * Snapshot of a thread without MDC, trace context and current span.
+   */
+  private static final ContextSnapshot EMPTY = new ContextSnapshot(null, null, null);
+
+  /**
+   * The MDC context map, {@code null} if empty.
+   */
+  private final Map<String, String> mdc;
+
+  /**
+   * The bound trace context, {@code null} if none.
+   */
+  private final TraceContext traceContext;
+
+  /**
+   * The current span, {@code null} if none.
+   */
+  private final Span span;
+
+  private ContextSnapshot(Map<String, String> mdc, TraceContext traceContext, Span span) {
+    this.mdc = mdc;
+    this.traceContext = traceContext;
+    this.span = span;
+  }
+
+  /**
+   * Captures the context of the calling thread.
+   *
+   * @return the snapshot
+   */
+  public static ContextSnapshot capture() {
+    Map<String, String> mdc = MdcUtils.snapshot();
+    TraceContext traceContext = TraceContextHolder.get();
+    Span span = Tracer.currentSpan();
+    return mdc == null && traceContext == null && span == null ? EMPTY
+        : new ContextSnapshot(mdc, traceContext, span);
+  }
+
+  /**
+   * Wraps a task to run with this context.
+   *
+   * @param task the task
+   * @return the wrapped task
+   */
+  public Runnable wrap(Runnable task) {
+    return () -> {
+      Map<String, String> previousMdc = MdcUtils.snapshot();
+      TraceContext previousContext = TraceContextHolder.bind(traceContext);
+      Span previousSpan = attach();
+      try {
+        task.run();
+      } finally {
+        detach(previousMdc, previousContext, previousSpan);
+      }
+    };
+  }
+
+  /**
+   * Wraps a task to run with this context.
+   *
+   * @param task the task
+   * @param <V>  the result type
+   * @return the wrapped task
+   */
+  public <V> Callable<V> wrap(Callable<V> task) {
+    return () -> {
+      Map<String, String> previousMdc = MdcUtils.snapshot();
+      TraceContext previousContext = TraceContextHolder.bind(traceContext);
+      Span previousSpan = attach();
+      try {
+        return task.call();
+      } finally {
+        detach(previousMdc, previousContext, previousSpan);
+      }
+    };
+  }
+
+  /**
+   * Wraps a supplier to run with this context.
+   *
+   * @param supplier the supplier
+   * @param <T>      the result type
+   * @return the wrapped supplier
+   */
+  public <T> Supplier<T> wrapSupplier(Supplier<T> supplier) {
+    return () -> {
+      Map<String, String> previousMdc = MdcUtils.snapshot();
+      TraceContext previousContext = TraceContextHolder.bind(traceContext);
+      Span previousSpan = attach();
+      try {
+        return supplier.get();
+      } finally {
+        detach(previousMdc, previousContext, previousSpan);
+      }
+    };
+  }
+
+  /**
+   * Installs the MDC and current span of this context on the calling thread.
+   *
+   * @return the previous current span of the thread
+   */
+  private Span attach() {
+    MdcUtils.restore(mdc);
+    return Tracer.setCurrentSpan(span);
+  }
+
+  /**
+   * Restores the previous context of the calling thread.
+   *
+   * @param previousMdc     the previous MDC context map
+   * @param previousContext the previously bound trace context
+   * @param previousSpan    the previous current span
+   */
+  private static void detach(Map<String, String> previousMdc, TraceContext previousContext, Span previousSpan) {
+    MdcUtils.restore(previousMdc);
+    TraceContextHolder.restore(previousContext);
+    Tracer.setCurrentSpan(previousSpan);
+  }
+}
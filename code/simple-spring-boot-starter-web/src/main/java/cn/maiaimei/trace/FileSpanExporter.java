@@ -0,0 +1,228 @@
+package cn.maiaimei.trace;
+
+import cn.maiaimei.trace.properties.TracingProperties;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.ObjectWriteContext;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.core.json.JsonFactory;
+
+/**
+ * Exports spans as JSON lines to local files.
+ * <p>
+ * Spans are appended to {@code spans.jsonl} in the configured directory, one JSON object per line with the
+ * trace ID, span ID, parent span ID, name, start time and duration in microseconds and tags. Once the file
+ * exceeds the maximum size it is renamed to {@code spans-<epoch millis>.jsonl} and a new one is started; only
+ * the most recent closed files are kept. Each batch is written with a single flush.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+  /**
+   * Name of the file spans are appended to.
+   */
+  private static final String CURRENT_FILE_NAME = "spans.jsonl";
+
+  /**
+   * Prefix of the closed files.
+   */
+  private static final String CLOSED_FILE_PREFIX = "spans-";
+
+  /**
+   * Suffix of the span files.
+   */
+  private static final String FILE_SUFFIX = ".jsonl";
+
+  private static final SerializableString TRACE_ID_NAME = new SerializedString("traceId");
+  private static final SerializableString SPAN_ID_NAME = new SerializedString("spanId");
+  private static final SerializableString PARENT_SPAN_ID_NAME = new SerializedString("parentSpanId");
+  private static final SerializableString NAME_NAME = new SerializedString("name");
+  private static final SerializableString START_NAME = new SerializedString("start");
+  private static final SerializableString DURATION_NAME = new SerializedString("duration");
+  private static final SerializableString TAGS_NAME = new SerializedString("tags");
+
+  /**
+   * Factory of the generators the spans are written with, each span being terminated by a line break
+   * instead of the default root value separator.
+   */
+  private final JsonFactory jsonFactory = JsonFactory.builder().rootValueSeparator("").build();
+
+  /**
+   * Directory of the span files.
+   */
+  private final Path directory;
+
+  /**
+   * The file spans are appended to.
+   */
+  private final Path currentFile;
+
+  /**
+   * Size after which the current file is rolled.
+   */
+  private final long maxFileSize;
+
+  /**
+   * Maximum number of closed files kept.
+   */
+  private final int maxHistory;
+
+  /**
+   * Stream of the current file, {@code null} until the first batch.
+   */
+  private OutputStream out;
+
+  /**
+   * Size of the current file.
+   */
+  private long fileSize;
+
+  /**
+   * Constructs a FileSpanExporter.
+   *
+   * @param file the properties of the file exporter
+   */
+  public FileSpanExporter(TracingProperties.File file) {
+    this.directory = Path.of(file.getDirectory());
+    this.currentFile = directory.resolve(CURRENT_FILE_NAME);
+    this.maxFileSize = file.getMaxFileSize().toBytes();
+    this.maxHistory = Math.max(0, file.getMaxHistory());
+  }
+
+  @Override
+  public void export(List<Span> spans) throws IOException {
+    if (out == null) {
+      open();
+    }
+    CountingOutputStream counter = new CountingOutputStream(out);
+    try (JsonGenerator gen = jsonFactory.createGenerator(ObjectWriteContext.empty(), counter)) {
+      for (Span span : spans) {
+        write(span, gen);
+        gen.writeRaw('\n');
+      }
+    }
+    out.flush();
+    fileSize += counter.count;
+    if (fileSize >= maxFileSize) {
+      roll();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (out != null) {
+      try {
+        out.close();
+      } catch (IOException e) {
+        log.warn("Failed to close span file {}", currentFile, e);
+      }
+      out = null;
+    }
+  }
+
+  /**
+   * Writes a span as a JSON object.
+   *
+   * @param span the span
+   * @param gen  the generator
+   */
+  private void write(Span span, JsonGenerator gen) {
+    gen.writeStartObject();
+    gen.writeName(TRACE_ID_NAME);
+    gen.writeString(span.getTraceId());
+    gen.writeName(SPAN_ID_NAME);
+    gen.writeString(HexTraceIds.formatSpanId(span.getSpanId()));
+    if (span.getParentSpanId() != 0) {
+      gen.writeName(PARENT_SPAN_ID_NAME);
+      gen.writeString(HexTraceIds.formatSpanId(span.getParentSpanId()));
+    }
+    gen.writeName(NAME_NAME);
+    gen.writeString(span.getName());
+    gen.writeName(START_NAME);
+    gen.writeNumber(span.getStartEpochMicros());
+    gen.writeName(DURATION_NAME);
+    gen.writeNumber(span.getDurationNanos() / 1_000);
+    if (span.getTagCount() > 0) {
+      gen.writeName(TAGS_NAME);
+      gen.writeStartObject();
+      for (int i = 0; i < span.getTagCount(); i++) {
+        gen.writeName(span.getTagKey(i));
+        gen.writeString(span.getTagValue(i));
+      }
+      gen.writeEndObject();
+    }
+    gen.writeEndObject();
+  }
+
+  /**
+   * Opens the current file for appending.
+   *
+   * @throws IOException if the file cannot be opened
+   */
+  private void open() throws IOException {
+    Files.createDirectories(directory);
+    out = new BufferedOutputStream(Files.newOutputStream(currentFile, StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND), 64 * 1024);
+    fileSize = Files.size(currentFile);
+  }
+
+  /**
+   * Closes the current file, renames it and deletes the closed files beyond the history limit.
+   *
+   * @throws IOException if the file cannot be renamed
+   */
+  private void roll() throws IOException {
+    close();
+    Files.move(currentFile, directory.resolve(CLOSED_FILE_PREFIX + System.currentTimeMillis() + FILE_SUFFIX));
+    List<Path> closed = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+        CLOSED_FILE_PREFIX + "*" + FILE_SUFFIX)) {
+      stream.forEach(closed::add);
+    }
+    closed.sort(null);
+    for (int i = 0; i < closed.size() - maxHistory; i++) {
+      Files.deleteIfExists(closed.get(i));
+    }
+  }
+
+  /**
+   * Stream counting the bytes written through it, without closing the target.
+   */
+  private static final class CountingOutputStream extends OutputStream {
+
+    private final OutputStream target;
+
+    private long count;
+
+    CountingOutputStream(OutputStream target) {
+      this.target = target;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      target.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      target.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      target.flush();
+    }
+  }
+}
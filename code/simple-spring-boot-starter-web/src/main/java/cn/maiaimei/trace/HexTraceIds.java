@@ -0,0 +1,118 @@
+package cn.maiaimei.trace;
+
+/**
+ * Helpers for writing and reading trace IDs and span IDs as lowercase hex characters.
+ */
+final class HexTraceIds {
+
+  /**
+   * Length of a trace ID in hex characters.
+   */
+  static final int LENGTH = 32;
+
+  /**
+   * Length of a span ID in hex characters.
+   */
+  static final int SPAN_ID_LENGTH = 16;
+
+  /**
+   * Lowercase hex digits.
+   */
+  private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * Per-thread reusable buffers the hex characters are written into.
+   */
+  private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[LENGTH]);
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private HexTraceIds() {
+  }
+
+  /**
+   * Formats a 128-bit value as a trace ID.
+   *
+   * @param high the high 64 bits
+   * @param low  the low 64 bits
+   * @return the 32 hex characters
+   */
+  static String format(long high, long low) {
+    char[] buffer = BUFFERS.get();
+    writeHex(high, buffer, 0);
+    writeHex(low, buffer, 16);
+    return new String(buffer);
+  }
+
+  /**
+   * Formats a 64-bit value as a span ID.
+   *
+   * @param spanId the span ID
+   * @return the 16 hex characters
+   */
+  static String formatSpanId(long spanId) {
+    char[] buffer = BUFFERS.get();
+    writeHex(spanId, buffer, 0);
+    return new String(buffer, 0, SPAN_ID_LENGTH);
+  }
+
+  /**
+   * Returns whether a range of a string consists of lowercase hex characters.
+   *
+   * @param value the string
+   * @param from  the index of the first character, inclusive
+   * @param to    the index of the last character, exclusive
+   * @return {@code true} if every character in the range is 0-9 or a-f
+   */
+  static boolean isLowerHex(CharSequence value, int from, int to) {
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads 16 lowercase hex characters as a long.
+   *
+   * @param value the string, validated with {@link #isLowerHex(CharSequence, int, int)}
+   * @param from  the index of the first character
+   * @return the value
+   */
+  static long parseLong(CharSequence value, int from) {
+    long result = 0;
+    for (int i = from; i < from + SPAN_ID_LENGTH; i++) {
+      char c = value.charAt(i);
+      result = (result << 4) | (c <= '9' ? c - '0' : c - 'a' + 10);
+    }
+    return result;
+  }
+
+  /**
+   * Returns whether a string is a valid W3C trace-id: 32 lowercase hex characters, not all zero.
+   *
+   * @param traceId the string
+   * @return {@code true} if valid
+   */
+  static boolean isValidTraceId(String traceId) {
+    return traceId != null && traceId.length() == LENGTH && isLowerHex(traceId, 0, LENGTH)
+        && (parseLong(traceId, 0) != 0 || parseLong(traceId, SPAN_ID_LENGTH) != 0);
+  }
+
+  /**
+   * Writes a long as 16 hex characters.
+   *
+   * @param value  the value
+   * @param buffer the target
+   * @param offset the offset of the first character
+   */
+  private static void writeHex(long value, char[] buffer, int offset) {
+    for (int i = offset + 15; i >= offset; i--) {
+      buffer[i] = DIGITS[(int) value & 0xF];
+      value >>>= 4;
+    }
+  }
+}
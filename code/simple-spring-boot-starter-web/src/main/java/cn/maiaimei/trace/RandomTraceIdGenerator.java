@@ -0,0 +1,24 @@
+package cn.maiaimei.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates random 128-bit trace IDs as 32 lowercase hex characters, valid W3C trace-ids.
+ * <p>
+ * Uses {@link ThreadLocalRandom}, so generation does not contend across threads; the IDs are unique but not
+ * unpredictable, and must not be used as secrets.
+ */
+public class RandomTraceIdGenerator implements TraceIdGenerator {
+
+  @Override
+  public String generate() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long high = random.nextLong();
+    long low = random.nextLong();
+    if (high == 0 && low == 0) {
+      // The all-zero trace-id is invalid in W3C Trace Context.
+      low = 1;
+    }
+    return HexTraceIds.format(high, low);
+  }
+}
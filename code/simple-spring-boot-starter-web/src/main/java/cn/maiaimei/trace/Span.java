@@ -0,0 +1,214 @@
+package cn.maiaimei.trace;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * A timed operation within a trace, started by a {@link Tracer} and ended by {@link #close()}.
+ * <p>
+ * A span becomes the current span of its thread when started, so spans started while it is open become its
+ * children; closing it restores the previous current span. Spans of unsampled traces are not exported, and
+ * children of unsampled spans are the shared {@link #NOOP} span, so timing unsampled operations does not
+ * allocate. Spans are not thread-safe: tag and close a span on the thread that started it, or
+ * {@link #detach()} it first and {@link #end()} it from another thread.
+ *
+ * <pre>{@code
+ * try (Span span = tracer.startSpan("book.findAll")) {
+ *   span.tag("table", "books");
+ *   return jdbcTemplate.query(sql, bookRowMapper);
+ * }
+ * }</pre>
+ */
+public final class Span implements AutoCloseable {
+
+  /**
+   * Span of unsampled operations: records nothing and never becomes the current span.
+   */
+  public static final Span NOOP = new Span(null, null, null, 0, 0, false, null);
+
+  /**
+   * Maximum number of tags per span; further tags are ignored.
+   */
+  private static final int MAX_TAGS = 16;
+
+  /**
+   * The tracer the span is exported through, {@code null} for {@link #NOOP}.
+   */
+  private final Tracer tracer;
+
+  /**
+   * The operation name.
+   */
+  @Getter
+  private final String name;
+
+  /**
+   * The trace ID.
+   */
+  @Getter
+  private final String traceId;
+
+  /**
+   * The span ID.
+   */
+  @Getter
+  private final long spanId;
+
+  /**
+   * The span ID of the parent, 0 for a root span.
+   */
+  @Getter
+  private final long parentSpanId;
+
+  /**
+   * Whether the span is exported.
+   */
+  @Getter
+  private final boolean sampled;
+
+  /**
+   * The span that was current when this one started, restored on close.
+   */
+  private final Span previous;
+
+  /**
+   * Start time in microseconds since the epoch.
+   */
+  @Getter
+  private final long startEpochMicros;
+
+  /**
+   * Monotonic start time in nanoseconds.
+   */
+  private final long startNanos;
+
+  /**
+   * Duration in nanoseconds, -1 while the span is open.
+   */
+  @Getter
+  private long durationNanos = -1;
+
+  /**
+   * Tag keys and values, interleaved, {@code null} until the first tag.
+   */
+  private String[] tags;
+
+  /**
+   * Number of entries used in {@link #tags}.
+   */
+  private int tagLength;
+
+  /**
+   * Whether the span is still the current span of its thread.
+   */
+  private boolean attached;
+
+  Span(Tracer tracer, String name, String traceId, long spanId, long parentSpanId, boolean sampled, Span previous) {
+    this.tracer = tracer;
+    this.name = name;
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.parentSpanId = parentSpanId;
+    this.sampled = sampled;
+    this.previous = previous;
+    this.startEpochMicros = System.currentTimeMillis() * 1_000;
+    this.startNanos = System.nanoTime();
+    this.attached = tracer != null;
+  }
+
+  /**
+   * Adds a tag to the span; ignored for unsampled and ended spans.
+   *
+   * @param key   the tag key
+   * @param value the tag value
+   * @return this span
+   */
+  public Span tag(String key, String value) {
+    if (!sampled || durationNanos >= 0) {
+      return this;
+    }
+    if (tags == null) {
+      tags = new String[8];
+    } else if (tagLength == tags.length) {
+      if (tagLength == MAX_TAGS * 2) {
+        return this;
+      }
+      tags = Arrays.copyOf(tags, tagLength * 2);
+    }
+    tags[tagLength++] = key;
+    tags[tagLength++] = value;
+    return this;
+  }
+
+  /**
+   * Tags the span with the class and message of an error.
+   *
+   * @param error the error
+   * @return this span
+   */
+  public Span error(Throwable error) {
+    return tag("error", error.getClass().getName() + ": " + error.getMessage());
+  }
+
+  /**
+   * Restores the previous current span of the thread without ending this span, e.g. before handing the span
+   * over to another thread.
+   */
+  public void detach() {
+    if (attached) {
+      attached = false;
+      tracer.restore(this, previous);
+    }
+  }
+
+  /**
+   * Ends the span and hands it to the exporter if sampled, without restoring the previous current span.
+   */
+  public void end() {
+    if (tracer == null || durationNanos >= 0) {
+      return;
+    }
+    durationNanos = System.nanoTime() - startNanos;
+    if (sampled) {
+      tracer.export(this);
+    }
+  }
+
+  /**
+   * Ends the span and restores the previous current span of the thread.
+   */
+  @Override
+  public void close() {
+    detach();
+    end();
+  }
+
+  /**
+   * Returns the number of tags.
+   *
+   * @return the number of tags
+   */
+  public int getTagCount() {
+    return tagLength / 2;
+  }
+
+  /**
+   * Returns the key of a tag.
+   *
+   * @param index the tag index, less than {@link #getTagCount()}
+   * @return the key
+   */
+  public String getTagKey(int index) {
+    return tags[index * 2];
+  }
+
+  /**
+   * Returns the value of a tag.
+   *
+   * @param index the tag index, less than {@link #getTagCount()}
+   * @return the value
+   */
+  public String getTagValue(int index) {
+    return tags[index * 2 + 1];
+  }
+}
@@ -0,0 +1,27 @@
+package cn.maiaimei.trace;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Exports batches of ended spans, from the single export thread of the {@link Tracer}.
+ * <p>
+ * Define a bean of this type to replace the default {@link FileSpanExporter}.
+ */
+public interface SpanExporter extends AutoCloseable {
+
+  /**
+   * Exports a batch of ended spans. The spans must not be retained after returning.
+   *
+   * @param spans the spans
+   * @throws IOException if the spans cannot be exported; the batch is dropped
+   */
+  void export(List<Span> spans) throws IOException;
+
+  /**
+   * Releases the resources of the exporter, after the last batch.
+   */
+  @Override
+  default void close() {
+  }
+}
@@ -0,0 +1,20 @@
+package cn.maiaimei.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered 128-bit trace IDs as 32 lowercase hex characters, valid W3C trace-ids.
+ * <p>
+ * The first 48 bits hold the epoch milliseconds and the remaining 80 bits come from
+ * {@link ThreadLocalRandom}, so IDs sort by creation time to the millisecond, like UUIDv7, and stay unique
+ * within a millisecond.
+ */
+public class TimeOrderedTraceIdGenerator implements TraceIdGenerator {
+
+  @Override
+  public String generate() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long high = (System.currentTimeMillis() << 16) | (random.nextInt() & 0xFFFF);
+    return HexTraceIds.format(high, random.nextLong());
+  }
+}
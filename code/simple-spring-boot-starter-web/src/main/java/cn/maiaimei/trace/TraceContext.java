@@ -0,0 +1,161 @@
+package cn.maiaimei.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Getter;
+
+/**
+ * Immutable W3C Trace Context of a request: trace ID, span ID, parent span ID, sampled flag and trace state.
+ * <p>
+ * Parses the {@code traceparent} header of the caller and formats the one propagated to the next hop, see
+ * <a href="https://www.w3.org/TR/trace-context/">Trace Context</a>.
+ */
+@Getter
+public final class TraceContext {
+
+  /**
+   * Name of the request attribute holding the trace context of the request.
+   */
+  public static final String REQUEST_ATTRIBUTE = TraceContext.class.getName();
+
+  /**
+   * Length of a version 00 traceparent header.
+   */
+  private static final int TRACEPARENT_LENGTH = 55;
+
+  /**
+   * Trace flag marking the trace as sampled.
+   */
+  private static final int SAMPLED_FLAG = 0x01;
+
+  /**
+   * The trace ID.
+   */
+  private final String traceId;
+
+  /**
+   * The span ID, never 0.
+   */
+  private final long spanId;
+
+  /**
+   * The span ID of the caller, 0 if none.
+   */
+  private final long parentSpanId;
+
+  /**
+   * Whether the trace is sampled.
+   */
+  private final boolean sampled;
+
+  /**
+   * The tracestate header, {@code null} if none.
+   */
+  private final String traceState;
+
+  /**
+   * Constructs a TraceContext.
+   *
+   * @param traceId      the trace ID
+   * @param spanId       the span ID, not 0
+   * @param parentSpanId the span ID of the caller, 0 if none
+   * @param sampled      whether the trace is sampled
+   * @param traceState   the tracestate header, may be {@code null}
+   */
+  public TraceContext(String traceId, long spanId, long parentSpanId, boolean sampled, String traceState) {
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.parentSpanId = parentSpanId;
+    this.sampled = sampled;
+    this.traceState = traceState;
+  }
+
+  /**
+   * Parses the traceparent and tracestate headers of a caller.
+   * <p>
+   * Only the fields of version 00 are read; headers of higher versions are accepted if they start with the
+   * version 00 fields, as the specification requires. Returns {@code null} for an invalid traceparent, in
+   * which case the tracestate must be ignored as well.
+   *
+   * @param traceparent the traceparent header, may be {@code null}
+   * @param tracestate  the tracestate header, may be {@code null}
+   * @return the caller's context, its span ID being the caller's span, or {@code null} if absent or invalid
+   */
+  public static TraceContext parse(String traceparent, String tracestate) {
+    if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH) {
+      return null;
+    }
+    String header = traceparent.trim();
+    if (header.length() < TRACEPARENT_LENGTH
+        || !HexTraceIds.isLowerHex(header, 0, 2) || header.startsWith("ff")
+        || header.charAt(2) != '-' || header.charAt(35) != '-' || header.charAt(52) != '-'
+        || !HexTraceIds.isLowerHex(header, 53, 55)) {
+      return null;
+    }
+    boolean version00 = header.startsWith("00");
+    if (version00 ? header.length() != TRACEPARENT_LENGTH : header.length() > TRACEPARENT_LENGTH
+        && header.charAt(TRACEPARENT_LENGTH) != '-') {
+      return null;
+    }
+    String traceId = header.substring(3, 35);
+    if (!HexTraceIds.isValidTraceId(traceId) || !HexTraceIds.isLowerHex(header, 36, 52)) {
+      return null;
+    }
+    long parentSpanId = HexTraceIds.parseLong(header, 36);
+    if (parentSpanId == 0) {
+      return null;
+    }
+    int flags = Character.digit(header.charAt(53), 16) << 4 | Character.digit(header.charAt(54), 16);
+    String traceState = tracestate != null && !tracestate.isBlank() ? tracestate : null;
+    return new TraceContext(traceId, parentSpanId, 0, (flags & SAMPLED_FLAG) != 0, traceState);
+  }
+
+  /**
+   * Returns whether a trace ID can be propagated in a traceparent header.
+   *
+   * @param traceId the trace ID
+   * @return {@code true} if it is 32 lowercase hex characters, not all zero
+   */
+  public static boolean isValidTraceId(String traceId) {
+    return HexTraceIds.isValidTraceId(traceId);
+  }
+
+  /**
+   * Generates a random span ID.
+   *
+   * @return the span ID, never 0
+   */
+  public static long nextSpanId() {
+    long spanId;
+    do {
+      spanId = ThreadLocalRandom.current().nextLong();
+    } while (spanId == 0);
+    return spanId;
+  }
+
+  /**
+   * Creates the context of a child span, in the same trace.
+   *
+   * @return the child context
+   */
+  public TraceContext newChild() {
+    return new TraceContext(traceId, nextSpanId(), spanId, sampled, traceState);
+  }
+
+  /**
+   * Formats the traceparent header propagating this context, with this span as the parent.
+   *
+   * @return the version 00 traceparent header
+   */
+  public String toTraceParent() {
+    return "00-" + traceId + '-' + HexTraceIds.formatSpanId(spanId) + (sampled ? "-01" : "-00");
+  }
+
+  /**
+   * Returns the span ID as 16 hex characters.
+   *
+   * @return the span ID
+   */
+  public String getSpanIdHex() {
+    return HexTraceIds.formatSpanId(spanId);
+  }
+}
@@ -0,0 +1,67 @@
+package cn.maiaimei.trace;
+
+/**
+ * Holds the {@link TraceContext} bound to the current thread for the scope of a request.
+ * <p>
+ * The binding is a single immutable reference, bound with {@link #bind(TraceContext)} and restored with
+ * {@link #restore(TraceContext)} in a {@code finally} block, the way a {@code ScopedValue} would be bound;
+ * {@code ScopedValue} is only a preview API in Java 21, the release the starter targets, so the binding is
+ * kept in a thread local. Binding allocates nothing, unlike the per-thread MDC map.
+ */
+public final class TraceContextHolder {
+
+  /**
+   * Context bound to each thread.
+   */
+  private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private TraceContextHolder() {
+  }
+
+  /**
+   * Returns the context bound to the current thread.
+   *
+   * @return the context, or {@code null} if none
+   */
+  public static TraceContext get() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Returns the trace ID bound to the current thread.
+   *
+   * @return the trace ID, or {@code null} if none
+   */
+  public static String getTraceId() {
+    TraceContext context = CURRENT.get();
+    return context != null ? context.getTraceId() : null;
+  }
+
+  /**
+   * Binds a context to the current thread.
+   *
+   * @param context the context, {@code null} to unbind
+   * @return the previously bound context, to be passed to {@link #restore(TraceContext)}
+   */
+  public static TraceContext bind(TraceContext context) {
+    TraceContext previous = CURRENT.get();
+    restore(context);
+    return previous;
+  }
+
+  /**
+   * Restores the previously bound context of the current thread.
+   *
+   * @param previous the context returned by {@link #bind(TraceContext)}
+   */
+  public static void restore(TraceContext previous) {
+    if (previous != null) {
+      CURRENT.set(previous);
+    } else {
+      CURRENT.remove();
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package cn.maiaimei.trace;
+
+/**
+ * How the TraceIdFilter exposes the {@link TraceContext} of a request to logging.
+ * <p>
+ * The context is bound in the {@link TraceContextHolder} in either mode.
+ */
+public enum TraceContextMode {
+
+  /**
+   * Also copies the trace ID and span ID into the MDC, for log patterns using {@code %X{traceId}} and
+   * appenders formatting events on another thread.
+   */
+  MDC,
+
+  /**
+   * Only binds the context in the {@link TraceContextHolder}, leaving the MDC untouched; log patterns render
+   * it with the {@code %traceId} and {@code %spanId} conversion words of the
+   * {@link cn.maiaimei.trace.logback.TraceIdConverter} and {@link cn.maiaimei.trace.logback.SpanIdConverter}.
+   * Saves the MDC map each request thread would otherwise allocate, which is per request with virtual
+   * threads, for example with {@code spring.threads.virtual.enabled}. Events formatted through an
+   * {@code AsyncAppender} need the {@link cn.maiaimei.trace.logback.TraceContextAsyncAppender}, which captures
+   * the context on the logging thread.
+   */
+  SCOPED
+}
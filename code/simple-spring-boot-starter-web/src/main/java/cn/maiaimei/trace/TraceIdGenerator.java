@@ -0,0 +1,18 @@
+package cn.maiaimei.trace;
+
+/**
+ * Generates trace IDs for requests arriving without one.
+ * <p>
+ * Define a bean of this type to replace the generator selected by
+ * {@code app.filter.trace-id.generator}. Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface TraceIdGenerator {
+
+  /**
+   * Generates a new trace ID.
+   *
+   * @return the trace ID
+   */
+  String generate();
+}
@@ -0,0 +1,36 @@
+package cn.maiaimei.trace;
+
+/**
+ * Built-in {@link TraceIdGenerator}s.
+ */
+public enum TraceIdGeneratorType {
+
+  /**
+   * 32 lowercase hex characters from {@link java.util.concurrent.ThreadLocalRandom}, a valid W3C trace-id.
+   */
+  RANDOM,
+
+  /**
+   * 32 lowercase hex characters, the first 12 holding the epoch milliseconds so IDs sort by creation time,
+   * a valid W3C trace-id.
+   */
+  TIME_ORDERED,
+
+  /**
+   * Random UUID in its 36-character string form, from a shared {@link java.security.SecureRandom}.
+   */
+  UUID;
+
+  /**
+   * Creates the generator of this type.
+   *
+   * @return the generator
+   */
+  public TraceIdGenerator create() {
+    return switch (this) {
+      case RANDOM -> new RandomTraceIdGenerator();
+      case TIME_ORDERED -> new TimeOrderedTraceIdGenerator();
+      case UUID -> () -> java.util.UUID.randomUUID().toString();
+    };
+  }
+}
@@ -0,0 +1,317 @@
+package cn.maiaimei.trace;
+
+import cn.maiaimei.logger.RingBuffer;
+import cn.maiaimei.trace.properties.TracingProperties;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts {@link Span}s and exports the ended ones in batches to a {@link SpanExporter}.
+ * <p>
+ * Ended spans are offered to a bounded buffer without blocking and are dropped when it is full. A single
+ * daemon thread drains the buffer in batches of at most the batch size, waiting at most the schedule delay for
+ * a batch to fill. The current span of each thread is tracked in a thread local; the TraceIdFilter starts the
+ * server span of each request, so spans started while handling a request join its trace.
+ */
+@Slf4j
+public class Tracer implements AutoCloseable {
+
+  /**
+   * Name of the export thread.
+   */
+  private static final String THREAD_NAME = "trace-span-export";
+
+  /**
+   * Maximum time the export thread parks while the buffer is empty.
+   */
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /**
+   * Current span of each thread.
+   */
+  private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Generator of the trace IDs of root spans.
+   */
+  private final TraceIdGenerator traceIdGenerator;
+
+  /**
+   * The exporter the spans are handed to.
+   */
+  private final SpanExporter spanExporter;
+
+  /**
+   * Fraction of root spans sampled.
+   */
+  private final double sampleRate;
+
+  /**
+   * Ended spans waiting to be exported.
+   */
+  private final RingBuffer<Span> buffer;
+
+  /**
+   * Maximum number of spans per batch.
+   */
+  private final int batchSize;
+
+  /**
+   * Maximum time to wait for a batch to fill, in nanoseconds.
+   */
+  private final long scheduleDelayNanos;
+
+  /**
+   * Maximum time {@link #close()} waits for the remaining spans to be exported.
+   */
+  private final Duration shutdownTimeout;
+
+  /**
+   * Number of spans dropped because the buffer was full.
+   */
+  private final LongAdder droppedCount = new LongAdder();
+
+  /**
+   * Thread exporting the spans.
+   */
+  private final Thread exporter;
+
+  /**
+   * Whether the tracer accepts spans.
+   */
+  private volatile boolean running = true;
+
+  /**
+   * Whether the export thread is parked waiting for spans.
+   */
+  private volatile boolean waiting;
+
+  /**
+   * Dropped count at the last report, only accessed by the export thread.
+   */
+  private long reportedDroppedCount;
+
+  /**
+   * Constructs a Tracer and starts its export thread.
+   *
+   * @param tracingProperties the properties for configuring the tracer
+   * @param traceIdGenerator  the generator of the trace IDs of root spans
+   * @param spanExporter      the exporter the spans are handed to
+   */
+  public Tracer(TracingProperties tracingProperties, TraceIdGenerator traceIdGenerator, SpanExporter spanExporter) {
+    double rate = tracingProperties.getSampleRate();
+    if (rate < 0.0 || rate > 1.0) {
+      throw new IllegalArgumentException("Tracing sample rate must be between 0.0 and 1.0: " + rate);
+    }
+    this.traceIdGenerator = traceIdGenerator;
+    this.spanExporter = spanExporter;
+    this.sampleRate = rate;
+    this.buffer = new RingBuffer<>(tracingProperties.getBufferSize());
+    this.batchSize = Math.max(1, tracingProperties.getBatchSize());
+    this.scheduleDelayNanos = tracingProperties.getScheduleDelay().toNanos();
+    this.shutdownTimeout = tracingProperties.getShutdownTimeout();
+    this.exporter = new Thread(this::exportLoop, THREAD_NAME);
+    this.exporter.setDaemon(true);
+    this.exporter.start();
+  }
+
+  /**
+   * Returns the current span of the calling thread.
+   *
+   * @return the current span, or {@code null} if none
+   */
+  public static Span currentSpan() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Makes a span the current span of the calling thread, e.g. to continue a trace on another thread.
+   * <p>
+   * The span is not ended by the calling thread; restore the returned span once done.
+   *
+   * @param span the span, {@code null} to clear the current span
+   * @return the previous current span, or {@code null} if none
+   */
+  public static Span setCurrentSpan(Span span) {
+    Span previous = CURRENT.get();
+    if (span != null) {
+      CURRENT.set(span);
+    } else if (previous != null) {
+      CURRENT.remove();
+    }
+    return previous;
+  }
+
+  /**
+   * Makes a sampling decision for a new trace.
+   *
+   * @return {@code true} if the trace is sampled
+   */
+  public boolean sample() {
+    return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  /**
+   * Starts a span and makes it the current span of the calling thread.
+   * <p>
+   * The span is a child of the current span if any, otherwise the root of a new trace sampled at the sample
+   * rate. Returns {@link Span#NOOP} if the current span is not sampled.
+   *
+   * @param name the operation name
+   * @return the span, to be closed on the calling thread
+   */
+  public Span startSpan(String name) {
+    Span parent = CURRENT.get();
+    Span span;
+    if (parent == null) {
+      span = new Span(this, name, traceIdGenerator.generate(), TraceContext.nextSpanId(), 0, sample(), null);
+    } else if (!parent.isSampled()) {
+      return Span.NOOP;
+    } else {
+      span = new Span(this, name, parent.getTraceId(), TraceContext.nextSpanId(), parent.getSpanId(), true, parent);
+    }
+    CURRENT.set(span);
+    return span;
+  }
+
+  /**
+   * Starts the span of a trace context, e.g. the server span of a request, and makes it the current span of
+   * the calling thread.
+   *
+   * @param name    the operation name
+   * @param context the trace context providing the trace ID, span ID, parent span ID and sampled flag
+   * @return the span, to be closed on the calling thread
+   */
+  public Span startSpan(String name, TraceContext context) {
+    Span span = new Span(this, name, context.getTraceId(), context.getSpanId(), context.getParentSpanId(),
+        context.isSampled(), CURRENT.get());
+    CURRENT.set(span);
+    return span;
+  }
+
+  /**
+   * Returns the number of spans dropped because the buffer was full.
+   *
+   * @return the dropped count
+   */
+  public long getDroppedCount() {
+    return droppedCount.sum();
+  }
+
+  /**
+   * Stops accepting spans and waits up to the shutdown timeout for the buffered spans to be exported.
+   */
+  @Override
+  public void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(exporter);
+    try {
+      exporter.join(shutdownTimeout.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (exporter.isAlive()) {
+      log.warn("Span export did not finish within {}, {} spans discarded", shutdownTimeout, buffer.size());
+    }
+    spanExporter.close();
+  }
+
+  /**
+   * Restores the previous current span when a span is detached, unless another span became current since.
+   *
+   * @param span     the detached span
+   * @param previous the span current when it started
+   */
+  void restore(Span span, Span previous) {
+    if (CURRENT.get() == span) {
+      if (previous != null) {
+        CURRENT.set(previous);
+      } else {
+        CURRENT.remove();
+      }
+    }
+  }
+
+  /**
+   * Buffers an ended sampled span for export.
+   *
+   * @param span the span
+   */
+  void export(Span span) {
+    if (!running || !buffer.offer(span)) {
+      droppedCount.increment();
+      return;
+    }
+    if (waiting && buffer.size() >= batchSize) {
+      LockSupport.unpark(exporter);
+    }
+  }
+
+  /**
+   * Exports batches until the tracer is closed and the buffer is drained.
+   */
+  private void exportLoop() {
+    List<Span> batch = new ArrayList<>(batchSize);
+    while (running || !buffer.isEmpty()) {
+      if (buffer.isEmpty()) {
+        reportDropped();
+        park(IDLE_PARK_NANOS);
+        continue;
+      }
+      awaitBatch();
+      buffer.drain(batch::add, batchSize);
+      try {
+        spanExporter.export(batch);
+      } catch (IOException | RuntimeException e) {
+        log.error("Failed to export {} spans", batch.size(), e);
+      }
+      batch.clear();
+    }
+    reportDropped();
+  }
+
+  /**
+   * Waits until a full batch is buffered, the schedule delay has elapsed or the tracer is closed.
+   */
+  private void awaitBatch() {
+    long deadline = System.nanoTime() + scheduleDelayNanos;
+    long remaining;
+    while (running && buffer.size() < batchSize && (remaining = deadline - System.nanoTime()) > 0) {
+      park(remaining);
+    }
+  }
+
+  /**
+   * Parks the export thread.
+   *
+   * @param nanos the maximum time to park
+   */
+  private void park(long nanos) {
+    waiting = true;
+    if (running) {
+      LockSupport.parkNanos(this, nanos);
+    }
+    waiting = false;
+  }
+
+  /**
+   * Logs the number of spans dropped since the last report.
+   */
+  private void reportDropped() {
+    long dropped = droppedCount.sum();
+    if (dropped > reportedDroppedCount) {
+      log.warn("Dropped {} spans, span buffer full", dropped - reportedDroppedCount);
+      reportedDroppedCount = dropped;
+    }
+  }
+}
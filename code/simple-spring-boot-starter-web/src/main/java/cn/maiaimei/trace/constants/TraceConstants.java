@@ -0,0 +1,17 @@
+package cn.maiaimei.trace.constants;
+
+/**
+ * Tracing constants.
+ */
+public final class TraceConstants {
+
+  public static final String TRACING = "app.tracing";
+  public static final String TRACING_ENABLED = "app.tracing.enabled";
+  public static final String CONTEXT_PROPAGATION_ENABLED = "app.tracing.context-propagation.enabled";
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private TraceConstants() {
+  }
+}
@@ -0,0 +1,36 @@
+package cn.maiaimei.trace.logback;
+
+import static cn.maiaimei.constants.AppConstants.SPAN_ID_MDC_KEY;
+
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceContextHolder;
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback converter rendering the span ID of the {@link TraceContextHolder}, falling back to the MDC.
+ * <p>
+ * Events formatted on another thread render the span ID captured by the {@link TraceContextAsyncAppender}.
+ * <p>
+ * Register it in {@code logback-spring.xml} and use {@code %spanId} in the pattern:
+ *
+ * <pre>{@code
+ * <conversionRule conversionWord="spanId" class="cn.maiaimei.trace.logback.SpanIdConverter"/>
+ * }</pre>
+ */
+public class SpanIdConverter extends ClassicConverter {
+
+  @Override
+  public String convert(ILoggingEvent event) {
+    String captured = TraceContextAsyncAppender.getCapturedValue(event, SPAN_ID_MDC_KEY);
+    if (captured != null) {
+      return captured;
+    }
+    TraceContext context = TraceContextHolder.get();
+    if (context != null) {
+      return context.getSpanIdHex();
+    }
+    String spanId = event.getMDCPropertyMap().get(SPAN_ID_MDC_KEY);
+    return spanId != null ? spanId : "";
+  }
+}
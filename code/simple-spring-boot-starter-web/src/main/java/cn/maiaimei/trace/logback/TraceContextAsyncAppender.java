@@ -0,0 +1,63 @@
+package cn.maiaimei.trace.logback;
+
+import static cn.maiaimei.constants.AppConstants.SPAN_ID_MDC_KEY;
+import static cn.maiaimei.constants.AppConstants.TRACE_ID_MDC_KEY;
+
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceContextHolder;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.List;
+import org.slf4j.event.KeyValuePair;
+
+/**
+ * Logback {@link AsyncAppender} capturing the {@link TraceContextHolder} binding into each event.
+ * <p>
+ * Events are formatted on the appender's worker thread, where no context is bound; the trace ID and span ID
+ * are therefore added to the key-value pairs of the event on the logging thread, where the
+ * {@link TraceIdConverter} and {@link SpanIdConverter} read them. Use it in place of {@code AsyncAppender}
+ * with the {@link cn.maiaimei.trace.TraceContextMode#SCOPED} context mode:
+ *
+ * <pre>{@code
+ * <appender name="ASYNC" class="cn.maiaimei.trace.logback.TraceContextAsyncAppender">
+ *   <appender-ref ref="CONSOLE"/>
+ * </appender>
+ * }</pre>
+ */
+public class TraceContextAsyncAppender extends AsyncAppender {
+
+  /**
+   * Prepares the event for deferred processing and captures the trace context bound to the logging thread.
+   *
+   * @param event the event
+   */
+  @Override
+  protected void preprocess(ILoggingEvent event) {
+    super.preprocess(event);
+    TraceContext context = TraceContextHolder.get();
+    if (context != null && event instanceof LoggingEvent loggingEvent) {
+      loggingEvent.addKeyValuePair(new KeyValuePair(TRACE_ID_MDC_KEY, context.getTraceId()));
+      loggingEvent.addKeyValuePair(new KeyValuePair(SPAN_ID_MDC_KEY, context.getSpanIdHex()));
+    }
+  }
+
+  /**
+   * Returns the value captured into an event under a key.
+   *
+   * @param event the event
+   * @param key   the key
+   * @return the value, or {@code null} if none was captured
+   */
+  static String getCapturedValue(ILoggingEvent event, String key) {
+    List<KeyValuePair> keyValuePairs = event.getKeyValuePairs();
+    if (keyValuePairs != null) {
+      for (KeyValuePair keyValuePair : keyValuePairs) {
+        if (key.equals(keyValuePair.key) && keyValuePair.value != null) {
+          return keyValuePair.value.toString();
+        }
+      }
+    }
+    return null;
+  }
+}
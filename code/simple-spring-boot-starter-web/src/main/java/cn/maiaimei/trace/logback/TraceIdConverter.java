@@ -0,0 +1,36 @@
+package cn.maiaimei.trace.logback;
+
+import static cn.maiaimei.constants.AppConstants.TRACE_ID_MDC_KEY;
+
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceContextHolder;
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback converter rendering the trace ID of the {@link TraceContextHolder}, falling back to the MDC.
+ * <p>
+ * Events formatted on another thread render the trace ID captured by the {@link TraceContextAsyncAppender}.
+ * <p>
+ * Register it in {@code logback-spring.xml} and use {@code %traceId} in the pattern:
+ *
+ * <pre>{@code
+ * <conversionRule conversionWord="traceId" class="cn.maiaimei.trace.logback.TraceIdConverter"/>
+ * }</pre>
+ */
+public class TraceIdConverter extends ClassicConverter {
+
+  @Override
+  public String convert(ILoggingEvent event) {
+    String captured = TraceContextAsyncAppender.getCapturedValue(event, TRACE_ID_MDC_KEY);
+    if (captured != null) {
+      return captured;
+    }
+    TraceContext context = TraceContextHolder.get();
+    if (context != null) {
+      return context.getTraceId();
+    }
+    String traceId = event.getMDCPropertyMap().get(TRACE_ID_MDC_KEY);
+    return traceId != null ? traceId : "";
+  }
+}
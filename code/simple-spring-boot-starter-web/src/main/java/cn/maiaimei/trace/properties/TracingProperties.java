@@ -0,0 +1,95 @@
+package cn.maiaimei.trace.properties;
+
+import cn.maiaimei.trace.constants.TraceConstants;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for Tracer.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = TraceConstants.TRACING)
+@ConditionalOnProperty(name = TraceConstants.TRACING_ENABLED, havingValue = "true")
+public class TracingProperties {
+
+  /**
+   * Whether to record spans. The TraceIdFilter propagates traceparent headers either way.
+   * <p>
+   * Default is false.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Fraction of new traces sampled, between 0.0 and 1.0; requests with a traceparent header follow its
+   * sampled flag.
+   * <p>
+   * Default is 1.0.
+   */
+  private double sampleRate = 1.0;
+
+  /**
+   * Maximum number of ended spans waiting to be exported; further spans are dropped.
+   * <p>
+   * Default is 8192.
+   */
+  private int bufferSize = 8192;
+
+  /**
+   * Maximum number of spans exported in one batch.
+   * <p>
+   * Default is 512.
+   */
+  private int batchSize = 512;
+
+  /**
+   * Maximum time to wait for a batch to fill before exporting it.
+   * <p>
+   * Default is 1s.
+   */
+  private Duration scheduleDelay = Duration.ofSeconds(1);
+
+  /**
+   * Maximum time to wait for the buffered spans to be exported on shutdown.
+   * <p>
+   * Default is 5s.
+   */
+  private Duration shutdownTimeout = Duration.ofSeconds(5);
+
+  /**
+   * The local file exporter, used unless a SpanExporter bean is defined.
+   */
+  private File file = new File();
+
+  /**
+   * Properties for exporting spans to local JSON-lines files.
+   */
+  @Data
+  public static class File {
+
+    /**
+     * Directory of the span files.
+     * <p>
+     * Default is spans under java.io.tmpdir.
+     */
+    private String directory = System.getProperty("java.io.tmpdir") + "/spans";
+
+    /**
+     * Size after which the current file is closed and a new one is started.
+     * <p>
+     * Default is 64MB.
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Maximum number of closed files kept; older ones are deleted.
+     * <p>
+     * Default is 10.
+     */
+    private int maxHistory = 10;
+  }
+}
@@ -1,42 +1,40 @@
 package cn.maiaimei.utils;
 
+import cn.maiaimei.id.SnowflakeIdGenerator;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.ZoneId;
 
 /**
  * Utility class for generating unique IDs based on timestamp and sequence.
  * <p>
  * ID format: yyyyMMddHHmmssSSS + 5-digit sequence (e.g., 20240101120000000 +
  * 00001)
+ * <p>
+ * Kept for existing BigDecimal ID columns; new code should use the 64-bit
+ * {@link cn.maiaimei.id.LongIdGenerator}. The digits are derived from the
+ * timestamp and sequence of a {@link SnowflakeIdGenerator}, which provides the
+ * clock handling.
  */
 public final class IdGenerator {
 
   /**
-   * Maximum value for the sequence counter.
-   */
-  private static final int SEQUENCE_MAX = 99999;
-
-  /**
-   * Format string for the sequence number (5 digits with leading zeros).
-   */
-  private static final String SEQUENCE_FORMAT = "%05d";
-
-  /**
-   * Date time format pattern for the timestamp part of the ID.
+   * Largest clock rollback tolerated, in milliseconds.
    */
-  private static final String DATE_TIME_FORMAT = "yyyyMMddHHmmssSSS";
+  private static final long MAX_CLOCK_BACKWARD_MILLIS = 5_000;
 
   /**
-   * Date time formatter for formatting timestamps.
+   * Generator of the timestamps and sequences of the IDs.
    */
-  private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+  private static final SnowflakeIdGenerator snowflakeIdGenerator =
+      new SnowflakeIdGenerator(0, MAX_CLOCK_BACKWARD_MILLIS);
 
   /**
-   * Atomic counter for generating sequential numbers.
+   * The yyyyMMddHHmmss digits of the last formatted second, cached as the second changes at most once per
+   * thousand milliseconds.
    */
-  private static final AtomicInteger sequence = new AtomicInteger(0);
+  private static volatile SecondDigits secondDigits = new SecondDigits(Long.MIN_VALUE, 0);
 
   /**
    * Private constructor to prevent instantiation.
@@ -49,23 +47,49 @@ public final class IdGenerator {
    * Generates the next unique ID.
    * <p>
    * The ID consists of a timestamp (17 digits) and a sequence number (5 digits),
-   * resulting in a 22-digit number. The sequence resets to 0 after reaching
-   * 99999.
+   * resulting in a 22-digit number, taken from the next Snowflake ID. The sequence
+   * restarts at 0 every millisecond; once 4096 IDs were generated within a
+   * millisecond, callers park until the next one, so IDs never repeat. A clock
+   * moving backwards does not move the timestamp backwards; a rollback beyond
+   * 5 seconds fails instead, as IDs would then run far ahead of the clock.
    *
    * @return a unique ID as BigDecimal
+   * @throws IllegalStateException if the clock moved backwards by more than 5 seconds
    */
   public static BigDecimal nextId() {
-    String timestamp = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+    long id = snowflakeIdGenerator.nextId();
+    long timestamp = timestampDigits(SnowflakeIdGenerator.getTimestamp(id));
+    long sequence = SnowflakeIdGenerator.getSequence(id);
+    return BigDecimal.valueOf(timestamp).scaleByPowerOfTen(5).add(BigDecimal.valueOf(sequence));
+  }
 
-    int currentSequence = sequence.updateAndGet(current -> {
-      if (current >= SEQUENCE_MAX) {
-        return 0;
-      }
-      return current + 1;
-    });
+  /**
+   * Returns the yyyyMMddHHmmssSSS digits of an epoch millisecond in the system time zone.
+   *
+   * @param epochMillis the epoch millisecond
+   * @return the digits as a number
+   */
+  private static long timestampDigits(long epochMillis) {
+    long epochSecond = Math.floorDiv(epochMillis, 1000);
+    SecondDigits cached = secondDigits;
+    if (cached.epochSecond != epochSecond) {
+      LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+      long digits = dateTime.getYear() * 10_000_000_000L
+          + dateTime.getMonthValue() * 100_000_000L
+          + dateTime.getDayOfMonth() * 1_000_000L
+          + dateTime.getHour() * 10_000L
+          + dateTime.getMinute() * 100L
+          + dateTime.getSecond();
+      cached = new SecondDigits(epochSecond, digits);
+      secondDigits = cached;
+    }
+    return cached.digits * 1000 + Math.floorMod(epochMillis, 1000);
+  }
 
-    String sequenceStr = String.format(SEQUENCE_FORMAT, currentSequence);
+  /**
+   * The yyyyMMddHHmmss digits of an epoch second.
+   */
+  private record SecondDigits(long epochSecond, long digits) {
 
-    return new BigDecimal(timestamp + sequenceStr);
   }
-}
\ No newline at end of file
+}
@@ -1,15 +1,32 @@
 package cn.maiaimei.utils;
 
 import cn.maiaimei.config.JacksonAutoConfiguration;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import tools.jackson.core.StreamReadFeature;
+import tools.jackson.core.StreamWriteFeature;
 import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
 import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.ByteBufferBackedInputStream;
 
 /**
  * Utility class for JSON serialization and deserialization.
+ * <p>
+ * ObjectReaders and ObjectWriters are created once per target type and cached, so repeated calls skip
+ * resolving the type and looking up its (de)serializer. The caches are attached to the target classes
+ * through {@link ClassValue}s, and generic types are cached by soft reference, so they pin no class or
+ * class loader. The byte, stream and ByteBuffer methods read and write UTF-8 directly, without an
+ * intermediate String; streams are not closed.
  */
 public final class JsonUtils {
 
@@ -18,6 +35,58 @@ public final class JsonUtils {
    */
   private static final JsonMapper jsonMapper = new JacksonAutoConfiguration().jsonMapper();
 
+  /**
+   * Writer of pretty-printed JSON.
+   */
+  private static final ObjectWriter prettyWriter = jsonMapper.writerWithDefaultPrettyPrinter();
+
+  /**
+   * Reader of JSON objects as maps with string keys.
+   */
+  private static final ObjectReader mapReader = jsonMapper.readerFor(new TypeReference<Map<String, Object>>() {
+  });
+
+  /**
+   * Writer of JSON null to streams left open.
+   */
+  private static final ObjectWriter nullStreamWriter = jsonMapper.writer()
+      .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+
+  /**
+   * Readers by target class.
+   */
+  private static final ClassValue<CachedReader> readers = new ClassValue<>() {
+    @Override
+    protected CachedReader computeValue(Class<?> type) {
+      return new CachedReader(jsonMapper.readerFor(type));
+    }
+  };
+
+  /**
+   * Readers by generic target type, from TypeReferences, softly referenced.
+   */
+  private static final ConcurrentMap<Type, CachedReader> typeReaders = new ConcurrentReferenceHashMap<>();
+
+  /**
+   * Readers of lists by element class.
+   */
+  private static final ClassValue<ObjectReader> listReaders = new ClassValue<>() {
+    @Override
+    protected ObjectReader computeValue(Class<?> type) {
+      return jsonMapper.readerFor(jsonMapper.getTypeFactory().constructCollectionType(List.class, type));
+    }
+  };
+
+  /**
+   * Writers by value class.
+   */
+  private static final ClassValue<CachedWriter> writers = new ClassValue<>() {
+    @Override
+    protected CachedWriter computeValue(Class<?> type) {
+      return new CachedWriter(jsonMapper.writerFor(type));
+    }
+  };
+
   /**
    * Private constructor to prevent instantiation.
    */
@@ -34,7 +103,31 @@ public final class JsonUtils {
     if (Objects.isNull(object)) {
       return null;
     }
-    return jsonMapper.writeValueAsString(object);
+    return writers.get(object.getClass()).writer().writeValueAsString(object);
+  }
+
+  /**
+   * Converts an object to UTF-8 encoded JSON.
+   *
+   * @param object the object to convert
+   * @return JSON bytes, or null if object is null
+   */
+  public static byte[] toJsonBytes(Object object) {
+    if (Objects.isNull(object)) {
+      return null;
+    }
+    return writers.get(object.getClass()).writer().writeValueAsBytes(object);
+  }
+
+  /**
+   * Writes an object as UTF-8 encoded JSON to a stream, which is flushed but not closed.
+   *
+   * @param out the target stream
+   * @param object the object to write, written as JSON null if null
+   */
+  public static void writeTo(OutputStream out, Object object) {
+    ObjectWriter writer = Objects.isNull(object) ? nullStreamWriter : writers.get(object.getClass()).streamWriter();
+    writer.writeValue(out, object);
   }
 
   /**
@@ -47,7 +140,7 @@ public final class JsonUtils {
     if (Objects.isNull(object)) {
       return null;
     }
-    return jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsString(object);
+    return prettyWriter.writeValueAsString(object);
   }
 
   /**
@@ -62,7 +155,53 @@ public final class JsonUtils {
     if (StringUtilsPlus.isEmpty(json)) {
       return null;
     }
-    return jsonMapper.readValue(json, clazz);
+    return readers.get(clazz).reader().readValue(json);
+  }
+
+  /**
+   * Converts UTF-8 encoded JSON to an object of the specified class.
+   *
+   * @param json the JSON bytes
+   * @param clazz the target class
+   * @param <T> the type of the target object
+   * @return the deserialized object, or null if json is empty
+   */
+  public static <T> T toObject(byte[] json, Class<T> clazz) {
+    if (Objects.isNull(json) || json.length == 0) {
+      return null;
+    }
+    return readers.get(clazz).reader().readValue(json);
+  }
+
+  /**
+   * Converts the remaining UTF-8 encoded JSON of a buffer to an object of the specified class, reading heap
+   * buffers in place. The buffer position is not changed.
+   *
+   * @param json the JSON buffer
+   * @param clazz the target class
+   * @param <T> the type of the target object
+   * @return the deserialized object, or null if json has no remaining bytes
+   */
+  public static <T> T toObject(ByteBuffer json, Class<T> clazz) {
+    if (Objects.isNull(json) || !json.hasRemaining()) {
+      return null;
+    }
+    return read(readers.get(clazz).reader(), json);
+  }
+
+  /**
+   * Reads UTF-8 encoded JSON from a stream as an object of the specified class; the stream is not closed.
+   *
+   * @param in the source stream
+   * @param clazz the target class
+   * @param <T> the type of the target object
+   * @return the deserialized object, or null if in is null
+   */
+  public static <T> T readFrom(InputStream in, Class<T> clazz) {
+    if (Objects.isNull(in)) {
+      return null;
+    }
+    return readers.get(clazz).streamReader().readValue(in);
   }
 
   /**
@@ -77,7 +216,53 @@ public final class JsonUtils {
     if (StringUtilsPlus.isEmpty(json)) {
       return null;
     }
-    return jsonMapper.readValue(json, typeReference);
+    return readerFor(typeReference).reader().readValue(json);
+  }
+
+  /**
+   * Converts UTF-8 encoded JSON to an object using TypeReference for complex types.
+   *
+   * @param json the JSON bytes
+   * @param typeReference the type reference for complex types
+   * @param <T> the type of the target object
+   * @return the deserialized object, or null if json is empty
+   */
+  public static <T> T toObject(byte[] json, TypeReference<T> typeReference) {
+    if (Objects.isNull(json) || json.length == 0) {
+      return null;
+    }
+    return readerFor(typeReference).reader().readValue(json);
+  }
+
+  /**
+   * Converts the remaining UTF-8 encoded JSON of a buffer to an object using TypeReference for complex types,
+   * reading heap buffers in place. The buffer position is not changed.
+   *
+   * @param json the JSON buffer
+   * @param typeReference the type reference for complex types
+   * @param <T> the type of the target object
+   * @return the deserialized object, or null if json has no remaining bytes
+   */
+  public static <T> T toObject(ByteBuffer json, TypeReference<T> typeReference) {
+    if (Objects.isNull(json) || !json.hasRemaining()) {
+      return null;
+    }
+    return read(readerFor(typeReference).reader(), json);
+  }
+
+  /**
+   * Reads UTF-8 encoded JSON from a stream using TypeReference for complex types; the stream is not closed.
+   *
+   * @param in the source stream
+   * @param typeReference the type reference for complex types
+   * @param <T> the type of the target object
+   * @return the deserialized object, or null if in is null
+   */
+  public static <T> T readFrom(InputStream in, TypeReference<T> typeReference) {
+    if (Objects.isNull(in)) {
+      return null;
+    }
+    return readerFor(typeReference).streamReader().readValue(in);
   }
 
   /**
@@ -92,7 +277,7 @@ public final class JsonUtils {
     if (StringUtilsPlus.isEmpty(json)) {
       return null;
     }
-    return jsonMapper.readValue(json, jsonMapper.getTypeFactory().constructCollectionType(List.class, clazz));
+    return listReaders.get(clazz).readValue(json);
   }
 
   /**
@@ -105,8 +290,7 @@ public final class JsonUtils {
     if (StringUtilsPlus.isEmpty(json)) {
       return null;
     }
-    return jsonMapper.readValue(json, new TypeReference<>() {
-    });
+    return mapReader.readValue(json);
   }
 
   /**
@@ -157,4 +341,55 @@ public final class JsonUtils {
     }
   }
 
+  /**
+   * Returns the cached reader of the type of a TypeReference.
+   *
+   * @param typeReference the type reference
+   * @return the reader
+   */
+  private static CachedReader readerFor(TypeReference<?> typeReference) {
+    return typeReaders.computeIfAbsent(typeReference.getType(),
+        key -> new CachedReader(jsonMapper.readerFor(typeReference)));
+  }
+
+  /**
+   * Reads the remaining bytes of a buffer, in place for heap buffers, without changing its position.
+   *
+   * @param reader the reader
+   * @param json the JSON buffer
+   * @param <T> the type of the target object
+   * @return the deserialized object
+   */
+  private static <T> T read(ObjectReader reader, ByteBuffer json) {
+    if (json.hasArray()) {
+      return reader.readValue(json.array(), json.arrayOffset() + json.position(), json.remaining());
+    }
+    return reader.readValue(new ByteBufferBackedInputStream(json.duplicate()));
+  }
+
+  /**
+   * Reader of a target type, with its variant leaving source streams open.
+   *
+   * @param reader       the reader
+   * @param streamReader the reader not closing source streams
+   */
+  private record CachedReader(ObjectReader reader, ObjectReader streamReader) {
+
+    CachedReader(ObjectReader reader) {
+      this(reader, reader.without(StreamReadFeature.AUTO_CLOSE_SOURCE));
+    }
+  }
+
+  /**
+   * Writer of a value class, with its variant leaving target streams open.
+   *
+   * @param writer       the writer
+   * @param streamWriter the writer not closing target streams
+   */
+  private record CachedWriter(ObjectWriter writer, ObjectWriter streamWriter) {
+
+    CachedWriter(ObjectWriter writer) {
+      this(writer, writer.without(StreamWriteFeature.AUTO_CLOSE_TARGET));
+    }
+  }
 }
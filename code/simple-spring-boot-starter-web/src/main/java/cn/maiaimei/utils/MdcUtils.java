@@ -78,4 +78,27 @@ public final class MdcUtils {
     public static void setContextMap(Map<String, String> contextMap) {
         MDC.setContextMap(contextMap);
     }
+
+    /**
+     * Returns a snapshot of the MDC context map, to be restored with {@link #restore(Map)}.
+     *
+     * @return the snapshot, or {@code null} if the MDC is empty
+     */
+    public static Map<String, String> snapshot() {
+        Map<String, String> contextMap = MDC.getCopyOfContextMap();
+        return contextMap == null || contextMap.isEmpty() ? null : contextMap;
+    }
+
+    /**
+     * Replaces the MDC context map with a snapshot.
+     *
+     * @param snapshot the snapshot, {@code null} to clear the MDC
+     */
+    public static void restore(Map<String, String> snapshot) {
+        if (snapshot == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(snapshot);
+        }
+    }
 }
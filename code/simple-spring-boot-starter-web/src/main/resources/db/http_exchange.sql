@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS http_exchange
+(
+    id                         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    trace_id                   VARCHAR(64),
+    request_time               TIMESTAMP     NOT NULL,
+    duration_nanos             BIGINT        NOT NULL,
+    method                     VARCHAR(16)   NOT NULL,
+    uri                        VARCHAR(2048) NOT NULL,
+    query_string               VARCHAR(4096),
+    client_ip                  VARCHAR(64),
+    headers                    CLOB,
+    request_payload            CLOB,
+    request_payload_truncated  BOOLEAN       NOT NULL,
+    status                     INT           NOT NULL,
+    response_payload           CLOB,
+    response_payload_truncated BOOLEAN       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_http_exchange_trace_id ON http_exchange (trace_id);
+
+CREATE INDEX IF NOT EXISTS idx_http_exchange_request_time ON http_exchange (request_time);
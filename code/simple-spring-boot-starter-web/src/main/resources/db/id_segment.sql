@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS id_segment
+(
+    biz_tag     VARCHAR(128) PRIMARY KEY,
+    max_id      BIGINT    NOT NULL,
+    step        INT       NOT NULL,
+    update_time TIMESTAMP NOT NULL
+);
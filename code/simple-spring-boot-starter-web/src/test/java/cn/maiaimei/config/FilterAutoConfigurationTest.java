@@ -0,0 +1,48 @@
+package cn.maiaimei.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.filter.FilterDecisionRegistry;
+import cn.maiaimei.filter.RequestLoggingFilter;
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.logger.AsyncDispatchingLogger;
+import cn.maiaimei.logger.AsyncRequestResponseLogger;
+import cn.maiaimei.logger.RequestResponseLogger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class FilterAutoConfigurationTest {
+
+  private final FilterAutoConfiguration filterAutoConfiguration = new FilterAutoConfiguration();
+
+  private RequestLoggingFilterProperties properties;
+
+  @BeforeEach
+  void setUp() {
+    properties = new RequestLoggingFilterProperties();
+    properties.getAsync().setEnabled(true);
+  }
+
+  @Test
+  void testSynchronousLoggerIsWrappedWhenAsyncEnabled() {
+    RequestResponseLogger logger = new RequestResponseLogger() {
+    };
+
+    assertThat(loggerOf(logger)).isInstanceOf(AsyncRequestResponseLogger.class);
+  }
+
+  @Test
+  void testAsyncDispatchingLoggerIsNotWrapped() {
+    RequestResponseLogger logger = new AsyncDispatchingLogger() {
+    };
+
+    assertThat(loggerOf(logger)).isSameAs(logger);
+  }
+
+  private Object loggerOf(RequestResponseLogger logger) {
+    RequestLoggingFilter filter = filterAutoConfiguration.requestLoggingFilterRegistrationBean(properties, logger,
+        new FilterDecisionRegistry()).getFilter();
+    return ReflectionTestUtils.getField(filter, "requestResponseLogger");
+  }
+}
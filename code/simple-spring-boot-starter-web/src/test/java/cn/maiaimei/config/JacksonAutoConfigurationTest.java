@@ -0,0 +1,92 @@
+package cn.maiaimei.config;
+
+import static cn.maiaimei.constants.DateTimeConstants.DATE_FORMAT;
+import static cn.maiaimei.constants.DateTimeConstants.TIME_FORMAT;
+import static cn.maiaimei.constants.DateTimeConstants.UTC_DATE_TIME_FORMAT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+public class JacksonAutoConfigurationTest {
+
+  private static final DateTimeFormatter UTC_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(UTC_DATE_TIME_FORMAT);
+
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT);
+
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern(TIME_FORMAT);
+
+  private final JsonMapper jsonMapper = new JacksonAutoConfiguration().jsonMapper();
+
+  @Test
+  void testCanonicalValuesRoundTripAsFormatterOutput() {
+    LocalDateTime dateTime = LocalDateTime.of(2024, 2, 29, 7, 5, 9, 45_678_901);
+    LocalDate date = LocalDate.of(1, 1, 1);
+    LocalTime time = LocalTime.of(23, 59, 59);
+
+    assertThat(jsonMapper.writeValueAsString(dateTime)).isEqualTo(quoted(dateTime.format(UTC_DATE_TIME_FORMATTER)))
+        .isEqualTo("\"2024-02-29T07:05:09.045Z\"");
+    assertThat(jsonMapper.writeValueAsString(date)).isEqualTo(quoted(date.format(DATE_FORMATTER)));
+    assertThat(jsonMapper.writeValueAsString(time)).isEqualTo(quoted(time.format(TIME_FORMATTER)));
+    assertThat(jsonMapper.readValue("\"2024-02-29T07:05:09.045Z\"", LocalDateTime.class))
+        .isEqualTo(dateTime.withNano(45_000_000));
+    assertThat(jsonMapper.readValue("\"9999-12-31\"", LocalDate.class)).isEqualTo(LocalDate.of(9999, 12, 31));
+    assertThat(jsonMapper.readValue("\"00:00:00\"", LocalTime.class)).isEqualTo(LocalTime.MIDNIGHT);
+  }
+
+  @Test
+  void testValuesSharingThreadBufferAreWrittenIndependently() {
+    List<Object> values = List.of(LocalDateTime.of(2024, 12, 31, 23, 59, 58, 999_000_000), LocalTime.of(1, 2, 3),
+        LocalDate.of(2025, 1, 1));
+
+    assertThat(jsonMapper.writeValueAsString(values))
+        .isEqualTo("[\"2024-12-31T23:59:58.999Z\",\"01:02:03\",\"2025-01-01\"]");
+  }
+
+  @Test
+  void testYearsOutsideFourDigitsFallBackToFormatter() {
+    LocalDateTime yearZero = LocalDateTime.of(0, 6, 15, 12, 0);
+    LocalDate yearTenThousand = LocalDate.of(10_000, 1, 1);
+
+    assertThat(jsonMapper.writeValueAsString(yearZero)).isEqualTo(quoted(yearZero.format(UTC_DATE_TIME_FORMATTER)));
+    assertThat(jsonMapper.writeValueAsString(yearTenThousand))
+        .isEqualTo(quoted(yearTenThousand.format(DATE_FORMATTER)));
+    assertThatThrownBy(() -> jsonMapper.readValue("\"0000-06-15\"", LocalDate.class))
+        .isInstanceOf(DateTimeParseException.class);
+  }
+
+  @Test
+  void testOutOfRangeFieldsFallBackToFormatterResolution() {
+    assertThat(jsonMapper.readValue("\"2024-02-30\"", LocalDate.class)).isEqualTo(LocalDate.of(2024, 2, 29));
+    assertThat(jsonMapper.readValue("\"2023-02-29T10:00:00.000Z\"", LocalDateTime.class))
+        .isEqualTo(LocalDateTime.of(2023, 2, 28, 10, 0));
+    assertThat(jsonMapper.readValue("\"24:00:00\"", LocalTime.class)).isEqualTo(LocalTime.MIDNIGHT);
+    assertThat(jsonMapper.readValue("\"2024-01-31T24:00:00.000Z\"", LocalDateTime.class))
+        .isEqualTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+    assertThatThrownBy(() -> jsonMapper.readValue("\"2024-13-01\"", LocalDate.class))
+        .isInstanceOf(DateTimeParseException.class);
+  }
+
+  @Test
+  void testNonStringTokensAndOtherLayoutsFallBackToFormatter() {
+    assertThatThrownBy(() -> jsonMapper.readValue("20240101", LocalDate.class))
+        .isInstanceOf(DateTimeParseException.class);
+    assertThatThrownBy(() -> jsonMapper.readValue("[2024, 1, 1]", LocalDate.class))
+        .isInstanceOf(DateTimeParseException.class);
+    assertThatThrownBy(() -> jsonMapper.readValue("\"2024/01/01\"", LocalDate.class))
+        .isInstanceOf(DateTimeParseException.class);
+    assertThatThrownBy(() -> jsonMapper.readValue("\"12:3O:00\"", LocalTime.class))
+        .isInstanceOf(DateTimeParseException.class);
+  }
+
+  private static String quoted(String value) {
+    return "\"" + value + "\"";
+  }
+}
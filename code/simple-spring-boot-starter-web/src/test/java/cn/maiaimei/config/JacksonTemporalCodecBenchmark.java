@@ -0,0 +1,148 @@
+package cn.maiaimei.config;
+
+import static cn.maiaimei.constants.DateTimeConstants.DATE_FORMAT;
+import static cn.maiaimei.constants.DateTimeConstants.TIME_FORMAT;
+import static cn.maiaimei.constants.DateTimeConstants.UTC_DATE_TIME_FORMAT;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+/**
+ * Compares serializing and deserializing a list of records with {@link LocalDateTime}, {@link LocalDate} and
+ * {@link LocalTime} fields through the {@link JacksonAutoConfiguration#jsonMapper()} codecs with codecs
+ * compiling their pattern with {@link DateTimeFormatter#ofPattern(String)} on every value.
+ * <p>
+ * Run with the GC profiler to compare the allocation per operation:
+ *
+ * <pre>{@code
+ * java -cp <test classpath> org.openjdk.jmh.Main JacksonTemporalCodecBenchmark -prof gc
+ * }</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JacksonTemporalCodecBenchmark {
+
+  private static final TypeReference<List<Event>> EVENTS_TYPE = new TypeReference<>() {
+  };
+
+  private final JsonMapper jsonMapper = new JacksonAutoConfiguration().jsonMapper();
+
+  private final JsonMapper ofPatternJsonMapper = ofPatternJsonMapper();
+
+  private List<Event> events;
+
+  private String json;
+
+  @Setup
+  public void setUp() {
+    events = new ArrayList<>();
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 30, 15, 123_000_000);
+    for (int i = 0; i < 100; i++) {
+      LocalDateTime createdAt = start.plusMinutes(i * 37L).plusNanos(i * 1_000_000L);
+      events.add(new Event(i, createdAt, createdAt.toLocalDate(), createdAt.toLocalTime().withNano(0)));
+    }
+    json = jsonMapper.writeValueAsString(events);
+  }
+
+  @Benchmark
+  public String serialize() {
+    return jsonMapper.writeValueAsString(events);
+  }
+
+  @Benchmark
+  public String serializeOfPattern() {
+    return ofPatternJsonMapper.writeValueAsString(events);
+  }
+
+  @Benchmark
+  public List<Event> deserialize() {
+    return jsonMapper.readValue(json, EVENTS_TYPE);
+  }
+
+  @Benchmark
+  public List<Event> deserializeOfPattern() {
+    return ofPatternJsonMapper.readValue(json, EVENTS_TYPE);
+  }
+
+  /**
+   * Creates a JsonMapper with temporal codecs compiling their pattern on every value.
+   *
+   * @return the JsonMapper
+   */
+  private static JsonMapper ofPatternJsonMapper() {
+    SimpleModule module = new SimpleModule();
+    module.addSerializer(LocalDateTime.class, new OfPatternSerializer<>(UTC_DATE_TIME_FORMAT));
+    module.addDeserializer(LocalDateTime.class, new OfPatternDeserializer<>(UTC_DATE_TIME_FORMAT, LocalDateTime::from));
+    module.addSerializer(LocalDate.class, new OfPatternSerializer<>(DATE_FORMAT));
+    module.addDeserializer(LocalDate.class, new OfPatternDeserializer<>(DATE_FORMAT, LocalDate::from));
+    module.addSerializer(LocalTime.class, new OfPatternSerializer<>(TIME_FORMAT));
+    module.addDeserializer(LocalTime.class, new OfPatternDeserializer<>(TIME_FORMAT, LocalTime::from));
+    return JsonMapper.builder().addModule(module).build();
+  }
+
+  public record Event(long id, LocalDateTime createdAt, LocalDate businessDate, LocalTime cutOffTime) {
+
+  }
+
+  private static class OfPatternSerializer<T extends TemporalAccessor> extends ValueSerializer<T> {
+
+    private final String pattern;
+
+    OfPatternSerializer(String pattern) {
+      this.pattern = pattern;
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
+      gen.writeString(DateTimeFormatter.ofPattern(pattern).format(value));
+    }
+  }
+
+  private static class OfPatternDeserializer<T> extends ValueDeserializer<T> {
+
+    private final String pattern;
+
+    private final TemporalQuery<T> query;
+
+    OfPatternDeserializer(String pattern, TemporalQuery<T> query) {
+      this.pattern = pattern;
+      this.query = query;
+    }
+
+    @Override
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws JacksonException {
+      return DateTimeFormatter.ofPattern(pattern).parse(p.getString(), query);
+    }
+  }
+}
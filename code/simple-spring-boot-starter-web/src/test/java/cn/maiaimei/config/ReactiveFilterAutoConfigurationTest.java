@@ -0,0 +1,41 @@
+package cn.maiaimei.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.filter.reactive.RequestLoggingWebFilter;
+import cn.maiaimei.logger.AsyncDispatchingLogger;
+import cn.maiaimei.logger.AsyncRequestResponseLogger;
+import cn.maiaimei.logger.RequestResponseLogger;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ReactiveFilterAutoConfigurationTest {
+
+  private final ReactiveFilterAutoConfiguration reactiveFilterAutoConfiguration =
+      new ReactiveFilterAutoConfiguration();
+
+  @Test
+  void testSynchronousLoggerIsWrappedWithAsyncDisabled() {
+    RequestResponseLogger logger = new RequestResponseLogger() {
+    };
+
+    assertThat(loggerOf(logger)).isInstanceOf(AsyncRequestResponseLogger.class);
+  }
+
+  @Test
+  void testAsyncDispatchingLoggerIsNotWrapped() {
+    RequestResponseLogger logger = new AsyncDispatchingLogger() {
+    };
+
+    assertThat(loggerOf(logger)).isSameAs(logger);
+  }
+
+  private Object loggerOf(RequestResponseLogger logger) {
+    RequestLoggingWebFilter filter = reactiveFilterAutoConfiguration.requestLoggingWebFilter(
+        new RequestLoggingFilterProperties(), logger);
+    Object loggerToUse = ReflectionTestUtils.getField(filter, "requestResponseLogger");
+    filter.destroy();
+    return loggerToUse;
+  }
+}
@@ -0,0 +1,98 @@
+package cn.maiaimei.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Compares {@link ConfigurableFilter}, with and without its decision cache, with matching every pattern through
+ * {@link AntPathMatcher} in a loop, for 60 exclude patterns and a mix of matching and non-matching paths.
+ *
+ * <pre>{@code
+ * java -cp <test classpath> org.openjdk.jmh.Main ConfigurableFilterBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfigurableFilterBenchmark {
+
+  static final String[] PATHS = {
+      "/api/orders/42", "/api/users/7/profile", "/static/js/app.js", "/actuator/health", "/api/module17/items/3",
+      "/api/module45/detail", "/health-check", "/api/v2/reports/2024/summary"
+  };
+
+  private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+  private List<String> patterns;
+
+  private ConfigurableFilter cachedFilter;
+
+  private ConfigurableFilter uncachedFilter;
+
+  private int index;
+
+  /**
+   * Returns the 60 exclude patterns: 50 module prefixes and a mix of literal, wildcard-first and
+   * {@code **}-in-the-middle patterns.
+   *
+   * @return the patterns
+   */
+  static List<String> excludePatterns() {
+    List<String> patterns = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      patterns.add("/api/module" + i + "/**");
+    }
+    patterns.addAll(List.of("/actuator/**", "/health-check", "/static/**/*.js", "/static/**/*.css", "/favicon.ico",
+        "/swagger-ui/**", "/v3/api-docs/**", "/**/*.png", "/error", "/internal/*/metrics"));
+    return patterns;
+  }
+
+  @Setup
+  public void setUp() {
+    patterns = excludePatterns();
+    cachedFilter = new ConfigurableFilter(patterns);
+    uncachedFilter = new ConfigurableFilter(null, patterns, 0);
+  }
+
+  @Benchmark
+  public boolean cachedFilter() {
+    return cachedFilter.shouldNotFilter(nextPath());
+  }
+
+  @Benchmark
+  public boolean uncachedFilter() {
+    return uncachedFilter.shouldNotFilter(nextPath());
+  }
+
+  @Benchmark
+  public boolean antPathMatcherLoop() {
+    String path = nextPath();
+    for (String pattern : patterns) {
+      if (antPathMatcher.match(pattern, path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String nextPath() {
+    String path = PATHS[index];
+    index = (index + 1) % PATHS.length;
+    return path;
+  }
+}
@@ -0,0 +1,102 @@
+package cn.maiaimei.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+public class ConfigurableFilterTest {
+
+  private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+  private static final List<String> EDGE_PATHS = List.of(
+      "/", "/api", "/api/module1", "/api/module1/", "/api/module10/items", "/api/module49/a/b/c", "/api/module50/a",
+      "/actuator", "/actuator/", "/actuator/metrics/jvm.memory.used", "/health-check/", "/health-check/deep",
+      "/static/app.js", "/static/js/vendor/lib.js", "/static/app.jsx", "/static/css/site.css", "/favicon.ico",
+      "/favicon.ico/x", "/logo.png", "/img/a/b/logo.png", "/img/logo.png.bak", "/error", "/errors",
+      "/internal/node1/metrics", "/internal/node1/node2/metrics", "/internal/metrics", "/swagger-ui",
+      "/swagger-ui/index.html", "/v3/api-docs", "/v3/api-docs/swagger-config", "/API/module1/x");
+
+  @Test
+  void testDecisionsMatchAntPathMatcherLoop() {
+    List<String> patterns = ConfigurableFilterBenchmark.excludePatterns();
+    List<String> paths = new ArrayList<>(Arrays.asList(ConfigurableFilterBenchmark.PATHS));
+    paths.addAll(EDGE_PATHS);
+    ConfigurableFilter cachedFilter = new ConfigurableFilter(patterns);
+    ConfigurableFilter uncachedFilter = new ConfigurableFilter(null, patterns, 0);
+
+    assertThat(patterns).hasSize(60);
+    for (int round = 0; round < 2; round++) {
+      for (String path : paths) {
+        boolean expected = antPathMatcherLoop(patterns, path);
+        assertThat(uncachedFilter.shouldNotFilter(path)).as(path).isEqualTo(expected);
+        assertThat(cachedFilter.shouldNotFilter(path)).as(path).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void testWildcardFirstPatternsMatchAnyFirstSegment() {
+    List<String> patterns = List.of("/*/admin/**", "/{tenant}/reports", "/api/public/**");
+    ConfigurableFilter filter = new ConfigurableFilter(patterns);
+
+    assertThat(filter.shouldNotFilter("/acme/admin/users")).isTrue();
+    assertThat(filter.shouldNotFilter("/api/admin")).isTrue();
+    assertThat(filter.shouldNotFilter("/acme/reports")).isTrue();
+    assertThat(filter.shouldNotFilter("/api/public/docs")).isTrue();
+    assertThat(filter.shouldNotFilter("/acme/reports/2024")).isFalse();
+    assertThat(filter.shouldNotFilter("/admin")).isFalse();
+    assertThat(filter.shouldNotFilter("/api/private/docs")).isFalse();
+  }
+
+  @Test
+  void testDoubleWildcardInMiddleFallsBackToAntPathMatcher() {
+    List<String> patterns = List.of("/api/**/export", "/files/**/*.csv");
+    ConfigurableFilter filter = new ConfigurableFilter(patterns);
+
+    for (String path : List.of("/api/export", "/api/a/export", "/api/a/b/c/export", "/api/a/exports",
+        "/api/export/x", "/files/report.csv", "/files/2024/01/report.csv", "/files/report.csv.gz", "/other/export")) {
+      assertThat(filter.shouldNotFilter(path)).as(path).isEqualTo(antPathMatcherLoop(patterns, path));
+    }
+    assertThat(filter.shouldNotFilter("/api/a/b/c/export")).isTrue();
+    assertThat(filter.shouldNotFilter("/api/a/exports")).isFalse();
+  }
+
+  @Test
+  void testRootPath() {
+    ConfigurableFilter rootOnly = new ConfigurableFilter(List.of("/"));
+    ConfigurableFilter everything = new ConfigurableFilter(List.of("/**"));
+    ConfigurableFilter includeApi = new ConfigurableFilter(List.of("/api/**"), null);
+
+    assertThat(rootOnly.shouldNotFilter("/")).isTrue();
+    assertThat(rootOnly.shouldNotFilter("/index.html")).isFalse();
+    assertThat(everything.shouldNotFilter("/")).isTrue();
+    assertThat(everything.shouldNotFilter("/a/b/c")).isTrue();
+    assertThat(includeApi.shouldNotFilter("/")).isTrue();
+    assertThat(includeApi.shouldNotFilter("/api/users")).isFalse();
+  }
+
+  @Test
+  void testChangingPatternsDiscardsCachedDecisions() {
+    ConfigurableFilter filter = new ConfigurableFilter(List.of("/a/**"));
+    assertThat(filter.shouldNotFilter("/a/1")).isTrue();
+    assertThat(filter.shouldNotFilter("/b/1")).isFalse();
+
+    filter.setExcludePatterns(List.of("/b/**"));
+
+    assertThat(filter.shouldNotFilter("/a/1")).isFalse();
+    assertThat(filter.shouldNotFilter("/b/1")).isTrue();
+  }
+
+  private static boolean antPathMatcherLoop(List<String> patterns, String path) {
+    for (String pattern : patterns) {
+      if (ANT_PATH_MATCHER.match(pattern, path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,50 @@
+package cn.maiaimei.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class FilterDecisionRegistryTest {
+
+  @Test
+  void testUpdateDiscardsCachedBitmaps() {
+    FilterDecisionRegistry registry = new FilterDecisionRegistry();
+    FilterDecisionRegistry.Slot first = registry.register(List.of("/a/**"));
+    registry.register(List.of("/b/**"));
+    assertThat(registry.evaluate("/a/1")).isEqualTo(0b01L);
+    assertThat(registry.evaluate("/b/1")).isEqualTo(0b10L);
+
+    first.update(null, List.of("/b/**"));
+
+    assertThat(registry.evaluate("/a/1")).isZero();
+    assertThat(registry.evaluate("/b/1")).isEqualTo(0b11L);
+  }
+
+  @Test
+  void testRegisteringDiscardsCachedBitmaps() {
+    FilterDecisionRegistry registry = new FilterDecisionRegistry();
+    registry.register(List.of("/a/**"));
+    assertThat(registry.evaluate("/a/1")).isEqualTo(0b01L);
+
+    registry.register(List.of("/a/**"));
+
+    assertThat(registry.evaluate("/a/1")).isEqualTo(0b11L);
+  }
+
+  @Test
+  void testSlotFallsBackToPatternsWithoutBitmap() {
+    FilterDecisionRegistry registry = new FilterDecisionRegistry(0);
+    FilterDecisionRegistry.Slot slot = registry.register(List.of("/api/**"), List.of("/api/health"));
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/health");
+
+    assertThat(slot.shouldNotFilter(request)).isTrue();
+
+    slot.update(List.of("/api/**"), null);
+
+    assertThat(slot.shouldNotFilter(request)).isFalse();
+    request.setAttribute(FilterDecisionRegistry.DECISIONS_ATTRIBUTE, registry.evaluate("/other"));
+    assertThat(slot.shouldNotFilter(request)).isTrue();
+  }
+}
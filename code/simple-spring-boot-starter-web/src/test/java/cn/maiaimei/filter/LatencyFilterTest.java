@@ -0,0 +1,65 @@
+package cn.maiaimei.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import cn.maiaimei.filter.properties.LatencyFilterProperties;
+import cn.maiaimei.metrics.LatencyHistogramRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+public class LatencyFilterTest {
+
+  private final LatencyHistogramRegistry registry = new LatencyHistogramRegistry();
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    LatencyFilter filter = new LatencyFilter(new LatencyFilterProperties(), registry, new FilterDecisionRegistry());
+    mockMvc = MockMvcBuilders.standaloneSetup(new TestController()).addFilters(filter).build();
+  }
+
+  @Test
+  void testRecordsSuccessUnder2xx() throws Exception {
+    mockMvc.perform(get("/ok")).andExpect(status().isOk());
+
+    assertThat(registry.snapshot()).singleElement().satisfies(entry -> {
+      assertThat(entry.route()).isEqualTo("/ok");
+      assertThat(entry.status()).isEqualTo("2xx");
+      assertThat(entry.snapshot().getCount()).isEqualTo(1);
+    });
+  }
+
+  @Test
+  void testRecordsThrowingHandlerUnder5xx() {
+    assertThatThrownBy(() -> mockMvc.perform(get("/fail"))).isInstanceOf(ServletException.class);
+
+    assertThat(registry.snapshot()).singleElement().satisfies(entry -> {
+      assertThat(entry.route()).isEqualTo("/fail");
+      assertThat(entry.method()).isEqualTo("GET");
+      assertThat(entry.status()).isEqualTo("5xx");
+    });
+  }
+
+  @RestController
+  static class TestController {
+
+    @GetMapping("/ok")
+    String ok() {
+      return "ok";
+    }
+
+    @GetMapping("/fail")
+    String fail() {
+      throw new IllegalStateException("boom");
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package cn.maiaimei.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.logger.HttpExchange;
+import cn.maiaimei.logger.RequestResponseLogger;
+import jakarta.servlet.ServletException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+public class RequestLoggingFilterTest {
+
+  private final List<HttpExchange> exchanges = new CopyOnWriteArrayList<>();
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    RequestLoggingFilterProperties properties = new RequestLoggingFilterProperties();
+    properties.setIncludePayload(true);
+    properties.getTail().setEnabled(true);
+    properties.getTail().setStatuses(List.of("5xx"));
+    RequestLoggingFilter filter = new RequestLoggingFilter(properties, new CapturingLogger(),
+        new FilterDecisionRegistry());
+    mockMvc = MockMvcBuilders.standaloneSetup(new TestController()).addFilters(filter).build();
+  }
+
+  @Test
+  void testTailCaptureCommitsExchangeWhenControllerThrows() {
+    assertThatThrownBy(() -> mockMvc.perform(get("/fail"))).isInstanceOf(ServletException.class);
+
+    assertThat(exchanges).singleElement().satisfies(exchange -> {
+      assertThat(exchange.status()).isEqualTo(500);
+      assertThat(exchange.uri()).isEqualTo("/fail");
+    });
+  }
+
+  @Test
+  void testTailCaptureSkipsFastSuccessfulExchange() throws Exception {
+    mockMvc.perform(get("/ok")).andExpect(status().isOk());
+
+    assertThat(exchanges).isEmpty();
+  }
+
+  @RestController
+  static class TestController {
+
+    @GetMapping("/ok")
+    String ok() {
+      return "ok";
+    }
+
+    @GetMapping("/fail")
+    String fail() {
+      throw new IllegalStateException("boom");
+    }
+  }
+
+  private class CapturingLogger implements RequestResponseLogger {
+
+    @Override
+    public void logRequest(Map<String, Object> requestData) {
+    }
+
+    @Override
+    public void logResponse(Map<String, Object> responseData) {
+    }
+
+    @Override
+    public void logExchange(HttpExchange exchange) {
+      exchanges.add(exchange);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package cn.maiaimei.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.filter.model.HeaderSelector.Decision;
+import cn.maiaimei.filter.model.RequestLoggingPolicy;
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RequestLoggingPolicyResolverTest {
+
+  @Test
+  void testPolicyCarriesHeaderSelectorOfItsSnapshot() {
+    RequestLoggingFilterProperties properties = new RequestLoggingFilterProperties();
+    properties.setIncludeHeaders(true);
+    properties.getHeaders().setMasked(List.of("X-Secret"));
+    RequestLoggingFilterProperties.Route route = new RequestLoggingFilterProperties.Route();
+    route.setPattern("/users/**");
+    properties.setRoutes(List.of(route));
+    RequestLoggingPolicyResolver first = new RequestLoggingPolicyResolver(properties);
+
+    properties.getHeaders().setMasked(List.of());
+    properties.getHeaders().setDenied(List.of("X-Secret"));
+    RequestLoggingPolicyResolver second = new RequestLoggingPolicyResolver(properties);
+
+    RequestLoggingPolicy routed = first.resolve("GET", "/users/42");
+    RequestLoggingPolicy unrouted = first.resolve("GET", "/orders");
+    assertThat(routed.isIncludeHeaders()).isTrue();
+    assertThat(routed.getHeaderSelector()).isSameAs(unrouted.getHeaderSelector());
+    assertThat(routed.getHeaderSelector().decide("x-secret")).isEqualTo(Decision.MASK);
+    assertThat(second.resolve("GET", "/users/42").getHeaderSelector().decide("x-secret"))
+        .isEqualTo(Decision.EXCLUDE);
+  }
+}
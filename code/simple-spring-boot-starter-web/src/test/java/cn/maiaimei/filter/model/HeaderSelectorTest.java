@@ -0,0 +1,61 @@
+package cn.maiaimei.filter.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.filter.model.HeaderSelector.Decision;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class HeaderSelectorTest {
+
+  @Test
+  void testNamesAreMatchedIgnoringCase() {
+    HeaderSelector selector = new HeaderSelector(null, List.of("X-Internal-Token"), List.of(" authorization "));
+
+    assertThat(selector.decide("Authorization")).isEqualTo(Decision.MASK);
+    assertThat(selector.decide("AUTHORIZATION")).isEqualTo(Decision.MASK);
+    assertThat(selector.decide("x-internal-token")).isEqualTo(Decision.EXCLUDE);
+    assertThat(selector.decide("X-INTERNAL-TOKEN")).isEqualTo(Decision.EXCLUDE);
+    assertThat(selector.decide("Accept")).isEqualTo(Decision.INCLUDE);
+  }
+
+  @Test
+  void testDeniedWinsOverAllowedAndMasked() {
+    HeaderSelector selector = new HeaderSelector(List.of("Accept", "Cookie"), List.of("cookie"),
+        List.of("COOKIE", "Accept"));
+
+    assertThat(selector.decide("Cookie")).isEqualTo(Decision.EXCLUDE);
+    assertThat(selector.decide("Accept")).isEqualTo(Decision.MASK);
+  }
+
+  @Test
+  void testAllowListExcludesUnlistedHeaders() {
+    HeaderSelector selector = new HeaderSelector(List.of("Accept", "Content-Type"), null, List.of("Authorization"));
+
+    assertThat(selector.decide("accept")).isEqualTo(Decision.INCLUDE);
+    assertThat(selector.decide("Content-Type")).isEqualTo(Decision.INCLUDE);
+    assertThat(selector.decide("User-Agent")).isEqualTo(Decision.EXCLUDE);
+    assertThat(selector.decide("Authorization")).isEqualTo(Decision.EXCLUDE);
+  }
+
+  @Test
+  void testEmptyAllowListCapturesEveryHeaderNotDenied() {
+    HeaderSelector selector = new HeaderSelector(List.of(), List.of("", "Via"), null);
+
+    assertThat(selector.decide("Accept")).isEqualTo(Decision.INCLUDE);
+    assertThat(selector.decide("")).isEqualTo(Decision.INCLUDE);
+    assertThat(selector.decide("via")).isEqualTo(Decision.EXCLUDE);
+  }
+
+  @Test
+  void testManyNamesAreAllFoundAfterProbing() {
+    List<String> masked = List.of("Authorization", "Proxy-Authorization", "Cookie", "Set-Cookie", "X-Api-Key",
+        "X-Auth-Token", "X-Csrf-Token", "X-Session-Id", "X-Amz-Security-Token");
+    HeaderSelector selector = new HeaderSelector(null, null, masked);
+
+    for (String name : masked) {
+      assertThat(selector.decide(name.toLowerCase())).as(name).isEqualTo(Decision.MASK);
+    }
+    assertThat(selector.decide("X-Request-Id")).isEqualTo(Decision.INCLUDE);
+  }
+}
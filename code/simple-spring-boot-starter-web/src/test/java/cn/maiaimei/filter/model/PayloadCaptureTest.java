@@ -0,0 +1,74 @@
+package cn.maiaimei.filter.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class PayloadCaptureTest {
+
+  private final ByteArrayPool byteArrayPool = new ByteArrayPool(64, 4);
+
+  @Test
+  void testByteTruncationDropsIncompleteUtf8Sequence() {
+    PayloadCapture capture = new PayloadCapture(byteArrayPool, 5);
+    byte[] bytes = "ab😀cd".getBytes(StandardCharsets.UTF_8);
+
+    capture.write(bytes, 0, 2);
+    capture.write(ByteBuffer.wrap(bytes, 2, bytes.length - 2));
+
+    assertThat(capture.isTruncated()).isTrue();
+    assertThat(capture.getLength()).isEqualTo(2);
+    assertThat(capture.toString(StandardCharsets.UTF_8)).isEqualTo("ab");
+  }
+
+  @Test
+  void testSurrogatePairSplitAcrossWritesIsEncodedWhole() {
+    PayloadCapture capture = new PayloadCapture(byteArrayPool, 64);
+    CharsetEncoder encoder = encoder();
+
+    capture.write(CharBuffer.wrap("a\uD83D"), encoder);
+    capture.write(CharBuffer.wrap("\uDE00b"), encoder);
+
+    assertThat(capture.isTruncated()).isFalse();
+    assertThat(capture.toString(StandardCharsets.UTF_8)).isEqualTo("a😀b");
+  }
+
+  @Test
+  void testNothingIsCapturedAfterOverflow() {
+    PayloadCapture capture = new PayloadCapture(byteArrayPool, 4);
+    CharsetEncoder encoder = encoder();
+
+    capture.write(CharBuffer.wrap("abéé"), encoder);
+    capture.write('c');
+    capture.write(CharBuffer.wrap("d"), encoder);
+
+    assertThat(capture.isTruncated()).isTrue();
+    assertThat(capture.toString(StandardCharsets.UTF_8)).isEqualTo("abé");
+  }
+
+  @Test
+  void testResponseResetClearsCapture() throws Exception {
+    ContentCachedResponseWrapper response = new ContentCachedResponseWrapper(new MockHttpServletResponse(),
+        byteArrayPool, 4);
+    response.getOutputStream().write("discarded".getBytes(StandardCharsets.UTF_8));
+
+    response.resetBuffer();
+    response.getOutputStream().write("ok".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(response.isTruncated()).isFalse();
+    assertThat(response.getBodyAsString()).isEqualTo("ok");
+    response.release();
+  }
+
+  private static CharsetEncoder encoder() {
+    return StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  }
+}
@@ -0,0 +1,73 @@
+package cn.maiaimei.filter.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import cn.maiaimei.logger.HttpExchange;
+import cn.maiaimei.logger.RequestResponseLogger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+public class RequestLoggingWebFilterTest {
+
+  private final List<HttpExchange> exchanges = new CopyOnWriteArrayList<>();
+
+  private RequestLoggingWebFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    RequestLoggingFilterProperties properties = new RequestLoggingFilterProperties();
+    properties.getTail().setEnabled(true);
+    properties.getTail().setStatuses(List.of("5xx"));
+    filter = new RequestLoggingWebFilter(properties, new CapturingLogger());
+  }
+
+  @Test
+  void testTailCaptureCommitsExchangeWhenChainSignalsError() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/fail"));
+
+    Mono<Void> result = filter.filter(exchange, e -> Mono.error(new IllegalStateException("boom")));
+
+    assertThatThrownBy(result::block).isInstanceOf(IllegalStateException.class);
+    assertThat(exchanges).singleElement().satisfies(logged -> {
+      assertThat(logged.status()).isEqualTo(500);
+      assertThat(logged.uri()).isEqualTo("/fail");
+    });
+  }
+
+  @Test
+  void testTailCaptureSkipsSuccessfulExchange() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/ok"));
+
+    filter.filter(exchange, e -> {
+      e.getResponse().setStatusCode(HttpStatus.OK);
+      return Mono.empty();
+    }).block();
+
+    assertThat(exchanges).isEmpty();
+  }
+
+  private class CapturingLogger implements RequestResponseLogger {
+
+    @Override
+    public void logRequest(Map<String, Object> requestData) {
+    }
+
+    @Override
+    public void logResponse(Map<String, Object> responseData) {
+    }
+
+    @Override
+    public void logExchange(HttpExchange exchange) {
+      exchanges.add(exchange);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package cn.maiaimei.id;
+
+import cn.maiaimei.utils.IdGenerator;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of {@link SnowflakeIdGenerator}, the {@link IdGenerator} BigDecimal adapter, which
+ * formats the timestamp and sequence of Snowflake IDs, and the previous string-built BigDecimal IDs, shared by
+ * all benchmark threads. Vary the thread count with {@code -t}:
+ *
+ * <pre>{@code
+ * java -cp <test classpath> org.openjdk.jmh.Main IdGeneratorBenchmark -t 8
+ * }</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+  private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+  private final SnowflakeIdGenerator snowflakeIdGenerator = new SnowflakeIdGenerator(1, 5_000);
+
+  private final AtomicInteger sequence = new AtomicInteger();
+
+  @Benchmark
+  public long snowflake() {
+    return snowflakeIdGenerator.nextId();
+  }
+
+  @Benchmark
+  public BigDecimal bigDecimalAdapter() {
+    return IdGenerator.nextId();
+  }
+
+  @Benchmark
+  public BigDecimal stringBuilt() {
+    String timestamp = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+    int currentSequence = sequence.updateAndGet(current -> current >= 99999 ? 0 : current + 1);
+    return new BigDecimal(timestamp + String.format("%05d", currentSequence));
+  }
+}
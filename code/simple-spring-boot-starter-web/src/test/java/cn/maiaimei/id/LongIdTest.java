@@ -0,0 +1,71 @@
+package cn.maiaimei.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import tools.jackson.databind.exc.InvalidFormatException;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.json.JsonMapper;
+
+public class LongIdTest {
+
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+  @Test
+  void testIdIsWrittenAsString() {
+    assertThat(jsonMapper.writeValueAsString(new Entity(Long.MAX_VALUE, 0L)))
+        .isEqualTo("{\"id\":\"9223372036854775807\",\"parentId\":\"0\"}");
+    assertThat(jsonMapper.writeValueAsString(new Entity(-5L, null)))
+        .isEqualTo("{\"id\":\"-5\",\"parentId\":null}");
+  }
+
+  @Test
+  void testIdIsReadFromStringOrNumber() {
+    assertThat(jsonMapper.readValue("{\"id\":\"0123\",\"parentId\":42}", Entity.class))
+        .isEqualTo(new Entity(123L, 42L));
+    assertThat(jsonMapper.readValue("{\"id\":\"9223372036854775807\",\"parentId\":\"\"}", Entity.class))
+        .isEqualTo(new Entity(Long.MAX_VALUE, null));
+  }
+
+  @Test
+  void testInvalidIdsAreRejected() {
+    assertThatThrownBy(() -> jsonMapper.readValue("{\"id\":\"9223372036854775808\"}", Entity.class))
+        .isInstanceOf(InvalidFormatException.class);
+    assertThatThrownBy(() -> jsonMapper.readValue("{\"id\":\"-1\"}", Entity.class))
+        .isInstanceOf(InvalidFormatException.class);
+    assertThatThrownBy(() -> jsonMapper.readValue("{\"id\":1.5}", Entity.class))
+        .isInstanceOf(MismatchedInputException.class);
+    assertThatThrownBy(() -> jsonMapper.readValue("{\"id\":true}", Entity.class))
+        .isInstanceOf(MismatchedInputException.class);
+  }
+
+  @Test
+  void testConverterParsesAnnotatedParametersOnly() throws NoSuchMethodException {
+    DefaultConversionService conversionService = new DefaultConversionService();
+    conversionService.addConverter(new LongIdConverter());
+    Method method = Handler.class.getDeclaredMethod("get", long.class, Long.class);
+    TypeDescriptor source = TypeDescriptor.valueOf(String.class);
+    TypeDescriptor annotated = new TypeDescriptor(new MethodParameter(method, 0));
+    TypeDescriptor plain = new TypeDescriptor(new MethodParameter(method, 1));
+
+    assertThat(conversionService.convert("0123", source, annotated)).isEqualTo(123L);
+    assertThat(conversionService.convert("0x10", source, plain)).isEqualTo(16L);
+    assertThatThrownBy(() -> conversionService.convert("-1", source, annotated))
+        .hasRootCauseInstanceOf(NumberFormatException.class);
+  }
+
+  record Entity(@LongId Long id, @LongId Long parentId) {
+
+  }
+
+  static class Handler {
+
+    void get(@LongId long id, Long parentId) {
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package cn.maiaimei.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+public class LongIdsTest {
+
+  @Test
+  void testLeadingZerosAreDecimalNotOctal() {
+    assertThat(LongIds.parse("0123")).isEqualTo(123L);
+    assertThat(LongIds.parse("010")).isEqualTo(10L);
+    assertThat(LongIds.parse("0")).isZero();
+  }
+
+  @Test
+  void testParseAcceptsLongMaxValueAndRejectsOverflow() {
+    assertThat(LongIds.parse(Long.toString(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    assertThatThrownBy(() -> LongIds.parse("9223372036854775808")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> LongIds.parse("9999999999999999999")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> LongIds.parse("10000000000000000000")).isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  void testParseRejectsSignsAndNonDigits() {
+    assertThatThrownBy(() -> LongIds.parse("-1")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> LongIds.parse("+1")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> LongIds.parse("0x1F")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> LongIds.parse(" 1")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> LongIds.parse("")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> LongIds.parse((CharSequence) null)).isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  void testParseCharRangeMatchesParseCharSequence() {
+    char[] chars = "x0123456789012345678y".toCharArray();
+
+    assertThat(LongIds.parse(chars, 1, 19)).isEqualTo(LongIds.parse("0123456789012345678"));
+    assertThatThrownBy(() -> LongIds.parse(chars, 1, 20)).isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  void testFormatWritesDigitsAtEndOfBuffer() {
+    char[] buffer = new char[20];
+
+    int start = LongIds.format(Long.MAX_VALUE, buffer);
+    assertThat(new String(buffer, start, buffer.length - start)).isEqualTo(Long.toString(Long.MAX_VALUE));
+    start = LongIds.format(0, buffer);
+    assertThat(new String(buffer, start, buffer.length - start)).isEqualTo("0");
+  }
+}
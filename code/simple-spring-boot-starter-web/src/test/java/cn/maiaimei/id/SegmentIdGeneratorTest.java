@@ -0,0 +1,93 @@
+package cn.maiaimei.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.id.properties.IdGeneratorProperties;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+public class SegmentIdGeneratorTest {
+
+  private static final int THREADS = 4;
+
+  private static final int IDS_PER_THREAD = 5_000;
+
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(
+        new DefaultResourceLoader().getResource(SegmentIdGenerator.SCHEMA_LOCATION)), dataSource);
+  }
+
+  @Test
+  void testIdsAreUniqueAndIncreasingAcrossSegments() {
+    Set<Long> ids = new HashSet<>();
+    long previous = 0;
+    try (SegmentIdGenerator generator = new SegmentIdGenerator(dataSource, segment(10))) {
+      for (int i = 0; i < 100; i++) {
+        long id = generator.nextId();
+        assertThat(id).isGreaterThan(previous);
+        previous = id;
+        ids.add(id);
+        for (long batchId : generator.nextIds(7)) {
+          assertThat(batchId).isGreaterThan(previous);
+          previous = batchId;
+          ids.add(batchId);
+        }
+      }
+    }
+
+    assertThat(ids).hasSize(800);
+    assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT max_id FROM id_segment WHERE biz_tag = ?",
+        Long.class, "default")).isGreaterThanOrEqualTo(previous);
+  }
+
+  @Test
+  void testGeneratorsSharingTableReserveDisjointSegments() throws Exception {
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try (SegmentIdGenerator first = new SegmentIdGenerator(dataSource, segment(50));
+        SegmentIdGenerator second = new SegmentIdGenerator(dataSource, segment(50))) {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        SegmentIdGenerator generator = i % 2 == 0 ? first : second;
+        results.add(executor.submit(() -> {
+          for (int j = 0; j < IDS_PER_THREAD; j++) {
+            ids.add(generator.nextId());
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+  }
+
+  private static IdGeneratorProperties.Segment segment(int step) {
+    IdGeneratorProperties.Segment segment = new IdGeneratorProperties.Segment();
+    segment.setStep(step);
+    segment.setMaxStep(step * 10);
+    return segment;
+  }
+}
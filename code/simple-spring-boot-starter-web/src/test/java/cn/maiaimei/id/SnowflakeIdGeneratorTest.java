@@ -0,0 +1,61 @@
+package cn.maiaimei.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class SnowflakeIdGeneratorTest {
+
+  private static final int THREADS = 8;
+
+  private static final int IDS_PER_THREAD = 50_000;
+
+  @Test
+  void testConcurrentIdsAreUniqueAndMonotonicPerThread() throws Exception {
+    SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, 5_000);
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        results.add(executor.submit(() -> {
+          boolean monotonic = true;
+          long previous = 0;
+          for (int j = 0; j < IDS_PER_THREAD; j++) {
+            long id = generator.nextId();
+            monotonic &= id > previous;
+            previous = id;
+            ids.add(id);
+          }
+          return monotonic;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertThat(result.get()).isTrue();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+  }
+
+  @Test
+  void testExhaustedSequenceWaitsForClock() {
+    SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1023, 5_000);
+    long id = 0;
+    for (int i = 0; i < 20_000; i++) {
+      id = generator.nextId();
+    }
+
+    assertThat(SnowflakeIdGenerator.getTimestamp(id)).isLessThanOrEqualTo(System.currentTimeMillis());
+    assertThat(SnowflakeIdGenerator.getWorkerId(id)).isEqualTo(1023);
+  }
+}
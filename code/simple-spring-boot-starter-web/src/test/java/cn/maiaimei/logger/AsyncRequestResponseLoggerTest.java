@@ -0,0 +1,69 @@
+package cn.maiaimei.logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+
+public class AsyncRequestResponseLoggerTest {
+
+  private static final int PRODUCERS = 4;
+
+  @Test
+  void testNonPositiveShutdownTimeoutIsRejected() {
+    RequestLoggingFilterProperties.Async properties = new RequestLoggingFilterProperties.Async();
+    properties.setShutdownTimeout(Duration.ZERO);
+
+    assertThatThrownBy(() -> new AsyncRequestResponseLogger(new RequestResponseLogger() {
+    }, properties)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void testEntriesEnqueuedDuringCloseAreDelivered() throws Exception {
+    for (int round = 0; round < 20; round++) {
+      LongAdder delivered = new LongAdder();
+      AsyncRequestResponseLogger logger = new AsyncRequestResponseLogger(new RequestResponseLogger() {
+        @Override
+        public void logExchange(HttpExchange exchange) {
+          delivered.increment();
+        }
+      }, new RequestLoggingFilterProperties.Async());
+      HttpExchange exchange = new HttpExchange("trace", 0L, 0L, 0L, "GET", "/", null, null, null, null, false,
+          200, null, false);
+      LongAdder attempted = new LongAdder();
+      CountDownLatch started = new CountDownLatch(PRODUCERS);
+      ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+      try {
+        List<Future<?>> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+          producers.add(executor.submit(() -> {
+            started.countDown();
+            for (int i = 0; i < 2_000; i++) {
+              logger.logExchange(exchange);
+              attempted.increment();
+            }
+          }));
+        }
+        started.await();
+        logger.close();
+        for (Future<?> producer : producers) {
+          producer.get();
+        }
+      } finally {
+        executor.shutdown();
+      }
+
+      assertThat(delivered.sum() + logger.getDroppedCount()).isEqualTo(attempted.sum());
+      assertThat(logger.getPendingCount()).isZero();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package cn.maiaimei.logger;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares writing an exchange through the pooled {@link ExchangeEvent} and {@link ExchangeEventWriter} with
+ * building the request and response maps and formatting them with {@code Map.toString()}.
+ * <p>
+ * Run with the GC profiler to compare the allocation per operation:
+ *
+ * <pre>{@code
+ * java -cp <test classpath> org.openjdk.jmh.Main ExchangeEventWriterBenchmark -prof gc
+ * }</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExchangeEventWriterBenchmark {
+
+  private final ExchangeEventWriter exchangeEventWriter = new ExchangeEventWriter();
+
+  private final ExchangeEvent event = new ExchangeEvent();
+
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+  private HttpExchange exchange;
+
+  @Setup
+  public void setUp() {
+    populate(event);
+    exchange = event.toExchange();
+  }
+
+  @Benchmark
+  public void eventWriter(Blackhole blackhole) {
+    event.reset();
+    populate(event);
+    buffer.reset();
+    exchangeEventWriter.writeRequest(event, buffer);
+    exchangeEventWriter.writeResponse(event, buffer);
+    blackhole.consume(buffer.size());
+  }
+
+  @Benchmark
+  public void mapToString(Blackhole blackhole) {
+    blackhole.consume(exchange.toRequestData().toString());
+    blackhole.consume(exchange.toResponseData().toString());
+  }
+
+  private static void populate(ExchangeEvent event) {
+    event.setTraceId("4bf92f3577b34da6a3ce929d0e0e4736");
+    event.setTimestamp(1_700_000_000_000L);
+    event.setStartNanos(0);
+    event.setEndNanos(12_000_000);
+    event.setMethod("POST");
+    event.setUri("/api/users");
+    event.setQueryString("page=1&size=20");
+    event.setClientIp("10.0.0.1");
+    event.setStatus(201);
+    event.setHeadersIncluded(true);
+    event.addHeader("Content-Type", "application/json");
+    event.addHeader("Accept", "application/json");
+    event.addHeader("User-Agent", "benchmark");
+    event.addHeader("Authorization", "******");
+  }
+}
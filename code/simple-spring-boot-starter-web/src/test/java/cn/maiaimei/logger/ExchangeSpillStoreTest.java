@@ -0,0 +1,42 @@
+package cn.maiaimei.logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.filter.model.HeaderSelector;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ExchangeSpillStoreTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testSpillMasksHeadersAndReplaysBatch() throws IOException {
+    ExchangeSpillStore spillStore = new ExchangeSpillStore(directory,
+        new HeaderSelector(null, List.of("Cookie"), List.of("Authorization")));
+    Map<String, String> headers = new LinkedHashMap<>();
+    headers.put("Accept", "application/json");
+    headers.put("Authorization", "Bearer secret");
+    headers.put("Cookie", "session=secret");
+    spillStore.spill(List.of(new HttpExchange("trace", 1L, 0L, 1_000_000L, "POST", "/users", null, null, headers,
+        "{}", false, 201, "{}", false)));
+
+    List<HttpExchange> replayed = new ArrayList<>();
+    int count = spillStore.replay(replayed::addAll);
+
+    assertThat(count).isEqualTo(1);
+    assertThat(replayed).singleElement().satisfies(exchange -> {
+      assertThat(exchange.headers()).containsExactly(Map.entry("Accept", "application/json"),
+          Map.entry("Authorization", HeaderSelector.MASK));
+      assertThat(exchange.status()).isEqualTo(201);
+    });
+    assertThat(spillStore.hasPending()).isFalse();
+  }
+}
@@ -0,0 +1,129 @@
+package cn.maiaimei.logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import cn.maiaimei.logger.properties.JdbcRequestResponseLoggerProperties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+public class JdbcRequestResponseLoggerTest {
+
+  @TempDir
+  Path spillDirectory;
+
+  private DataSource dataSource;
+
+  private JdbcTemplate jdbcTemplate;
+
+  private JdbcRequestResponseLoggerProperties properties;
+
+  @BeforeEach
+  void setUp() {
+    dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    properties = new JdbcRequestResponseLoggerProperties();
+    properties.setBatchSize(10);
+    properties.setLingerTime(Duration.ofMillis(50));
+    properties.setMaxRetries(0);
+    properties.setSpillDirectory(spillDirectory.toString());
+  }
+
+  @Test
+  void testCloseFlushesAllBufferedExchanges() {
+    initializeSchema();
+    try (JdbcRequestResponseLogger logger = new JdbcRequestResponseLogger(dataSource, properties)) {
+      for (int i = 0; i < 25; i++) {
+        logger.logExchange(exchange(i));
+      }
+    }
+
+    assertThat(countRows()).isEqualTo(25);
+    assertThat(jdbcTemplate.queryForObject("SELECT headers FROM http_exchange WHERE trace_id = ?", String.class,
+        "trace-0")).isEqualTo("{\"Accept\":\"application/json\"}");
+  }
+
+  @Test
+  void testPartialBatchIsFlushedAfterLingerTime() {
+    initializeSchema();
+    try (JdbcRequestResponseLogger logger = new JdbcRequestResponseLogger(dataSource, properties)) {
+      for (int i = 0; i < 3; i++) {
+        logger.logExchange(exchange(i));
+      }
+
+      await().atMost(Duration.ofSeconds(5)).until(() -> countRows() == 3);
+      assertThat(logger.getPendingCount()).isZero();
+    }
+  }
+
+  @Test
+  void testFailedBatchIsSpilledAndReplayedAfterNextInsert() {
+    try (JdbcRequestResponseLogger logger = new JdbcRequestResponseLogger(dataSource, properties)) {
+      for (int i = 0; i < 5; i++) {
+        logger.logExchange(exchange(i));
+      }
+      await().atMost(Duration.ofSeconds(5)).until(() -> hasSpillFiles() && logger.getPendingCount() == 0);
+
+      initializeSchema();
+      logger.logExchange(exchange(5));
+
+      await().atMost(Duration.ofSeconds(5)).until(() -> countRows() == 6);
+      assertThat(logger.getDroppedCount()).isZero();
+    }
+  }
+
+  @Test
+  void testNonPositiveShutdownTimeoutIsRejected() {
+    properties.setShutdownTimeout(Duration.ZERO);
+
+    assertThatThrownBy(() -> new JdbcRequestResponseLogger(dataSource, properties))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void testExchangeAfterCloseIsCountedAsDropped() {
+    initializeSchema();
+    JdbcRequestResponseLogger logger = new JdbcRequestResponseLogger(dataSource, properties);
+    logger.close();
+
+    logger.logExchange(exchange(0));
+
+    assertThat(logger.getDroppedCount()).isEqualTo(1);
+    assertThat(logger.getPendingCount()).isZero();
+  }
+
+  private void initializeSchema() {
+    DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(
+        new DefaultResourceLoader().getResource(JdbcRequestResponseLogger.SCHEMA_LOCATION)), dataSource);
+  }
+
+  private int countRows() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM http_exchange", Integer.class);
+  }
+
+  private boolean hasSpillFiles() throws IOException {
+    try (Stream<Path> files = Files.list(spillDirectory)) {
+      return files.findAny().isPresent();
+    }
+  }
+
+  private static HttpExchange exchange(int i) {
+    return new HttpExchange("trace-" + i, System.currentTimeMillis(), 0L, 1_000_000L, "GET", "/users/" + i, null,
+        "127.0.0.1", Map.of("Accept", "application/json"), null, false, 200, "{}", false);
+  }
+}
@@ -0,0 +1,121 @@
+package cn.maiaimei.logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.logger.properties.JournalRequestResponseLoggerProperties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+public class JournalRequestResponseLoggerTest {
+
+  @TempDir
+  Path directory;
+
+  private JournalRequestResponseLoggerProperties properties;
+
+  @BeforeEach
+  void setUp() {
+    properties = new JournalRequestResponseLoggerProperties();
+    properties.setDirectory(directory.toString());
+    properties.setSegmentSize(DataSize.ofBytes(1024));
+  }
+
+  @Test
+  void testFullSegmentsAreRolledAndCompressed() throws IOException {
+    try (JournalRequestResponseLogger logger = new JournalRequestResponseLogger(properties)) {
+      for (int i = 0; i < 50; i++) {
+        logger.logExchange(exchange(i));
+      }
+      assertThat(logger.getDroppedCount()).isZero();
+    }
+
+    assertThat(listFiles(JournalRequestResponseLogger.SEGMENT_SUFFIX)).isEmpty();
+    assertThat(listFiles(JournalRequestResponseLogger.COMPRESSED_SEGMENT_SUFFIX)).hasSizeGreaterThan(1);
+    assertThat(readTraceIds()).isEqualTo(expectedTraceIds(50));
+  }
+
+  @Test
+  void testUncompressedSegmentsAreReadBack() throws IOException {
+    properties.setCompressClosedSegments(false);
+    try (JournalRequestResponseLogger logger = new JournalRequestResponseLogger(properties)) {
+      for (int i = 0; i < 50; i++) {
+        logger.logExchange(exchange(i));
+      }
+    }
+
+    assertThat(listFiles(JournalRequestResponseLogger.COMPRESSED_SEGMENT_SUFFIX)).isEmpty();
+    assertThat(listFiles(JournalRequestResponseLogger.SEGMENT_SUFFIX)).hasSizeGreaterThan(1);
+    List<HttpExchange> matches = new ArrayList<>();
+    long matched = new ExchangeJournalReader(directory).scan(null,
+        ExchangeJournalReader.matching("trace-42", null, null), matches::add);
+    assertThat(matched).isEqualTo(1);
+    assertThat(matches).singleElement().satisfies(exchange -> {
+      assertThat(exchange.uri()).isEqualTo("/users/42");
+      assertThat(exchange.headers()).containsExactly(Map.entry("Accept", "application/json"));
+      assertThat(exchange.status()).isEqualTo(200);
+    });
+  }
+
+  @Test
+  void testExpiredSegmentIsRolledOnNextAppend() throws Exception {
+    properties.setCompressClosedSegments(false);
+    properties.setSegmentSize(DataSize.ofKilobytes(64));
+    properties.setRolloverInterval(Duration.ofMillis(20));
+    try (JournalRequestResponseLogger logger = new JournalRequestResponseLogger(properties)) {
+      logger.logExchange(exchange(0));
+      Thread.sleep(50);
+      logger.logExchange(exchange(1));
+    }
+
+    assertThat(listFiles(JournalRequestResponseLogger.SEGMENT_SUFFIX)).hasSize(2);
+    assertThat(readTraceIds()).isEqualTo(expectedTraceIds(2));
+  }
+
+  @Test
+  void testRecordLargerThanSegmentIsDropped() throws IOException {
+    try (JournalRequestResponseLogger logger = new JournalRequestResponseLogger(properties)) {
+      logger.logExchange(new HttpExchange("trace-large", System.currentTimeMillis(), 0L, 1_000_000L, "POST",
+          "/users", null, null, null, "x".repeat(2048), false, 201, null, false));
+      logger.logExchange(exchange(0));
+
+      assertThat(logger.getDroppedCount()).isEqualTo(1);
+    }
+
+    assertThat(readTraceIds()).containsExactly("trace-0");
+  }
+
+  private List<Path> listFiles(String suffix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(suffix)).toList();
+    }
+  }
+
+  private List<String> readTraceIds() throws IOException {
+    List<String> traceIds = new ArrayList<>();
+    new ExchangeJournalReader(directory).scan(null, exchange -> true, exchange -> traceIds.add(exchange.traceId()));
+    return traceIds;
+  }
+
+  private static List<String> expectedTraceIds(int count) {
+    List<String> traceIds = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      traceIds.add("trace-" + i);
+    }
+    return traceIds;
+  }
+
+  private static HttpExchange exchange(int i) {
+    return new HttpExchange("trace-" + i, System.currentTimeMillis(), 0L, 1_000_000L, "GET", "/users/" + i, null,
+        "127.0.0.1", Map.of("Accept", "application/json"), null, false, 200, "{}", false);
+  }
+}
@@ -0,0 +1,96 @@
+package cn.maiaimei.logger;
+
+import static cn.maiaimei.constants.RequestResponseConstants.METHOD;
+import static cn.maiaimei.constants.RequestResponseConstants.STATUS;
+import static cn.maiaimei.constants.RequestResponseConstants.TRACE_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.filter.properties.RequestLoggingFilterProperties;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+public class RequestResponseLoggerTest {
+
+  @Test
+  void testLogEventReachesLogRequestAndLogResponse() {
+    MapLogger logger = new MapLogger();
+
+    logger.logEvent(newEvent());
+
+    assertThat(logger.requests).singleElement().satisfies(data -> {
+      assertThat(data).containsEntry(TRACE_ID, "trace-1").containsEntry(METHOD, "POST");
+    });
+    assertThat(logger.responses).singleElement().satisfies(data -> {
+      assertThat(data).containsEntry(TRACE_ID, "trace-1").containsEntry(STATUS, 201);
+    });
+  }
+
+  @Test
+  void testAsyncLoggerDeliversToLogRequestAndLogResponse() {
+    MapLogger delegate = new MapLogger();
+    AsyncRequestResponseLogger logger = new AsyncRequestResponseLogger(delegate,
+        new RequestLoggingFilterProperties.Async());
+
+    logger.logEvent(newEvent());
+    logger.close();
+
+    assertThat(delegate.requests).hasSize(1);
+    assertThat(delegate.responses).singleElement().satisfies(data -> {
+      assertThat(data).containsEntry(STATUS, 201);
+    });
+  }
+
+  @Test
+  void testAsyncLoggerPassesMapsToExchangeOnlyDelegate() {
+    List<HttpExchange> exchanges = new CopyOnWriteArrayList<>();
+    RequestResponseLogger delegate = new RequestResponseLogger() {
+      @Override
+      public void logExchange(HttpExchange exchange) {
+        exchanges.add(exchange);
+      }
+    };
+    AsyncRequestResponseLogger logger = new AsyncRequestResponseLogger(delegate,
+        new RequestLoggingFilterProperties.Async());
+
+    logger.logRequest(Map.of(METHOD, "POST"));
+    logger.logResponse(Map.of(STATUS, 201));
+    logger.logEvent(newEvent());
+    logger.close();
+
+    assertThat(exchanges).singleElement().satisfies(exchange -> assertThat(exchange.status()).isEqualTo(201));
+  }
+
+  private static ExchangeEvent newEvent() {
+    ExchangeEvent event = new ExchangeEvent();
+    event.setTraceId("trace-1");
+    event.setTimestamp(System.currentTimeMillis());
+    event.setStartNanos(1_000_000);
+    event.setEndNanos(3_000_000);
+    event.setMethod("POST");
+    event.setUri("/users");
+    event.setStatus(201);
+    return event;
+  }
+
+  /**
+   * Implementation written against the original two-method interface.
+   */
+  private static class MapLogger implements RequestResponseLogger {
+
+    private final List<Map<String, Object>> requests = new CopyOnWriteArrayList<>();
+
+    private final List<Map<String, Object>> responses = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void logRequest(Map<String, Object> requestData) {
+      requests.add(requestData);
+    }
+
+    @Override
+    public void logResponse(Map<String, Object> responseData) {
+      responses.add(responseData);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package cn.maiaimei.logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class RingBufferTest {
+
+  private static final int PRODUCERS = 4;
+
+  private static final int ELEMENTS_PER_PRODUCER = 20_000;
+
+  @Test
+  void testCapacityIsRoundedUpToPowerOfTwo() {
+    assertThat(new RingBuffer<>(2).capacity()).isEqualTo(2);
+    assertThat(new RingBuffer<>(5).capacity()).isEqualTo(8);
+    assertThat(new RingBuffer<>(1024).capacity()).isEqualTo(1024);
+    assertThatThrownBy(() -> new RingBuffer<>(1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void testOfferFailsWhenFullAndSucceedsAfterPoll() {
+    RingBuffer<Integer> buffer = new RingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      assertThat(buffer.offer(i)).isTrue();
+    }
+
+    assertThat(buffer.offer(4)).isFalse();
+    assertThat(buffer.size()).isEqualTo(4);
+    assertThat(buffer.poll()).isZero();
+    assertThat(buffer.offer(4)).isTrue();
+  }
+
+  @Test
+  void testDrainIsFifoAcrossLapsAndBoundedByMaxElements() {
+    RingBuffer<Integer> buffer = new RingBuffer<>(4);
+    List<Integer> drained = new ArrayList<>();
+    int next = 0;
+    for (int lap = 0; lap < 5; lap++) {
+      while (buffer.offer(next)) {
+        next++;
+      }
+      assertThat(buffer.drain(drained::add, 3)).isEqualTo(3);
+      buffer.drain(drained::add, Integer.MAX_VALUE);
+    }
+
+    assertThat(drained).hasSize(next);
+    for (int i = 0; i < drained.size(); i++) {
+      assertThat(drained.get(i)).isEqualTo(i);
+    }
+    assertThat(buffer.isEmpty()).isTrue();
+    assertThat(buffer.poll()).isNull();
+  }
+
+  @Test
+  void testConcurrentProducersAndConsumerLoseNoElements() throws Exception {
+    RingBuffer<Integer> buffer = new RingBuffer<>(256);
+    Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+    int total = PRODUCERS * ELEMENTS_PER_PRODUCER;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + 1);
+    try {
+      List<Future<?>> producers = new ArrayList<>();
+      for (int p = 0; p < PRODUCERS; p++) {
+        int base = p * ELEMENTS_PER_PRODUCER;
+        producers.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < ELEMENTS_PER_PRODUCER; i++) {
+            while (!buffer.offer(base + i)) {
+              Thread.yield();
+            }
+          }
+          return null;
+        }));
+      }
+      Future<Boolean> consumer = executor.submit(() -> {
+        start.await();
+        int[] lastPerProducer = new int[PRODUCERS];
+        Arrays.fill(lastPerProducer, -1);
+        boolean ordered = true;
+        int count = 0;
+        while (count < total) {
+          Integer element = buffer.poll();
+          if (element == null) {
+            Thread.yield();
+            continue;
+          }
+          int producer = element / ELEMENTS_PER_PRODUCER;
+          ordered &= element > lastPerProducer[producer];
+          lastPerProducer[producer] = element;
+          consumed.add(element);
+          count++;
+        }
+        return ordered;
+      });
+      start.countDown();
+      for (Future<?> producer : producers) {
+        producer.get();
+      }
+
+      assertThat(consumer.get()).isTrue();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(consumed).hasSize(total);
+    assertThat(buffer.isEmpty()).isTrue();
+  }
+}
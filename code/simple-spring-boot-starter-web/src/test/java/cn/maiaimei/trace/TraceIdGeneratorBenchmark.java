@@ -0,0 +1,49 @@
+package cn.maiaimei.trace;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the built-in {@link TraceIdGenerator}s, shared by all benchmark threads as by the request threads,
+ * with {@code UUID.randomUUID().toString()}. Vary the thread count with {@code -t}, e.g. 1, 8 and 64:
+ *
+ * <pre>{@code
+ * java -cp <test classpath> org.openjdk.jmh.Main TraceIdGeneratorBenchmark -t 64 -prof gc
+ * }</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraceIdGeneratorBenchmark {
+
+  private final TraceIdGenerator randomTraceIdGenerator = new RandomTraceIdGenerator();
+
+  private final TraceIdGenerator timeOrderedTraceIdGenerator = new TimeOrderedTraceIdGenerator();
+
+  @Benchmark
+  public String random() {
+    return randomTraceIdGenerator.generate();
+  }
+
+  @Benchmark
+  public String timeOrdered() {
+    return timeOrderedTraceIdGenerator.generate();
+  }
+
+  @Benchmark
+  public String uuid() {
+    return UUID.randomUUID().toString();
+  }
+}
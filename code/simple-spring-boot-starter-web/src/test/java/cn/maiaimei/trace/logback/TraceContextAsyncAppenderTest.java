@@ -0,0 +1,62 @@
+package cn.maiaimei.trace.logback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.maiaimei.trace.TraceContext;
+import cn.maiaimei.trace.TraceContextHolder;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+public class TraceContextAsyncAppenderTest {
+
+  @Test
+  void testConvertersRenderContextBoundOnLoggingThread() {
+    LoggerContext loggerContext = new LoggerContext();
+    loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+    loggerContext.start();
+    FormattingAppender formattingAppender = new FormattingAppender();
+    formattingAppender.setContext(loggerContext);
+    formattingAppender.start();
+    TraceContextAsyncAppender asyncAppender = new TraceContextAsyncAppender();
+    asyncAppender.setContext(loggerContext);
+    asyncAppender.addAppender(formattingAppender);
+    asyncAppender.start();
+    Logger logger = loggerContext.getLogger(TraceContextAsyncAppenderTest.class);
+    logger.addAppender(asyncAppender);
+
+    TraceContext context = new TraceContext("4bf92f3577b34da6a3ce929d0e0e4736", TraceContext.nextSpanId(), 0,
+        true, null);
+    TraceContext previous = TraceContextHolder.bind(context);
+    try {
+      logger.info("scoped");
+    } finally {
+      TraceContextHolder.restore(previous);
+    }
+    logger.info("unscoped");
+    asyncAppender.stop();
+
+    assertThat(formattingAppender.lines).containsExactly(
+        context.getTraceId() + " " + context.getSpanIdHex() + " scoped", "  unscoped");
+  }
+
+  private static class FormattingAppender extends AppenderBase<ILoggingEvent> {
+
+    private final TraceIdConverter traceIdConverter = new TraceIdConverter();
+
+    private final SpanIdConverter spanIdConverter = new SpanIdConverter();
+
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+      lines.add(traceIdConverter.convert(event) + " " + spanIdConverter.convert(event) + " "
+          + event.getFormattedMessage());
+    }
+  }
+}
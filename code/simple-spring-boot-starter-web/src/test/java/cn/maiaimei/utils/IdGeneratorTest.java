@@ -0,0 +1,42 @@
+package cn.maiaimei.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class IdGeneratorTest {
+
+  private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+  @Test
+  void testIdsAreTimestampAndSequenceDigits() {
+    LocalDateTime before = LocalDateTime.now().withNano(0);
+    BigDecimal id = IdGenerator.nextId();
+    LocalDateTime after = LocalDateTime.now();
+
+    String digits = id.toPlainString();
+    assertThat(digits).hasSize(22);
+    LocalDateTime timestamp = LocalDateTime.parse(digits.substring(0, 17), DATE_TIME_FORMATTER);
+    assertThat(timestamp).isBetween(before, after);
+    assertThat(Integer.parseInt(digits.substring(17))).isBetween(0, 4095);
+  }
+
+  @Test
+  void testIdsAreUniqueAndIncreasingPastSequenceExhaustion() {
+    Set<BigDecimal> ids = new HashSet<>();
+    BigDecimal previous = BigDecimal.ZERO;
+    for (int i = 0; i < 20_000; i++) {
+      BigDecimal id = IdGenerator.nextId();
+      assertThat(id).isGreaterThan(previous);
+      previous = id;
+      ids.add(id);
+    }
+
+    assertThat(ids).hasSize(20_000);
+  }
+}
@@ -0,0 +1,63 @@
+package cn.maiaimei.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+
+public class JsonUtilsTest {
+
+  @Test
+  void testStreamRoundTripLeavesStreamsOpen() {
+    TrackingOutputStream out = new TrackingOutputStream();
+    JsonUtils.writeTo(out, Map.of("name", "alice"));
+    JsonUtils.writeTo(out, null);
+
+    assertThat(out.closed).isFalse();
+    assertThat(out.toString()).isEqualTo("{\"name\":\"alice\"}null");
+
+    TrackingInputStream in = new TrackingInputStream("{\"name\":\"bob\"}".getBytes());
+    Map<String, String> map = JsonUtils.readFrom(in, new TypeReference<Map<String, String>>() {
+    });
+
+    assertThat(in.closed).isFalse();
+    assertThat(map).containsExactly(Map.entry("name", "bob"));
+  }
+
+  @Test
+  void testCachedReadersByClassAndType() {
+    assertThat(JsonUtils.toList("[1,2]", Integer.class)).containsExactly(1, 2);
+    assertThat(JsonUtils.toObject("[\"a\"]".getBytes(), new TypeReference<List<String>>() {
+    })).containsExactly("a");
+    List<?> list = JsonUtils.toObject(JsonUtils.toJsonBytes(List.of(3)), List.class);
+    assertThat(list).isEqualTo(List.of(3));
+  }
+
+  private static class TrackingOutputStream extends ByteArrayOutputStream {
+
+    private boolean closed;
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static class TrackingInputStream extends ByteArrayInputStream {
+
+    private boolean closed;
+
+    TrackingInputStream(byte[] buf) {
+      super(buf);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}